@@ -1,38 +1,69 @@
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Scanner;
 
+import boundary.BatchCommandRunner;
+import boundary.FollowerConsole;
 import boundary.LoginView;
 import boundary.StudentView;
+import boundary.TenantConsole;
 import boundary.CompanyRepView;
 import boundary.CareerCenterStaffView;
-import control.AuthControl;
+import control.ChangeFeedReader;
 import control.DataLoader;
-import control.AccountApprovalService;
-import control.ApplicationService;
-import control.OpportunityService;
+import control.Follower;
+import control.ServiceGraph;
+import control.SystemStats;
+import control.Tenants;
 import entity.InternshipOpportunity;
 import entity.Student;
 import entity.CompanyRepresentative;
 import entity.CareerCenterStaff;
 import entity.User;
-import entity.WithdrawalRequest;
-import entity.Application;
 
 public class IPMSApp {
+    private static final long FOLLOW_INTERVAL_MILLIS = 1000;
+
     public static void main(String[] args) {
-        DataLoader loader = new DataLoader();
+        if (args.length > 1 && args[0].equals("--changes")) {
+            System.exit(printChanges(args[1], args.length > 2 ? Integer.parseInt(args[2]) : 1000));
+        }
+
+        if (args.length > 1 && args[0].equals("--follow")) {
+            System.exit(follow(new File(args[1]), args.length > 2 ? args[2] : "follower"));
+        }
+
+        if (args.length > 1 && args[0].equals("--tenants")) {
+            boolean tenantBatch = args.length > 2 && args[2].equals("--batch");
+            System.exit(serveTenants(new File(args[1]), tenantBatch, tenantBatch && args.length > 3 ? args[3] : null));
+        }
 
-        List<User> users = loader.loadUsers();
+        boolean batch = args.length > 0 && args[0].equals("--batch");
+        PrintStream results = System.out;
+        if (batch) System.setOut(System.err);
 
-        List<InternshipOpportunity> opportunities = loader.loadOpportunities();
-        List<Application> applications = loader.loadApplications();
-        List<WithdrawalRequest> withdrawals = loader.loadWithdrawalRequests();
+        SystemStats stats = new SystemStats();
+        DataLoader loader;
+        try {
+            loader = new DataLoader(stats);
+        } catch (IllegalStateException e) {
+            System.err.println("storage error: " + e.getMessage());
+            System.exit(2);
+            return;
+        }
 
-        OpportunityService oppService = new OpportunityService(opportunities, loader);
-        ApplicationService appService = new ApplicationService(applications, opportunities, withdrawals, loader);
+        ServiceGraph graph = ServiceGraph.open(loader, stats);
+        List<User> users = graph.users();
+        List<InternshipOpportunity> opportunities = graph.opportunities();
 
         if (users.isEmpty()) {
-            System.out.println("no users loaded. please check your serialized/users.ser file.");
+            System.out.println("no users loaded. please check your serialized/users.bin file.");
             return;
         } else {
             System.out.println(users.size() + " users loaded.");
@@ -40,33 +71,172 @@ public class IPMSApp {
 
         System.out.println(opportunities.size() + " internship opportunities loaded.\n");
 
+        if (batch) {
+            BatchCommandRunner runner = new BatchCommandRunner(() -> graph, stats, results, false);
+            int exitCode;
+            try (BufferedReader in = new BufferedReader(args.length > 1 ? new FileReader(args[1]) : new InputStreamReader(System.in))) {
+                exitCode = runner.run(in) == 0 ? 0 : 1;
+            } catch (IOException e) {
+                System.err.println("batch error: " + e.getMessage());
+                exitCode = 2;
+            }
+            graph.close();
+            System.exit(exitCode);
+        }
+
         try (Scanner sc = new Scanner(System.in)) {
-            AuthControl auth = new AuthControl(users);
-            AccountApprovalService approval = new AccountApprovalService(users, loader);
+            runSessions(sc, graph, stats);
+        } finally {
+            graph.close();
+        }
+    }
 
+    /**
+     * logs users in one after another until the login screen is left.
+     * @param sc
+     * @param g
+     * @param stats
+     */
+    private static void runSessions(Scanner sc, ServiceGraph g, SystemStats stats) {
+        DataLoader loader = g.loader();
+        List<User> users = g.users();
+        while (true) {
+            LoginView login = new LoginView(sc);
+            User logged = login.run(g.auth(), g.approval());
+
+            if (logged == null) {
+                System.out.println("bye!");
+                break;
+            }
+
+            stats.sessionStarted();
+            if (logged instanceof Student s) {
+                new StudentView(sc, s, users, loader, g.oppService(), g.appService(), g.recommendations()).run();
+            } else if (logged instanceof CompanyRepresentative cr) {
+                new CompanyRepView(sc, cr, users, loader, g.oppService(), g.appService()).run();
+            } else if (logged instanceof CareerCenterStaff staff) {
+                new CareerCenterStaffView(sc, staff, users, loader, g.approval(), g.oppService(), g.appService(),
+                        g.archive(), stats, g.placements(), g.activity()).run();
+            }
+            stats.sessionEnded();
+
+            g.auth().logout(logged);
+            g.saveAll();
+        }
+    }
+
+    /**
+     * serves every tenant directory under {@code home} from this one process. interactively, asks
+     * which tenant to use before each run of the login screen; in batch mode the script picks with
+     * {@code tenant <name>}.
+     * @param home
+     * @param batch
+     * @param script batch file, null for stdin
+     * @return int exit code
+     */
+    private static int serveTenants(File home, boolean batch, String script) {
+        Tenants tenants;
+        try {
+            tenants = new Tenants(home);
+        } catch (IllegalArgumentException e) {
+            System.err.println("tenant error: " + e.getMessage());
+            return 2;
+        }
+
+        if (batch) {
+            PrintStream results = System.out;
+            System.setOut(System.err);
+            try (BufferedReader in = new BufferedReader(script != null ? new FileReader(script) : new InputStreamReader(System.in))) {
+                return new TenantConsole(tenants, results).run(in) == 0 ? 0 : 1;
+            } catch (IOException e) {
+                System.err.println("batch error: " + e.getMessage());
+                return 2;
+            }
+        }
+
+        try (Scanner sc = new Scanner(System.in)) {
             while (true) {
-                LoginView login = new LoginView(sc);
-                User logged = login.run(auth, approval);
+                System.out.println("Tenants: " + String.join(", ", tenants.names()));
+                System.out.print("Enter tenant ('#' to exit): ");
+                if (!sc.hasNextLine()) break;
+                String name = sc.nextLine().trim();
+                if (name.equals("#")) break;
 
-                if (logged == null) {
-                    System.out.println("bye!");
-                    break;
+                Tenants.Tenant tenant;
+                try {
+                    tenant = tenants.open(name);
+                } catch (IllegalArgumentException | IllegalStateException e) {
+                    System.out.println("✗ " + e.getMessage() + "\n");
+                    continue;
                 }
-
-                if (logged instanceof Student s) {
-                    new StudentView(sc, s, users, loader, oppService, appService).run();
-                } else if (logged instanceof CompanyRepresentative cr) {
-                    new CompanyRepView(sc, cr, users, loader, oppService, appService).run();
-                } else if (logged instanceof CareerCenterStaff staff) {
-                    new CareerCenterStaffView(sc, staff, users, loader, approval, oppService, appService).run();
+                if (tenant.graph().users().isEmpty()) {
+                    System.out.println("✗ no users loaded for " + tenant.name() + ". please check its data/ folder.\n");
+                    continue;
                 }
+                runSessions(sc, tenant.graph(), tenant.stats());
+            }
+        } finally {
+            tenants.closeAll();
+        }
+        return 0;
+    }
 
-                auth.logout(logged);
-                loader.saveUsers(users);           
-                loader.saveOpportunities(opportunities); 
-                loader.saveApplications(applications);   
-                loader.saveWithdrawalRequests(withdrawals);
+    /**
+     * runs as a warm standby of the primary in {@code primaryDir}, answering read-only commands on
+     * stdin. after {@code promote} it carries on from the working directory as the primary, with
+     * the usual login screen reading the rest of stdin.
+     * @param primaryDir
+     * @param consumer
+     * @return int exit code
+     */
+    private static int follow(File primaryDir, String consumer) {
+        PrintStream results = System.out;
+        System.setOut(System.err);
+        try {
+            if (primaryDir.getCanonicalFile().equals(new File(".").getCanonicalFile())) {
+                System.err.println("a follower must run from its own directory, not the primary's");
+                return 2;
             }
+            SystemStats stats = new SystemStats();
+            Follower follower = new Follower(primaryDir, consumer, new DataLoader(stats), stats);
+            follower.start(FOLLOW_INTERVAL_MILLIS);
+            System.err.println("following " + primaryDir + " as '" + consumer + "' from record " + follower.getAppliedSeq());
+
+            BufferedReader in = new BufferedReader(new InputStreamReader(System.in));
+            ServiceGraph promoted = new FollowerConsole(follower, stats, results).run(in);
+            if (promoted == null) return 0;
+
+            System.setOut(results);
+            System.out.println("promoted; now running as primary from " + new File(".").getCanonicalPath() + "\n");
+            try (Scanner sc = new Scanner(in)) {
+                runSessions(sc, promoted, stats);
+            } finally {
+                promoted.close();
+            }
+            return 0;
+        } catch (IOException | IllegalArgumentException | IllegalStateException e) {
+            System.err.println("follower error: " + e.getMessage());
+            return 2;
+        }
+    }
+
+    /**
+     * prints the change records the consumer has not seen yet, one json line each, and commits them.
+     * @param consumer
+     * @param max
+     * @return int exit code
+     */
+    private static int printChanges(String consumer, int max) {
+        ChangeFeedReader feed = new ChangeFeedReader(Path.of(DataLoader.CHANGES_FOLDER));
+        try {
+            List<String> records = feed.poll(consumer, max);
+            records.forEach(System.out::println);
+            System.out.flush();
+            if (!records.isEmpty()) feed.commit(consumer, ChangeFeedReader.seqOf(records.get(records.size() - 1)));
+            return 0;
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("change feed error: " + e.getMessage());
+            return 2;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,137 @@
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import entity.CompanyRepresentative;
+import entity.InternshipOpportunity;
+import enumerations.AccountStatus;
+import enumerations.InternshipLevel;
+import enumerations.Major;
+import ui.ConsoleUI;
+
+/**
+ * compares printing the all-opportunities table with one printf per row against {@link ConsoleUI.Table}.
+ * the console is modelled like System.out (autoflushing, 128-byte buffer) over a sink that counts
+ * the writes reaching the terminal.
+ * usage: java -cp out:bench TableRenderBenchmark [rows]
+ */
+public class TableRenderBenchmark {
+    private static final int ROUNDS = 10;
+    private static final String RULE = "-".repeat(217);
+
+    public static void main(String[] args) throws Exception {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 5_000;
+        List<InternshipOpportunity> opps = generate(rows, new Random(42));
+        PrintStream console = System.out;
+
+        ByteArrayOutputStream a = new ByteArrayOutputStream();
+        ByteArrayOutputStream b = new ByteArrayOutputStream();
+        render(opps, a, false);
+        render(opps, b, true);
+        if (!Arrays.equals(a.toByteArray(), b.toByteArray())) throw new IllegalStateException("outputs differ");
+
+        for (int i = 0; i < 3; i++) {
+            render(opps, OutputStream.nullOutputStream(), false);
+            render(opps, OutputStream.nullOutputStream(), true);
+        }
+
+        CountingSink printfSink = new CountingSink();
+        CountingSink tableSink = new CountingSink();
+        long printf = time(() -> render(opps, printfSink, false));
+        long table = time(() -> render(opps, tableSink, true));
+        System.setOut(console);
+
+        System.out.printf("%-22s %14s %14s%n", "(" + rows + " rows)", "printf", "table");
+        System.out.printf("%-22s %14.1f %14.1f%n", "render (ms)", printf / 1e6, table / 1e6);
+        System.out.printf("%-22s %14.0f %14.0f%n", "rows per second", rows * 1e9 / printf, rows * 1e9 / table);
+        System.out.printf("%-22s %14d %14d%n", "writes per page", printfSink.writes / ROUNDS, tableSink.writes / ROUNDS);
+    }
+
+    private static void render(List<InternshipOpportunity> opps, OutputStream sink, boolean buffered) {
+        System.setOut(new PrintStream(new BufferedOutputStream(sink, 128), true, StandardCharsets.UTF_8));
+        if (buffered) printTable(opps);
+        else printPerRow(opps);
+    }
+
+    private static void printPerRow(List<InternshipOpportunity> list) {
+        System.out.printf(
+                "%-4s %-15s %-25s %-20s %-20s %-20s %-20s %-12s %-16s %-16s %-16s %-20s%n",
+                "S/N", "Opportunity ID", "Internship Title", "Preferred Major",
+                "Internship Level", "Number of Slots", "Company",
+                "Open Date", "Closing Date", "Status", "Visibility", "Applications P/S/A/W"
+        );
+        System.out.println(RULE);
+
+        int i = 1;
+        for (InternshipOpportunity o : list) {
+            String slotsStr = String.format("%d/%d", o.getConfirmedSlots(), o.getSlots());
+            System.out.printf(
+                    "%-4d %-15s %-25s %-20s %-20s %-20s %-20s %-12s %-16s %-16s %-16s %-20s%n",
+                    i++, o.getId(), o.getTitle(), String.valueOf(o.getPreferredMajor()),
+                    String.valueOf(o.getLevel()), slotsStr, o.getCompanyName(),
+                    String.valueOf(o.getOpenDate()), String.valueOf(o.getCloseDate()),
+                    o.getStatus(), o.isVisible() ? "ON" : "OFF", o.getCounts().toString()
+            );
+        }
+        System.out.println("\n(Total: " + list.size() + " internship opportunities)\n");
+    }
+
+    private static void printTable(List<InternshipOpportunity> list) {
+        ConsoleUI.Table table = new ConsoleUI.Table(4, 15, 25, 20, 20, 20, 20, 12, 16, 16, 16, 20);
+        table.row("S/N", "Opportunity ID", "Internship Title", "Preferred Major",
+                "Internship Level", "Number of Slots", "Company",
+                "Open Date", "Closing Date", "Status", "Visibility", "Applications P/S/A/W");
+        table.line(RULE);
+
+        int i = 1;
+        for (InternshipOpportunity o : list) {
+            table.row(i++, o.getId(), o.getTitle(), o.getPreferredMajor(),
+                    o.getLevel(), o.getConfirmedSlots() + "/" + o.getSlots(), o.getCompanyName(),
+                    o.getOpenDate(), o.getCloseDate(),
+                    o.getStatus(), o.isVisible() ? "ON" : "OFF", o.getCounts());
+        }
+        table.line("\n(Total: " + list.size() + " internship opportunities)\n").print();
+    }
+
+    private static List<InternshipOpportunity> generate(int rows, Random rnd) {
+        Major[] majors = Major.values();
+        InternshipLevel[] levels = InternshipLevel.values();
+        List<InternshipOpportunity> opps = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            CompanyRepresentative rep = new CompanyRepresentative("rep" + (i % 200) + "@company.com", "Rep",
+                    "Company " + (i % 50), "HR", "Recruiter", AccountStatus.APPROVED);
+            LocalDate open = LocalDate.of(2025, 1, 1).plusDays(rnd.nextInt(200));
+            opps.add(new InternshipOpportunity(String.format("ITP-%06d", i), "Software Engineering Intern " + i,
+                    "", levels[i % levels.length], majors[i % majors.length], open,
+                    open.plusDays(30 + rnd.nextInt(60)), rep.getCompanyName(), 1 + rnd.nextInt(10), rep));
+        }
+        return opps;
+    }
+
+    private static long time(Runnable r) {
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) r.run();
+        return (System.nanoTime() - start) / ROUNDS;
+    }
+
+    private static final class CountingSink extends OutputStream {
+        long writes;
+
+        @Override
+        public void write(int b) {
+            writes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            writes++;
+        }
+    }
+}
@@ -0,0 +1,337 @@
+package boundary;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import control.ActivitySeries;
+import control.DataLoader;
+import control.Json;
+import control.OpportunityQueryCache;
+import control.ServiceGraph;
+import control.SystemStats;
+import entity.CareerCenterStaff;
+import entity.CompanyRepresentative;
+import entity.FilterCriteria;
+import entity.InternshipOpportunity;
+import entity.Report;
+import entity.User;
+import enumerations.AccountStatus;
+import enumerations.InternshipLevel;
+import enumerations.Major;
+import enumerations.OpportunityStatus;
+
+/**
+ * runs staff commands from a script or stdin without the menus, for scheduled jobs.
+ * one command per line, '#' starts a comment:
+ * <pre>
+ * login &lt;staffId&gt; &lt;password&gt;
+ * import students|staff|reps &lt;csv&gt;
+ * approve|reject reps|opportunities|withdrawals all|&lt;id,id,...&gt;
+ * allocate
+ * archive
+ * export report &lt;csv&gt; [status=..] [major=..] [level=..] [company=..]
+ * export activity &lt;csv&gt; [from=yyyy-mm-dd] [to=yyyy-mm-dd] [bucket=days]
+ * stats
+ * save
+ * </pre>
+ * saves are held back and written once when the script ends or on {@code save}.
+ * a read-only runner, as a follower uses, rejects the commands that change data.
+ * each command prints one json object per line to the result stream; the services' own
+ * messages are left on whatever System.out is.
+ */
+public class BatchCommandRunner {
+    private static final Set<String> MUTATING = Set.of("import", "approve", "reject", "allocate", "archive", "save");
+
+    private final Supplier<ServiceGraph> graph;
+    private final SystemStats stats;
+    private final PrintStream out;
+    private final boolean readOnly;
+    private CareerCenterStaff staff;
+
+    /**
+     * @param graph the services to run against, looked up again for every command
+     * @param stats
+     * @param out where results go
+     * @param readOnly rejects the commands that change data, for a follower
+     */
+    public BatchCommandRunner(Supplier<ServiceGraph> graph, SystemStats stats, PrintStream out, boolean readOnly) {
+        this.graph = Objects.requireNonNull(graph, "graph must not be null");
+        this.stats = Objects.requireNonNull(stats, "stats must not be null");
+        this.out = Objects.requireNonNull(out, "out must not be null");
+        this.readOnly = readOnly;
+    }
+
+    /**
+     * @param in
+     * @return int number of commands that failed
+     * @throws IOException
+     */
+    public int run(BufferedReader in) throws IOException {
+        int failed = 0;
+        int lineNo = 0;
+        DataLoader loader = graph.get().loader();
+        loader.deferSaves();
+        try {
+            String line;
+            while ((line = in.readLine()) != null) {
+                Map<String, Object> result = runLine(line, ++lineNo);
+                if (result == null) continue;
+                if (!Boolean.TRUE.equals(result.get("ok"))) failed++;
+                out.println(Json.encode(result));
+            }
+        } finally {
+            loader.flushSaves();
+            logout();
+        }
+        return failed;
+    }
+
+    /**
+     * @param line
+     * @param lineNo
+     * @return map&lt;string, object&gt; the result, null for a blank or comment line
+     */
+    public Map<String, Object> runLine(String line, int lineNo) {
+        int hash = line.indexOf('#');
+        if (hash >= 0) line = line.substring(0, hash);
+        if (line.isBlank()) return null;
+
+        String[] t = line.trim().split("\\s+");
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("line", lineNo);
+        result.put("command", t[0].toLowerCase());
+        try {
+            execute(t, graph.get(), result);
+            result.put("ok", true);
+        } catch (IllegalArgumentException | IllegalStateException | IOException e) {
+            result.put("ok", false);
+            result.put("error", e.getMessage());
+        }
+        return result;
+    }
+
+    /**
+     * ends the script's staff session, if it logged in.
+     */
+    public void logout() {
+        if (staff != null) graph.get().auth().logout(staff);
+        staff = null;
+    }
+
+    /**
+     * @param t
+     * @param g
+     * @param result
+     * @throws IOException
+     */
+    private void execute(String[] t, ServiceGraph g, Map<String, Object> result) throws IOException {
+        String command = t[0].toLowerCase();
+        if (readOnly && MUTATING.contains(command)) {
+            throw new IllegalStateException("read-only follower; promote it first");
+        }
+        switch (command) {
+            case "login" -> {
+                require(t, 3, "login <staffId> <password>");
+                if (!(g.auth().login(t[1], t[2], 3) instanceof CareerCenterStaff s)) {
+                    throw new IllegalArgumentException("invalid staff id or password");
+                }
+                staff = s;
+                result.put("user", s.getId());
+            }
+            case "import" -> {
+                require(t, 3, "import students|staff|reps <csv>");
+                importUsers(g, t[1], t[2], result);
+            }
+            case "approve", "reject" -> {
+                require(t, 3, t[0] + " reps|opportunities|withdrawals all|<id,id,...>");
+                review(g, t[1].toLowerCase(), t[2], t[0].equalsIgnoreCase("approve"), result);
+            }
+            case "allocate" -> result.put("placed", g.appService().allocateSlots(staff()));
+            case "archive" -> result.put("archived", g.archive().archiveClosedRecords(staff()));
+            case "export" -> {
+                require(t, 3, "export report|activity <csv> [filters]");
+                String[] filters = Arrays.copyOfRange(t, 3, t.length);
+                switch (t[1].toLowerCase()) {
+                    case "report" -> exportReport(g, t[2], filters, result);
+                    case "activity" -> exportActivity(g, t[2], filters, result);
+                    default -> throw new IllegalArgumentException("unknown export: " + t[1]);
+                }
+            }
+            case "stats" -> printStats(g, result);
+            case "save" -> {
+                g.loader().flushSaves();
+                g.loader().deferSaves();
+            }
+            default -> throw new IllegalArgumentException("unknown command: " + t[0]);
+        }
+    }
+
+    /**
+     * @param g
+     * @param kind
+     * @param path
+     * @param result
+     * @throws IOException
+     */
+    private void importUsers(ServiceGraph g, String kind, String path, Map<String, Object> result) throws IOException {
+        staff();
+        int added = 0;
+        int skipped = 0;
+        for (User u : g.loader().importUsers(kind, path)) {
+            boolean ok = u instanceof CompanyRepresentative cr && cr.getStatus() == AccountStatus.PENDING
+                    ? g.approval().submitCompanyRepRegistration(cr)
+                    : g.auth().addUser(u);
+            if (ok) added++;
+            else skipped++;
+        }
+        if (added > 0) g.loader().saveUsers(g.users());
+        result.put("added", added);
+        result.put("skipped", skipped);
+    }
+
+    /**
+     * @param g
+     * @param target
+     * @param which
+     * @param approve
+     * @param result
+     */
+    private void review(ServiceGraph g, String target, String which, boolean approve, Map<String, Object> result) {
+        CareerCenterStaff s = staff();
+        boolean all = which.equalsIgnoreCase("all");
+        List<String> ids = Arrays.asList(which.split(","));
+        int reviewed = switch (target) {
+            case "reps" -> all ? g.approval().reviewCompanyReps(s, cr -> true, approve)
+                               : g.approval().reviewCompanyReps(s, ids, approve);
+            case "opportunities" -> all ? g.oppService().reviewOpportunities(s, o -> true, approve)
+                                        : g.oppService().reviewOpportunities(s, ids, approve);
+            case "withdrawals" -> all ? g.appService().reviewWithdrawalRequests(s, r -> true, approve)
+                                      : g.appService().reviewWithdrawalRequests(s, ids, approve);
+            default -> throw new IllegalArgumentException("unknown review target: " + target);
+        };
+        result.put("target", target);
+        result.put("reviewed", reviewed);
+    }
+
+    /**
+     * @param g
+     * @param path
+     * @param filters
+     * @param result
+     * @throws IOException
+     */
+    private void exportReport(ServiceGraph g, String path, String[] filters, Map<String, Object> result) throws IOException {
+        FilterCriteria criteria = new FilterCriteria();
+        for (String f : filters) {
+            String[] kv = f.split("=", 2);
+            if (kv.length < 2) throw new IllegalArgumentException("expected key=value: " + f);
+            switch (kv[0].toLowerCase()) {
+                case "status" -> criteria.setStatus(OpportunityStatus.valueOf(kv[1].toUpperCase()));
+                case "major" -> criteria.setPreferredMajor(Major.valueOf(kv[1].toUpperCase()));
+                case "level" -> criteria.setLevel(InternshipLevel.valueOf(kv[1].toUpperCase()));
+                case "company" -> criteria.setCompany(kv[1]);
+                default -> throw new IllegalArgumentException("unknown filter: " + kv[0]);
+            }
+        }
+
+        List<InternshipOpportunity> matched = g.oppService().filter(g.oppService().getAllOpportunities(), criteria);
+        g.loader().exportReport(new Report(staff(), criteria, matched), path);
+        result.put("file", path);
+        result.put("opportunities", matched.size());
+    }
+
+    /**
+     * @param g
+     * @param path
+     * @param options
+     * @param result
+     * @throws IOException
+     */
+    private void exportActivity(ServiceGraph g, String path, String[] options, Map<String, Object> result) throws IOException {
+        staff();
+        ActivitySeries activity = g.activity();
+        LocalDate to = activity.getLastDay();
+        LocalDate from = to.minusDays(29);
+        int bucket = 1;
+        for (String f : options) {
+            String[] kv = f.split("=", 2);
+            if (kv.length < 2) throw new IllegalArgumentException("expected key=value: " + f);
+            try {
+                switch (kv[0].toLowerCase()) {
+                    case "from" -> from = LocalDate.parse(kv[1]);
+                    case "to" -> to = LocalDate.parse(kv[1]);
+                    case "bucket" -> bucket = Integer.parseInt(kv[1]);
+                    default -> throw new IllegalArgumentException("unknown option: " + kv[0]);
+                }
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("expected yyyy-mm-dd: " + kv[1]);
+            }
+        }
+
+        g.loader().exportActivity(activity, from, to, bucket, path);
+        result.put("file", path);
+        result.put("from", from);
+        result.put("to", to);
+        result.put("applied", activity.total(ActivitySeries.Series.APPLIED, from, to));
+    }
+
+    /**
+     * @param g
+     * @param result
+     */
+    private void printStats(ServiceGraph g, Map<String, Object> result) {
+        long[] heap = stats.getHeap();
+        result.put("uptimeMinutes", stats.getUptimeMinutes());
+        result.put("heapUsed", heap[0]);
+        result.put("heapMax", heap[1]);
+        result.put("queues", stats.getQueueDepths());
+
+        OpportunityQueryCache.Stats cache = g.oppService().getQueryCacheStats();
+        Map<String, Object> queryCache = new LinkedHashMap<>();
+        queryCache.put("entries", cache.entries());
+        queryCache.put("hits", cache.hits());
+        queryCache.put("misses", cache.misses());
+        queryCache.put("hitRate", cache.hitRate());
+        queryCache.put("evictions", cache.evictions());
+        queryCache.put("invalidations", cache.invalidations());
+        result.put("queryCache", queryCache);
+
+        Map<String, Object> ops = new LinkedHashMap<>();
+        for (SystemStats.OperationSummary op : stats.getOperations()) {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("count", op.count());
+            m.put("p50Micros", op.p50Micros());
+            m.put("p99Micros", op.p99Micros());
+            m.put("maxMicros", op.maxMicros());
+            ops.put(op.name(), m);
+        }
+        result.put("operations", ops);
+    }
+
+    /**
+     * @return CareerCenterStaff
+     */
+    private CareerCenterStaff staff() {
+        if (staff == null) throw new IllegalStateException("login required");
+        return staff;
+    }
+
+    /**
+     * @param t
+     * @param n
+     * @param usage
+     */
+    private static void require(String[] t, int n, String usage) {
+        if (t.length < n) throw new IllegalArgumentException("usage: " + usage);
+    }
+}
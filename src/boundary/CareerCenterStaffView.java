@@ -1,24 +1,39 @@
 package boundary;
 
-import java.io.FileWriter;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 import control.AccountApprovalService;
+import control.ActivitySeries;
+import control.OpportunityQueryCache;
+import control.OpportunityQueryCache.Scope;
+import control.ApplicationHistory;
+import control.ArchiveService;
 import control.DataLoader;
+import control.EligibilityMatrix;
 import control.ApplicationService;
 import control.OpportunityService;
+import control.PlacementCube;
+import control.SystemStats;
+import control.VersionedList;
+import entity.Application;
+import entity.ApplicationCounts;
 import entity.CareerCenterStaff;
 import entity.CompanyRepresentative;
 import entity.FilterCriteria;
 import entity.InternshipOpportunity;
 import entity.Report;
+import entity.Student;
 import entity.User;
 import entity.WithdrawalRequest;
+import enumerations.ApplicationStatus;
 import enumerations.InternshipLevel;
 import enumerations.Major;
 import enumerations.OpportunityStatus;
@@ -32,12 +47,16 @@ public class CareerCenterStaffView {
     private final AccountApprovalService approval;
     private final OpportunityService oppService;
     private final ApplicationService applicationService;
+    private final ArchiveService archiveService;
+    private final SystemStats stats;
+    private final PlacementCube placements;
+    private final ActivitySeries activity;
 
     private final FilterCriteria allOppFilter = new FilterCriteria();
     private String allOppSortKey = "title";     
     private boolean allOppSortDescending = false;
 
-    public CareerCenterStaffView(Scanner sc, CareerCenterStaff staff, List<User> users, DataLoader loader, AccountApprovalService approval, OpportunityService oppService, ApplicationService applicationService) {
+    public CareerCenterStaffView(Scanner sc, CareerCenterStaff staff, List<User> users, DataLoader loader, AccountApprovalService approval, OpportunityService oppService, ApplicationService applicationService, ArchiveService archiveService, SystemStats stats, PlacementCube placements, ActivitySeries activity) {
         this.sc = sc;
         this.staff = staff;
         this.users = users;
@@ -45,6 +64,10 @@ public class CareerCenterStaffView {
         this.approval = approval;
         this.oppService = oppService;
         this.applicationService = applicationService;
+        this.archiveService = archiveService;
+        this.stats = stats;
+        this.placements = placements;
+        this.activity = activity;
     }
 
     public void run() {
@@ -69,6 +92,13 @@ public class CareerCenterStaffView {
                 case "6" -> viewAllInternshipOpportunities();
                 case "7" -> viewAllWithdrawalRequests();
                 case "8" -> generateReports();
+                case "9" -> generateEligibilityReport();
+                case "10" -> runSlotAllocation();
+                case "11" -> viewApplicationHistoryReport();
+                case "12" -> archiveClosedRecords();
+                case "13" -> viewArchivedRecords();
+                case "14" -> viewSystemDashboard();
+                case "15" -> viewActivityHistogram();
                 case "logout" -> {
                     System.out.println("\n✓ You have logged out of your account.\n");
                     return;
@@ -91,6 +121,13 @@ public class CareerCenterStaffView {
         System.out.println("(6) View All Internship Opportunities");
         System.out.println("(7) View All Withdrawal Requests");
         System.out.println("(8) Generate Internship Opportunities Report");
+        System.out.println("(9) Generate Student Eligibility Report");
+        System.out.println("(10) Run Slot Allocation");
+        System.out.println("(11) View Application History Report");
+        System.out.println("(12) Archive Closed Records");
+        System.out.println("(13) View Archived Records");
+        System.out.println("(14) View System Dashboard");
+        System.out.println("(15) View Activity Histogram");
         System.out.println();
         System.out.println("→ Type 'logout' here to logout");
         System.out.println();
@@ -213,7 +250,7 @@ public class CareerCenterStaffView {
         CompanyRepresentative selected = null;
 
         while (true) {
-            System.out.print("Enter Company Representative ID to review (blank to cancel): ");
+            System.out.print("Enter Company Representative ID(s) to review, comma-separated or 'all' (blank to cancel): ");
             String id = sc.nextLine().trim();
 
             if (id.isEmpty()) {
@@ -222,14 +259,24 @@ public class CareerCenterStaffView {
                 return;
             }
 
-            selected = pending.stream()
-                    .filter(r -> r.getId().equalsIgnoreCase(id))
-                    .findFirst()
-                    .orElse(null);
-
-            if (selected != null) break;
+            List<CompanyRepresentative> chosen = ConsoleUI.selectByIds(id, pending, CompanyRepresentative::getId);
+            if (chosen == null || chosen.isEmpty()) continue;
+            if (chosen.size() == 1) {
+                selected = chosen.get(0);
+                break;
+            }
 
-            System.out.println("✗ Invalid Company Representative ID. Please try again.\n");
+            Boolean approve = askBulkDecision(chosen.size(), "company representative applications");
+            if (approve != null) {
+                int n = approval.reviewCompanyReps(staff, chosen.stream().map(User::getId).toList(), approve);
+                System.out.println("✓ " + n + " company representative application(s) " + (approve ? "approved." : "rejected."));
+            } else {
+                System.out.println("Review cancelled.");
+            }
+            System.out.print("\nPress enter to return... ");
+            sc.nextLine();
+            ConsoleUI.sectionHeader("Career Center Staff View");
+            return;
         }
 
         System.out.println("\n────────────────────────────────────────────────────────────");
@@ -296,7 +343,7 @@ public class CareerCenterStaffView {
 
         while (true) {
             System.out.println();
-            System.out.print("Enter Opportunity ID to review (blank to cancel): ");
+            System.out.print("Enter Opportunity ID(s) to review, comma-separated or 'all' (blank to cancel): ");
             String id = sc.nextLine().trim();
 
             if (id.isEmpty()) {
@@ -305,14 +352,24 @@ public class CareerCenterStaffView {
                 return;
             }
 
-            selected = pending.stream()
-                    .filter(o -> o.getId().equalsIgnoreCase(id))
-                    .findFirst()
-                    .orElse(null);
-
-            if (selected != null) break;
+            List<InternshipOpportunity> chosen = ConsoleUI.selectByIds(id, pending, InternshipOpportunity::getId);
+            if (chosen == null || chosen.isEmpty()) continue;
+            if (chosen.size() == 1) {
+                selected = chosen.get(0);
+                break;
+            }
 
-            System.out.println("✗ Invalid Opportunity ID. Please try again.\n");
+            Boolean approve = askBulkDecision(chosen.size(), "internship opportunities");
+            if (approve != null) {
+                int n = oppService.reviewOpportunities(staff, chosen.stream().map(InternshipOpportunity::getId).toList(), approve);
+                System.out.println("✓ " + n + " internship opportunit" + (n == 1 ? "y " : "ies ") + (approve ? "approved." : "rejected."));
+            } else {
+                System.out.println("Review cancelled.");
+            }
+            System.out.print("\nPress enter to return... ");
+            sc.nextLine();
+            ConsoleUI.sectionHeader("Career Center Staff View");
+            return;
         }
 
         System.out.println();
@@ -346,6 +403,19 @@ public class CareerCenterStaffView {
         ConsoleUI.sectionHeader("Career Center Staff View"); 
     }
 
+    /** 
+     * @param count
+     * @param what
+     * @return Boolean true to approve, false to reject, null when cancelled
+     */
+    private Boolean askBulkDecision(int count, String what) {
+        System.out.print("\nApprove (y) or reject (n) all " + count + " selected " + what + "? (blank to cancel): ");
+        String decision = sc.nextLine().trim().toLowerCase();
+        if (decision.equals("y") || decision.equals("yes")) return true;
+        if (decision.equals("n") || decision.equals("no")) return false;
+        return null;
+    }
+
     private void viewAllRegistrations() {
         ConsoleUI.sectionHeader("Career Center Staff View > View All Company Representative Registrations");
 
@@ -398,14 +468,13 @@ public class CareerCenterStaffView {
             return;
         }
 
-        System.out.printf("%-4s %-10s %-15s %-15s %-15s %-20s %-15s %-20s%n",
-                "S/N", "Request ID", "Application ID", "Student ID", "Opportunity ID", "Internship Title", "Company", "Requested At");
-        System.out.println("---------------------------------------------------------------------------------------------------------------------------");
+        ConsoleUI.Table table = new ConsoleUI.Table(4, 14, 15, 15, 15, 20, 15, 20);
+        table.row("S/N", "Request ID", "Application ID", "Student ID", "Opportunity ID", "Internship Title", "Company", "Requested At");
+        table.line("-------------------------------------------------------------------------------------------------------------------------------");
 
         int i = 1;
         for (WithdrawalRequest req : pending) {
-            System.out.printf("%-4d %-10s %-15s %-15s %-15s %-20s %-15s %-20s%n",
-                    i++,
+            table.row(i++,
                     req.getId(),
                     req.getApplication().getId(),
                     req.getRequestedBy().getId(),
@@ -415,13 +484,13 @@ public class CareerCenterStaffView {
                     req.getRequestedAt());
         }
 
-        System.out.println("\n(Total: " + pending.size() + " pending withdrawal requests)\n");
+        table.line("\n(Total: " + pending.size() + " pending withdrawal requests)\n").print();
 
         WithdrawalRequest selected = null;
 
         while (true) {
             System.out.println();
-            System.out.print("Enter Request ID to review (blank to cancel): ");
+            System.out.print("Enter Request ID(s) to review, comma-separated or 'all' (blank to cancel): ");
             String id = sc.nextLine().trim();
 
             if (id.isEmpty()) {
@@ -430,14 +499,24 @@ public class CareerCenterStaffView {
                 return;
             }
 
-            selected = pending.stream()
-                    .filter(r -> r.getId().equalsIgnoreCase(id))
-                    .findFirst()
-                    .orElse(null);
-
-            if (selected != null) break;
+            List<WithdrawalRequest> chosen = ConsoleUI.selectByIds(id, pending, WithdrawalRequest::getId);
+            if (chosen == null || chosen.isEmpty()) continue;
+            if (chosen.size() == 1) {
+                selected = chosen.get(0);
+                break;
+            }
 
-            System.out.println("✗ Invalid Request ID. Please try again.\n");
+            Boolean approve = askBulkDecision(chosen.size(), "withdrawal requests");
+            if (approve != null) {
+                int n = applicationService.reviewWithdrawalRequests(staff, chosen.stream().map(WithdrawalRequest::getId).toList(), approve);
+                System.out.println("✓ " + n + " withdrawal request(s) " + (approve ? "approved." : "rejected."));
+            } else {
+                System.out.println("Request cancelled.");
+            }
+            System.out.print("\nPress enter to return... ");
+            sc.nextLine();
+            ConsoleUI.sectionHeader("Career Center Staff View");
+            return;
         }
 
         System.out.println("\n────────────────────────────────────────────────────────────");
@@ -478,37 +557,7 @@ public class CareerCenterStaffView {
                 return;
             }
 
-            List<InternshipOpportunity> filtered = all.stream()
-                    .filter(o -> allOppFilter.getStatus() == null
-                            || o.getStatus() == allOppFilter.getStatus())
-                    .filter(o -> allOppFilter.getLevel() == null
-                            || o.getLevel() == allOppFilter.getLevel())
-                    .filter(o -> allOppFilter.getPreferredMajor() == null
-                            || o.getPreferredMajor() == allOppFilter.getPreferredMajor())
-                    .filter(o -> allOppFilter.getCompany() == null
-                            || o.getCompanyName().toLowerCase()
-                                    .contains(allOppFilter.getCompany().toLowerCase()))
-                    .collect(Collectors.toList());
-
-            Comparator<InternshipOpportunity> cmp;
-            if ("company".equalsIgnoreCase(allOppSortKey)) {
-                cmp = Comparator.comparing(InternshipOpportunity::getCompanyName,
-                        String.CASE_INSENSITIVE_ORDER);
-            } else if ("slots".equalsIgnoreCase(allOppSortKey)) {
-                cmp = Comparator.comparingInt(InternshipOpportunity::getSlots);
-            } else if ("openDate".equalsIgnoreCase(allOppSortKey)) {
-                cmp = Comparator.comparing(InternshipOpportunity::getOpenDate);
-            } else if ("closeDate".equalsIgnoreCase(allOppSortKey)) {
-                cmp = Comparator.comparing(InternshipOpportunity::getCloseDate);
-            } else {
-                cmp = Comparator.comparing(InternshipOpportunity::getTitle,
-                        String.CASE_INSENSITIVE_ORDER);
-                allOppSortKey = "title";
-            }
-            if (allOppSortDescending) {
-                cmp = cmp.reversed();
-            }
-            filtered.sort(cmp);
+            List<InternshipOpportunity> filtered = oppService.query(Scope.ALL, allOppFilter, allOppSortKey, allOppSortDescending);
 
             printAllOppFilterAndSort(allOppFilter, allOppSortKey, allOppSortDescending);
             printAllOpportunitiesTable(filtered);
@@ -796,39 +845,37 @@ public class CareerCenterStaffView {
      * @param list
      */
     private void printAllOpportunitiesTable(List<InternshipOpportunity> list) {
-        System.out.printf(
-                "%-4s %-15s %-25s %-20s %-20s %-20s %-20s %-12s %-16s %-16s %-16s%n",
-                "S/N", "Opportunity ID", "Internship Title", "Preferred Major",
+        ConsoleUI.Table table = new ConsoleUI.Table(4, 15, 25, 20, 20, 20, 20, 12, 16, 16, 16, 20);
+        table.row("S/N", "Opportunity ID", "Internship Title", "Preferred Major",
                 "Internship Level", "Number of Slots", "Company",
-                "Open Date", "Closing Date", "Status", "Visibility"
-        );
-        System.out.println("-----------------------------------------------------------------------------------------------------------------------------------------------------------------------------------------------------");
+                "Open Date", "Closing Date", "Status", "Visibility", "Applications P/S/A/W");
+        table.line("-----------------------------------------------------------------------------------------------------------------------------------------------------------------------------------------------------------------------------");
 
         if (list.isEmpty()) {
-            System.out.println("✗ No internship opportunities match your current filters.\n");
+            table.line("✗ No internship opportunities match your current filters.\n").print();
             return;
         }
 
         int i = 1;
         for (InternshipOpportunity o : list) {
-            String slotsStr = String.format("%d/%d", o.getConfirmedSlots(), o.getSlots());
-            System.out.printf(
-                    "%-4d %-15s %-25s %-20s %-20s %-20s %-20s %-12s %-16s %-16s %-16s%n",
+            ApplicationCounts counts = applicationService.getCountsForOpportunity(o);
+            table.row(
                     i++,
                     o.getId(),
                     o.getTitle(),
-                    String.valueOf(o.getPreferredMajor()),
-                    String.valueOf(o.getLevel()),
-                    slotsStr,
+                    o.getPreferredMajor(),
+                    o.getLevel(),
+                    o.getConfirmedSlots() + "/" + o.getSlots(),
                     o.getCompanyName(),
-                    String.valueOf(o.getOpenDate()),
-                    String.valueOf(o.getCloseDate()),
+                    o.getOpenDate(),
+                    o.getCloseDate(),
                     o.getStatus(),
-                    o.isVisible() ? "ON" : "OFF"
+                    o.isVisible() ? "ON" : "OFF",
+                    counts == null ? "-" : counts
             );
         }
 
-        System.out.println("\n(Total: " + list.size() + " internship opportunities)\n");
+        table.line("\n(Total: " + list.size() + " internship opportunities)\n").print();
     }
 
     private void viewAllWithdrawalRequests() {
@@ -843,14 +890,13 @@ public class CareerCenterStaffView {
             return;
         }
 
-        System.out.printf("%-4s %-10s %-15s %-15s %-15s %-20s %-15s %-15s %-20s%n",
-                "S/N", "Request ID", "Application ID", "Student ID", "Opportunity ID", "Internship Title", "Company", "Status", "Requested At");
-        System.out.println("----------------------------------------------------------------------------------------------------------------------------------------");
+        ConsoleUI.Table table = new ConsoleUI.Table(4, 14, 15, 15, 15, 20, 15, 15, 20);
+        table.row("S/N", "Request ID", "Application ID", "Student ID", "Opportunity ID", "Internship Title", "Company", "Status", "Requested At");
+        table.line("--------------------------------------------------------------------------------------------------------------------------------------------");
 
         int i = 1;
         for (WithdrawalRequest req : all) {
-            System.out.printf("%-4d %-10s %-15s %-15s %-15s %-20s %-15s %-15s %-20s%n",
-                    i++,
+            table.row(i++,
                     req.getId(),
                     req.getApplication().getId(),
                     req.getRequestedBy().getId(),
@@ -861,7 +907,7 @@ public class CareerCenterStaffView {
                     req.getRequestedAt());
         }
 
-        System.out.println("\n(Total: " + all.size() + " withdrawal requests)\n");
+        table.line("\n(Total: " + all.size() + " withdrawal requests)\n").print();
         System.out.println();
         System.out.print("Press enter to return... ");
         sc.nextLine();
@@ -869,9 +915,16 @@ public class CareerCenterStaffView {
     }
 
     private void generateReports() {
-        ConsoleUI.sectionHeader("Career Center Staff View > Generate Internship Opportunities Report");
+        try (VersionedList.Snapshot<InternshipOpportunity> all = oppService.snapshot()) {
+            generateReports(all);
+        }
+    }
 
-        List<InternshipOpportunity> all = oppService.getAllOpportunities();
+    /** 
+     * @param all pinned for the whole report, so totals agree with the rows while others keep editing
+     */
+    private void generateReports(List<InternshipOpportunity> all) {
+        ConsoleUI.sectionHeader("Career Center Staff View > Generate Internship Opportunities Report");
 
         if (all.isEmpty()) {
             System.out.println("✗ No internship opportunities found.\n");
@@ -1216,6 +1269,8 @@ public class CareerCenterStaffView {
 
         System.out.println("\n(Total: " + result.size() + " internship opportunities)\n");
 
+        printPlacementSummary(statusFilter[0], majorFilter[0], levelFilter[0]);
+
         while (true) {
             System.out.print("Do you want to save this report as a .csv file? (y/n): ");
             String save = sc.nextLine().trim().toLowerCase();
@@ -1234,34 +1289,291 @@ public class CareerCenterStaffView {
     }
 
     /** 
-     * @param report
-     * @param path
+     * @param status
+     * @param major
+     * @param level
      */
-    public void saveReportAsCSV(Report report, String path) {
+    private void printPlacementSummary(OpportunityStatus status, Major major, InternshipLevel level) {
+        ConsoleUI.Table table = new ConsoleUI.Table(25, 8, 8, 8, 14, 10, 10, 10, 14, 10);
+        table.line("Placement Summary");
+        table.row("Company", "Opps", "Slots", "Filled", "Applications", "Pending", "Offers", "Accepted", "Unsuccessful", "Withdrawn");
+        table.line("---------------------------------------------------------------------------------------------------------------------");
 
-        try (PrintWriter writer = new PrintWriter(new FileWriter(path))) {
+        placements.slice(PlacementCube.Dimension.COMPANY, null, major, level, status)
+                .forEach((company, t) -> placementRow(table, company, t));
+        placementRow(table, "All companies", placements.get(null, major, level, status));
 
-            writer.println("summary");
-            writer.printf("\"%s\"%n%n", report.getSummary().toLowerCase());
+        table.line("").print();
+    }
 
-            writer.println("id,title,company,level,major,status,confirmed_slots,total_slots,open_date,close_date");
+    /** 
+     * @param table
+     * @param label
+     * @param t
+     */
+    private static void placementRow(ConsoleUI.Table table, Object label, PlacementCube.Totals t) {
+        table.row(label,
+                t.get(PlacementCube.Measure.OPPORTUNITIES),
+                t.get(PlacementCube.Measure.SLOTS),
+                t.get(PlacementCube.Measure.FILLED_SLOTS),
+                t.applications(),
+                t.get(PlacementCube.Measure.PENDING),
+                t.get(PlacementCube.Measure.SUCCESSFUL),
+                t.get(PlacementCube.Measure.ACCEPTED),
+                t.get(PlacementCube.Measure.UNSUCCESSFUL),
+                t.get(PlacementCube.Measure.WITHDRAWN));
+    }
+
+    private void generateEligibilityReport() {
+        ConsoleUI.sectionHeader("Career Center Staff View > Generate Student Eligibility Report");
 
-            for (InternshipOpportunity o : report.getOpportunities()) {
-                writer.printf(
-                    "\"%s\",\"%s\",\"%s\",\"%s\",\"%s\",\"%s\",%d,%d,%s,%s%n",
+        List<Student> students = users.stream()
+                .filter(u -> u instanceof Student)
+                .map(u -> (Student) u)
+                .collect(Collectors.toList());
+
+        if (students.isEmpty() || oppService.getAllOpportunities().isEmpty()) {
+            System.out.println("✗ No students or internship opportunities found.\n");
+            System.out.print("Press enter to return... ");
+            sc.nextLine();
+            ConsoleUI.sectionHeader("Career Center Staff View");
+            return;
+        }
+
+        EligibilityMatrix matrix = oppService.computeEligibilityMatrix(students);
+
+        System.out.println();
+        System.out.printf("%-4s %-15s %-25s %-20s %-20s %-20s %-15s %-18s%n",
+                "S/N", "Opportunity ID", "Internship Title", "Company", "Internship Level", "Preferred Major", "Status", "Eligible Students");
+        System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------");
+
+        int i = 1;
+        for (InternshipOpportunity o : matrix.getOpportunities()) {
+            System.out.printf("%-4d %-15s %-25s %-20s %-20s %-20s %-15s %-18d%n",
+                    i++,
                     o.getId(),
                     o.getTitle(),
                     o.getCompanyName(),
                     o.getLevel(),
                     o.getPreferredMajor(),
                     o.getStatus(),
-                    o.getConfirmedSlots(),
-                    o.getSlots(),
-                    o.getOpenDate(),
-                    o.getCloseDate()
-                );
+                    matrix.countEligibleStudents(o));
+        }
+
+        System.out.println("\n(Total: " + matrix.getOpportunities().size() + " internship opportunities, "
+                + students.size() + " students in " + matrix.getClassCount() + " eligibility classes)\n");
+
+        List<Student> none = matrix.getStudentsWithNoEligibleOpportunities();
+        if (none.isEmpty()) {
+            System.out.println("✓ Every student is eligible for at least one internship opportunity.\n");
+        } else {
+            System.out.println("Students with no eligible internship opportunities:");
+            System.out.printf("%-4s %-15s %-25s %-10s %-10s%n", "S/N", "Student ID", "Name", "Major", "Year");
+            System.out.println("------------------------------------------------------------------");
+            int j = 1;
+            for (Student s : none) {
+                System.out.printf("%-4d %-15s %-25s %-10s %-10d%n",
+                        j++, s.getId(), s.getName(), s.getMajor(), s.getYearOfStudy());
+            }
+            System.out.println("\n(Total: " + none.size() + " students)\n");
+        }
+
+        System.out.print("Press enter to return... ");
+        sc.nextLine();
+        ConsoleUI.sectionHeader("Career Center Staff View");
+    }
+
+    private void runSlotAllocation() {
+        ConsoleUI.sectionHeader("Career Center Staff View > Run Slot Allocation");
+
+        System.out.println("All pending applications to approved internship opportunities will be decided in one round.");
+        System.out.println("Students are placed by stable matching on student and company representative rankings;");
+        System.out.println("matched placements are confirmed and every other pending application is closed.\n");
+        System.out.print("Run slot allocation now? (y/n): ");
+        String confirm = sc.nextLine().trim().toLowerCase();
+
+        if (confirm.equals("y") || confirm.equals("yes")) {
+            applicationService.allocateSlots(staff);
+        } else {
+            System.out.println("Slot allocation cancelled.");
+        }
+
+        System.out.print("\nPress enter to return... ");
+        sc.nextLine();
+        ConsoleUI.sectionHeader("Career Center Staff View");
+    }
+
+    private void viewApplicationHistoryReport() {
+        ConsoleUI.sectionHeader("Career Center Staff View > View Application History Report");
+
+        ApplicationHistory history = loader.openApplicationHistory();
+        if (history == null || history.size() == 0) {
+            System.out.println("✗ No application history has been saved yet.\n");
+            System.out.print("Press enter to return... ");
+            sc.nextLine();
+            ConsoleUI.sectionHeader("Career Center Staff View");
+            return;
+        }
+
+        Map<String, int[]> byCompany = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        byCompany.putAll(history.countByCompany());
+        int acceptedIdx = ApplicationStatus.values().length;
+
+        System.out.println();
+        System.out.printf("%-4s %-25s %-14s %-10s %-12s %-14s %-11s %-10s%n",
+                "S/N", "Company", "Applications", "Pending", "Successful", "Unsuccessful", "Withdrawn", "Accepted");
+        System.out.println("--------------------------------------------------------------------------------------------------------");
+
+        int i = 1;
+        for (Map.Entry<String, int[]> e : byCompany.entrySet()) {
+            int[] c = e.getValue();
+            int total = 0;
+            for (int k = 0; k < acceptedIdx; k++) total += c[k];
+            System.out.printf("%-4d %-25s %-14d %-10d %-12d %-14d %-11d %-10d%n",
+                    i++,
+                    e.getKey(),
+                    total,
+                    c[ApplicationStatus.PENDING.ordinal()],
+                    c[ApplicationStatus.SUCCESSFUL.ordinal()],
+                    c[ApplicationStatus.UNSUCCESSFUL.ordinal()],
+                    c[ApplicationStatus.WITHDRAWN.ordinal()],
+                    c[acceptedIdx]);
+        }
+
+        System.out.println("\n(Total: " + history.size() + " applications across " + byCompany.size() + " companies, "
+                + history.countAccepted() + " placements accepted)\n");
+
+        while (true) {
+            System.out.print("Enter Student ID to view application history (blank to return): ");
+            String sid = sc.nextLine().trim();
+            if (sid.isEmpty()) break;
+
+            List<Integer> rows = history.findByStudent(sid);
+            if (rows.isEmpty()) {
+                System.out.println("✗ No applications found for " + sid + ".\n");
+                continue;
+            }
+
+            System.out.println();
+            System.out.printf("%-4s %-15s %-15s %-25s %-20s %-14s %-9s %-12s %-12s%n",
+                    "S/N", "Application ID", "Opportunity ID", "Internship Title", "Company", "Status", "Accepted", "Applied At", "Decided At");
+            System.out.println("-----------------------------------------------------------------------------------------------------------------------------------");
+            int j = 1;
+            for (int r : rows) {
+                System.out.printf("%-4d %-15s %-15s %-25s %-20s %-14s %-9s %-12s %-12s%n",
+                        j++,
+                        history.getId(r),
+                        history.getOpportunityId(r),
+                        history.getTitle(r),
+                        history.getCompanyName(r),
+                        history.getStatus(r),
+                        history.isAccepted(r) ? "Yes" : "No",
+                        history.getAppliedAt(r),
+                        history.getDecisionAt(r) == null ? "-" : history.getDecisionAt(r));
+            }
+            System.out.println("\n(Total: " + rows.size() + " applications for " + history.getStudentName(rows.get(0)) + ")\n");
+        }
+
+        ConsoleUI.sectionHeader("Career Center Staff View");
+    }
+
+    private void archiveClosedRecords() {
+        ConsoleUI.sectionHeader("Career Center Staff View > Archive Closed Records");
+
+        System.out.println("Reviewed withdrawal requests, withdrawn applications, unsuccessful applications to closed");
+        System.out.println("internship opportunities and closed opportunities with no remaining applications will be moved");
+        System.out.println("to the archive. Archived records stay available under View Archived Records.\n");
+        System.out.print("Archive closed records now? (y/n): ");
+        String confirm = sc.nextLine().trim().toLowerCase();
+
+        if (confirm.equals("y") || confirm.equals("yes")) {
+            archiveService.archiveClosedRecords(staff);
+        } else {
+            System.out.println("Archiving cancelled.");
+        }
+
+        System.out.print("\nPress enter to return... ");
+        sc.nextLine();
+        ConsoleUI.sectionHeader("Career Center Staff View");
+    }
+
+    private void viewArchivedRecords() {
+        ConsoleUI.sectionHeader("Career Center Staff View > View Archived Records");
+
+        List<String> intakes = archiveService.getIntakes();
+        if (intakes.isEmpty()) {
+            System.out.println("✗ No archived records found.\n");
+            System.out.print("Press enter to return... ");
+            sc.nextLine();
+            ConsoleUI.sectionHeader("Career Center Staff View");
+            return;
+        }
+
+        System.out.println("Archived intakes: " + String.join(", ", intakes));
+        System.out.print("Enter intake to view (blank to cancel): ");
+        String intake = sc.nextLine().trim();
+        if (intake.isEmpty() || !intakes.contains(intake)) {
+            if (!intake.isEmpty()) System.out.println("✗ Intake not found.\n");
+            ConsoleUI.sectionHeader("Career Center Staff View");
+            return;
+        }
+
+        List<Application> apps = archiveService.getArchivedApplications(intake);
+        List<WithdrawalRequest> requests = archiveService.getArchivedWithdrawalRequests(intake);
+        List<InternshipOpportunity> opps = archiveService.getArchivedOpportunities(intake);
+
+        System.out.println();
+        System.out.printf("%-4s %-15s %-15s %-15s %-25s %-20s %-14s %-12s%n",
+                "S/N", "Application ID", "Student ID", "Opportunity ID", "Internship Title", "Company", "Status", "Applied At");
+        System.out.println("---------------------------------------------------------------------------------------------------------------------------------");
+        int i = 1;
+        for (Application a : apps) {
+            System.out.printf("%-4d %-15s %-15s %-15s %-25s %-20s %-14s %-12s%n",
+                    i++,
+                    a.getId(),
+                    a.getStudent().getId(),
+                    a.getOpportunity().getId(),
+                    a.getOpportunity().getTitle(),
+                    a.getOpportunity().getCompanyName(),
+                    a.getStatus(),
+                    a.getAppliedAt());
+        }
+
+        if (!opps.isEmpty()) {
+            System.out.println();
+            System.out.printf("%-4s %-15s %-25s %-20s %-20s %-12s %-12s %-10s%n",
+                    "S/N", "Opportunity ID", "Internship Title", "Company", "Internship Level", "Open Date", "Close Date", "Slots");
+            System.out.println("---------------------------------------------------------------------------------------------------------------------");
+            int j = 1;
+            for (InternshipOpportunity o : opps) {
+                System.out.printf("%-4d %-15s %-25s %-20s %-20s %-12s %-12s %-10s%n",
+                        j++,
+                        o.getId(),
+                        o.getTitle(),
+                        o.getCompanyName(),
+                        o.getLevel(),
+                        o.getOpenDate(),
+                        o.getCloseDate(),
+                        o.getConfirmedSlots() + "/" + o.getSlots());
             }
+        }
+
+        System.out.println("\n(Intake " + intake + ": " + apps.size() + " archived applications, " + requests.size()
+                + " archived withdrawal requests, " + opps.size() + " archived internship opportunities)\n");
+
+        System.out.print("Press enter to return... ");
+        sc.nextLine();
+        ConsoleUI.sectionHeader("Career Center Staff View");
+    }
 
+    /** 
+     * @param report
+     * @param path
+     */
+    public void saveReportAsCSV(Report report, String path) {
+
+        try {
+            loader.exportReport(report, path);
             System.out.println("✓ report successfully saved to " + path);
 
         } catch (IOException e) {
@@ -1269,6 +1581,141 @@ public class CareerCenterStaffView {
         }
     }
 
+    private void viewSystemDashboard() {
+        while (true) {
+            ConsoleUI.sectionHeader("Career Center Staff View > View System Dashboard");
+
+            long[] heap = stats.getHeap();
+            System.out.printf("%-34s: %.1f min%n", "Uptime", stats.getUptimeMinutes());
+            System.out.printf("%-34s: %d active, %d since start%n", "Sessions", stats.getActiveSessions(), stats.getTotalSessions());
+            System.out.printf("%-34s: %.1f MB used of %.1f MB%n", "Heap", heap[0] / 1e6, heap[1] / 1e6);
+            System.out.printf("%-34s: %d%n", "Queued events", stats.getQueuedEvents());
+            stats.getQueueDepths().forEach((name, depth) -> System.out.printf("%-34s: %d%n", name, depth));
+            OpportunityQueryCache.Stats cache = oppService.getQueryCacheStats();
+            System.out.printf("%-34s: %.0f%% hits (%d/%d), %d cached, %d evicted, %d invalidated%n", "Opportunity query cache",
+                    cache.hitRate() * 100, cache.hits(), cache.hits() + cache.misses(), cache.entries(),
+                    cache.evictions(), cache.invalidations());
+            if (oppService.getAllOpportunities() instanceof VersionedList<InternshipOpportunity> versions) {
+                System.out.printf("%-34s: version %d, %d open snapshots, %d older versions held%n", "Opportunity list",
+                        versions.getVersion(), versions.getOpenSnapshots(), versions.getPinnedVersions());
+            }
+
+            System.out.println();
+            System.out.printf("%-40s %-8s %-10s %-10s %-12s %-12s %-12s%n",
+                    "Operation", "Count", "Per Min", "Last Min", "p50 (ms)", "p99 (ms)", "Max (ms)");
+            System.out.println("--------------------------------------------------------------------------------------------------------------");
+            List<SystemStats.OperationSummary> ops = stats.getOperations();
+            if (ops.isEmpty()) System.out.println("✗ No operations recorded yet.");
+            for (SystemStats.OperationSummary op : ops) {
+                System.out.printf("%-40s %-8d %-10.2f %-10d %-12.2f %-12.2f %-12.2f%n",
+                        op.name(), op.count(), op.perMinute(), op.lastMinute(),
+                        op.p50Micros() / 1000.0, op.p99Micros() / 1000.0, op.maxMicros() / 1000.0);
+            }
+
+            System.out.println();
+            System.out.printf("%-36s %-12s %-16s %-8s%n", "Saved File", "Size (KB)", "Last Save (ms)", "Saves");
+            System.out.println("--------------------------------------------------------------------------");
+            List<SystemStats.SaveSummary> saves = stats.getSaves();
+            if (saves.isEmpty()) System.out.println("✗ Nothing saved yet this run.");
+            for (SystemStats.SaveSummary s : saves) {
+                System.out.printf("%-36s %-12.1f %-16.2f %-8d%n",
+                        s.file(), s.bytes() / 1024.0, s.lastMicros() / 1000.0, s.count());
+            }
+
+            System.out.print("\nPress enter to refresh, or type 'q' to return... ");
+            if (sc.nextLine().trim().equalsIgnoreCase("q")) break;
+        }
+        ConsoleUI.sectionHeader("Career Center Staff View");
+    }
+
+    private void viewActivityHistogram() {
+        ConsoleUI.sectionHeader("Career Center Staff View > View Activity Histogram");
+        LocalDate last = activity.getLastDay();
+        System.out.println("Activity is kept from " + activity.getFirstDay() + " to " + last + ".\n");
+
+        LocalDate to = readDate("Enter end date (yyyy-mm-dd) [Enter] " + last + ": ", last);
+        LocalDate from = readDate("Enter start date (yyyy-mm-dd) [Enter] " + to.minusDays(13) + ": ", to.minusDays(13));
+        int bucket;
+        while (true) {
+            System.out.print("Days per row [Enter] 1: ");
+            String input = sc.nextLine().trim();
+            try {
+                bucket = input.isEmpty() ? 1 : Integer.parseInt(input);
+                if (bucket > 0) break;
+            } catch (NumberFormatException ignored) { }
+            System.out.println("✗ Please enter a positive whole number.");
+        }
+
+        ActivitySeries.Series[] series = ActivitySeries.Series.values();
+        int[][] buckets = new int[series.length][];
+        try {
+            for (int i = 0; i < series.length; i++) buckets[i] = activity.histogram(series[i], from, to, bucket);
+        } catch (IllegalArgumentException e) {
+            System.out.println("✗ " + e.getMessage() + ".\n");
+            ConsoleUI.sectionHeader("Career Center Staff View");
+            return;
+        }
+
+        ConsoleUI.Table table = new ConsoleUI.Table(12, 10, 12, 14, 11, 21, 20);
+        Object[] header = new Object[series.length + 1];
+        header[0] = "Date";
+        for (int i = 0; i < series.length; i++) header[i + 1] = series[i].label();
+        table.row(header);
+        table.line("------------------------------------------------------------------------------------------------------");
+
+        long[] totals = new long[series.length];
+        for (int b = 0; b < buckets[0].length; b++) {
+            Object[] row = new Object[series.length + 1];
+            row[0] = from.plusDays((long) b * bucket);
+            for (int i = 0; i < series.length; i++) {
+                row[i + 1] = buckets[i][b];
+                totals[i] += buckets[i][b];
+            }
+            table.row(row);
+        }
+        Object[] total = new Object[series.length + 1];
+        total[0] = "Total";
+        for (int i = 0; i < series.length; i++) total[i + 1] = totals[i];
+        table.line("------------------------------------------------------------------------------------------------------");
+        table.row(total).line("").print();
+
+        while (true) {
+            System.out.print("Do you want to save this histogram as a .csv file? (y/n): ");
+            String save = sc.nextLine().trim().toLowerCase();
+            if (save.equals("y") || save.equals("yes")) {
+                String path = "reports/activity_" + System.currentTimeMillis() + ".csv";
+                try {
+                    loader.exportActivity(activity, from, to, bucket, path);
+                    System.out.println("✓ histogram successfully saved to " + path);
+                } catch (IOException e) {
+                    System.out.println("✗ failed to save histogram: " + e.getMessage());
+                }
+                break;
+            }
+            if (save.equals("n") || save.equals("no")) break;
+            System.out.println("✗ Invalid input. Please try again.\n");
+        }
+        ConsoleUI.sectionHeader("Career Center Staff View");
+    }
+
+    /** 
+     * @param prompt
+     * @param fallback returned on an empty line
+     * @return LocalDate
+     */
+    private LocalDate readDate(String prompt, LocalDate fallback) {
+        while (true) {
+            System.out.print(prompt);
+            String input = sc.nextLine().trim();
+            if (input.isEmpty()) return fallback;
+            try {
+                return LocalDate.parse(input);
+            } catch (DateTimeParseException e) {
+                System.out.println("✗ Invalid date format. Please use yyyy-mm-dd.");
+            }
+        }
+    }
+
     private void forceFirstTimePasswordChange() {
         System.out.println("\nYou are currently using the default password.");
         System.out.println("Please change your password before accessing the system.\n");
@@ -2,10 +2,12 @@ package boundary;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
-import java.util.UUID;
 import java.util.stream.Collectors;
 
 import control.ApplicationService;
@@ -61,6 +63,8 @@ public class CompanyRepView {
                 case "2" -> manageOpportunities();
                 case "3" -> reviewPendingApplications();
                 case "4" -> viewAllApplications();
+                case "5" -> rankApplicants();
+                case "6" -> batchDecideApplications();
                 case "logout" -> {
                     System.out.println("\n✓ You have logged out of your account.\n");
                     return;
@@ -75,6 +79,8 @@ public class CompanyRepView {
         System.out.println("(2) Manage Internship Opportunities");
         System.out.println("(3) Review Pending Internship Applications");
         System.out.println("(4) View All Internship Applications");
+        System.out.println("(5) Rank Applicants For Slot Allocation");
+        System.out.println("(6) Batch Decide Applications");
         System.out.println();
         System.out.println("→ Type 'logout' here to logout");
         System.out.println();
@@ -233,7 +239,7 @@ public class CompanyRepView {
         Application selected = null;
 
         while (true) {
-            System.out.print("Enter Application ID to review (blank to cancel): ");
+            System.out.print("Enter Application ID(s) to review, comma-separated or 'all' (blank to cancel): ");
             String id = sc.nextLine().trim();
 
             if (id.isEmpty()) {
@@ -241,14 +247,23 @@ public class CompanyRepView {
                 return;
             }
 
-            selected = myApps.stream()
-                    .filter(a -> a.getId().equalsIgnoreCase(id))
-                    .findFirst()
-                    .orElse(null);
-
-            if (selected != null) break;
+            List<Application> chosen = ConsoleUI.selectByIds(id, myApps, Application::getId);
+            if (chosen == null || chosen.isEmpty()) continue;
+            if (chosen.size() == 1) {
+                selected = chosen.get(0);
+                break;
+            }
 
-            System.out.println("✗ Invalid application ID. Please try again.\n");
+            Boolean approve = askYesNo("\nApprove (y) or reject (n) all " + chosen.size() + " selected internship applications? (blank to cancel): ");
+            if (approve != null) {
+                applicationService.decideApplications(rep, chosen.stream().map(Application::getId).toList(), approve);
+            } else {
+                System.out.println("Review cancelled.");
+            }
+            System.out.print("\nPress enter to return... ");
+            sc.nextLine();
+            ConsoleUI.sectionHeader("Company Representative View");
+            return;
         }
 
         InternshipOpportunity opp = selected.getOpportunity();
@@ -380,7 +395,7 @@ public class CompanyRepView {
         }
 
         InternshipOpportunity opp = new InternshipOpportunity(
-            UUID.randomUUID().toString().substring(0, 6),
+            null,
             title,
             description,
             level,
@@ -404,8 +419,7 @@ public class CompanyRepView {
         while (continueEditing) {
             ConsoleUI.sectionHeader("Company Representative View > Edit Pending Internship Opportunity");
 
-            List<InternshipOpportunity> myOpps = opportunityService.getAllOpportunities().stream()
-                    .filter(o -> rep.equals(o.getRepInCharge()))
+            List<InternshipOpportunity> myOpps = opportunityService.getByRep(rep).stream()
                     .filter(o -> o.getStatus() == OpportunityStatus.PENDING)
                     .collect(Collectors.toList());
 
@@ -577,8 +591,7 @@ public class CompanyRepView {
         while (true) {
             ConsoleUI.sectionHeader("Company Representative View > Delete Pending Internship Opportunity");
 
-            List<InternshipOpportunity> myOpps = opportunityService.getAllOpportunities().stream()
-                    .filter(o -> rep.equals(o.getRepInCharge()))
+            List<InternshipOpportunity> myOpps = opportunityService.getByRep(rep).stream()
                     .filter(o -> o.getStatus() == OpportunityStatus.PENDING)
                     .collect(Collectors.toList());
 
@@ -667,9 +680,7 @@ public class CompanyRepView {
     private void toggleVisibility() {
         ConsoleUI.sectionHeader("Company Representative View > Toggle Opportunity Visibility");
 
-        List<InternshipOpportunity> myOpps = opportunityService.getAllOpportunities().stream()
-                .filter(o -> rep.equals(o.getRepInCharge()))
-                .collect(Collectors.toList());
+        List<InternshipOpportunity> myOpps = opportunityService.getByRep(rep);
 
         if (myOpps.isEmpty()) {
             System.out.println("✗ You currently have no internship opportunities.\n");
@@ -995,25 +1006,21 @@ public class CompanyRepView {
             return;
         }
 
-        System.out.printf(
-            "%-4s %-15s %-25s %-20s %-20s %-20s %-20s %-15s %-15s %-10s %-15s%n",
-            "S/N", "Opportunity ID", "Internship Title", "Level", "Company",
-            "Preferred Major", "Number of Slots", "Open Date", "Close Date", "Status", "Visibility"
-        );
-        System.out.println("------------------------------------------------------------------------------------------------------------------------------------------------------------------------------------------");
+        ConsoleUI.Table table = new ConsoleUI.Table(4, 15, 25, 20, 20, 20, 20, 15, 15, 10, 15);
+        table.row("S/N", "Opportunity ID", "Internship Title", "Level", "Company",
+            "Preferred Major", "Number of Slots", "Open Date", "Close Date", "Status", "Visibility");
+        table.line("------------------------------------------------------------------------------------------------------------------------------------------------------------------------------------------");
 
         int i = 1;
         for (InternshipOpportunity o : myOpps) {
-            String slotsStr = String.format("%d/%d", o.getConfirmedSlots(), o.getSlots());
-            System.out.printf(
-                "%-4d %-15s %-25s %-20s %-20s %-20s %-20s %-15s %-15s %-10s %-15s%n",
+            table.row(
                 i++,
                 o.getId(),
                 o.getTitle(),
-                String.valueOf(o.getLevel()),
+                o.getLevel(),
                 o.getCompanyName(),
-                String.valueOf(o.getPreferredMajor()),
-                slotsStr,
+                o.getPreferredMajor(),
+                o.getConfirmedSlots() + "/" + o.getSlots(),
                 o.getOpenDate(),
                 o.getCloseDate(),
                 o.getStatus(),
@@ -1021,7 +1028,7 @@ public class CompanyRepView {
             );
         }
 
-        System.out.println("\n(Total: " + myOpps.size() + " internship opportunities)\n");
+        table.line("\n(Total: " + myOpps.size() + " internship opportunities)\n").print();
     }
 
     private void viewAllApplications() {
@@ -1038,20 +1045,17 @@ public class CompanyRepView {
             return;
         }
 
-        System.out.printf(
-            "%-4s %-15s %-15s %-15s %-20s %-20s %-20s %-20s %-12s%n",
-            "S/N", "Application ID", "Student ID", "Opportunity ID",
+        ConsoleUI.Table table = new ConsoleUI.Table(4, 15, 15, 15, 20, 20, 20, 20, 12);
+        table.row("S/N", "Application ID", "Student ID", "Opportunity ID",
             "Internship Title", "Internship Level", "Company",
-            "Status", "Applied At"
-        );
-        System.out.println("--------------------------------------------------------------------------------------------------------------------------------------------------------------------");
+            "Status", "Applied At");
+        table.line("--------------------------------------------------------------------------------------------------------------------------------------------------------------------");
 
         int i = 1;
         for (Application a : myApps) {
             InternshipOpportunity o = a.getOpportunity();
 
-            System.out.printf(
-                "%-4d %-15s %-15s %-15s %-20s %-20s %-20s %-20s %-12s%n",
+            table.row(
                 i++,
                 a.getId(),
                 a.getStudent().getId(),
@@ -1064,13 +1068,191 @@ public class CompanyRepView {
             );
         }
 
-        System.out.println("\n(Total: " + myApps.size() + " internship applications)\n");
+        table.line("\n(Total: " + myApps.size() + " internship applications)\n").print();
 
         System.out.print("Press enter to return... ");
         sc.nextLine();
         ConsoleUI.sectionHeader("Company Representative View");
     }
 
+    private void rankApplicants() {
+        ConsoleUI.sectionHeader("Company Representative View > Rank Applicants For Slot Allocation");
+
+        List<Application> pending = applicationService.getApplicationsByRepresentative(rep).stream()
+                .filter(Application::isActive)
+                .collect(Collectors.toList());
+
+        if (pending.isEmpty()) {
+            System.out.println("✗ No pending applications to rank.\n");
+            System.out.print("Press enter to return... ");
+            sc.nextLine();
+            ConsoleUI.sectionHeader("Company Representative View");
+            return;
+        }
+
+        InternshipOpportunity opp = null;
+        while (opp == null) {
+            System.out.print("Enter Opportunity ID to rank applicants for (blank to cancel): ");
+            String id = sc.nextLine().trim();
+
+            if (id.isEmpty()) {
+                ConsoleUI.sectionHeader("Company Representative View");
+                return;
+            }
+
+            opp = pending.stream()
+                    .map(Application::getOpportunity)
+                    .filter(o -> o.getId().equalsIgnoreCase(id))
+                    .findFirst()
+                    .orElse(null);
+
+            if (opp == null) {
+                System.out.println("✗ No pending applications for this Opportunity ID. Please try again.\n");
+            }
+        }
+
+        final String oppId = opp.getId();
+        List<Application> applicants = pending.stream()
+                .filter(a -> a.getOpportunity().getId().equalsIgnoreCase(oppId))
+                .sorted(Comparator.comparingInt((Application a) -> a.getRepRank() == 0 ? Integer.MAX_VALUE : a.getRepRank())
+                        .thenComparing(Application::getAppliedAt))
+                .collect(Collectors.toList());
+
+        System.out.println();
+        System.out.printf("%-4s %-15s %-15s %-12s %-10s%n", "S/N", "Application ID", "Student ID", "Applied At", "Rank");
+        System.out.println("------------------------------------------------------------");
+
+        int i = 1;
+        for (Application a : applicants) {
+            System.out.printf("%-4d %-15s %-15s %-12s %-10s%n",
+                    i++,
+                    a.getId(),
+                    a.getStudent().getId(),
+                    a.getAppliedAt(),
+                    a.getRepRank() == 0 ? "-" : String.valueOf(a.getRepRank()));
+        }
+        System.out.println();
+
+        System.out.print("Enter Application IDs from most to least preferred, separated by commas (blank to cancel): ");
+        String input = sc.nextLine().trim();
+
+        if (input.isEmpty()) {
+            System.out.println("Ranking cancelled.\n");
+        } else {
+            applicationService.rankApplicants(rep, opp, List.of(input.split(",")));
+        }
+
+        System.out.print("\nPress enter to return... ");
+        sc.nextLine();
+        ConsoleUI.sectionHeader("Company Representative View");
+    }
+
+    private void batchDecideApplications() {
+        ConsoleUI.sectionHeader("Company Representative View > Batch Decide Applications");
+
+        Map<String, List<Application>> byOpportunity = new LinkedHashMap<>();
+        for (Application a : applicationService.getApplicationsByRepresentative(rep)) {
+            if (a.isActive()) byOpportunity.computeIfAbsent(a.getOpportunity().getId(), k -> new ArrayList<>()).add(a);
+        }
+
+        if (byOpportunity.isEmpty()) {
+            System.out.println("✗ No pending applications to decide.\n");
+            System.out.print("Press enter to return... ");
+            sc.nextLine();
+            ConsoleUI.sectionHeader("Company Representative View");
+            return;
+        }
+
+        System.out.println();
+        System.out.printf("%-4s %-15s %-25s %-20s %-20s%n", "S/N", "Opportunity ID", "Internship Title", "Pending Applicants", "Number of Slots");
+        System.out.println("--------------------------------------------------------------------------------------");
+        int i = 1;
+        for (List<Application> apps : byOpportunity.values()) {
+            InternshipOpportunity o = apps.get(0).getOpportunity();
+            System.out.printf("%-4d %-15s %-25s %-20d %-20s%n",
+                    i++,
+                    o.getId(),
+                    o.getTitle(),
+                    apps.size(),
+                    o.getConfirmedSlots() + "/" + o.getSlots());
+        }
+        System.out.println();
+
+        System.out.println("(1) Approve Earliest Applicants By Applied Date");
+        System.out.println("(2) Reject All Remaining Pending Applicants");
+        System.out.println("(3) Approve or Reject a List of Application IDs");
+        System.out.print("Enter choice (blank to cancel): ");
+        String choice = sc.nextLine().trim();
+
+        switch (choice) {
+            case "1" -> {
+                String oppId = promptPendingOpportunity(byOpportunity);
+                if (oppId == null) break;
+                int n;
+                while (true) {
+                    System.out.print("Number of applicants to approve: ");
+                    try {
+                        n = Integer.parseInt(sc.nextLine().trim());
+                        if (n > 0) break;
+                    } catch (NumberFormatException ignored) { }
+                    System.out.println("✗ Please enter a positive number.\n");
+                }
+                Boolean rejectRest = askYesNo("Reject all other pending applicants of this opportunity? (y/n): ");
+                applicationService.approveEarliestApplicants(rep, oppId, n, Boolean.TRUE.equals(rejectRest));
+            }
+            case "2" -> {
+                String oppId = promptPendingOpportunity(byOpportunity);
+                if (oppId == null) break;
+                Boolean confirm = askYesNo("Reject all " + byOpportunity.get(oppId).size() + " pending applicants of " + oppId + "? (y/n): ");
+                if (Boolean.TRUE.equals(confirm)) applicationService.rejectRemainingApplicants(rep, oppId);
+                else System.out.println("Batch decision cancelled.");
+            }
+            case "3" -> {
+                System.out.print("Enter Application IDs, separated by commas (blank to cancel): ");
+                String input = sc.nextLine().trim();
+                if (input.isEmpty()) break;
+                Boolean approve = askYesNo("Approve (y) or reject (n) these applications? (blank to cancel): ");
+                if (approve != null) applicationService.decideApplications(rep, List.of(input.split(",")), approve);
+                else System.out.println("Batch decision cancelled.");
+            }
+            case "" -> System.out.println("Batch decision cancelled.");
+            default -> System.out.println("✗ Invalid choice.");
+        }
+
+        System.out.print("\nPress enter to return... ");
+        sc.nextLine();
+        ConsoleUI.sectionHeader("Company Representative View");
+    }
+
+    /** 
+     * @param byOpportunity
+     * @return String the opportunity id as listed, or null when cancelled
+     */
+    private String promptPendingOpportunity(Map<String, List<Application>> byOpportunity) {
+        while (true) {
+            System.out.print("Enter Opportunity ID (blank to cancel): ");
+            String id = sc.nextLine().trim();
+            if (id.isEmpty()) {
+                System.out.println("Batch decision cancelled.");
+                return null;
+            }
+            for (String key : byOpportunity.keySet()) if (key.equalsIgnoreCase(id)) return key;
+            System.out.println("✗ No pending applications for this Opportunity ID. Please try again.\n");
+        }
+    }
+
+    /** 
+     * @param prompt
+     * @return Boolean true for yes, false for no, null for anything else
+     */
+    private Boolean askYesNo(String prompt) {
+        System.out.print(prompt);
+        String answer = sc.nextLine().trim().toLowerCase();
+        if (answer.equals("y") || answer.equals("yes")) return true;
+        if (answer.equals("n") || answer.equals("no")) return false;
+        return null;
+    }
+
     private void forceFirstTimePasswordChange() {
         System.out.println("\nYou are currently using the default password.");
         System.out.println("Please change your password before accessing the system.\n");
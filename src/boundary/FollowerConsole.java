@@ -0,0 +1,95 @@
+package boundary;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import control.Follower;
+import control.Json;
+import control.ServiceGraph;
+import control.SystemStats;
+
+/**
+ * command loop of a follower, reading the same commands as {@link BatchCommandRunner} in read-only
+ * mode, against whatever state the follower last applied, plus:
+ * <pre>
+ * status    how far the follower has got through the primary's change feed
+ * promote   stop following and take over as primary
+ * quit
+ * </pre>
+ * each command prints one json object per line, as in batch mode.
+ */
+public class FollowerConsole {
+    private final Follower follower;
+    private final BatchCommandRunner runner;
+    private final PrintStream out;
+
+    public FollowerConsole(Follower follower, SystemStats stats, PrintStream out) {
+        this.follower = Objects.requireNonNull(follower, "follower must not be null");
+        this.out = Objects.requireNonNull(out, "out must not be null");
+        this.runner = new BatchCommandRunner(follower::getGraph, stats, out, true);
+    }
+
+    /**
+     * @param in left open, so a promoted follower can go on reading it
+     * @return ServiceGraph the promoted services, null when the input ended or quit was given first
+     * @throws IOException
+     */
+    public ServiceGraph run(BufferedReader in) throws IOException {
+        int lineNo = 0;
+        String line;
+        try {
+            while ((line = in.readLine()) != null) {
+                lineNo++;
+                String command = line.trim().toLowerCase();
+                if (command.equals("quit")) break;
+
+                Map<String, Object> result;
+                if (command.equals("status") || command.equals("promote")) {
+                    result = new LinkedHashMap<>();
+                    result.put("line", lineNo);
+                    result.put("command", command);
+                    try {
+                        if (command.equals("promote")) {
+                            ServiceGraph promoted = follower.promote();
+                            result.put("ok", true);
+                            result.put("appliedSeq", follower.getAppliedSeq());
+                            out.println(Json.encode(result));
+                            return promoted;
+                        }
+                        status(result);
+                        result.put("ok", true);
+                    } catch (IOException e) {
+                        result.put("ok", false);
+                        result.put("error", e.getMessage());
+                    }
+                } else {
+                    result = runner.runLine(line, lineNo);
+                    if (result == null) continue;
+                }
+                out.println(Json.encode(result));
+            }
+            return null;
+        } finally {
+            runner.logout();
+        }
+    }
+
+    /**
+     * @param result
+     * @throws IOException
+     */
+    private void status(Map<String, Object> result) throws IOException {
+        ServiceGraph g = follower.getGraph();
+        result.put("appliedSeq", follower.getAppliedSeq());
+        result.put("lag", follower.getLag());
+        result.put("millisSinceCaughtUp", follower.getMillisSinceCaughtUp());
+        result.put("users", g.users().size());
+        result.put("opportunities", g.opportunities().size());
+        result.put("applications", g.applications().size());
+        result.put("withdrawals", g.withdrawals().size());
+    }
+}
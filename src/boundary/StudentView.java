@@ -8,6 +8,7 @@ import java.util.stream.Collectors;
 import control.ApplicationService;
 import control.DataLoader;
 import control.OpportunityService;
+import control.RecommendationService;
 import entity.Application;
 import entity.FilterCriteria;
 import entity.InternshipOpportunity;
@@ -16,33 +17,38 @@ import entity.User;
 import entity.WithdrawalRequest;
 import enumerations.ApplicationStatus;
 import enumerations.InternshipLevel;
-import enumerations.OpportunityStatus;
 import ui.ConsoleUI;
 
 public class StudentView {
+    private static final int RECOMMENDED_PAGE = 10;
+
     private final Scanner sc;
     private final Student student;
     private final List<User> users;
     private final DataLoader loader;
     private final OpportunityService opportunityService;
     private final ApplicationService applicationService;
+    private final RecommendationService recommendationService;
 
     private final FilterCriteria availableFilter = new FilterCriteria();
     private String availableSortKey = "title";       
     private boolean availableSortDescending = false; 
+    private int recommendedShown = RECOMMENDED_PAGE;
 
     public StudentView(Scanner sc,
                        Student student,
                        List<User> users,
                        DataLoader loader,
                        OpportunityService opportunityService,
-                       ApplicationService applicationService) {
+                       ApplicationService applicationService,
+                       RecommendationService recommendationService) {
         this.sc = sc;
         this.student = student;
         this.users = users;
         this.loader = loader;
         this.opportunityService = opportunityService;
         this.applicationService = applicationService;
+        this.recommendationService = recommendationService;
     }
 
     public void run() {
@@ -82,6 +88,9 @@ public class StudentView {
                 case "8":
                     viewMyWithdrawalRequests();
                     break;
+                case "9":
+                    rankPendingApplications();
+                    break;
                 case "logout":
                     System.out.println("\n✓ You have logged out of your account.\n");
                     return;
@@ -100,6 +109,7 @@ public class StudentView {
         System.out.println("(6) View Accepted Internship Placement");
         System.out.println("(7) Withdraw Internship Application");
         System.out.println("(8) View My Withdrawal Requests");
+        System.out.println("(9) Rank My Pending Applications");
         System.out.println();
         System.out.println("→ Type 'logout' here to logout");
         System.out.println();
@@ -196,38 +206,22 @@ public class StudentView {
         ConsoleUI.sectionHeader("Student View > View Available Internships");
 
         while (true) {
-             List<InternshipOpportunity> available = opportunityService.getAllOpportunities().stream()
-                .filter(o -> o.getStatus() != OpportunityStatus.REJECTED && o.getStatus() != OpportunityStatus.PENDING)
-                .filter(InternshipOpportunity::isVisible)
-                .filter(o -> o.isEligibleFor(student))
-                .collect(Collectors.toList());
-
-            Comparator<InternshipOpportunity> cmp;
-            if ("company".equalsIgnoreCase(availableSortKey)) {
-                cmp = Comparator.comparing(InternshipOpportunity::getCompanyName,
-                        String.CASE_INSENSITIVE_ORDER);
-            } else if ("slots".equalsIgnoreCase(availableSortKey)) {
-                cmp = Comparator.comparingInt(InternshipOpportunity::getSlots);
-            } else if ("openDate".equalsIgnoreCase(availableSortKey)) {
-                cmp = Comparator.comparing(InternshipOpportunity::getOpenDate);
-            } else if ("closeDate".equalsIgnoreCase(availableSortKey)) {
-                cmp = Comparator.comparing(InternshipOpportunity::getCloseDate);
+            List<InternshipOpportunity> available;
+            boolean more = false;
+            if ("recommended".equalsIgnoreCase(availableSortKey)) {
+                List<InternshipOpportunity> listed = opportunityService.getListedFor(student, null, false);
+                available = recommendationService.topK(student, listed, recommendedShown);
+                more = available.size() < listed.size();
             } else {
-                cmp = Comparator.comparing(InternshipOpportunity::getTitle,
-                        String.CASE_INSENSITIVE_ORDER);
-                availableSortKey = "title";
-            }
-
-            if (availableSortDescending) {
-                cmp = cmp.reversed();
+                available = opportunityService.getListedFor(student, availableSortKey, availableSortDescending);
             }
-            available.sort(cmp);
 
             printCurrentFilterAndSort(availableFilter, availableSortKey, availableSortDescending);
             printAvailableInternshipsTable(available);
 
             System.out.println("(1) Edit Filter");
             System.out.println("(2) Edit Sort");
+            if (more) System.out.println("(3) Show More Recommendations");
             System.out.println("(0) Reset Filter & Sort");
             System.out.print("Enter choice (blank to cancel): ");
             String choice = sc.nextLine().trim();
@@ -296,10 +290,16 @@ public class StudentView {
                 System.out.println("(3) Number of Slots");
                 System.out.println("(4) Open Date");
                 System.out.println("(5) Close Date");
+                System.out.println("(6) Recommended For Me");
                 System.out.print("Enter choice (blank to cancel): ");
                 String s = sc.nextLine().trim();
 
-                if (!s.isEmpty()) {
+                if ("6".equals(s)) {
+                    availableSortKey = "recommended";
+                    availableSortDescending = false;
+                    recommendedShown = RECOMMENDED_PAGE;
+                    System.out.println("✓ Internships will be ranked by recommendation.\n");
+                } else if (!s.isEmpty()) {
                     if ("1".equals(s)) {
                         availableSortKey = "title";
                     } else if ("2".equals(s)) {
@@ -333,6 +333,9 @@ public class StudentView {
                     }
                 }
 
+            } else if (more && "3".equals(choice)) {
+                recommendedShown += RECOMMENDED_PAGE;
+                System.out.println();
             } else if ("0".equals(choice)) {
                 availableFilter.setStatus(null);
                 availableFilter.setPreferredMajor(null);
@@ -387,11 +390,15 @@ public class StudentView {
             sortLabel = "Open Date";
         } else if ("closeDate".equalsIgnoreCase(sortKey)) {
             sortLabel = "Close Date";
+        } else if ("recommended".equalsIgnoreCase(sortKey)) {
+            sortLabel = "Recommended For Me";
         } else {
             sortLabel = "Internship Title";
         }
 
-        String sortInfo = "Current Sorting: "
+        String sortInfo = "recommended".equalsIgnoreCase(sortKey)
+                ? "Current Sorting: " + sortLabel + " (Best Match First)"
+                : "Current Sorting: "
                 + sortLabel
                 + " (" + (sortDescending ? "Descending" : "Ascending") + ")";
 
@@ -404,36 +411,33 @@ public class StudentView {
      * @param available
      */
     private void printAvailableInternshipsTable(List<InternshipOpportunity> available) {
-        System.out.printf(
-                "%-4s %-15s %-25s %-20s %-20s %-20s %-20s %-12s %-12s%n",
-                "S/N", "Opportunity ID", "Internship Title", "Internship Level",
+        ConsoleUI.Table table = new ConsoleUI.Table(4, 15, 25, 20, 20, 20, 20, 12, 12);
+        table.row("S/N", "Opportunity ID", "Internship Title", "Internship Level",
                 "Company", "Preferred Major", "Number of Slots", "Open Date", "Close Date");
-        System.out.println("-----------------------------------------------------------------------------------------------------------------------------------------------------------");
+        table.line("-----------------------------------------------------------------------------------------------------------------------------------------------------------");
 
         if (available.isEmpty()) {
-            System.out.println("✗ No internship opportunities match your current filters.\n");
+            table.line("✗ No internship opportunities match your current filters.\n").print();
             return;
         }
 
         int i = 1;
         for (InternshipOpportunity o : available) {
-            String slotsStr = String.format("%d/%d", o.getConfirmedSlots(), o.getSlots());
-            System.out.printf(
-                    "%-4d %-15s %-25s %-20s %-20s %-20s %-20s %-12s %-12s%n",
+            table.row(
                     i++,
                     o.getId(),
                     o.getTitle(),
-                    String.valueOf(o.getLevel()),
+                    o.getLevel(),
                     o.getCompanyName(),
-                    String.valueOf(o.getPreferredMajor()),
-                    slotsStr,
+                    o.getPreferredMajor(),
+                    o.getConfirmedSlots() + "/" + o.getSlots(),
                     o.getOpenDate(),
                     o.getCloseDate()
             );
         }
 
-        System.out.println();
-        System.out.println("(Total: " + available.size() + " internship opportunities)\n");
+        table.line("");
+        table.line("(Total: " + available.size() + " internship opportunities)\n").print();
     }
 
     private void viewApplications() {
@@ -449,36 +453,30 @@ public class StudentView {
             return;
         }
 
-        System.out.println();
-        System.out.printf(
-                "%-4s %-15s %-15s %-25s %-20s %-20s %-20s %-20s %-15s%n",
-                "S/N", "Application ID", "Opportunity ID", "Internship Title",
-                "Internship Level", "Company", "Preferred Major", "Status", "Applied Date"
-        );
-        System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------------------");
+        ConsoleUI.Table table = new ConsoleUI.Table(4, 15, 15, 25, 20, 20, 20, 20, 15);
+        table.line("");
+        table.row("S/N", "Application ID", "Opportunity ID", "Internship Title",
+                "Internship Level", "Company", "Preferred Major", "Status", "Applied Date");
+        table.line("----------------------------------------------------------------------------------------------------------------------------------------------------------------");
 
         int i = 1;
         for (Application app : myApps) {
             InternshipOpportunity opp = app.getOpportunity();
-            System.out.printf(
-                    "%-4d %-15s %-15s %-25s %-20s %-20s %-20s %-20s %-15s%n",
+            table.row(
                     i++,
                     app.getId(),
                     opp.getId(),
                     opp.getTitle(),
-                    String.valueOf(opp.getLevel()),
+                    opp.getLevel(),
                     opp.getCompanyName(),
-                    String.valueOf(opp.getPreferredMajor()),
-                    String.valueOf(app.getStatus()),
-                    String.valueOf(app.getAppliedAt())
+                    opp.getPreferredMajor(),
+                    app.getStatus(),
+                    app.getAppliedAt()
             );
         }
-        long activeCount = myApps.stream()
-                .filter(a -> a.getStatus() == ApplicationStatus.PENDING
-                        || a.getStatus() == ApplicationStatus.SUCCESSFUL)
-                .count();
+        long activeCount = applicationService.getActiveCountForStudent(student.getId());
 
-        System.out.println("\n(Total number of active applications: " + activeCount + ")\n");
+        table.line("\n(Total number of active applications: " + activeCount + ")\n").print();
         System.out.print("Press enter to return... ");
         sc.nextLine();
         ConsoleUI.sectionHeader("Student View");
@@ -696,8 +694,8 @@ public class StudentView {
             return;
         }
 
-        System.out.printf("%-4s %-10s %-15s %-15s %-25s %-22s %-20s%n",
-                "S/N",
+        ConsoleUI.Table table = new ConsoleUI.Table(4, 14, 15, 15, 25, 22, 20);
+        table.row("S/N",
                 "Request ID",
                 "Application ID",
                 "Opportunity ID",
@@ -705,15 +703,14 @@ public class StudentView {
                 "Company",
                 "Status");
 
-        System.out.println("--------------------------------------------------------------------------------------------------------");
+        table.line("------------------------------------------------------------------------------------------------------------");
 
         int i = 1;
         for (WithdrawalRequest req : requests) {
             Application app = req.getApplication();
             InternshipOpportunity opp = app.getOpportunity();
 
-            System.out.printf("%-4d %-10s %-15s %-15s %-25s %-22s %-20s%n",
-                    i++,
+            table.row(i++,
                     req.getId(),
                     app.getId(),
                     opp.getId(),
@@ -722,23 +719,69 @@ public class StudentView {
                     req.getStatus());
         }
 
-        System.out.println();
-        System.out.println("(Total: " + requests.size() + " withdrawal request(s))\n");
+        table.line("");
+        table.line("(Total: " + requests.size() + " withdrawal request(s))\n").print();
 
         System.out.print("Press enter to return... ");
         sc.nextLine();
         ConsoleUI.sectionHeader("Student View");
     }
 
+    private void rankPendingApplications() {
+        ConsoleUI.sectionHeader("Student View > Rank My Pending Applications");
+
+        List<Application> pending = applicationService.getApplicationsForStudent(student).stream()
+                .filter(Application::isActive)
+                .sorted(Comparator.comparingInt((Application a) -> a.getStudentRank() == 0 ? Integer.MAX_VALUE : a.getStudentRank())
+                        .thenComparing(Application::getAppliedAt))
+                .collect(Collectors.toList());
+
+        if (pending.isEmpty()) {
+            System.out.println("✗ You have no pending applications to rank.\n");
+            System.out.print("Press enter to return... ");
+            sc.nextLine();
+            ConsoleUI.sectionHeader("Student View");
+            return;
+        }
+
+        System.out.println();
+        System.out.printf("%-4s %-15s %-15s %-25s %-22s %-10s%n",
+                "S/N", "Application ID", "Opportunity ID", "Internship Title", "Company", "Rank");
+        System.out.println("--------------------------------------------------------------------------------------------");
+
+        int i = 1;
+        for (Application a : pending) {
+            InternshipOpportunity o = a.getOpportunity();
+            System.out.printf("%-4d %-15s %-15s %-25s %-22s %-10s%n",
+                    i++,
+                    a.getId(),
+                    o.getId(),
+                    o.getTitle(),
+                    o.getCompanyName(),
+                    a.getStudentRank() == 0 ? "-" : String.valueOf(a.getStudentRank()));
+        }
+        System.out.println();
+
+        System.out.println("Your ranking is used when the Career Center runs a slot allocation.");
+        System.out.print("Enter Application IDs from most to least preferred, separated by commas (blank to cancel): ");
+        String input = sc.nextLine().trim();
+
+        if (input.isEmpty()) {
+            System.out.println("Ranking cancelled.\n");
+        } else {
+            applicationService.rankApplications(student, List.of(input.split(",")));
+        }
+
+        System.out.print("\nPress enter to return... ");
+        sc.nextLine();
+        ConsoleUI.sectionHeader("Student View");
+    }
+
     private void applyForAvailableInternships() {
         ConsoleUI.sectionHeader("Student View > Apply For Internships");
 
-        List<InternshipOpportunity> available = opportunityService.getAllOpportunities().stream()
-                .filter(o -> o.getStatus() != OpportunityStatus.REJECTED && o.getStatus() != OpportunityStatus.PENDING)
-                .filter(InternshipOpportunity::isVisible)
-                .filter(o -> o.isEligibleFor(student))
-                .collect(Collectors.toList());
-        
+        List<InternshipOpportunity> available = opportunityService.getListedFor(student, null, false);
+
         if (available.isEmpty()) {
             System.out.println("✗ No internship opportunities available for you.\n");
             System.out.print("Press enter to return... ");
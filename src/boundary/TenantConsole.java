@@ -0,0 +1,111 @@
+package boundary;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import control.Json;
+import control.Tenants;
+import control.Tenants.Tenant;
+
+/**
+ * batch mode over several tenants: the same commands as {@link BatchCommandRunner}, run against
+ * whichever tenant was last selected, plus:
+ * <pre>
+ * tenant &lt;name&gt;   switch to a tenant, loading it if needed
+ * tenants          list the tenant directories
+ * </pre>
+ * each tenant keeps its own staff login and its saves are held back until the script ends.
+ * results carry the tenant they ran against.
+ */
+public class TenantConsole {
+    private final Tenants tenants;
+    private final PrintStream out;
+    private final Map<String, BatchCommandRunner> runners = new LinkedHashMap<>();
+    private Tenant current;
+
+    public TenantConsole(Tenants tenants, PrintStream out) {
+        this.tenants = Objects.requireNonNull(tenants, "tenants must not be null");
+        this.out = Objects.requireNonNull(out, "out must not be null");
+    }
+
+    /**
+     * @param in
+     * @return int number of commands that failed
+     * @throws IOException
+     */
+    public int run(BufferedReader in) throws IOException {
+        int failed = 0;
+        int lineNo = 0;
+        try {
+            String line;
+            while ((line = in.readLine()) != null) {
+                Map<String, Object> result = runLine(line, ++lineNo);
+                if (result == null) continue;
+                if (!Boolean.TRUE.equals(result.get("ok"))) failed++;
+                out.println(Json.encode(result));
+            }
+        } finally {
+            for (BatchCommandRunner r : runners.values()) r.logout();
+            tenants.closeAll();
+        }
+        return failed;
+    }
+
+    /**
+     * @param line
+     * @param lineNo
+     * @return map&lt;string, object&gt; the result, null for a blank or comment line
+     */
+    private Map<String, Object> runLine(String line, int lineNo) {
+        String[] t = line.replaceAll("#.*", "").trim().split("\\s+");
+        String command = t[0].toLowerCase();
+        if (!command.equals("tenant") && !command.equals("tenants")) {
+            if (current == null) {
+                if (command.isEmpty()) return null;
+                return failure(lineNo, command, "no tenant selected; use tenant <name> first");
+            }
+            Map<String, Object> result = runners.get(current.name()).runLine(line, lineNo);
+            if (result != null) result.put("tenant", current.name());
+            return result;
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("line", lineNo);
+        result.put("command", command);
+        if (command.equals("tenants")) {
+            result.put("tenants", tenants.names());
+            result.put("ok", true);
+            return result;
+        }
+        if (t.length < 2) return failure(lineNo, command, "usage: tenant <name>");
+        try {
+            Tenant tenant = tenants.open(t[1]);
+            runners.computeIfAbsent(tenant.name(), k -> {
+                tenant.graph().loader().deferSaves();
+                return new BatchCommandRunner(tenant::graph, tenant.stats(), out, false);
+            });
+            current = tenant;
+            result.put("tenant", tenant.name());
+            result.put("users", tenant.graph().users().size());
+            result.put("opportunities", tenant.graph().opportunities().size());
+            result.put("ok", true);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            result.put("ok", false);
+            result.put("error", e.getMessage());
+        }
+        return result;
+    }
+
+    private static Map<String, Object> failure(int lineNo, String command, String error) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("line", lineNo);
+        result.put("command", command);
+        result.put("ok", false);
+        result.put("error", error);
+        return result;
+    }
+}
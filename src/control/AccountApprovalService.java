@@ -1,21 +1,33 @@
 package control;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 import entity.CareerCenterStaff;
 import entity.CompanyRepresentative;
 import entity.User;
 import enumerations.AccountStatus;
+import event.EventBus;
+import event.RepApproved;
+import event.RepRegistered;
+import event.RepRejected;
 
 public class AccountApprovalService {
     private final List<User> users;  
     private final DataLoader loader;
+    private final EventBus events;
+    private final SystemStats stats;
 
-    public AccountApprovalService(List<User> users, DataLoader loader) {
+    public AccountApprovalService(List<User> users, DataLoader loader, EventBus events, SystemStats stats) {
         this.users  = Objects.requireNonNull(users, "users must not be null");
         this.loader = Objects.requireNonNull(loader, "loader must not be null");
+        this.events = Objects.requireNonNull(events, "events must not be null");
+        this.stats  = Objects.requireNonNull(stats, "stats must not be null");
     }
 
     /** 
@@ -23,6 +35,10 @@ public class AccountApprovalService {
      * @return boolean
      */
     public boolean submitCompanyRepRegistration(CompanyRepresentative rep) {
+        return stats.timed("Register company representative", () -> register(rep));
+    }
+
+    private boolean register(CompanyRepresentative rep) {
         if (rep == null) return false;
 
         final String key = User.canonical(rep.getId());
@@ -34,6 +50,7 @@ public class AccountApprovalService {
         rep.setStatus(AccountStatus.PENDING);
         users.add(rep);
         loader.saveUsers(users);
+        events.publish(new RepRegistered(rep));
         return true;
     }
 
@@ -43,6 +60,10 @@ public class AccountApprovalService {
      * @return boolean
      */
     public boolean approveCompanyRep(CareerCenterStaff staff, CompanyRepresentative rep) {
+        return stats.timed("Approve company representative", () -> approve(staff, rep));
+    }
+
+    private boolean approve(CareerCenterStaff staff, CompanyRepresentative rep) {
         if (staff == null || rep == null) return false;
 
         CompanyRepresentative stored = findRep(rep.getId());
@@ -50,6 +71,7 @@ public class AccountApprovalService {
 
         stored.setStatus(AccountStatus.APPROVED);
         loader.saveUsers(users);
+        events.publish(new RepApproved(stored, staff));
         return true;
     }
 
@@ -59,6 +81,10 @@ public class AccountApprovalService {
      * @return boolean
      */
     public boolean rejectCompanyRep(CareerCenterStaff staff, CompanyRepresentative rep) {
+        return stats.timed("Reject company representative", () -> reject(staff, rep));
+    }
+
+    private boolean reject(CareerCenterStaff staff, CompanyRepresentative rep) {
         if (staff == null || rep == null) return false;
 
         CompanyRepresentative stored = findRep(rep.getId());
@@ -66,9 +92,52 @@ public class AccountApprovalService {
 
         stored.setStatus(AccountStatus.REJECTED);
         loader.saveUsers(users);
+        events.publish(new RepRejected(stored, staff));
         return true;
     }
 
+    /** 
+     * reviews every pending registration the filter selects in one pass and saves the users once.
+     * @param staff
+     * @param which
+     * @param approve
+     * @return int number of registrations reviewed
+     */
+    public int reviewCompanyReps(CareerCenterStaff staff, Predicate<? super CompanyRepresentative> which, boolean approve) {
+        return stats.timed(approve ? "Bulk approve company representatives" : "Bulk reject company representatives", () -> reviewAll(staff, which, approve));
+    }
+
+    private int reviewAll(CareerCenterStaff staff, Predicate<? super CompanyRepresentative> which, boolean approve) {
+        if (staff == null || which == null) return 0;
+
+        List<CompanyRepresentative> reviewed = new ArrayList<>();
+        for (User u : users) {
+            if (u instanceof CompanyRepresentative cr && cr.getStatus() == AccountStatus.PENDING && which.test(cr)) {
+                cr.setStatus(approve ? AccountStatus.APPROVED : AccountStatus.REJECTED);
+                reviewed.add(cr);
+            }
+        }
+        if (reviewed.isEmpty()) return 0;
+
+        loader.saveUsers(users);
+        for (CompanyRepresentative cr : reviewed) {
+            events.publish(approve ? new RepApproved(cr, staff) : new RepRejected(cr, staff));
+        }
+        return reviewed.size();
+    }
+
+    /** 
+     * @param staff
+     * @param ids
+     * @param approve
+     * @return int number of registrations reviewed
+     */
+    public int reviewCompanyReps(CareerCenterStaff staff, Collection<String> ids, boolean approve) {
+        if (ids == null) return 0;
+        Set<String> keys = ids.stream().map(User::canonical).collect(Collectors.toSet());
+        return reviewCompanyReps(staff, cr -> keys.contains(User.canonical(cr.getId())), approve);
+    }
+
     /** 
      * @param id
      * @return CompanyRepresentative
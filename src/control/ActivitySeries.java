@@ -0,0 +1,215 @@
+package control;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import entity.Application;
+import entity.WithdrawalRequest;
+import event.ApplicationDecided;
+import event.ApplicationSubmitted;
+import event.ApplicationWithdrawn;
+import event.EventBus;
+import event.WithdrawalRequested;
+import event.WithdrawalReviewed;
+
+/**
+ * daily activity counters for staffing: applications submitted, decided and withdrawn, and
+ * withdrawal requests raised and reviewed.
+ * each series is a ring of {@code days} int counters indexed by epoch day, so the window slides
+ * forward by zeroing the days it passes and older days fall off the end. counts only ever go up;
+ * archiving records does not take back the activity they caused.
+ * the window is backfilled from the dates kept on the records as each list finishes loading,
+ * archived records included; a decision that was later withdrawn only shows as the withdrawal,
+ * since the record keeps one decision date.
+ */
+public class ActivitySeries {
+
+    public enum Series {
+        APPLIED("Applied"),
+        SUCCESSFUL("Successful"),
+        UNSUCCESSFUL("Unsuccessful"),
+        WITHDRAWN("Withdrawn"),
+        WITHDRAWAL_REQUESTED("Withdrawal Requests"),
+        WITHDRAWAL_REVIEWED("Withdrawal Reviews");
+
+        private final String label;
+
+        Series(String label) {
+            this.label = label;
+        }
+
+        public String label() {
+            return label;
+        }
+    }
+
+    private static final Series[] SERIES = Series.values();
+
+    private final int days;
+    private final int[][] counts;
+    private long lastDay;
+    private volatile EventBus events;
+    private volatile List<?>[] sources = new List<?>[0];
+
+    /**
+     * @param days length of the window, ending today
+     */
+    public ActivitySeries(int days) {
+        if (days <= 0) throw new IllegalArgumentException("days must be positive");
+        this.days = days;
+        this.counts = new int[SERIES.length][days];
+        this.lastDay = LocalDate.now().toEpochDay();
+    }
+
+    /**
+     * counts every dated step of the loaded applications.
+     * @param applications
+     */
+    public synchronized void addApplications(List<Application> applications) {
+        for (Application a : applications) {
+            add(Series.APPLIED, a.getAppliedAt());
+            Series decision = switch (a.getStatus()) {
+                case SUCCESSFUL -> Series.SUCCESSFUL;
+                case UNSUCCESSFUL -> Series.UNSUCCESSFUL;
+                case WITHDRAWN -> Series.WITHDRAWN;
+                default -> null;
+            };
+            if (decision != null) add(decision, a.getDecisionAt());
+        }
+    }
+
+    /**
+     * counts every dated step of the loaded withdrawal requests.
+     * @param withdrawals
+     */
+    public synchronized void addWithdrawals(List<WithdrawalRequest> withdrawals) {
+        for (WithdrawalRequest r : withdrawals) {
+            add(Series.WITHDRAWAL_REQUESTED, r.getRequestedAt());
+            add(Series.WITHDRAWAL_REVIEWED, r.getReviewedAt());
+        }
+    }
+
+    /**
+     * queries wait for these lists to finish loading, since their records are counted as they load.
+     * @param lists
+     */
+    public void waitFor(List<?>... lists) {
+        this.sources = lists.clone();
+    }
+
+    /**
+     * @param events
+     */
+    public void watch(EventBus events) {
+        this.events = events;
+        events.subscribeAsync(ApplicationSubmitted.class, e -> add(Series.APPLIED, e.application().getAppliedAt()));
+        events.subscribeAsync(ApplicationDecided.class, e -> add(e.approved() ? Series.SUCCESSFUL : Series.UNSUCCESSFUL,
+                e.application().getDecisionAt()));
+        events.subscribeAsync(ApplicationWithdrawn.class, e -> add(Series.WITHDRAWN, e.application().getDecisionAt()));
+        events.subscribeAsync(WithdrawalRequested.class, e -> add(Series.WITHDRAWAL_REQUESTED, e.request().getRequestedAt()));
+        events.subscribeAsync(WithdrawalReviewed.class, e -> add(Series.WITHDRAWAL_REVIEWED, e.request().getReviewedAt()));
+    }
+
+    /**
+     * @param series
+     * @param date ignored when null or older than the window
+     */
+    public synchronized void add(Series series, LocalDate date) {
+        if (date == null) return;
+        long day = date.toEpochDay();
+        advance(day);
+        if (day <= lastDay - days) return;
+        counts[series.ordinal()][slot(day)]++;
+    }
+
+    /**
+     * moves the window forward to end on {@code day}, zeroing the days it passes.
+     * @param day
+     */
+    private void advance(long day) {
+        if (day <= lastDay) return;
+        long from = Math.max(lastDay + 1, day - days + 1);
+        for (long d = from; d <= day; d++) {
+            int slot = slot(d);
+            for (int[] c : counts) c[slot] = 0;
+        }
+        lastDay = day;
+    }
+
+    private int slot(long day) {
+        return (int) Math.floorMod(day, (long) days);
+    }
+
+    /**
+     * @return LocalDate the oldest day still kept
+     */
+    public LocalDate getFirstDay() {
+        settle();
+        synchronized (this) {
+            advance(LocalDate.now().toEpochDay());
+            return LocalDate.ofEpochDay(lastDay - days + 1);
+        }
+    }
+
+    /**
+     * @return LocalDate the newest day kept, today unless something was dated in the future
+     */
+    public LocalDate getLastDay() {
+        settle();
+        synchronized (this) {
+            advance(LocalDate.now().toEpochDay());
+            return LocalDate.ofEpochDay(lastDay);
+        }
+    }
+
+    /**
+     * @param series
+     * @param from inclusive
+     * @param to inclusive
+     * @param bucketDays days summed into each bucket; the last bucket may be shorter
+     * @return int[] one count per bucket starting at {@code from}; days outside the window count as zero
+     */
+    public int[] histogram(Series series, LocalDate from, LocalDate to, int bucketDays) {
+        if (bucketDays <= 0) throw new IllegalArgumentException("bucketDays must be positive");
+        if (to.isBefore(from)) throw new IllegalArgumentException("range ends before it starts");
+        settle();
+        return buckets(series, from, to, bucketDays);
+    }
+
+    private synchronized int[] buckets(Series series, LocalDate from, LocalDate to, int bucketDays) {
+        advance(LocalDate.now().toEpochDay());
+
+        long start = from.toEpochDay();
+        long end = to.toEpochDay();
+        long n = (end - start) / bucketDays + 1;
+        if (n > days) throw new IllegalArgumentException("range has more buckets than the " + days + " days kept");
+        int[] c = counts[series.ordinal()];
+        int[] buckets = new int[(int) n];
+        for (long d = Math.max(start, lastDay - days + 1); d <= Math.min(end, lastDay); d++) {
+            buckets[(int) ((d - start) / bucketDays)] += c[slot(d)];
+        }
+        return buckets;
+    }
+
+    /**
+     * waits for the loaded records and the events already published to be counted, so a caller
+     * sees its own changes.
+     */
+    private void settle() {
+        for (List<?> l : sources) l.size();
+        EventBus bus = events;
+        if (bus != null) bus.awaitDelivered();
+    }
+
+    /**
+     * @param series
+     * @param from inclusive
+     * @param to inclusive
+     * @return long
+     */
+    public long total(Series series, LocalDate from, LocalDate to) {
+        long sum = 0;
+        for (int n : histogram(series, from, to, Integer.MAX_VALUE)) sum += n;
+        return sum;
+    }
+}
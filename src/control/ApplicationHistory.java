@@ -0,0 +1,521 @@
+package control;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import entity.Application;
+import entity.InternshipOpportunity;
+import entity.Student;
+import enumerations.ApplicationStatus;
+import enumerations.InternshipLevel;
+import enumerations.Major;
+
+/**
+ * read-only, memory-mapped view of the application history for reporting sessions.
+ * the file is a small header followed by an append-only log of entries: de-duplicated utf-8
+ * strings, fixed-width application records that point at those strings' lengths by file offset, and
+ * removals. each save appends only the records that changed since the last one, and the header's
+ * committed length is moved past them once they are forced to disk, so a reader never sees a
+ * half-written save. the newest record for each application wins; once the log holds more than
+ * twice as many records as applications it is compacted into a fresh file renamed over it.
+ * reads go straight to the mapped pages, strings are only decoded when asked for, and lookups by
+ * student or company compare string offsets instead of strings. files of version 1, one full
+ * snapshot with its strings after the records, are still read; the next save replaces them.
+ */
+public final class ApplicationHistory {
+    private static final int MAGIC = 0x49504d48;
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 24;
+    private static final int RECORD_SIZE = 40;
+    private static final int NO_DATE = Integer.MIN_VALUE;
+
+    private static final byte E_STRING = 1;
+    private static final byte E_RECORD = 2;
+    private static final byte E_REMOVE = 3;
+
+    private static final int F_ID           = 0;
+    private static final int F_STUDENT_ID   = 4;
+    private static final int F_STUDENT_NAME = 8;
+    private static final int F_OPP_ID       = 12;
+    private static final int F_TITLE        = 16;
+    private static final int F_COMPANY      = 20;
+    private static final int F_APPLIED      = 24;
+    private static final int F_DECIDED      = 28;
+    private static final int F_STATUS       = 32;
+    private static final int F_ACCEPTED     = 33;
+    private static final int F_LEVEL        = 34;
+    private static final int F_MAJOR        = 35;
+    private static final int F_YEAR         = 36;
+
+    private static final ApplicationStatus[] STATUSES = ApplicationStatus.values();
+    private static final InternshipLevel[] LEVELS = InternshipLevel.values();
+    private static final Major[] MAJORS = Major.values();
+
+    private final ByteBuffer data;
+    private final int heapBase;
+    private final int[] positions;
+    private final int count;
+
+    private ApplicationHistory(ByteBuffer data, int heapBase, int[] positions) {
+        this.data = data;
+        this.heapBase = heapBase;
+        this.positions = positions;
+        this.count = positions.length;
+    }
+
+    /**
+     * @param path
+     * @return ApplicationHistory
+     * @throws IOException
+     */
+    public static ApplicationHistory open(Path path) throws IOException {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (ch.size() < HEADER_SIZE) throw new IOException("history file is truncated");
+            MappedByteBuffer map = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            map.order(ByteOrder.LITTLE_ENDIAN);
+
+            if (map.getInt(0) != MAGIC) throw new IOException("not an application history file");
+            int version = map.getInt(4);
+            if (version == 1) return openSnapshot(map, ch.size());
+            if (version != VERSION) throw new IOException("unsupported history version " + version);
+
+            long committed = map.getLong(8);
+            if (committed < HEADER_SIZE || committed > ch.size()) throw new IOException("history file is truncated");
+            Map<Integer, Integer> latest = new LinkedHashMap<>();
+            scan(map, committed, (pos, tag) -> {
+                if (tag == E_RECORD) latest.put(map.getInt(pos + 1 + F_ID), pos + 1);
+                else if (tag == E_REMOVE) latest.remove(map.getInt(pos + 1));
+            });
+            int[] positions = new int[latest.size()];
+            int i = 0;
+            for (int p : latest.values()) positions[i++] = p;
+            return new ApplicationHistory(map, 0, positions);
+        }
+    }
+
+    /**
+     * @param map a version 1 file
+     * @param size
+     * @return ApplicationHistory
+     * @throws IOException
+     */
+    private static ApplicationHistory openSnapshot(ByteBuffer map, long size) throws IOException {
+        int count = map.getInt(8);
+        if (map.getInt(12) != RECORD_SIZE) throw new IOException("unexpected history record size");
+        int heapStart = map.getInt(16);
+        int heapLength = map.getInt(20);
+        if (heapStart != HEADER_SIZE + (long) count * RECORD_SIZE || (long) heapStart + heapLength > size) {
+            throw new IOException("history file is truncated");
+        }
+        int[] positions = new int[count];
+        for (int i = 0; i < count; i++) positions[i] = HEADER_SIZE + i * RECORD_SIZE;
+        return new ApplicationHistory(map, heapStart, positions);
+    }
+
+    /**
+     * walks the entries of a version 2 file up to its committed length.
+     * @param map
+     * @param committed
+     * @param visit gets each entry's position and tag
+     * @throws IOException when an entry is malformed
+     */
+    private static void scan(ByteBuffer map, long committed, EntryVisitor visit) throws IOException {
+        int pos = HEADER_SIZE;
+        while (pos < committed) {
+            byte tag = map.get(pos);
+            int next = switch (tag) {
+                case E_STRING -> pos + 5 + map.getInt(pos + 1);
+                case E_RECORD -> pos + 1 + RECORD_SIZE;
+                case E_REMOVE -> pos + 5;
+                default -> -1;
+            };
+            if (next <= pos || next > committed) throw new IOException("history entry at " + pos + " is malformed");
+            visit.entry(pos, tag);
+            pos = next;
+        }
+    }
+
+    private interface EntryVisitor {
+        void entry(int pos, byte tag) throws IOException;
+    }
+
+    /**
+     * @return int
+     */
+    public int size() { return count; }
+
+    public String getId(int i)              { return string(i, F_ID); }
+    public String getStudentId(int i)       { return string(i, F_STUDENT_ID); }
+    public String getStudentName(int i)     { return string(i, F_STUDENT_NAME); }
+    public String getOpportunityId(int i)   { return string(i, F_OPP_ID); }
+    public String getTitle(int i)           { return string(i, F_TITLE); }
+    public String getCompanyName(int i)     { return string(i, F_COMPANY); }
+    public ApplicationStatus getStatus(int i) { return STATUSES[data.get(base(i) + F_STATUS)]; }
+    public boolean isAccepted(int i)        { return data.get(base(i) + F_ACCEPTED) != 0; }
+    public int getYearOfStudy(int i)        { return data.get(base(i) + F_YEAR); }
+
+    /**
+     * @param i
+     * @return InternshipLevel
+     */
+    public InternshipLevel getLevel(int i) {
+        byte b = data.get(base(i) + F_LEVEL);
+        return b < 0 ? null : LEVELS[b];
+    }
+
+    /**
+     * @param i
+     * @return Major
+     */
+    public Major getMajor(int i) {
+        byte b = data.get(base(i) + F_MAJOR);
+        return b < 0 ? null : MAJORS[b];
+    }
+
+    /**
+     * @param i
+     * @return LocalDate
+     */
+    public LocalDate getAppliedAt(int i) {
+        return LocalDate.ofEpochDay(data.getInt(base(i) + F_APPLIED));
+    }
+
+    /**
+     * @param i
+     * @return LocalDate
+     */
+    public LocalDate getDecisionAt(int i) {
+        int d = data.getInt(base(i) + F_DECIDED);
+        return d == NO_DATE ? null : LocalDate.ofEpochDay(d);
+    }
+
+    /**
+     * @return map&lt;applicationstatus, integer&gt;
+     */
+    public Map<ApplicationStatus, Integer> countByStatus() {
+        int[] counts = new int[STATUSES.length];
+        for (int i = 0; i < count; i++) counts[data.get(base(i) + F_STATUS)]++;
+
+        Map<ApplicationStatus, Integer> result = new EnumMap<>(ApplicationStatus.class);
+        for (ApplicationStatus s : STATUSES) result.put(s, counts[s.ordinal()]);
+        return result;
+    }
+
+    /**
+     * @return int
+     */
+    public int countAccepted() {
+        int n = 0;
+        for (int i = 0; i < count; i++) if (data.get(base(i) + F_ACCEPTED) != 0) n++;
+        return n;
+    }
+
+    /**
+     * groups records by company using the heap offset of the company name, so no strings
+     * are decoded until the caller asks for the names.
+     * @return map&lt;string, int[]&gt; per-company counts indexed by status ordinal, accepted count last
+     */
+    public Map<String, int[]> countByCompany() {
+        Map<Integer, int[]> byOffset = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            int b = base(i);
+            int[] c = byOffset.computeIfAbsent(data.getInt(b + F_COMPANY), k -> new int[STATUSES.length + 1]);
+            c[data.get(b + F_STATUS)]++;
+            if (data.get(b + F_ACCEPTED) != 0) c[STATUSES.length]++;
+        }
+
+        Map<String, int[]> result = new HashMap<>();
+        for (Map.Entry<Integer, int[]> e : byOffset.entrySet()) result.put(heapString(e.getKey()), e.getValue());
+        return result;
+    }
+
+    /**
+     * @param studentId
+     * @return list&lt;integer&gt; record indexes, case-insensitive on the id
+     */
+    public List<Integer> findByStudent(String studentId) {
+        List<Integer> hits = new ArrayList<>();
+        if (studentId == null) return hits;
+
+        Map<Integer, Boolean> matches = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            int off = data.getInt(base(i) + F_STUDENT_ID);
+            if (matches.computeIfAbsent(off, k -> heapString(k).equalsIgnoreCase(studentId.trim()))) hits.add(i);
+        }
+        return hits;
+    }
+
+    /**
+     * @param i
+     * @return int
+     */
+    private int base(int i) {
+        if (i < 0 || i >= count) throw new IndexOutOfBoundsException("record " + i + " of " + count);
+        return positions[i];
+    }
+
+    /**
+     * @param i
+     * @param field
+     * @return String
+     */
+    private String string(int i, int field) {
+        return heapString(data.getInt(base(i) + field));
+    }
+
+    /**
+     * @param offset
+     * @return String
+     */
+    private String heapString(int offset) {
+        int len = data.getInt(heapBase + offset);
+        byte[] bytes = new byte[len];
+        data.get(heapBase + offset + 4, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * keeps the history file in step with the applications list for one loader. it remembers the
+     * strings and the last record written for each application, read back from the file the first
+     * time it is used, so each save only encodes records in memory to find the changed ones.
+     */
+    static final class Writer {
+        private static final int MIN_COMPACT_RECORDS = 1024;
+
+        private final Path path;
+        private final Map<String, Integer> offsets = new HashMap<>();
+        private final Map<String, byte[]> written = new HashMap<>();
+        private long committed;
+        private int records;
+
+        /**
+         * @param path
+         * @throws IOException
+         */
+        Writer(Path path) throws IOException {
+            this.path = path;
+            if (Files.exists(path)) load();
+        }
+
+        /**
+         * picks up the strings and newest records of an existing version 2 file. anything else
+         * is left for the first save to replace.
+         * @throws IOException
+         */
+        private void load() throws IOException {
+            try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+                if (ch.size() < HEADER_SIZE) return;
+                ByteBuffer map = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()).order(ByteOrder.LITTLE_ENDIAN);
+                if (map.getInt(0) != MAGIC || map.getInt(4) != VERSION) return;
+                long end = map.getLong(8);
+                if (end < HEADER_SIZE || end > ch.size()) return;
+
+                Map<Integer, String> strings = new HashMap<>();
+                scan(map, end, (pos, tag) -> {
+                    if (tag == E_STRING) {
+                        byte[] bytes = new byte[map.getInt(pos + 1)];
+                        map.get(pos + 5, bytes);
+                        String v = new String(bytes, StandardCharsets.UTF_8);
+                        strings.put(pos + 1, v);
+                        offsets.put(v, pos + 1);
+                    } else if (tag == E_RECORD) {
+                        byte[] rec = new byte[RECORD_SIZE];
+                        map.get(pos + 1, rec);
+                        written.put(strings.get(map.getInt(pos + 1 + F_ID)), rec);
+                        records++;
+                    } else {
+                        written.remove(strings.get(map.getInt(pos + 1)));
+                    }
+                });
+                committed = end;
+            } catch (IOException e) {
+                offsets.clear();
+                written.clear();
+                records = 0;
+                committed = 0;
+            }
+        }
+
+        /**
+         * appends the records that differ from the last ones written, and removals for
+         * applications no longer in the list, then forces them and commits them in the header.
+         * @param applications
+         * @throws IOException
+         */
+        synchronized void sync(List<Application> applications) throws IOException {
+            if (committed == 0) {
+                rewrite(applications);
+                return;
+            }
+
+            Buffer out = new Buffer(4096);
+            Map<String, byte[]> changed = new HashMap<>();
+            Map<String, Integer> added = new HashMap<>();
+            Set<String> seen = new HashSet<>();
+            for (Application a : applications) {
+                seen.add(a.getId());
+                byte[] rec = record(a, out, committed, added);
+                byte[] old = written.get(a.getId());
+                if (old != null && Arrays.equals(old, rec)) continue;
+                out.room(1 + RECORD_SIZE).put(E_RECORD).put(rec);
+                changed.put(a.getId(), rec);
+            }
+            List<String> gone = new ArrayList<>();
+            for (String id : written.keySet()) {
+                if (seen.contains(id)) continue;
+                gone.add(id);
+                out.room(5).put(E_REMOVE).putInt(offsets.get(id));
+            }
+            if (out.position() == 0) return;
+
+            if (records + changed.size() > 2 * applications.size() + MIN_COMPACT_RECORDS) {
+                rewrite(applications);
+                return;
+            }
+
+            ByteBuffer bytes = out.flip();
+            long end = committed + bytes.remaining();
+            try (FileChannel ch = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                long at = committed;
+                while (bytes.hasRemaining()) at += ch.write(bytes, at);
+                ch.force(false);
+                ByteBuffer header = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN).putLong(0, end);
+                while (header.hasRemaining()) ch.write(header, 8 + header.position());
+                ch.force(false);
+            }
+            committed = end;
+            records += changed.size();
+            offsets.putAll(added);
+            written.putAll(changed);
+            gone.forEach(written::remove);
+        }
+
+        /**
+         * writes a compact file holding one record per application, forced and renamed into place.
+         * @param applications
+         * @throws IOException
+         */
+        private void rewrite(List<Application> applications) throws IOException {
+            offsets.clear();
+            written.clear();
+            Buffer out = new Buffer(HEADER_SIZE + applications.size() * (1 + RECORD_SIZE) + 4096);
+            out.room(HEADER_SIZE).position(HEADER_SIZE);
+            for (Application a : applications) {
+                byte[] rec = record(a, out, 0, offsets);
+                out.room(1 + RECORD_SIZE).put(E_RECORD).put(rec);
+                written.put(a.getId(), rec);
+            }
+            long end = out.position();
+            ByteBuffer bytes = out.flip();
+            bytes.putInt(0, MAGIC).putInt(4, VERSION).putLong(8, end).putLong(16, 0);
+
+            Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+            try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (bytes.hasRemaining()) ch.write(bytes);
+                ch.force(true);
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            SnapshotFile.forceDirectory(path.toAbsolutePath().getParent());
+            committed = end;
+            records = applications.size();
+        }
+
+        /**
+         * encodes the application's record, appending any string not written yet to {@code out}.
+         * @param a
+         * @param out where the next entries go
+         * @param base file offset of the start of {@code out}
+         * @param added receives the strings appended, and is searched for the ones appended earlier
+         * @return byte[]
+         */
+        private byte[] record(Application a, Buffer out, long base, Map<String, Integer> added) {
+            Student s = a.getStudent();
+            InternshipOpportunity o = a.getOpportunity();
+            ByteBuffer rec = ByteBuffer.allocate(RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+            String[] values = { a.getId(), s.getId(), s.getName(), o.getId(), o.getTitle(), o.getCompanyName() };
+            for (String value : values) {
+                String v = value == null ? "" : value;
+                Integer off = offsets.get(v);
+                if (off == null) off = added.get(v);
+                if (off == null) {
+                    byte[] bytes = v.getBytes(StandardCharsets.UTF_8);
+                    off = (int) (base + out.position() + 1);
+                    out.room(5 + bytes.length).put(E_STRING).putInt(bytes.length).put(bytes);
+                    added.put(v, off);
+                }
+                rec.putInt(off);
+            }
+            rec.putInt((int) a.getAppliedAt().toEpochDay());
+            rec.putInt(a.getDecisionAt() == null ? NO_DATE : (int) a.getDecisionAt().toEpochDay());
+            rec.put((byte) a.getStatus().ordinal());
+            rec.put((byte) (a.isAccepted() ? 1 : 0));
+            rec.put((byte) (o.getLevel() == null ? -1 : o.getLevel().ordinal()));
+            rec.put((byte) (s.getMajor() == null ? -1 : s.getMajor().ordinal()));
+            rec.put((byte) s.getYearOfStudy());
+            return rec.array();
+        }
+    }
+
+    /**
+     * little-endian byte buffer that grows as entries are added to it.
+     */
+    private static final class Buffer {
+        private ByteBuffer buf;
+
+        Buffer(int capacity) {
+            buf = ByteBuffer.allocate(capacity).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        /**
+         * @param needed
+         * @return ByteBuffer with at least {@code needed} bytes left
+         */
+        ByteBuffer room(int needed) {
+            buf = ensure(buf, needed);
+            return buf;
+        }
+
+        int position() {
+            return buf.position();
+        }
+
+        /**
+         * @return ByteBuffer the bytes added, ready to be written
+         */
+        ByteBuffer flip() {
+            return buf.flip();
+        }
+    }
+
+    /**
+     * @param buf
+     * @param needed
+     * @return ByteBuffer
+     */
+    private static ByteBuffer ensure(ByteBuffer buf, int needed) {
+        if (buf.remaining() >= needed) return buf;
+        ByteBuffer bigger = ByteBuffer.allocate(Math.max(buf.capacity() * 2, buf.position() + needed)).order(ByteOrder.LITTLE_ENDIAN);
+        buf.flip();
+        return bigger.put(buf);
+    }
+}
@@ -1,31 +1,72 @@
 package control;
 
 import java.util.*;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import entity.Application;
+import entity.ApplicationCounts;
 import entity.CareerCenterStaff;
 import entity.CompanyRepresentative;
 import entity.InternshipOpportunity;
 import entity.Student;
+import entity.User;
 import entity.WithdrawalRequest;
 import enumerations.ApplicationStatus;
 import enumerations.OpportunityStatus;
 import enumerations.WithdrawalStatus;
+import event.ApplicationDecided;
+import event.ApplicationSubmitted;
+import event.ApplicationWithdrawn;
+import event.EventBus;
+import event.OfferAccepted;
+import event.OpportunitySlotsChanged;
+import event.WithdrawalRequested;
+import event.WithdrawalReviewed;
 
 public class ApplicationService {
-    private static final int MAX_ACTIVE_APPS = 3;
+    private static final int MAX_ACTIVE_APPS = Student.MAX_ACTIVE_APPLICATIONS;
 
     private final List<Application> applications;
+    private final CompanyIndex companies;
     private final DataLoader loader;
     private final List<WithdrawalRequest> withdrawalRequests;
     private List<InternshipOpportunity> opportunities;
-
-    public ApplicationService(List<Application> applications, List<InternshipOpportunity> opportunities, List<WithdrawalRequest> withdrawalRequests, DataLoader loader) {
+    private final List<User> users;
+    private Map<String, InternshipOpportunity> opportunityById = new HashMap<>();
+    private Map<String, Student> studentById = new HashMap<>();
+    private Map<String, List<Application>> applicationsByStudent;
+    private boolean countsChecked;
+    private final IdGenerator ids;
+    private boolean idsObserved;
+    private final EventBus events;
+    private final SystemStats stats;
+
+    public ApplicationService(List<Application> applications, List<InternshipOpportunity> opportunities, List<WithdrawalRequest> withdrawalRequests, List<User> users, CompanyIndex companies, DataLoader loader, IdGenerator ids, EventBus events, SystemStats stats) {
         this.applications = Objects.requireNonNull(applications);
+        this.companies = Objects.requireNonNull(companies);
         this.loader = Objects.requireNonNull(loader);
         this.withdrawalRequests = Objects.requireNonNull(withdrawalRequests);
         this.opportunities = Objects.requireNonNull(opportunities);
+        this.users = Objects.requireNonNull(users);
+        this.ids = Objects.requireNonNull(ids);
+        this.events = Objects.requireNonNull(events);
+        this.stats = Objects.requireNonNull(stats);
+    }
+
+    /** 
+     * ids on disk are only observed when the first new id is minted, so a lazily loaded
+     * history is not forced at startup.
+     * @param prefix
+     * @return String
+     */
+    private String nextId(String prefix) {
+        if (!idsObserved) {
+            applications.forEach(a -> ids.observe(a.getId()));
+            withdrawalRequests.forEach(r -> ids.observe(r.getId()));
+            idsObserved = true;
+        }
+        return ids.next(prefix);
     }
 
     /** 
@@ -34,6 +75,10 @@ public class ApplicationService {
      * @return Application
      */
     public Application applyForOpportunity(Student student, InternshipOpportunity opp) {
+        return stats.timed("Apply for internship", () -> submitApplication(student, opp));
+    }
+
+    private Application submitApplication(Student student, InternshipOpportunity opp) {
         if (student == null || opp == null) return null;
 
         if (!opp.isOpenFor(student)) return null;
@@ -42,21 +87,197 @@ public class ApplicationService {
 
         if (hasActiveApplication(student, opp)) return null;
 
-        String appId = "APP-" + UUID.randomUUID().toString().substring(0, 6).toUpperCase();
+        String appId = nextId("APP");
         Application app = new Application(appId, student, opp); 
+        ensureCounts();
         applications.add(app);
+        if (applicationsByStudent != null) index(app);
+        count(app, null, false);
         save();
+        events.publish(new ApplicationSubmitted(app));
         return app;
     }
 
+    /** 
+     * @param opp
+     * @return int
+     */
+    public int getPendingCountForOpportunity(InternshipOpportunity opp) {
+        ApplicationCounts c = getCountsForOpportunity(opp);
+        return c == null ? 0 : c.getPending();
+    }
+
+    /** 
+     * @param opp
+     * @return ApplicationCounts kept on the loaded opportunity with the same id, null if there is none
+     */
+    public ApplicationCounts getCountsForOpportunity(InternshipOpportunity opp) {
+        if (opp == null) return null;
+        ensureCounts();
+        InternshipOpportunity master = masterOpportunity(opp.getId());
+        return master == null ? null : master.getCounts();
+    }
+
+    /** 
+     * @param student
+     * @return ApplicationCounts kept on the loaded student with the same id, null if there is none
+     */
+    public ApplicationCounts getCountsForStudent(Student student) {
+        if (student == null) return null;
+        ensureCounts();
+        Student master = masterStudent(student.getId());
+        return master == null ? null : master.getCounts();
+    }
+
+    /** 
+     * applications, opportunities and users are saved to separate files, so an application
+     * usually points at its own copy of the student and the opportunity; the counters live on
+     * the instances in the loaded user and opportunity lists.
+     * @param id
+     * @return InternshipOpportunity
+     */
+    private InternshipOpportunity masterOpportunity(String id) {
+        String key = id.toLowerCase();
+        InternshipOpportunity o = opportunityById.get(key);
+        if (o == null) {
+            opportunityById = new HashMap<>();
+            for (InternshipOpportunity x : opportunities) opportunityById.put(x.getId().toLowerCase(), x);
+            o = opportunityById.get(key);
+        }
+        return o;
+    }
+
+    /** 
+     * @param id
+     * @return Student
+     */
+    private Student masterStudent(String id) {
+        String key = id.toLowerCase();
+        Student s = studentById.get(key);
+        if (s == null) {
+            studentById = new HashMap<>();
+            for (User u : users) if (u instanceof Student st) studentById.put(st.getId().toLowerCase(), st);
+            s = studentById.get(key);
+        }
+        return s;
+    }
+
+    /** 
+     * the application list is the record; saved counters are only trusted once they agree with it.
+     * the first time counters are needed, and before any transition moves them, they are counted
+     * from the applications, and every student or opportunity whose saved counters are missing or
+     * differ takes the counted ones. after that they are only ever adjusted.
+     */
+    private void ensureCounts() {
+        if (countsChecked) return;
+        countsChecked = true;
+
+        Map<String, ApplicationCounts> byStudent = new HashMap<>();
+        Map<String, ApplicationCounts> byOpportunity = new HashMap<>();
+        for (Application a : applications) {
+            byStudent.computeIfAbsent(a.getStudent().getId().toLowerCase(), k -> new ApplicationCounts())
+                    .move(null, false, a.getStatus(), a.isAccepted());
+            byOpportunity.computeIfAbsent(a.getOpportunity().getId().toLowerCase(), k -> new ApplicationCounts())
+                    .move(null, false, a.getStatus(), a.isAccepted());
+        }
+
+        int corrected = 0;
+        for (InternshipOpportunity o : opportunities) {
+            ApplicationCounts counted = byOpportunity.getOrDefault(o.getId().toLowerCase(), new ApplicationCounts());
+            if (counted.equals(o.getCounts())) continue;
+            if (o.getCounts() != null) corrected++;
+            o.setCounts(counted);
+        }
+        for (User u : users) {
+            if (!(u instanceof Student s)) continue;
+            ApplicationCounts counted = byStudent.getOrDefault(s.getId().toLowerCase(), new ApplicationCounts());
+            if (counted.equals(s.getCounts())) continue;
+            if (s.getCounts() != null) corrected++;
+            s.setCounts(counted);
+        }
+        if (corrected > 0) {
+            System.err.println("corrected application counters on " + corrected + " students and opportunities");
+        }
+    }
+
+    /** 
+     * moves the application between counters on its student and its opportunity. the counters
+     * must have been checked before the application changed, or the check would count it twice.
+     * @param app
+     * @param from status before the transition, null for a new application
+     * @param fromAccepted
+     */
+    private void count(Application app, ApplicationStatus from, boolean fromAccepted) {
+        Student student = masterStudent(app.getStudent().getId());
+        InternshipOpportunity opp = masterOpportunity(app.getOpportunity().getId());
+        if (student != null) student.getCounts().move(from, fromAccepted, app.getStatus(), app.isAccepted());
+        if (opp != null) opp.getCounts().move(from, fromAccepted, app.getStatus(), app.isAccepted());
+    }
+
+    /** 
+     * takes applications that are leaving the list for the archive off the counters of their
+     * student and opportunity, and out of the per-student index. must be called while they are
+     * still in the list, so counters not checked yet are counted with them before they are taken off.
+     * @param archived
+     */
+    public void uncountArchived(Collection<Application> archived) {
+        ensureCounts();
+        for (Application app : archived) {
+            Student student = masterStudent(app.getStudent().getId());
+            InternshipOpportunity opp = masterOpportunity(app.getOpportunity().getId());
+            if (student != null) student.getCounts().remove(app.getStatus(), app.isAccepted());
+            if (opp != null) opp.getCounts().remove(app.getStatus(), app.isAccepted());
+            if (applicationsByStudent != null) {
+                List<Application> own = applicationsByStudent.get(app.getStudent().getId().toLowerCase());
+                if (own != null) own.remove(app);
+            }
+        }
+    }
+
+    /** 
+     * @param app
+     * @param approve
+     */
+    private void decide(Application app, boolean approve) {
+        ensureCounts();
+        ApplicationStatus previous = app.getStatus();
+        boolean wasAccepted = app.isAccepted();
+        app.markDecision(approve);
+        count(app, previous, wasAccepted);
+        events.publish(new ApplicationDecided(app, previous, approve));
+    }
+
+    /** 
+     * @param app
+     */
+    private void accept(Application app) {
+        ensureCounts();
+        app.markAccepted();
+        count(app, ApplicationStatus.SUCCESSFUL, false);
+        events.publish(new OfferAccepted(app));
+    }
+
+    /** 
+     * @param app
+     */
+    private void withdraw(Application app) {
+        ensureCounts();
+        ApplicationStatus previous = app.getStatus();
+        boolean wasAccepted = app.isAccepted();
+        app.markWithdrawn();
+        count(app, previous, wasAccepted);
+        events.publish(new ApplicationWithdrawn(app, previous, wasAccepted));
+    }
+
     /** 
      * @param studentId
      * @return long
      */
     public long getActiveCountForStudent(String studentId) {
-        return applications.stream()
-                .filter(a -> a.getStudent().getId().equalsIgnoreCase(studentId) && a.isActive())
-                .count();
+        if (studentId == null) return 0;
+        ensureCounts();
+        Student s = masterStudent(studentId);
+        return s == null ? 0 : s.getCounts().getActive();
     }
 
     /** 
@@ -82,13 +303,21 @@ public class ApplicationService {
     }
 
     /** 
+     * reads the per-student index, which is built from the list the first time it is needed, so
+     * a lazily loaded history is not forced at startup.
      * @param student
-     * @return list&lt;application&gt;
+     * @return list&lt;application&gt; in list order
      */
     public List<Application> getApplicationsForStudent(Student student) {
-        return applications.stream()
-                .filter(a -> a.getStudent().getId().equalsIgnoreCase(student.getId()))
-                .toList();
+        if (applicationsByStudent == null) {
+            applicationsByStudent = new HashMap<>();
+            for (Application a : applications) index(a);
+        }
+        return List.copyOf(applicationsByStudent.getOrDefault(student.getId().toLowerCase(), List.of()));
+    }
+
+    private void index(Application app) {
+        applicationsByStudent.computeIfAbsent(app.getStudent().getId().toLowerCase(), k -> new ArrayList<>()).add(app);
     }
 
     private void save() {
@@ -114,9 +343,8 @@ public class ApplicationService {
      * @return list&lt;application&gt;
      */
     public List<Application> getApplicationsByRepresentative(CompanyRepresentative rep) {
-        return applications.stream()
-                .filter(a -> a.getOpportunity() != null
-                        && a.getOpportunity().getRepInCharge() != null
+        return companies.applications(rep.getCompanyName()).stream()
+                .filter(a -> a.getOpportunity().getRepInCharge() != null
                         && a.getOpportunity().getRepInCharge().equals(rep))
                 .collect(Collectors.toList());
     }
@@ -127,29 +355,149 @@ public class ApplicationService {
      * @param approve
      */
     public void decideApplication(CompanyRepresentative rep, Application app, boolean approve) {
+        stats.timed("Decide application", () -> decideOne(rep, app, approve));
+    }
+
+    private void decideOne(CompanyRepresentative rep, Application app, boolean approve) {
         InternshipOpportunity opp = app.getOpportunity();
 
-        if (approve) {
-            if (opp.getConfirmedSlots() >= opp.getSlots()) {
-                System.out.println("✗ No more slots available. Application is automatically rejected.");
-                app.markDecision(false);
-                return;
-            }
+        boolean full = companies.locked(opp.getCompanyName(), () -> {
+            boolean noSlots = approve && opp.getConfirmedSlots() >= opp.getSlots();
+            decide(app, approve && !noSlots);
+            return noSlots;
+        });
+        if (full) {
+            System.out.println("✗ No more slots available. Application is automatically rejected.");
+            return;
         }
 
-        app.markDecision(approve);
-
         System.out.println(approve
                 ? "✓ Application marked as successful."
                 : "✓ Application marked as unsuccessful.");
         save();
     }
 
+    /**
+     * approves the n earliest pending applicants of one of the rep's postings by applied date.
+     * @param rep
+     * @param opportunityId
+     * @param n
+     * @param rejectRest also reject every other pending applicant of the posting
+     * @return int number of applications decided
+     */
+    public int approveEarliestApplicants(CompanyRepresentative rep, String opportunityId, int n, boolean rejectRest) {
+        List<Application> pending = pendingForRepresentative(rep, opportunityId);
+        pending.sort(Comparator.comparing(Application::getAppliedAt).thenComparing(Application::getId));
+
+        int cut = Math.max(0, Math.min(n, pending.size()));
+        List<Application> rest = rejectRest ? pending.subList(cut, pending.size()) : List.of();
+        return decideAll(rep, pending.subList(0, cut), rest, "Batch approve earliest applicants");
+    }
+
+    /**
+     * @param rep
+     * @param opportunityId
+     * @return int number of applications rejected
+     */
+    public int rejectRemainingApplicants(CompanyRepresentative rep, String opportunityId) {
+        return decideAll(rep, List.of(), pendingForRepresentative(rep, opportunityId), "Batch reject remaining applicants");
+    }
+
+    /**
+     * @param rep
+     * @param applicationIds
+     * @param approve
+     * @return int number of applications decided, 0 when an id is not a pending application of the rep
+     */
+    public int decideApplications(CompanyRepresentative rep, Collection<String> applicationIds, boolean approve) {
+        if (applicationIds == null) return 0;
+
+        Map<String, Application> byId = new HashMap<>();
+        for (Application a : pendingForRepresentative(rep, null)) byId.put(a.getId().toLowerCase(), a);
+
+        Set<Application> chosen = new LinkedHashSet<>();
+        for (String id : applicationIds) {
+            Application a = byId.get(id.trim().toLowerCase());
+            if (a == null) {
+                System.out.println("✗ Invalid or already decided Application ID: " + id.trim());
+                return 0;
+            }
+            chosen.add(a);
+        }
+        List<Application> list = new ArrayList<>(chosen);
+        return approve
+                ? decideAll(rep, list, List.of(), "Batch approve applications")
+                : decideAll(rep, List.of(), list, "Batch reject applications");
+    }
+
+    /**
+     * @param rep
+     * @param opportunityId null for all of the rep's postings
+     * @return list&lt;application&gt;
+     */
+    private List<Application> pendingForRepresentative(CompanyRepresentative rep, String opportunityId) {
+        if (rep == null) return new ArrayList<>();
+        return getApplicationsByRepresentative(rep).stream()
+                .filter(Application::isActive)
+                .filter(a -> opportunityId == null || a.getOpportunity().getId().equalsIgnoreCase(opportunityId.trim()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * slot capacity is checked once per posting before anything changes; approvals for a posting
+     * that is already full are turned into rejections, as with a single decision.
+     * @param rep
+     * @param approve
+     * @param reject
+     * @param operation
+     * @return int number of applications decided
+     */
+    private int decideAll(CompanyRepresentative rep, List<Application> approve, List<Application> reject, String operation) {
+        return stats.timed(operation, () -> decideBatch(rep, approve, reject));
+    }
+
+    private int decideBatch(CompanyRepresentative rep, List<Application> approve, List<Application> reject) {
+        if (rep == null || approve.isEmpty() && reject.isEmpty()) {
+            System.out.println("✗ No pending applications to decide.");
+            return 0;
+        }
+
+        int approved = companies.locked(rep.getCompanyName(), () -> {
+            Map<String, Boolean> vacancy = new HashMap<>();
+            int opened = 0;
+            for (Application a : approve) {
+                InternshipOpportunity opp = a.getOpportunity();
+                boolean open = vacancy.computeIfAbsent(opp.getId().toLowerCase(), k -> {
+                    InternshipOpportunity master = masterOpportunity(k);
+                    return (master != null ? master : opp).hasVacancy();
+                });
+                decide(a, open);
+                if (open) opened++;
+            }
+            for (Application a : reject) decide(a, false);
+            return opened;
+        });
+        int autoRejected = approve.size() - approved;
+
+        save();
+
+        if (autoRejected > 0) {
+            System.out.println("✗ No more slots available. " + autoRejected + " application(s) automatically rejected.");
+        }
+        System.out.println("✓ " + approved + " application(s) marked as successful, "
+                + (reject.size() + autoRejected) + " marked as unsuccessful.");
+        return approve.size() + reject.size();
+    }
+
     /** 
      * @param student
      * @param app
      */
     public void acceptOffer(Student student, Application app) {
+        stats.timed("Accept offer", () -> takeOffer(student, app));
+    }
+
+    private void takeOffer(Student student, Application app) {
         if (app.getStatus() != ApplicationStatus.SUCCESSFUL) {
             System.out.println("✗ Cannot accept — Application is not successful.");
             return;
@@ -165,18 +513,20 @@ public class ApplicationService {
         String oppId = app.getOpportunity().getId();
         InternshipOpportunity opp = findMasterOpportunity(oppId);
 
-
-        if (opp.getConfirmedSlots() >= opp.getSlots()) {
+        boolean taken = companies.locked(opp.getCompanyName(), () -> {
+            if (opp.getConfirmedSlots() >= opp.getSlots()) return false;
+            accept(app);
+            opp.incrementConfirmedSlots();
+            if (opp.getConfirmedSlots() >= opp.getSlots()) {
+                opp.setStatus(OpportunityStatus.FILLED);
+            }
+            return true;
+        });
+        if (!taken) {
             System.out.println("✗ No remaining slots available for this opportunity.");
             return;
         }
-
-        app.markAccepted();
-        opp.incrementConfirmedSlots();
-
-        if (opp.getConfirmedSlots() >= opp.getSlots()) {
-            opp.setStatus(OpportunityStatus.FILLED);
-        }
+        events.publish(new OpportunitySlotsChanged(opp));
 
         withdrawOtherOffers(student, app);
 
@@ -195,19 +545,170 @@ public class ApplicationService {
             if (a.getStudent().equals(student) && !a.equals(acceptedApp)) {
                 if (a.getStatus() == ApplicationStatus.PENDING || 
                     a.getStatus() == ApplicationStatus.SUCCESSFUL) {
-                    a.markWithdrawn();
+                    withdraw(a);
                 }
             }
         }
     }
 
+    /** 
+     * @param student
+     * @param orderedIds
+     * @return boolean
+     */
+    public boolean rankApplications(Student student, List<String> orderedIds) {
+        return stats.timed("Rank applications", () -> storeStudentRanking(student, orderedIds));
+    }
+
+    private boolean storeStudentRanking(Student student, List<String> orderedIds) {
+        if (student == null || orderedIds == null) return false;
+
+        List<Application> pending = getApplicationsForStudent(student).stream()
+                .filter(Application::isActive)
+                .collect(Collectors.toList());
+        if (!applyRanking(pending, orderedIds, Application::setStudentRank)) return false;
+
+        save();
+        System.out.println("✓ Application preferences saved.");
+        return true;
+    }
+
+    /** 
+     * @param rep
+     * @param opp
+     * @param orderedIds
+     * @return boolean
+     */
+    public boolean rankApplicants(CompanyRepresentative rep, InternshipOpportunity opp, List<String> orderedIds) {
+        return stats.timed("Rank applicants", () -> storeRepRanking(rep, opp, orderedIds));
+    }
+
+    private boolean storeRepRanking(CompanyRepresentative rep, InternshipOpportunity opp, List<String> orderedIds) {
+        if (rep == null || opp == null || orderedIds == null) return false;
+
+        List<Application> pending = getApplicationsByRepresentative(rep).stream()
+                .filter(Application::isActive)
+                .filter(a -> a.getOpportunity().getId().equalsIgnoreCase(opp.getId()))
+                .collect(Collectors.toList());
+        if (!applyRanking(pending, orderedIds, Application::setRepRank)) return false;
+
+        save();
+        System.out.println("✓ Applicant ranking saved.");
+        return true;
+    }
+
+    /** 
+     * @param pool
+     * @param orderedIds
+     * @param setter
+     * @return boolean
+     */
+    private boolean applyRanking(List<Application> pool, List<String> orderedIds,
+                                 java.util.function.ObjIntConsumer<Application> setter) {
+        Map<String, Application> byId = new HashMap<>();
+        for (Application a : pool) byId.put(a.getId().toLowerCase(), a);
+
+        List<Application> ordered = new ArrayList<>();
+        for (String id : orderedIds) {
+            Application a = byId.get(id.trim().toLowerCase());
+            if (a == null || ordered.contains(a)) {
+                System.out.println("✗ Invalid or duplicate Application ID: " + id.trim());
+                return false;
+            }
+            ordered.add(a);
+        }
+
+        for (Application a : pool) setter.accept(a, 0);
+        for (int i = 0; i < ordered.size(); i++) setter.accept(ordered.get(i), i + 1);
+        return true;
+    }
+
+    /** 
+     * @param staff
+     * @return int
+     */
+    public int allocateSlots(CareerCenterStaff staff) {
+        return stats.timed("Slot allocation", () -> allocate(staff));
+    }
+
+    private int allocate(CareerCenterStaff staff) {
+        Map<String, InternshipOpportunity> oppById = new HashMap<>();
+        for (InternshipOpportunity o : opportunities) oppById.put(o.getId().toLowerCase(), o);
+
+        Set<String> placed = new HashSet<>();
+        Map<String, List<Application>> openByStudent = new HashMap<>();
+        for (Application a : applications) {
+            String sid = a.getStudent().getId().toLowerCase();
+            if (a.isAccepted()) placed.add(sid);
+            if (a.getStatus() == ApplicationStatus.PENDING || a.getStatus() == ApplicationStatus.SUCCESSFUL) {
+                openByStudent.computeIfAbsent(sid, k -> new ArrayList<>()).add(a);
+            }
+        }
+
+        Map<String, Integer> capacity = new HashMap<>();
+        List<Application> candidates = new ArrayList<>();
+        for (Application a : applications) {
+            if (!a.isActive() || placed.contains(a.getStudent().getId().toLowerCase())) continue;
+
+            InternshipOpportunity opp = oppById.get(a.getOpportunity().getId().toLowerCase());
+            if (opp == null || opp.getStatus() != OpportunityStatus.APPROVED || !opp.hasVacancy()) continue;
+
+            capacity.putIfAbsent(opp.getId().toLowerCase(), opp.getSlots() - opp.getConfirmedSlots());
+            candidates.add(a);
+        }
+
+        if (candidates.isEmpty()) {
+            System.out.println("✗ No pending applications to allocate.");
+            return 0;
+        }
+
+        List<Application> matched = StableMatcher.match(candidates, capacity);
+
+        for (Application a : matched) {
+            InternshipOpportunity opp = oppById.get(a.getOpportunity().getId().toLowerCase());
+            companies.locked(opp.getCompanyName(), () -> {
+                decide(a, true);
+                accept(a);
+
+                opp.incrementConfirmedSlots();
+                if (opp.getConfirmedSlots() >= opp.getSlots()) {
+                    opp.setStatus(OpportunityStatus.FILLED);
+                }
+                return null;
+            });
+            events.publish(new OpportunitySlotsChanged(opp));
+
+            for (Application other : openByStudent.get(a.getStudent().getId().toLowerCase())) {
+                if (other == a || other.getStatus() == ApplicationStatus.WITHDRAWN) continue;
+                withdraw(other);
+            }
+        }
+
+        int unsuccessful = 0;
+        for (Application a : candidates) {
+            if (a.isActive()) {
+                decide(a, false);
+                unsuccessful++;
+            }
+        }
+
+        save();
+        System.out.println("✓ Slot allocation completed: " + matched.size() + " placement(s) confirmed, "
+                + unsuccessful + " application(s) unsuccessful.");
+        return matched.size();
+    }
+
     /** 
      * @param student
      * @param app
      */
     public void rejectOffer(Student student, Application app) {
+        stats.timed("Reject offer", () -> declineOffer(student, app));
+    }
 
-        app.markWithdrawn();
+    private void declineOffer(Student student, Application app) {
+
+        withdraw(app);
 
         System.out.println("✓ Offer rejected successfully.");
         save();
@@ -229,6 +730,10 @@ public class ApplicationService {
      * @return boolean
      */
     public boolean submitWithdrawalRequest(Student student, Application application) {
+        return stats.timed("Request withdrawal", () -> requestWithdrawal(student, application));
+    }
+
+    private boolean requestWithdrawal(Student student, Application application) {
         if (student == null || application == null) return false;
         if (!application.getStudent().equals(student)) return false;
 
@@ -243,11 +748,12 @@ public class ApplicationService {
             return false;
         }
 
-        String id = "WR-" + UUID.randomUUID().toString().substring(0, 6).toUpperCase();
+        String id = nextId("WR");
         WithdrawalRequest request = new WithdrawalRequest(id, application, student);
         withdrawalRequests.add(request);
 
         save();
+        events.publish(new WithdrawalRequested(request));
 
         System.out.println("✓ Withdrawal request submitted successfully (pending approval by career center staff).");
         return true;
@@ -268,8 +774,12 @@ public class ApplicationService {
      * @param approve
      */
     public void reviewWithdrawalRequest(CareerCenterStaff staff, WithdrawalRequest req, boolean approve) {
+        stats.timed("Review withdrawal", () -> reviewWithdrawal(staff, req, approve));
+    }
+
+    private void reviewWithdrawal(CareerCenterStaff staff, WithdrawalRequest req, boolean approve) {
         if (req == null) return;
-        
+    
         Application reqApp = req.getApplication();
 
         Application app = findMasterApplication(reqApp);
@@ -284,23 +794,9 @@ public class ApplicationService {
             opp != null ? opp.getSlots() : -1
         );
 
-        req.review(staff, approve);
+        review(staff, req, app, opp, approve);
 
         if (approve) {
-
-            if (app.getStatus() == ApplicationStatus.SUCCESSFUL && app.isAccepted()) {
-                if (opp != null) {
-                    opp.decrementConfirmedSlots();
-
-                    if (opp.getStatus() == OpportunityStatus.FILLED && opp.hasVacancy()) {
-                        opp.setStatus(OpportunityStatus.APPROVED);
-                    }
-                } 
-            }
-
-            app.markWithdrawn();
-
-
             System.out.printf(
                 app.getId(), app.getStatus(), app.isAccepted(),
                 opp != null ? opp.getId() : "null",
@@ -314,6 +810,74 @@ public class ApplicationService {
         }
 
         save();
+        events.publish(new WithdrawalReviewed(req, approve));
+    }
+
+    /** 
+     * reviews every pending withdrawal request the filter selects in one pass and saves once.
+     * @param staff
+     * @param which
+     * @param approve
+     * @return int number of requests reviewed
+     */
+    public int reviewWithdrawalRequests(CareerCenterStaff staff, Predicate<? super WithdrawalRequest> which, boolean approve) {
+        return stats.timed(approve ? "Bulk approve withdrawals" : "Bulk reject withdrawals", () -> reviewWithdrawals(staff, which, approve));
+    }
+
+    private int reviewWithdrawals(CareerCenterStaff staff, Predicate<? super WithdrawalRequest> which, boolean approve) {
+        if (staff == null || which == null) return 0;
+
+        Map<String, Application> appById = new HashMap<>();
+        for (Application a : applications) appById.putIfAbsent(a.getId(), a);
+
+        List<WithdrawalRequest> reviewed = new ArrayList<>();
+        for (WithdrawalRequest req : withdrawalRequests) {
+            if (req.getStatus() != WithdrawalStatus.PENDING || !which.test(req)) continue;
+            Application app = appById.getOrDefault(req.getApplication().getId(), req.getApplication());
+            review(staff, req, app, masterOpportunity(app.getOpportunity().getId()), approve);
+            reviewed.add(req);
+        }
+        if (reviewed.isEmpty()) return 0;
+
+        save();
+        for (WithdrawalRequest req : reviewed) events.publish(new WithdrawalReviewed(req, approve));
+        return reviewed.size();
+    }
+
+    /** 
+     * @param staff
+     * @param ids
+     * @param approve
+     * @return int number of requests reviewed
+     */
+    public int reviewWithdrawalRequests(CareerCenterStaff staff, Collection<String> ids, boolean approve) {
+        if (ids == null) return 0;
+        Set<String> keys = ids.stream().map(id -> id.trim().toLowerCase()).collect(Collectors.toSet());
+        return reviewWithdrawalRequests(staff, r -> keys.contains(r.getId().toLowerCase()), approve);
+    }
+
+    /** 
+     * @param staff
+     * @param req
+     * @param app the loaded instance of the request's application
+     * @param opp the loaded instance of its opportunity, may be null
+     * @param approve
+     */
+    private void review(CareerCenterStaff staff, WithdrawalRequest req, Application app, InternshipOpportunity opp, boolean approve) {
+        req.review(staff, approve);
+        if (!approve) return;
+
+        if (app.getStatus() == ApplicationStatus.SUCCESSFUL && app.isAccepted() && opp != null) {
+            companies.locked(opp.getCompanyName(), () -> {
+                opp.decrementConfirmedSlots();
+                if (opp.getStatus() == OpportunityStatus.FILLED && opp.hasVacancy()) {
+                    opp.setStatus(OpportunityStatus.APPROVED);
+                }
+                return null;
+            });
+            events.publish(new OpportunitySlotsChanged(opp));
+        }
+        withdraw(app);
     }
 
     /** 
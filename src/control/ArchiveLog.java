@@ -0,0 +1,114 @@
+package control;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * append-only log of gzip-compressed frames used by the cold archive.
+ * every frame is {@code [length][crc32c][gzip bytes]} and is forced to disk before the append
+ * returns. a frame cut short by a crash runs past the end of the file; it is skipped on read and
+ * cut off before the next append. a whole frame whose checksum fails, e.g. after a bit flip, is
+ * skipped by its length and reported, and the frames after it are still read, since the records
+ * in them are no longer anywhere else.
+ */
+public final class ArchiveLog {
+
+    private ArchiveLog() {}
+
+    /**
+     * @param path
+     * @param payload
+     * @throws IOException
+     */
+    public static void append(Path path, SnapshotFile.Payload payload) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gz = new GZIPOutputStream(bytes, 1 << 16)) {
+            payload.writeTo(gz);
+        }
+        byte[] body = bytes.toByteArray();
+
+        CRC32C crc = new CRC32C();
+        crc.update(body);
+
+        ByteArrayOutputStream frame = new ByteArrayOutputStream(body.length + 8);
+        DataOutputStream out = new DataOutputStream(frame);
+        out.writeInt(body.length);
+        out.writeInt((int) crc.getValue());
+        out.write(body);
+
+        Files.createDirectories(path.getParent());
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            long end = intactLength(ch);
+            if (end < ch.size()) ch.truncate(end);
+
+            ByteBuffer buf = ByteBuffer.wrap(frame.toByteArray());
+            while (buf.hasRemaining()) end += ch.write(buf, end);
+            ch.force(true);
+        }
+    }
+
+    /**
+     * walks the frame headers so a torn frame left by a crash is cut off before the next append.
+     * @param ch
+     * @return long
+     * @throws IOException
+     */
+    private static long intactLength(FileChannel ch) throws IOException {
+        long size = ch.size();
+        long pos = 0;
+        ByteBuffer header = ByteBuffer.allocate(8);
+        while (pos + 8 <= size) {
+            header.clear();
+            while (header.hasRemaining() && ch.read(header, pos + header.position()) > 0) { }
+            int len = header.getInt(0);
+            if (len < 0 || pos + 8 + len > size) break;
+            pos += 8 + len;
+        }
+        return pos;
+    }
+
+    /**
+     * @param path
+     * @return list&lt;inputstream&gt; one decompressing stream per frame that passes its checksum
+     * @throws IOException
+     */
+    public static List<InputStream> read(Path path) throws IOException {
+        List<InputStream> frames = new ArrayList<>();
+        if (!Files.exists(path)) return frames;
+
+        ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(path));
+        CRC32C crc = new CRC32C();
+        while (buf.remaining() >= 8) {
+            int len = buf.getInt();
+            int expected = buf.getInt();
+            if (len < 0 || len > buf.remaining()) {
+                System.err.println("ignoring truncated archive frame in " + path);
+                break;
+            }
+            int start = buf.position() - 8;
+            crc.reset();
+            crc.update(buf.array(), buf.position(), len);
+            if ((int) crc.getValue() == expected) {
+                frames.add(new GZIPInputStream(new ByteArrayInputStream(buf.array(), buf.position(), len)));
+            } else {
+                System.err.println("skipping corrupt archive frame at byte " + start + " in " + path);
+            }
+            buf.position(buf.position() + len);
+        }
+        return frames;
+    }
+}
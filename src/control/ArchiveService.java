@@ -0,0 +1,231 @@
+package control;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+import entity.Application;
+import entity.CareerCenterStaff;
+import entity.InternshipOpportunity;
+import entity.User;
+import entity.WithdrawalRequest;
+import enumerations.ApplicationStatus;
+import enumerations.WithdrawalStatus;
+import event.EventBus;
+import event.RecordsArchived;
+
+/**
+ * moves records that can no longer change out of the in-memory lists into the cold archive,
+ * one partition per intake (the year the internship opens).
+ * reviewed withdrawal requests, withdrawn applications, unsuccessful applications to closed
+ * postings and closed postings nothing live refers to are archived; archived records are read
+ * back on demand, one intake at a time. archived applications are taken off the application
+ * counters, and the users are saved with them so the saved counters agree with the hot list.
+ */
+public class ArchiveService {
+    private final List<Application> applications;
+    private final List<InternshipOpportunity> opportunities;
+    private final List<WithdrawalRequest> withdrawalRequests;
+    private final List<User> users;
+    private final ApplicationService appService;
+    private final DataLoader loader;
+    private final EventBus events;
+
+    public ArchiveService(List<Application> applications, List<InternshipOpportunity> opportunities,
+                          List<WithdrawalRequest> withdrawalRequests, List<User> users,
+                          ApplicationService appService, DataLoader loader, EventBus events) {
+        this.applications = Objects.requireNonNull(applications, "applications must not be null");
+        this.opportunities = Objects.requireNonNull(opportunities, "opportunities must not be null");
+        this.withdrawalRequests = Objects.requireNonNull(withdrawalRequests, "withdrawalRequests must not be null");
+        this.users = Objects.requireNonNull(users, "users must not be null");
+        this.appService = Objects.requireNonNull(appService, "appService must not be null");
+        this.loader = Objects.requireNonNull(loader, "loader must not be null");
+        this.events = Objects.requireNonNull(events, "events must not be null");
+    }
+
+    /**
+     * @param staff
+     * @return int number of records archived
+     */
+    public int archiveClosedRecords(CareerCenterStaff staff) {
+        if (staff == null) return 0;
+        LocalDate today = LocalDate.now();
+
+        List<WithdrawalRequest> closedRequests = new ArrayList<>();
+        Set<Application> stillReferenced = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (WithdrawalRequest r : withdrawalRequests) {
+            if (r.getStatus() != WithdrawalStatus.PENDING) closedRequests.add(r);
+            else stillReferenced.add(r.getApplication());
+        }
+
+        List<Application> closedApps = new ArrayList<>();
+        Set<String> liveOpportunityIds = new HashSet<>();
+        for (Application a : applications) {
+            if (isClosed(a, today) && !stillReferenced.contains(a)) {
+                closedApps.add(a);
+            } else {
+                liveOpportunityIds.add(a.getOpportunity().getId().toLowerCase());
+            }
+        }
+
+        List<InternshipOpportunity> closedOpps = new ArrayList<>();
+        for (InternshipOpportunity o : opportunities) {
+            if (o.getCloseDate() != null && o.getCloseDate().isBefore(today)
+                    && !liveOpportunityIds.contains(o.getId().toLowerCase())) {
+                closedOpps.add(o);
+            }
+        }
+
+        if (closedRequests.isEmpty() && closedApps.isEmpty() && closedOpps.isEmpty()) {
+            System.out.println("✗ No closed records to archive.");
+            return 0;
+        }
+
+        Map<String, List<WithdrawalRequest>> requestsByIntake = byIntake(closedRequests, r -> r.getApplication().getOpportunity());
+        Map<String, List<Application>> appsByIntake = byIntake(closedApps, Application::getOpportunity);
+        Map<String, List<InternshipOpportunity>> oppsByIntake = byIntake(closedOpps, o -> o);
+
+        Set<Object> archived = Collections.newSetFromMap(new IdentityHashMap<>());
+        Set<String> intakes = new HashSet<>();
+        intakes.addAll(requestsByIntake.keySet());
+        intakes.addAll(appsByIntake.keySet());
+        intakes.addAll(oppsByIntake.keySet());
+
+        for (String intake : intakes) {
+            List<WithdrawalRequest> reqs = requestsByIntake.getOrDefault(intake, List.of());
+            List<Application> apps = appsByIntake.getOrDefault(intake, List.of());
+            List<InternshipOpportunity> opps = oppsByIntake.getOrDefault(intake, List.of());
+
+            if (!reqs.isEmpty() && !loader.archiveWithdrawalRequests(intake, reqs)) continue;
+            archived.addAll(reqs);
+            if (!apps.isEmpty() && !loader.archiveApplications(intake, apps)) continue;
+            archived.addAll(apps);
+            if (!opps.isEmpty() && !loader.archiveOpportunities(intake, opps)) continue;
+            archived.addAll(opps);
+        }
+
+        closedRequests.removeIf(r -> !archived.contains(r));
+        closedApps.removeIf(a -> !archived.contains(a));
+        closedOpps.removeIf(o -> !archived.contains(o));
+
+        appService.uncountArchived(closedApps);
+        withdrawalRequests.removeIf(archived::contains);
+        applications.removeIf(archived::contains);
+        opportunities.removeIf(archived::contains);
+
+        loader.saveWithdrawalRequests(withdrawalRequests);
+        loader.saveApplications(applications);
+        loader.saveOpportunities(opportunities);
+        if (!closedApps.isEmpty()) loader.saveUsers(users);
+
+        events.publish(new RecordsArchived(closedApps, closedRequests, closedOpps));
+
+        System.out.println("✓ Archived " + closedApps.size() + " application(s), " + closedRequests.size()
+                + " withdrawal request(s) and " + closedOpps.size() + " internship opportunit"
+                + (closedOpps.size() == 1 ? "y" : "ies") + ".");
+        return archived.size();
+    }
+
+    /**
+     * @param a
+     * @param today
+     * @return boolean
+     */
+    private boolean isClosed(Application a, LocalDate today) {
+        if (a.getStatus() == ApplicationStatus.WITHDRAWN) return true;
+        if (a.getStatus() != ApplicationStatus.UNSUCCESSFUL) return false;
+        LocalDate close = a.getOpportunity().getCloseDate();
+        return close != null && close.isBefore(today);
+    }
+
+    /**
+     * @param opp
+     * @return String
+     */
+    public static String intakeOf(InternshipOpportunity opp) {
+        return opp == null || opp.getOpenDate() == null ? "unknown" : String.valueOf(opp.getOpenDate().getYear());
+    }
+
+    /**
+     * @param items
+     * @param opportunityOf
+     * @return map&lt;string, list&lt;t&gt;&gt;
+     */
+    private static <T> Map<String, List<T>> byIntake(List<T> items, Function<T, InternshipOpportunity> opportunityOf) {
+        Map<String, List<T>> result = new TreeMap<>();
+        for (T item : items) result.computeIfAbsent(intakeOf(opportunityOf.apply(item)), k -> new ArrayList<>()).add(item);
+        return result;
+    }
+
+    /**
+     * @return list&lt;string&gt;
+     */
+    public List<String> getIntakes() {
+        return loader.loadArchiveIntakes();
+    }
+
+    /**
+     * @param intake
+     * @return list&lt;application&gt;
+     */
+    public List<Application> getArchivedApplications(String intake) {
+        return latestById(loader.loadArchivedApplications(intake), Application::getId);
+    }
+
+    /**
+     * @param intake
+     * @return list&lt;withdrawalrequest&gt;
+     */
+    public List<WithdrawalRequest> getArchivedWithdrawalRequests(String intake) {
+        return latestById(loader.loadArchivedWithdrawalRequests(intake), WithdrawalRequest::getId);
+    }
+
+    /**
+     * @param intake
+     * @return list&lt;internshipopportunity&gt;
+     */
+    public List<InternshipOpportunity> getArchivedOpportunities(String intake) {
+        return latestById(loader.loadArchivedOpportunities(intake), InternshipOpportunity::getId);
+    }
+
+    /**
+     * @param studentId
+     * @return list&lt;application&gt;
+     */
+    public List<Application> findArchivedApplicationsForStudent(String studentId) {
+        String key = User.canonical(studentId);
+        List<Application> result = new ArrayList<>();
+        for (String intake : getIntakes()) {
+            for (Application a : getArchivedApplications(intake)) {
+                if (User.canonical(a.getStudent().getId()).equals(key)) result.add(a);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * a crash between appending to the archive and saving the hot lists archives a record twice
+     * on the next run; the later copy wins.
+     * @param items
+     * @param idOf
+     * @return list&lt;t&gt;
+     */
+    private static <T> List<T> latestById(List<T> items, Function<T, String> idOf) {
+        Map<String, T> byId = new LinkedHashMap<>();
+        for (T item : items) {
+            String id = idOf.apply(item).toLowerCase();
+            byId.remove(id);
+            byId.put(id, item);
+        }
+        return new ArrayList<>(byId.values());
+    }
+}
@@ -0,0 +1,468 @@
+package control;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32C;
+
+import entity.Application;
+import entity.ApplicationCounts;
+import entity.CareerCenterStaff;
+import entity.CompanyRepresentative;
+import entity.InternshipOpportunity;
+import entity.Student;
+import entity.User;
+import entity.WithdrawalRequest;
+
+/**
+ * change-data-capture feed of every user, opportunity, application and withdrawal request.
+ * whenever a list is saved, each record is compared with a fingerprint of what was last published
+ * for it, and creates, updates and deletes are appended as json lines numbered by one sequence:
+ * <pre>
+ * {"seq":42,"at":"...","entity":"application","op":"update","id":"APP-...","data":{...}}
+ * </pre>
+ * records carry the full state of the row (passwords left out), so a consumer can apply them as
+ * upserts. a record that left the list for the cold archive is published with op {@code archive}
+ * and {@code {"intake":...}} as its data instead of as a delete, so consumers can tell it still
+ * exists. lines go to segment files named after their first sequence number and forced to disk;
+ * a new segment starts once the current one passes {@code segmentBytes}, and segments every
+ * consumer has committed past are deleted then. with no saved fingerprints the first capture
+ * of each list publishes all of it as creates, so the feed starts with a full copy.
+ * entities are changed in place and not every change is a domain event, so each save still walks
+ * the list, but a row is only hashed in a reused buffer and turned into a line when it changed.
+ * the fingerprints live in memory; after the lines are on disk only the ones that changed are
+ * appended to {@code feed.state.log}, which is folded into {@code feed.state} once it holds more
+ * entries than there are rows. a crash before the append publishes those changes again under
+ * new numbers, which applying as upserts absorbs.
+ */
+public class ChangeFeed {
+    public enum Entity { USER, OPPORTUNITY, APPLICATION, WITHDRAWAL }
+
+    static final String SEGMENT_SUFFIX = ".jsonl";
+    static final String OFFSETS = "offsets";
+    private static final String STATE_FILE = "feed.state";
+    private static final String STATE_LOG = "feed.state.log";
+    private static final int FORMAT = 1;
+    private static final int MIN_COMPACT_ENTRIES = 1024;
+
+    private final Path dir;
+    private final long segmentBytes;
+    private final Map<Entity, Map<String, Long>> published = new EnumMap<>(Entity.class);
+    private final Map<Entity, Map<String, String>> archived = new EnumMap<>(Entity.class);
+    private final boolean fresh;
+    private long lastSeq;
+    private long logged;
+    private Path segment;
+
+    private ChangeFeed(Path dir, long segmentBytes, boolean fresh) {
+        this.dir = dir;
+        this.segmentBytes = segmentBytes;
+        this.fresh = fresh;
+        for (Entity e : Entity.values()) {
+            published.put(e, new HashMap<>());
+            archived.put(e, new HashMap<>());
+        }
+    }
+
+    /**
+     * @param dir created when missing
+     * @param segmentBytes size after which a new segment file is started
+     * @return ChangeFeed
+     * @throws IOException
+     */
+    public static ChangeFeed open(Path dir, long segmentBytes) throws IOException {
+        Files.createDirectories(dir.resolve(OFFSETS));
+        Path state = dir.resolve(STATE_FILE);
+        boolean based = Files.exists(state) || Files.exists(SnapshotFile.previous(state));
+        boolean fresh = !based && !Files.exists(dir.resolve(STATE_LOG));
+        ChangeFeed feed = new ChangeFeed(dir, segmentBytes, fresh);
+        if (based) feed.readState(SnapshotFile.read(Files.exists(state) ? state : SnapshotFile.previous(state)));
+        feed.readLog();
+
+        List<Path> segments = ChangeFeedReader.segments(dir);
+        if (!segments.isEmpty()) {
+            feed.segment = segments.get(segments.size() - 1);
+            feed.lastSeq = Math.max(feed.lastSeq, repairTail(feed.segment));
+        }
+        return feed;
+    }
+
+    /**
+     * @return boolean true when nothing was published before, so every list should be captured once
+     */
+    public boolean isFresh() {
+        return fresh;
+    }
+
+    /**
+     * @return long sequence number of the newest record
+     */
+    public synchronized long getLastSeq() {
+        return lastSeq;
+    }
+
+    /**
+     * @param kind
+     * @param intake archive partition the records went to
+     * @param ids records that leave the list on its next capture because they were archived
+     */
+    public synchronized void archived(Entity kind, String intake, List<String> ids) {
+        Map<String, String> pending = archived.get(kind);
+        for (String id : ids) pending.put(id, intake);
+    }
+
+    /**
+     * publishes the differences between the list and what was last published for its kind.
+     * @param kind
+     * @param current the whole list as it is being saved
+     * @return int records appended
+     * @throws IOException
+     */
+    public synchronized int capture(Entity kind, List<?> current) throws IOException {
+        Map<String, Long> before = published.get(kind);
+        Map<String, Long> changed = new HashMap<>();
+        Set<String> seen = new HashSet<>(Math.max(16, current.size() * 2));
+        StringBuilder lines = new StringBuilder();
+        StringBuilder row = new StringBuilder(256);
+        String at = Instant.now().toString();
+        long seq = lastSeq;
+        int created = 0;
+
+        for (Object o : current) {
+            Map<String, Object> data = describe(kind, o);
+            String id = String.valueOf(data.get("id"));
+            if (!seen.add(id)) continue;
+            row.setLength(0);
+            Json.append(row, data);
+            long print = fingerprint(row);
+            Long old = before.get(id);
+            if (old != null && old == print) continue;
+            if (old == null) created++;
+            line(lines, ++seq, at, kind, old == null ? "create" : "update", id, row);
+            changed.put(id, print);
+        }
+        List<String> gone = new ArrayList<>();
+        if (seen.size() - created < before.size()) {
+            for (String id : before.keySet()) if (!seen.contains(id)) gone.add(id);
+        }
+        Map<String, String> intakes = archived.get(kind);
+        for (String id : gone) {
+            String intake = intakes.get(id);
+            if (intake == null) {
+                line(lines, ++seq, at, kind, "delete", id, null);
+            } else {
+                line(lines, ++seq, at, kind, "archive", id, Json.encode(Map.of("intake", intake)));
+            }
+        }
+        intakes.clear();
+
+        if (seq == lastSeq) return 0;
+        append(lines.toString().getBytes(StandardCharsets.UTF_8), lastSeq + 1);
+        int appended = (int) (seq - lastSeq);
+        lastSeq = seq;
+        before.putAll(changed);
+        gone.forEach(before::remove);
+        saveState(kind, changed, gone);
+        return appended;
+    }
+
+    /**
+     * appends what changed in the fingerprints to the state log, or folds everything into the
+     * state file when the log has grown larger than the state.
+     * @param kind
+     * @param changed
+     * @param gone
+     * @throws IOException
+     */
+    private void saveState(Entity kind, Map<String, Long> changed, List<String> gone) throws IOException {
+        logged += changed.size() + gone.size();
+        long rows = 0;
+        for (Map<String, Long> prints : published.values()) rows += prints.size();
+        if (logged > Math.max(MIN_COMPACT_ENTRIES, rows)) {
+            SnapshotFile.write(dir.resolve(STATE_FILE), this::writeState);
+            Files.deleteIfExists(dir.resolve(STATE_LOG));
+            logged = 0;
+            return;
+        }
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(body);
+        data.writeLong(lastSeq);
+        data.writeByte(kind.ordinal());
+        data.writeInt(changed.size());
+        for (Map.Entry<String, Long> p : changed.entrySet()) {
+            data.writeUTF(p.getKey());
+            data.writeLong(p.getValue());
+        }
+        data.writeInt(gone.size());
+        for (String id : gone) data.writeUTF(id);
+        data.flush();
+
+        CRC32C crc = new CRC32C();
+        crc.update(body.toByteArray());
+        ByteBuffer frame = ByteBuffer.allocate(8 + body.size());
+        frame.putInt(body.size()).putInt((int) crc.getValue()).put(body.toByteArray()).flip();
+        try (FileChannel ch = FileChannel.open(dir.resolve(STATE_LOG), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (frame.hasRemaining()) ch.write(frame);
+            ch.force(false);
+        }
+    }
+
+    /**
+     * applies the state log over the state file. entries the state file already includes, left by
+     * a crash between writing it and deleting the log, are skipped; an entry cut short by a crash
+     * is cut off the end.
+     * @throws IOException
+     */
+    private void readLog() throws IOException {
+        Path log = dir.resolve(STATE_LOG);
+        if (!Files.exists(log)) return;
+        long base = lastSeq;
+        ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(log));
+        CRC32C crc = new CRC32C();
+        int intact = 0;
+        while (buf.remaining() >= 8) {
+            int len = buf.getInt();
+            int expected = buf.getInt();
+            if (len < 0 || len > buf.remaining()) break;
+            crc.reset();
+            crc.update(buf.array(), buf.position(), len);
+            if ((int) crc.getValue() != expected) break;
+
+            DataInputStream data = new DataInputStream(new ByteArrayInputStream(buf.array(), buf.position(), len));
+            long seq = data.readLong();
+            Map<String, Long> prints = published.get(Entity.values()[data.readByte()]);
+            boolean applies = seq > base;
+            int n = data.readInt();
+            for (int i = 0; i < n; i++) {
+                String id = data.readUTF();
+                long print = data.readLong();
+                if (applies) prints.put(id, print);
+            }
+            n = data.readInt();
+            for (int i = 0; i < n; i++) {
+                String id = data.readUTF();
+                if (applies) prints.remove(id);
+            }
+            if (applies) lastSeq = Math.max(lastSeq, seq);
+            buf.position(buf.position() + len);
+            intact = buf.position();
+            logged++;
+        }
+        if (intact < buf.capacity()) {
+            try (FileChannel ch = FileChannel.open(log, StandardOpenOption.WRITE)) {
+                ch.truncate(intact);
+                ch.force(false);
+            }
+            System.err.println("dropped a partial change feed state entry at the end of " + log);
+        }
+    }
+
+    private static void line(StringBuilder sb, long seq, String at, Entity kind, String op, String id, CharSequence data) {
+        sb.append("{\"seq\":").append(seq).append(",\"at\":");
+        Json.append(sb, at);
+        sb.append(",\"entity\":");
+        Json.append(sb, kind.name().toLowerCase());
+        sb.append(",\"op\":\"").append(op).append("\",\"id\":");
+        Json.append(sb, id);
+        sb.append(",\"data\":").append(data == null ? "null" : data).append('}').append('\n');
+    }
+
+    /**
+     * @param bytes whole lines
+     * @param firstSeq sequence number of the first of them, names a new segment
+     * @throws IOException
+     */
+    private void append(byte[] bytes, long firstSeq) throws IOException {
+        if (segment == null || Files.size(segment) >= segmentBytes) {
+            segment = dir.resolve(ChangeFeedReader.segmentName(firstSeq));
+            purge();
+        }
+        try (FileChannel ch = FileChannel.open(segment, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            ByteBuffer buf = ByteBuffer.wrap(bytes);
+            while (buf.hasRemaining()) ch.write(buf);
+            ch.force(false);
+        }
+    }
+
+    /**
+     * deletes the segments before the current one that every consumer has committed past.
+     * nothing is deleted while no consumer has registered.
+     * @throws IOException
+     */
+    private void purge() throws IOException {
+        long committed = new ChangeFeedReader(dir).getMinimumOffset();
+        if (committed <= 0) return;
+        List<Path> segments = ChangeFeedReader.segments(dir);
+        for (int i = 0; i + 1 < segments.size(); i++) {
+            long nextFirst = ChangeFeedReader.firstSeq(segments.get(i + 1));
+            if (nextFirst - 1 > committed) break;
+            Files.deleteIfExists(segments.get(i));
+        }
+    }
+
+    /**
+     * cuts a line left half-written by a crash off the end of the segment.
+     * @param segment
+     * @return long sequence number of the last whole line, 0 if there is none
+     * @throws IOException
+     */
+    private static long repairTail(Path segment) throws IOException {
+        byte[] bytes = Files.readAllBytes(segment);
+        int end = bytes.length;
+        while (end > 0 && bytes[end - 1] != '\n') end--;
+        if (end < bytes.length) {
+            try (FileChannel ch = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+                ch.truncate(end);
+                ch.force(false);
+            }
+            System.err.println("dropped a partial change record at the end of " + segment);
+        }
+        if (end == 0) return 0;
+        int start = end - 1;
+        while (start > 0 && bytes[start - 1] != '\n') start--;
+        return ChangeFeedReader.seqOf(new String(bytes, start, end - 1 - start, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param kind
+     * @param o
+     * @return map&lt;string, object&gt; the fields published for the record
+     */
+    static Map<String, Object> describe(Entity kind, Object o) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        switch (kind) {
+            case USER -> {
+                User u = (User) o;
+                m.put("id", u.getId());
+                m.put("name", u.getName());
+                m.put("firstLogin", u.isFirstLogin());
+                if (u instanceof Student s) {
+                    m.put("type", "student");
+                    m.put("major", s.getMajor());
+                    m.put("yearOfStudy", s.getYearOfStudy());
+                    m.put("acceptedApplicationId", s.getAcceptedApplication() == null ? null : s.getAcceptedApplication().getId());
+                } else if (u instanceof CompanyRepresentative cr) {
+                    m.put("type", "rep");
+                    m.put("companyName", cr.getCompanyName());
+                    m.put("department", cr.getDepartment());
+                    m.put("position", cr.getPosition());
+                    m.put("status", cr.getStatus());
+                } else if (u instanceof CareerCenterStaff cs) {
+                    m.put("type", "staff");
+                    m.put("department", cs.getStaffDepartment());
+                }
+            }
+            case OPPORTUNITY -> {
+                InternshipOpportunity op = (InternshipOpportunity) o;
+                m.put("id", op.getId());
+                m.put("title", op.getTitle());
+                m.put("description", op.getDescription());
+                m.put("level", op.getLevel());
+                m.put("preferredMajor", op.getPreferredMajor());
+                m.put("openDate", op.getOpenDate());
+                m.put("closeDate", op.getCloseDate());
+                m.put("companyName", op.getCompanyName());
+                m.put("slots", op.getSlots());
+                m.put("confirmedSlots", op.getConfirmedSlots());
+                m.put("status", op.getStatus());
+                m.put("visible", op.isVisible());
+                m.put("repId", op.getRepInCharge() == null ? null : op.getRepInCharge().getId());
+                ApplicationCounts c = op.getCounts();
+                m.put("applications", c == null ? null : c.toString());
+            }
+            case APPLICATION -> {
+                Application a = (Application) o;
+                m.put("id", a.getId());
+                m.put("studentId", a.getStudent() == null ? null : a.getStudent().getId());
+                m.put("opportunityId", a.getOpportunity() == null ? null : a.getOpportunity().getId());
+                m.put("status", a.getStatus());
+                m.put("appliedAt", a.getAppliedAt());
+                m.put("decisionAt", a.getDecisionAt());
+                m.put("accepted", a.isAccepted());
+                m.put("studentRank", a.getStudentRank());
+                m.put("repRank", a.getRepRank());
+            }
+            case WITHDRAWAL -> {
+                WithdrawalRequest r = (WithdrawalRequest) o;
+                m.put("id", r.getId());
+                m.put("applicationId", r.getApplication() == null ? null : r.getApplication().getId());
+                m.put("studentId", r.getRequestedBy() == null ? null : r.getRequestedBy().getId());
+                m.put("requestedAt", r.getRequestedAt());
+                m.put("status", r.getStatus());
+                m.put("reviewedBy", r.getReviewedBy() == null ? null : r.getReviewedBy().getId());
+                m.put("reviewedAt", r.getReviewedAt());
+            }
+        }
+        return m;
+    }
+
+    /**
+     * 64-bit fnv-1a over the record's json.
+     * @param s
+     * @return long
+     */
+    private static long fingerprint(CharSequence s) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < s.length(); i++) {
+            h ^= s.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    /**
+     * @param out
+     * @throws IOException
+     */
+    private void writeState(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(FORMAT);
+        data.writeLong(lastSeq);
+        for (Entity e : Entity.values()) {
+            Map<String, Long> prints = published.get(e);
+            data.writeInt(prints.size());
+            for (Map.Entry<String, Long> p : prints.entrySet()) {
+                data.writeUTF(p.getKey());
+                data.writeLong(p.getValue());
+            }
+        }
+        data.flush();
+    }
+
+    /**
+     * @param bytes
+     * @throws IOException
+     */
+    private void readState(byte[] bytes) throws IOException {
+        DataInputStream data = new DataInputStream(new ByteArrayInputStream(bytes));
+        int format = data.readInt();
+        if (format != FORMAT) throw new IOException("unsupported change feed state format " + format);
+        lastSeq = data.readLong();
+        for (Entity e : Entity.values()) {
+            Map<String, Long> prints = published.get(e);
+            int n = data.readInt();
+            for (int i = 0; i < n; i++) prints.put(data.readUTF(), data.readLong());
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package control;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * reads the change feed written by {@link ChangeFeed}, for consumers in this or another process.
+ * each consumer has a committed offset, the sequence number of the last record it has handled,
+ * kept as plain text in {@code offsets/<consumer>} and replaced atomically on commit.
+ * a line still being written (no newline yet) is left for the next poll.
+ */
+public class ChangeFeedReader {
+    private final Path dir;
+
+    public ChangeFeedReader(Path dir) {
+        this.dir = dir;
+    }
+
+    /**
+     * @param afterSeq return records numbered above this
+     * @param max
+     * @return list&lt;string&gt; json lines in sequence order
+     * @throws IOException
+     */
+    public List<String> read(long afterSeq, int max) throws IOException {
+        List<String> out = new ArrayList<>();
+        List<Path> segments = segments(dir);
+        int first = 0;
+        for (int i = 0; i < segments.size(); i++) {
+            if (firstSeq(segments.get(i)) <= afterSeq + 1) first = i;
+        }
+
+        for (int i = first; i < segments.size() && out.size() < max; i++) {
+            byte[] bytes = Files.readAllBytes(segments.get(i));
+            int end = bytes.length;
+            while (end > 0 && bytes[end - 1] != '\n') end--;
+            try (BufferedReader in = new BufferedReader(new StringReader(
+                    new String(bytes, 0, end, StandardCharsets.UTF_8)))) {
+                String line;
+                while ((line = in.readLine()) != null && out.size() < max) {
+                    if (seqOf(line) > afterSeq) out.add(line);
+                }
+            }
+        }
+        return out;
+    }
+
+    /**
+     * @param consumer
+     * @param max
+     * @return list&lt;string&gt; the records after the consumer's committed offset
+     * @throws IOException
+     */
+    public List<String> poll(String consumer, int max) throws IOException {
+        return read(getOffset(consumer), max);
+    }
+
+    /**
+     * @param consumer
+     * @return long last committed sequence number, 0 for a new consumer
+     * @throws IOException
+     */
+    public long getOffset(String consumer) throws IOException {
+        Path f = offsetFile(consumer);
+        if (!Files.exists(f)) return 0;
+        return Long.parseLong(Files.readString(f).trim());
+    }
+
+    /**
+     * @param consumer
+     * @param seq
+     * @throws IOException
+     */
+    public void commit(String consumer, long seq) throws IOException {
+        Path f = offsetFile(consumer);
+        Files.createDirectories(f.getParent());
+        Path tmp = f.resolveSibling(f.getFileName() + ".tmp");
+        Files.writeString(tmp, seq + "\n");
+        Files.move(tmp, f, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * @return long lowest offset committed by any consumer, 0 when there are none
+     * @throws IOException
+     */
+    public long getMinimumOffset() throws IOException {
+        Path offsets = dir.resolve(ChangeFeed.OFFSETS);
+        if (!Files.isDirectory(offsets)) return 0;
+        long min = 0;
+        boolean any = false;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(offsets)) {
+            for (Path f : files) {
+                if (f.getFileName().toString().endsWith(".tmp")) continue;
+                long seq = Long.parseLong(Files.readString(f).trim());
+                min = any ? Math.min(min, seq) : seq;
+                any = true;
+            }
+        }
+        return min;
+    }
+
+    /**
+     * @param consumer
+     * @return Path
+     */
+    private Path offsetFile(String consumer) {
+        if (!consumer.matches("[A-Za-z0-9_.-]+")) {
+            throw new IllegalArgumentException("consumer names may only use letters, digits, '.', '_' and '-'");
+        }
+        return dir.resolve(ChangeFeed.OFFSETS).resolve(consumer);
+    }
+
+    /**
+     * @param dir
+     * @return list&lt;path&gt; segment files, oldest first
+     * @throws IOException
+     */
+    static List<Path> segments(Path dir) throws IOException {
+        List<Path> segments = new ArrayList<>();
+        if (!Files.isDirectory(dir)) return segments;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*" + ChangeFeed.SEGMENT_SUFFIX)) {
+            files.forEach(segments::add);
+        }
+        segments.sort(null);
+        return segments;
+    }
+
+    /**
+     * @param firstSeq
+     * @return String zero-padded so names sort in sequence order
+     */
+    static String segmentName(long firstSeq) {
+        return String.format("%020d%s", firstSeq, ChangeFeed.SEGMENT_SUFFIX);
+    }
+
+    /**
+     * @param segment
+     * @return long
+     */
+    static long firstSeq(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - ChangeFeed.SEGMENT_SUFFIX.length()));
+    }
+
+    /**
+     * @param line
+     * @return long the record's sequence number, which every line starts with
+     */
+    public static long seqOf(String line) {
+        int start = line.indexOf(':') + 1;
+        int end = line.indexOf(',', start);
+        return Long.parseLong(line.substring(start, end));
+    }
+
+    /**
+     * @param line
+     * @return ChangeFeed.Entity the kind of record the line describes
+     */
+    public static ChangeFeed.Entity entityOf(String line) {
+        String key = "\"entity\":\"";
+        int start = line.indexOf(key) + key.length();
+        return ChangeFeed.Entity.valueOf(line.substring(start, line.indexOf('"', start)).toUpperCase());
+    }
+}
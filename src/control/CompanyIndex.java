@@ -0,0 +1,148 @@
+package control;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import entity.Application;
+import entity.InternshipOpportunity;
+import event.ApplicationSubmitted;
+import event.EventBus;
+import event.OpportunityCreated;
+import event.OpportunityDeleted;
+import event.RecordsArchived;
+
+/**
+ * opportunities and their applications grouped by company, so company-scoped reads (a company's
+ * listings, a rep's own opportunities and applications) only walk that company's records, and
+ * each company has its own lock, taken through {@link #locked} by the slot accounting so offers
+ * for different companies never wait on each other. the records are saved one segment per
+ * company with a lock of its own as well (see {@link DataLoader}); cross-company queries still
+ * go through the shared lists. the index follows domain events on the bus's dispatcher thread;
+ * applications are only indexed on the first query that needs them, so a lazily loaded
+ * application list is not forced at startup.
+ */
+public class CompanyIndex {
+    private final Map<String, Map<String, InternshipOpportunity>> opportunities = new HashMap<>();
+    private final Map<String, Map<String, Application>> applications = new HashMap<>();
+    private final Map<String, ReentrantLock> locks = new ConcurrentHashMap<>();
+    private final Supplier<List<Application>> source;
+    private boolean applicationsIndexed;
+    private volatile EventBus events;
+
+    private CompanyIndex(Supplier<List<Application>> source) {
+        this.source = source;
+    }
+
+    /**
+     * @param opportunities
+     * @param applications read when an application query first needs them
+     * @return CompanyIndex
+     */
+    public static CompanyIndex build(List<InternshipOpportunity> opportunities, Supplier<List<Application>> applications) {
+        CompanyIndex index = new CompanyIndex(applications);
+        for (InternshipOpportunity o : opportunities) index.add(o);
+        return index;
+    }
+
+    /**
+     * @param events
+     */
+    public void watch(EventBus events) {
+        this.events = events;
+        events.subscribeAsync(OpportunityCreated.class, e -> add(e.opportunity()));
+        events.subscribeAsync(OpportunityDeleted.class, e -> remove(e.opportunity()));
+        events.subscribeAsync(ApplicationSubmitted.class, e -> {
+            synchronized (this) {
+                if (applicationsIndexed) add(e.application());
+            }
+        });
+        events.subscribeAsync(RecordsArchived.class, e -> {
+            e.applications().forEach(this::remove);
+            e.opportunities().forEach(this::remove);
+        });
+    }
+
+    /**
+     * @param company
+     * @return list&lt;internshipopportunity&gt; the company's opportunities in list order
+     */
+    public List<InternshipOpportunity> opportunities(String company) {
+        settle();
+        synchronized (this) {
+            Map<String, InternshipOpportunity> part = opportunities.get(key(company));
+            return part == null ? new ArrayList<>() : new ArrayList<>(part.values());
+        }
+    }
+
+    /**
+     * @param company
+     * @return list&lt;application&gt; applications to the company's opportunities in list order
+     */
+    public List<Application> applications(String company) {
+        settle();
+        synchronized (this) {
+            if (!applicationsIndexed) {
+                for (Application a : source.get()) add(a);
+                applicationsIndexed = true;
+            }
+            Map<String, Application> part = applications.get(key(company));
+            return part == null ? new ArrayList<>() : new ArrayList<>(part.values());
+        }
+    }
+
+    /**
+     * runs the work holding the company's lock.
+     * @param company
+     * @param work
+     * @return T what the work returned
+     */
+    public <T> T locked(String company, Supplier<T> work) {
+        ReentrantLock lock = locks.computeIfAbsent(key(company), k -> new ReentrantLock());
+        lock.lock();
+        try {
+            return work.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * waits for the events already published to reach the index, so a caller sees its own changes.
+     */
+    private void settle() {
+        EventBus bus = events;
+        if (bus != null) bus.awaitDelivered();
+    }
+
+    private synchronized void add(InternshipOpportunity o) {
+        opportunities.computeIfAbsent(key(o.getCompanyName()), k -> new LinkedHashMap<>())
+                .putIfAbsent(o.getId().toLowerCase(), o);
+    }
+
+    private synchronized void add(Application a) {
+        if (a.getOpportunity() == null) return;
+        applications.computeIfAbsent(key(a.getOpportunity().getCompanyName()), k -> new LinkedHashMap<>())
+                .putIfAbsent(a.getId().toLowerCase(), a);
+    }
+
+    private synchronized void remove(InternshipOpportunity o) {
+        Map<String, InternshipOpportunity> part = opportunities.get(key(o.getCompanyName()));
+        if (part != null) part.remove(o.getId().toLowerCase());
+    }
+
+    private synchronized void remove(Application a) {
+        if (a.getOpportunity() == null) return;
+        Map<String, Application> part = applications.get(key(a.getOpportunity().getCompanyName()));
+        if (part != null) part.remove(a.getId().toLowerCase());
+    }
+
+    private static String key(String company) {
+        return company == null ? "" : company.trim().toLowerCase();
+    }
+}
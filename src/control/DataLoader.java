@@ -1,8 +1,31 @@
 package control;
 
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.sql.SQLException;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.zip.CRC32C;
 
 import entity.*;
 import enumerations.AccountStatus;
@@ -11,24 +34,230 @@ import enumerations.Major;
 public class DataLoader {
     private static final String DATA_FOLDER       = "data";
     private static final String SERIALIZED_FOLDER = "serialized";
+    private static final String ARCHIVE_FOLDER    = "archive";
 
-    private static final String USERS_FILE         = SERIALIZED_FOLDER + "/users.ser";
-    private static final String OPPORTUNITIES_FILE = SERIALIZED_FOLDER + "/opportunities.ser";
-    private static final String APPLICATIONS_FILE = SERIALIZED_FOLDER + "/applications.ser";
-    private static final String WITHDRAWALS_FILE = SERIALIZED_FOLDER + "/withdrawals.ser";
+    private static final String USERS_FILE         = SERIALIZED_FOLDER + "/users.bin";
+    private static final String OPPORTUNITIES_FILE = SERIALIZED_FOLDER + "/opportunities.bin";
+    private static final String APPLICATIONS_FILE = SERIALIZED_FOLDER + "/applications.bin";
+    private static final String WITHDRAWALS_FILE = SERIALIZED_FOLDER + "/withdrawals.bin";
+
+    private static final String LEGACY_USERS_FILE         = SERIALIZED_FOLDER + "/users.ser";
+    private static final String LEGACY_OPPORTUNITIES_FILE = SERIALIZED_FOLDER + "/opportunities.ser";
+    private static final String LEGACY_APPLICATIONS_FILE  = SERIALIZED_FOLDER + "/applications.ser";
+    private static final String LEGACY_WITHDRAWALS_FILE   = SERIALIZED_FOLDER + "/withdrawals.ser";
+    private static final String IDS_FILE = SERIALIZED_FOLDER + "/ids.ser";
+    private static final String HISTORY_FILE = SERIALIZED_FOLDER + "/applications.hist";
+    private static final String CUBE_FILE = SERIALIZED_FOLDER + "/placements.cube";
+    private static final String COMPANIES_FOLDER = SERIALIZED_FOLDER + "/companies";
+    public static final String CHANGES_FOLDER = "changes";
+    private static final long CHANGE_SEGMENT_BYTES = 4L << 20;
+    public static final String STORAGE_PROPERTY = "ipms.storage";
+    public static final String FILE_STORAGE = "files";
+
+    private static final int LOADER_THREADS = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+    private final SystemStats stats;
+    private final File root;
+    private final boolean readOnly;
+    private final StorageBackend storage;
+    private static ExecutorService loadExecutor;
+    private Map<String, Runnable> deferredSaves;
+    private final Map<String, Long> fingerprints = new ConcurrentHashMap<>();
+    private final Map<String, Long> segmentPrints = new ConcurrentHashMap<>();
+    private final Map<String, Object> segmentLocks = new ConcurrentHashMap<>();
+    private ChangeFeed changes;
+    private ApplicationHistory.Writer history;
+
+    public DataLoader() {
+        this(new SystemStats());
+    }
+
+    public DataLoader(SystemStats stats) {
+        this(stats, null, false);
+    }
+
+    /** 
+     * the entity lists go to the backend named by the {@code ipms.storage} system property: {@code files}
+     * (the default) or a jdbc url, in which {@code {root}} stands for the root directory.
+     * @param stats
+     * @param root directory the data folders live in, null for the working directory
+     * @param readOnly when set, saves are dropped, so another process's files can be read safely
+     * @throws IllegalStateException when the database cannot be opened
+     */
+    public DataLoader(SystemStats stats, File root, boolean readOnly) {
+        this.stats = Objects.requireNonNull(stats, "stats must not be null");
+        this.root = root;
+        this.readOnly = readOnly;
+        this.storage = openStorage(System.getProperty(STORAGE_PROPERTY, FILE_STORAGE));
+    }
+
+    /** 
+     * @param spec
+     * @return StorageBackend
+     */
+    private StorageBackend openStorage(String spec) {
+        if (spec.equals(FILE_STORAGE)) return new SnapshotFiles();
+        String url = spec.replace("{root}", root == null ? "." : root.getPath());
+        try {
+            return new JdbcStorage(url);
+        } catch (SQLException e) {
+            throw new IllegalStateException("could not open storage " + url + ": " + e.getMessage(), e);
+        }
+    }
+
+    /** 
+     * @param path relative to the data root
+     * @return File
+     */
+    private File file(String path) {
+        return root == null ? new File(path) : new File(root, path);
+    }
+
+    /** 
+     * holds back list saves until {@link #flushSaves()}; a list saved several times in between
+     * is written once, from its latest state. the id high-water mark is still written at once.
+     */
+    public synchronized void deferSaves() {
+        if (deferredSaves == null) deferredSaves = new LinkedHashMap<>();
+    }
+
+    /** 
+     * @param list users, opportunities, applications or withdrawals
+     * @return String identifies the list as saved right now, possibly by another process; null when nothing is saved
+     */
+    public String currentStamp(String list) {
+        return storage.currentStamp(list);
+    }
+
+    /** 
+     * writes the saves still held back and closes the storage backend, e.g. the database connection.
+     * the loader cannot load or save after this.
+     */
+    public void close() {
+        flushSaves();
+        try {
+            storage.close();
+        } catch (IOException e) {
+            System.err.println("error closing storage: " + e.getMessage());
+        }
+    }
+
+    /** 
+     * writes every save held back since {@link #deferSaves()} and goes back to saving immediately.
+     */
+    public void flushSaves() {
+        Map<String, Runnable> pending;
+        synchronized (this) {
+            pending = deferredSaves;
+            deferredSaves = null;
+        }
+        if (pending != null) pending.values().forEach(Runnable::run);
+    }
+
+    /** 
+     * @param file
+     * @param save
+     * @return boolean true when the save was held back, or dropped by a read-only loader
+     */
+    private synchronized boolean defer(String file, Runnable save) {
+        if (readOnly) return true;
+        if (deferredSaves == null) return false;
+        deferredSaves.put(file, save);
+        return true;
+    }
+
+    /** 
+     * @return future&lt;list&lt;user&gt;&gt;
+     */
+    public Future<List<User>> loadUsersAsync() {
+        return submitLoad(() -> new VersionedList<>(loadUsers()));
+    }
+
+    /** 
+     * @return future&lt;list&lt;internshipopportunity&gt;&gt;
+     */
+    public Future<List<InternshipOpportunity>> loadOpportunitiesAsync() {
+        return submitLoad(() -> new VersionedList<>(loadOpportunities()));
+    }
+
+    /** 
+     * @param loaded runs on the loader thread with the list as loaded, before the handle resolves
+     * @return list&lt;application&gt; handle that resolves on first access
+     */
+    public List<Application> loadApplicationsLazily(Consumer<List<Application>> loaded) {
+        return new LazyList<>(submitLoad(() -> whenLoaded("applications", loadApplications(), loaded)));
+    }
+
+    /** 
+     * @param loaded runs on the loader thread with the list as loaded, before the handle resolves
+     * @return list&lt;withdrawalrequest&gt; handle that resolves on first access
+     */
+    public List<WithdrawalRequest> loadWithdrawalRequestsLazily(Consumer<List<WithdrawalRequest>> loaded) {
+        return new LazyList<>(submitLoad(() -> whenLoaded("withdrawal requests", loadWithdrawalRequests(), loaded)));
+    }
+
+    /** 
+     * @param label
+     * @param list
+     * @param loaded
+     * @return list&lt;t&gt; the list, ready to be shared
+     */
+    private static <T> List<T> whenLoaded(String label, List<T> list, Consumer<List<T>> loaded) {
+        try {
+            loaded.accept(list);
+        } catch (RuntimeException e) {
+            System.err.println("error preparing loaded " + label + ": " + e.getMessage());
+        }
+        return new VersionedList<>(list);
+    }
+
+    /** 
+     * @param pending
+     * @return T
+     */
+    public static <T> T await(Future<T> pending) {
+        try {
+            return pending.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while loading data", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("data load failed: " + e.getCause(), e.getCause());
+        }
+    }
+
+    /** 
+     * loads from every loader in the process share one small pool.
+     * @param task
+     * @return future&lt;t&gt;
+     */
+    private static synchronized <T> Future<T> submitLoad(Callable<T> task) {
+        if (loadExecutor == null) {
+            loadExecutor = Executors.newFixedThreadPool(LOADER_THREADS, r -> {
+                Thread t = new Thread(r, "ipms-loader");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        return loadExecutor.submit(task);
+    }
 
     /** 
      * @return list&lt;user&gt;
      */
     public List<User> loadUsers() {
-        List<User> saved = loadSavedUsers();
+        List<User> saved = loadStored("users", StorageBackend::loadUsers, this::saveUsers);
+        if (saved == null) {
+            System.err.println("saved users could not be recovered; not re-importing from csv over them.");
+            return new ArrayList<>();
+        }
         if (!saved.isEmpty()) {
-            System.out.println("loaded users from saved data (" + USERS_FILE + ")");
+            System.out.println("loaded users from saved data (" + storage.locate("users") + ")");
             return saved;
         }
 
         System.out.println("no saved user data found. loading from csv...");
-        List<User> users = loadUsersFromCSV(DATA_FOLDER);
+        List<User> users = loadUsersFromCSV(file(DATA_FOLDER).getPath());
         saveUsers(users);
         return users;
     }
@@ -37,10 +266,12 @@ public class DataLoader {
      * @param users
      */
     public void saveUsers(List<User> users) {
+        if (defer(USERS_FILE, () -> saveUsers(users))) return;
         ensureFolder(SERIALIZED_FOLDER);
-        try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(USERS_FILE))) {
-            out.writeObject(users);
-            System.out.println("saved users to " + new File(USERS_FILE));
+        try (VersionedList.Snapshot<User> pinned = VersionedList.pin(users)) {
+            storage.saveUsers(pinned);
+            System.out.println("saved users to " + storage.locate("users"));
+            capture(ChangeFeed.Entity.USER, pinned);
         } catch (IOException e) {
             System.err.println("error saving users: " + e.getMessage());
         }
@@ -50,9 +281,9 @@ public class DataLoader {
      * @return list&lt;withdrawalrequest&gt;
      */
     public List<WithdrawalRequest> loadWithdrawalRequests() {
-        List<WithdrawalRequest> saved = loadSavedWithdrawals();
-        if (!saved.isEmpty()) {
-            System.out.println("loaded withdrawal requests from saved data (" + WITHDRAWALS_FILE + ")");
+        List<WithdrawalRequest> saved = loadStored("withdrawals", StorageBackend::loadWithdrawals, this::saveWithdrawalRequests);
+        if (saved != null && !saved.isEmpty()) {
+            System.out.println("loaded withdrawal requests from saved data (" + storage.locate("withdrawals") + ")");
             return saved;
         }
 
@@ -64,10 +295,12 @@ public class DataLoader {
      * @param requests
      */
     public void saveWithdrawalRequests(List<WithdrawalRequest> requests) {
+        if (defer(WITHDRAWALS_FILE, () -> saveWithdrawalRequests(requests))) return;
         ensureFolder(SERIALIZED_FOLDER);
-        try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(WITHDRAWALS_FILE))) {
-            out.writeObject(requests);
-            System.out.println("saved withdrawal requests to " + new File(WITHDRAWALS_FILE));
+        try (VersionedList.Snapshot<WithdrawalRequest> pinned = VersionedList.pin(requests)) {
+            storage.saveWithdrawals(pinned);
+            System.out.println("saved withdrawal requests to " + storage.locate("withdrawals"));
+            capture(ChangeFeed.Entity.WITHDRAWAL, pinned);
         } catch (IOException e) {
             System.err.println("error saving withdrawal requests: " + e.getMessage());
         }
@@ -77,7 +310,7 @@ public class DataLoader {
      * @param folderPath
      */
     private void ensureFolder(String folderPath) {
-        File dir = new File(folderPath);
+        File dir = file(folderPath);
         if (!dir.exists()) dir.mkdirs();
     }
 
@@ -97,6 +330,22 @@ public class DataLoader {
         return users;
     }
 
+    /** 
+     * reads one of the csv user lists in the same layout as the sample files under data/.
+     * @param kind students, staff or reps
+     * @param path
+     * @return list&lt;user&gt;
+     * @throws IOException
+     */
+    public List<User> importUsers(String kind, String path) throws IOException {
+        return switch (kind.toLowerCase()) {
+            case "students" -> new ArrayList<>(loadStudents(path));
+            case "staff" -> new ArrayList<>(loadStaff(path));
+            case "reps" -> new ArrayList<>(loadCompanyReps(path));
+            default -> throw new IllegalArgumentException("unknown user list: " + kind);
+        };
+    }
+
     /** 
      * @param path
      * @return List<Student>
@@ -199,9 +448,9 @@ public class DataLoader {
      *  * @return list&lt;internshipopportunity&gt;
      */
     public List<InternshipOpportunity> loadOpportunities() {
-        List<InternshipOpportunity> saved = loadSavedOpportunities();
-        if (!saved.isEmpty()) {
-            System.out.println("loaded opportunities from saved data (" + new File(OPPORTUNITIES_FILE) + ")");
+        List<InternshipOpportunity> saved = loadStored("opportunities", StorageBackend::loadOpportunities, this::saveOpportunities);
+        if (saved != null && !saved.isEmpty()) {
+            System.out.println("loaded opportunities from saved data (" + storage.locate("opportunities") + ")");
             return saved;
         }
         System.out.println("no saved opportunity data found. returning empty list.");
@@ -212,10 +461,12 @@ public class DataLoader {
      * @param list
      */
     public void saveOpportunities(List<InternshipOpportunity> list) {
+        if (defer(OPPORTUNITIES_FILE, () -> saveOpportunities(list))) return;
         ensureFolder(SERIALIZED_FOLDER);
-        try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(OPPORTUNITIES_FILE))) {
-            out.writeObject(list);
-            System.out.println("saved opportunities to " + new File(OPPORTUNITIES_FILE));
+        try (VersionedList.Snapshot<InternshipOpportunity> pinned = VersionedList.pin(list)) {
+            storage.saveOpportunities(pinned);
+            System.out.println("saved opportunities to " + storage.locate("opportunities"));
+            capture(ChangeFeed.Entity.OPPORTUNITY, pinned);
         } catch (IOException e) {
             System.err.println("error saving opportunities: " + e.getMessage());
         }
@@ -225,9 +476,9 @@ public class DataLoader {
      * @return list&lt;application&gt;
      */
     public List<Application> loadApplications() {
-        List<Application> saved = loadSavedApplications();
-        if (!saved.isEmpty()) {
-            System.out.println("loaded applications from saved data (" + new File(APPLICATIONS_FILE) + ")");
+        List<Application> saved = loadStored("applications", StorageBackend::loadApplications, this::saveApplications);
+        if (saved != null && !saved.isEmpty()) {
+            System.out.println("loaded applications from saved data (" + storage.locate("applications") + ")");
             return saved;
         }
         System.out.println("no saved application data found. returning empty list.");
@@ -238,13 +489,332 @@ public class DataLoader {
      * @param list
      */
     public void saveApplications(List<Application> list) {
+        if (defer(APPLICATIONS_FILE, () -> saveApplications(list))) return;
         ensureFolder(SERIALIZED_FOLDER);
-        try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(APPLICATIONS_FILE))) {
-            out.writeObject(list);
-            System.out.println("saved applications to " + new File(APPLICATIONS_FILE));
+        try (VersionedList.Snapshot<Application> pinned = VersionedList.pin(list)) {
+            try {
+                storage.saveApplications(pinned);
+                System.out.println("saved applications to " + storage.locate("applications"));
+                capture(ChangeFeed.Entity.APPLICATION, pinned);
+                savePlacementCounts(pinned);
+            } catch (IOException e) {
+                System.err.println("error saving applications: " + e.getMessage());
+            }
+
+            try {
+                long start = stats.start();
+                historyWriter().sync(pinned);
+                stats.recordSave(HISTORY_FILE, file(HISTORY_FILE).length(), start);
+            } catch (IOException | RuntimeException e) {
+                history = null;
+                System.err.println("error saving application history: " + e.getMessage());
+            }
+        }
+    }
+
+    /** 
+     * @return ApplicationHistory.Writer, opened over the history file on first use
+     * @throws IOException
+     */
+    private synchronized ApplicationHistory.Writer historyWriter() throws IOException {
+        if (history == null) history = new ApplicationHistory.Writer(file(HISTORY_FILE).toPath());
+        return history;
+    }
+
+    /** 
+     * publishes every list save to the change feed under {@code changes/} from then on.
+     * a feed that has never published anything starts with a full copy of the four lists.
+     * @param users
+     * @param opportunities
+     * @param applications
+     * @param withdrawals
+     */
+    public void startChangeFeed(List<User> users, List<InternshipOpportunity> opportunities,
+                                List<Application> applications, List<WithdrawalRequest> withdrawals) {
+        try {
+            changes = ChangeFeed.open(file(CHANGES_FOLDER).toPath(), CHANGE_SEGMENT_BYTES);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("error opening change feed, changes will not be published: " + e.getMessage());
+            return;
+        }
+        if (!changes.isFresh()) return;
+        capture(ChangeFeed.Entity.USER, users);
+        capture(ChangeFeed.Entity.OPPORTUNITY, opportunities);
+        capture(ChangeFeed.Entity.APPLICATION, applications);
+        capture(ChangeFeed.Entity.WITHDRAWAL, withdrawals);
+        System.out.println("published " + changes.getLastSeq() + " records to the new change feed in " + file(CHANGES_FOLDER));
+    }
+
+    /** 
+     * @param kind
+     * @param list
+     */
+    private void capture(ChangeFeed.Entity kind, List<?> list) {
+        if (changes == null) return;
+        try (VersionedList.Snapshot<?> pinned = VersionedList.pin(list)) {
+            changes.capture(kind, pinned);
+        } catch (IOException e) {
+            System.err.println("error writing change feed: " + e.getMessage());
+        }
+    }
+
+    /** 
+     * @param applications the list as loaded, before anything has changed it
+     * @return map&lt;string, long[]&gt; application counts per opportunity for {@link PlacementCube#build}:
+     *         the saved cube's when it was counted from the same applications snapshot, otherwise
+     *         counted from the list
+     */
+    public Map<String, long[]> placementCounts(List<Application> applications) {
+        int size = applications.size();
+        String stamp = storage.stamp("applications");
+        File f = file(CUBE_FILE);
+        if (stamp != null && (f.exists() || SnapshotFile.previous(f.toPath()).toFile().exists())) {
+            PlacementCube.Saved saved = readVerified(f, "placement cube", PlacementCube::readCounts);
+            if (saved != null && saved.stamp().equals(stamp)) return saved.counts();
+        }
+        System.out.println("counted placement figures from " + size + " applications");
+        return PlacementCube.count(applications);
+    }
+
+    /** 
+     * writes the cube's counts from the applications snapshot just saved, stamped with it.
+     * @param applications
+     */
+    private void savePlacementCounts(List<Application> applications) {
+        String stamp = storage.stamp("applications");
+        if (stamp == null) return;
+        try {
+            writeSnapshot(CUBE_FILE, out -> PlacementCube.writeCounts(out, stamp, PlacementCube.count(applications)));
+            System.out.println("saved placement cube to " + file(CUBE_FILE));
+        } catch (IOException e) {
+            System.err.println("error saving placement cube: " + e.getMessage());
+        }
+    }
+
+    /** 
+     * @param report
+     * @param path
+     * @throws IOException
+     */
+    public void exportReport(Report report, String path) throws IOException {
+        try (PrintWriter writer = new PrintWriter(new FileWriter(path))) {
+
+            writer.println("summary");
+            writer.printf("\"%s\"%n%n", report.getSummary().toLowerCase());
+
+            writer.println("id,title,company,level,major,status,confirmed_slots,total_slots,open_date,close_date");
+
+            for (InternshipOpportunity o : report.getOpportunities()) {
+                writer.printf(
+                    "\"%s\",\"%s\",\"%s\",\"%s\",\"%s\",\"%s\",%d,%d,%s,%s%n",
+                    o.getId(),
+                    o.getTitle(),
+                    o.getCompanyName(),
+                    o.getLevel(),
+                    o.getPreferredMajor(),
+                    o.getStatus(),
+                    o.getConfirmedSlots(),
+                    o.getSlots(),
+                    o.getOpenDate(),
+                    o.getCloseDate()
+                );
+            }
+            if (writer.checkError()) throw new IOException("could not write " + path);
+        }
+    }
+
+    /** 
+     * one row per bucket, dated by the bucket's first day.
+     * @param activity
+     * @param from
+     * @param to
+     * @param bucketDays
+     * @param path
+     * @throws IOException
+     */
+    public void exportActivity(ActivitySeries activity, LocalDate from, LocalDate to, int bucketDays, String path)
+            throws IOException {
+        ActivitySeries.Series[] series = ActivitySeries.Series.values();
+        int[][] buckets = new int[series.length][];
+        for (int i = 0; i < series.length; i++) buckets[i] = activity.histogram(series[i], from, to, bucketDays);
+
+        try (PrintWriter writer = new PrintWriter(new FileWriter(path))) {
+            writer.println("date,applied,successful,unsuccessful,withdrawn,withdrawal_requests,withdrawal_reviews");
+            for (int b = 0; b < buckets[0].length; b++) {
+                writer.print(from.plusDays((long) b * bucketDays));
+                for (int[] counts : buckets) writer.print("," + counts[b]);
+                writer.println();
+            }
+            if (writer.checkError()) throw new IOException("could not write " + path);
+        }
+    }
+
+    /** 
+     * @param file
+     * @param payload
+     * @throws IOException
+     */
+    private void writeSnapshot(String file, SnapshotFile.Payload payload) throws IOException {
+        long start = stats.start();
+        File f = file(file);
+        fingerprints.put(f.getPath(), SnapshotFile.write(f.toPath(), payload));
+        stats.recordSave(file, f.length(), start);
+    }
+
+    /** 
+     * maps the read-only history kept up to date by every applications save; reporting through
+     * it does not load the applications themselves.
+     * @return ApplicationHistory, or null when no history has been written yet
+     */
+    public ApplicationHistory openApplicationHistory() {
+        File f = file(HISTORY_FILE);
+        if (!f.exists()) return null;
+        try {
+            return ApplicationHistory.open(f.toPath());
+        } catch (IOException e) {
+            System.err.println("error opening application history: " + e.getMessage());
+        }
+        return null;
+    }
+
+    /** 
+     * @return long
+     */
+    public long loadIdHighWaterMark() {
+        Long mark = readVerified(file(IDS_FILE), "id high-water mark", in -> new ObjectInputStream(in).readLong());
+        return mark == null ? 0 : mark;
+    }
+
+    /** 
+     * @param mark
+     */
+    public void saveIdHighWaterMark(long mark) {
+        if (readOnly) return;
+        ensureFolder(SERIALIZED_FOLDER);
+        try {
+            writeSnapshot(IDS_FILE, out -> {
+                ObjectOutputStream oos = new ObjectOutputStream(out);
+                oos.writeLong(mark);
+                oos.flush();
+            });
+            System.out.println("saved id high-water mark to " + file(IDS_FILE));
+        } catch (IOException e) {
+            System.err.println("error saving id high-water mark: " + e.getMessage());
+        }
+    }
+
+    /** 
+     * @param intake
+     * @param list
+     * @return boolean
+     */
+    public boolean archiveApplications(String intake, List<Application> list) {
+        return appendArchive(intake, "applications.log", "applications", out -> EntityCodec.writeApplications(out, list),
+                ChangeFeed.Entity.APPLICATION, list.stream().map(Application::getId).toList());
+    }
+
+    /** 
+     * @param intake
+     * @param list
+     * @return boolean
+     */
+    public boolean archiveWithdrawalRequests(String intake, List<WithdrawalRequest> list) {
+        return appendArchive(intake, "withdrawals.log", "withdrawal requests", out -> EntityCodec.writeWithdrawals(out, list),
+                ChangeFeed.Entity.WITHDRAWAL, list.stream().map(WithdrawalRequest::getId).toList());
+    }
+
+    /** 
+     * @param intake
+     * @param list
+     * @return boolean
+     */
+    public boolean archiveOpportunities(String intake, List<InternshipOpportunity> list) {
+        return appendArchive(intake, "opportunities.log", "opportunities", out -> EntityCodec.writeOpportunities(out, list),
+                ChangeFeed.Entity.OPPORTUNITY, list.stream().map(InternshipOpportunity::getId).toList());
+    }
+
+    /** 
+     * @return list&lt;string&gt;
+     */
+    public List<String> loadArchiveIntakes() {
+        List<String> intakes = new ArrayList<>();
+        File[] dirs = file(ARCHIVE_FOLDER).listFiles(File::isDirectory);
+        if (dirs != null) {
+            for (File d : dirs) intakes.add(d.getName());
+        }
+        intakes.sort(null);
+        return intakes;
+    }
+
+    /** 
+     * @param intake
+     * @return list&lt;application&gt;
+     */
+    public List<Application> loadArchivedApplications(String intake) {
+        return loadArchive(intake, "applications.log", "applications", EntityCodec::readApplications);
+    }
+
+    /** 
+     * @param intake
+     * @return list&lt;withdrawalrequest&gt;
+     */
+    public List<WithdrawalRequest> loadArchivedWithdrawalRequests(String intake) {
+        return loadArchive(intake, "withdrawals.log", "withdrawal requests", EntityCodec::readWithdrawals);
+    }
+
+    /** 
+     * @param intake
+     * @return list&lt;internshipopportunity&gt;
+     */
+    public List<InternshipOpportunity> loadArchivedOpportunities(String intake) {
+        return loadArchive(intake, "opportunities.log", "opportunities", EntityCodec::readOpportunities);
+    }
+
+    /** 
+     * the change feed reports the records leaving the hot list on its next save as archived
+     * rather than deleted.
+     * @param intake
+     * @param fileName
+     * @param label
+     * @param payload
+     * @param kind
+     * @param ids of the records archived
+     * @return boolean
+     */
+    private boolean appendArchive(String intake, String fileName, String label, SnapshotFile.Payload payload,
+                                  ChangeFeed.Entity kind, List<String> ids) {
+        File f = file(ARCHIVE_FOLDER + "/" + intake + "/" + fileName);
+        try {
+            ArchiveLog.append(f.toPath(), payload);
+            System.out.println("archived " + label + " to " + f);
+            if (changes != null) changes.archived(kind, intake, ids);
+            return true;
         } catch (IOException e) {
-            System.err.println("error saving applications: " + e.getMessage());
+            System.err.println("error archiving " + label + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    /** 
+     * @param intake
+     * @param fileName
+     * @param label
+     * @param decoder
+     * @return list&lt;t&gt;
+     */
+    private <T> List<T> loadArchive(String intake, String fileName, String label, Decoder<List<T>> decoder) {
+        List<T> all = new ArrayList<>();
+        File f = file(ARCHIVE_FOLDER + "/" + intake + "/" + fileName);
+        try {
+            for (InputStream frame : ArchiveLog.read(f.toPath())) {
+                try (InputStream in = frame) {
+                    all.addAll(decoder.read(in));
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("error loading archived " + label + ": " + e.getMessage());
         }
+        return all;
     }
 
     /** 
@@ -266,78 +836,418 @@ public class DataLoader {
     }
 
     /** 
-     * @return list&lt;user&gt;
+     * reads a list from the storage backend. a database that has none of the list yet is filled
+     * from the snapshot files, when there are any, so switching to a database keeps the saved data.
+     * @param list
+     * @param load
+     * @param save
+     * @return list&lt;t&gt;, null when saved data exists but cannot be read
+     * @throws IllegalStateException instead of returning null on a read-only loader, whose caller
+     *         would otherwise take the unreadable list for an empty one
      */
-    @SuppressWarnings("unchecked")
-    private List<User> loadSavedUsers() {
-        File f = new File(USERS_FILE);
-        if (!f.exists() || f.length() == 0) return new ArrayList<>();
-        try (ObjectInputStream in = new ObjectInputStream(new FileInputStream(f))) {
-            Object obj = in.readObject();
-            if (obj instanceof List<?>) {
-                return (List<User>) obj;
-            }
-        } catch (IOException | ClassNotFoundException e) {
-            System.err.println("error loading saved users: " + e.getMessage());
+    private <T> List<T> loadStored(String list, Function<StorageBackend, List<T>> load, Consumer<List<T>> save) {
+        List<T> saved = load.apply(storage);
+        if (saved == null && readOnly) {
+            throw new IllegalStateException("saved " + list + " could not be read from " + storage.locate(list));
         }
-        return new ArrayList<>();
+        if (saved == null || !saved.isEmpty() || storage instanceof SnapshotFiles) return saved;
+
+        SnapshotFiles files = new SnapshotFiles();
+        List<T> copied = load.apply(files);
+        if (copied == null || copied.isEmpty()) return saved;
+        save.accept(copied);
+        System.out.println("copied " + list + " from " + files.locate(list) + " into " + storage.locate(list));
+        return copied;
     }
 
     /** 
-     *  * @return list&lt;internshipopportunity&gt;
+     * the default backend: users and withdrawals each in their own snapshot file under
+     * {@code serialized/}, opportunities and applications in one snapshot file per company under
+     * {@code serialized/companies/}.
      */
-    @SuppressWarnings("unchecked")
-    private List<InternshipOpportunity> loadSavedOpportunities() {
-        File f = new File(OPPORTUNITIES_FILE);
-        if (!f.exists() || f.length() == 0) return new ArrayList<>();
-        try (ObjectInputStream in = new ObjectInputStream(new FileInputStream(f))) {
-            Object obj = in.readObject();
-            if (obj instanceof List<?>) {
-                return (List<InternshipOpportunity>) obj;
+    private class SnapshotFiles implements StorageBackend {
+
+        @Override
+        public List<User> loadUsers() {
+            return loadSaved(USERS_FILE, LEGACY_USERS_FILE, "users", EntityCodec::readUsers, DataLoader.this::saveUsers);
+        }
+
+        @Override
+        public List<InternshipOpportunity> loadOpportunities() {
+            return loadSegmented("opportunities", OPPORTUNITIES_FILE, LEGACY_OPPORTUNITIES_FILE,
+                    EntityCodec::readOpportunities, DataLoader.this::saveOpportunities);
+        }
+
+        @Override
+        public List<Application> loadApplications() {
+            return loadSegmented("applications", APPLICATIONS_FILE, LEGACY_APPLICATIONS_FILE,
+                    EntityCodec::readApplications, DataLoader.this::saveApplications);
+        }
+
+        @Override
+        public List<WithdrawalRequest> loadWithdrawals() {
+            return loadSaved(WITHDRAWALS_FILE, LEGACY_WITHDRAWALS_FILE, "withdrawals",
+                    EntityCodec::readWithdrawals, DataLoader.this::saveWithdrawalRequests);
+        }
+
+        @Override
+        public void saveUsers(List<User> users) throws IOException {
+            writeSnapshot(USERS_FILE, out -> EntityCodec.writeUsers(out, users));
+        }
+
+        @Override
+        public void saveOpportunities(List<InternshipOpportunity> opportunities) throws IOException {
+            saveSegmented("opportunities", OPPORTUNITIES_FILE, opportunities,
+                    InternshipOpportunity::getCompanyName, EntityCodec::writeOpportunities);
+        }
+
+        @Override
+        public void saveApplications(List<Application> applications) throws IOException {
+            saveSegmented("applications", APPLICATIONS_FILE, applications,
+                    a -> a.getOpportunity() == null ? null : a.getOpportunity().getCompanyName(),
+                    EntityCodec::writeApplications);
+        }
+
+        @Override
+        public void saveWithdrawals(List<WithdrawalRequest> requests) throws IOException {
+            writeSnapshot(WITHDRAWALS_FILE, out -> EntityCodec.writeWithdrawals(out, requests));
+        }
+
+        @Override
+        public String locate(String list) {
+            return file(switch (list) {
+                case "users" -> USERS_FILE;
+                case "opportunities", "applications" -> COMPANIES_FOLDER + "/*." + list + ".bin";
+                default -> WITHDRAWALS_FILE;
+            }).toString();
+        }
+
+        @Override
+        public String stamp(String list) {
+            Long fingerprint = fingerprints.get(locate(list));
+            return fingerprint == null ? null : Long.toHexString(fingerprint);
+        }
+
+        /**
+         * a save replaces a file by renaming a new one over it, so the file's identity, size and
+         * modification time change with every save. a list kept in company segments is stamped
+         * with every segment, and with the single file it may not have been split out of yet.
+         */
+        @Override
+        public String currentStamp(String list) {
+            if (!list.equals("opportunities") && !list.equals("applications")) {
+                return fileStamp(new File(locate(list)).toPath());
             }
-        } catch (IOException | ClassNotFoundException e) {
-            System.err.println("error loading saved opportunities: " + e.getMessage());
+            StringBuilder stamp = new StringBuilder();
+            String single = fileStamp(file(list.equals("applications") ? APPLICATIONS_FILE : OPPORTUNITIES_FILE).toPath());
+            if (single != null) stamp.append(single).append(';');
+            for (String name : segmentNames(list)) {
+                stamp.append(fileStamp(file(COMPANIES_FOLDER + "/" + name).toPath())).append(';');
+            }
+            return stamp.length() == 0 ? null : stamp.toString();
         }
-        return new ArrayList<>();
+
+        /**
+         * @param current
+         * @return String, null when neither generation exists
+         */
+        private String fileStamp(Path current) {
+            Path g = Files.exists(current) ? current : SnapshotFile.previous(current);
+            try {
+                BasicFileAttributes a = Files.readAttributes(g, BasicFileAttributes.class);
+                return g.getFileName() + ":" + a.fileKey() + ":" + a.size() + ":" + a.lastModifiedTime().toMillis();
+            } catch (IOException e) {
+                return null;
+            }
+        }
+
+        @Override
+        public void close() { }
     }
 
     /** 
-     * @return list&lt;application&gt;
+     * reads the binary file, or migrates the legacy java-serialized file when only that exists.
+     * @param path
+     * @param legacyPath
+     * @param label
+     * @param decoder
+     * @param migrate
+     * @return list&lt;t&gt;, or null when saved data exists but no generation of it is readable
      */
-    @SuppressWarnings("unchecked")
-    private List<Application> loadSavedApplications() {
-        File f = new File(APPLICATIONS_FILE);
-        if (!f.exists() || f.length() == 0) return new ArrayList<>();
-        try (ObjectInputStream in = new ObjectInputStream(new FileInputStream(f))) {
-            Object obj = in.readObject();
-            if (obj instanceof List<?>) {
-                return (List<Application>) obj;
+    private <T> List<T> loadSaved(String path, String legacyPath, String label,
+                                  Decoder<List<T>> decoder, Consumer<List<T>> migrate) {
+        File f = file(path);
+        if (f.exists() || SnapshotFile.previous(f.toPath()).toFile().exists()) {
+            return readVerified(f, label, decoder);
+        }
+
+        List<T> legacy = loadLegacy(legacyPath, label);
+        if (!legacy.isEmpty()) {
+            migrate.accept(legacy);
+            System.out.println("migrated " + label + " from " + file(legacyPath) + " to " + f);
+        }
+        return legacy;
+    }
+
+    /** 
+     * reads a list kept in per-company segments. every segment is read and verified at once on the
+     * fork/join pool, and the records are put back in list order from the positions saved with
+     * them. a list still in the single file it was kept in before is read from that file, and so
+     * is one with neither, which may still be in its legacy file; the first save splits it up.
+     * @param kind opportunities or applications
+     * @param path the single file
+     * @param legacyPath
+     * @param decoder
+     * @param migrate
+     * @return list&lt;t&gt;, or null when saved data exists but a segment of it is unreadable
+     */
+    private <T> List<T> loadSegmented(String kind, String path, String legacyPath,
+                                      Decoder<List<T>> decoder, Consumer<List<T>> migrate) {
+        File single = file(path);
+        List<String> names = segmentNames(kind);
+        if (names.isEmpty() || single.exists() || SnapshotFile.previous(single.toPath()).toFile().exists()) {
+            List<T> list = loadSaved(path, legacyPath, kind, decoder, migrate);
+            Long print = fingerprints.get(single.getPath());
+            if (print != null) fingerprints.put(new SnapshotFiles().locate(kind), print);
+            return list;
+        }
+
+        List<Segment<T>> segments = names.parallelStream()
+                .map(name -> readSegment(name, kind, decoder))
+                .toList();
+        List<T> flat = new ArrayList<>();
+        List<Integer> at = new ArrayList<>();
+        for (Segment<T> seg : segments) {
+            if (seg == null) return null;
+            flat.addAll(seg.items());
+            for (int p : seg.positions()) at.add(p);
+        }
+        Integer[] order = new Integer[flat.size()];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, Comparator.comparingInt(at::get));
+        List<T> list = new ArrayList<>(flat.size());
+        for (int i : order) list.add(flat.get(i));
+
+        fingerprints.put(new SnapshotFiles().locate(kind), segmentsStamp(names));
+        return list;
+    }
+
+    /** 
+     * @param name segment file name
+     * @param kind
+     * @param decoder
+     * @return Segment, or null when no generation of it is readable
+     */
+    private <T> Segment<T> readSegment(String name, String kind, Decoder<List<T>> decoder) {
+        String label = kind + " segment " + name;
+        byte[] payload = readVerified(file(COMPANIES_FOLDER + "/" + name), label, InputStream::readAllBytes);
+        if (payload == null) return null;
+        try {
+            ByteArrayInputStream bytes = new ByteArrayInputStream(payload);
+            DataInputStream in = new DataInputStream(bytes);
+            int[] positions = new int[in.readInt()];
+            for (int i = 0; i < positions.length; i++) positions[i] = in.readInt();
+            List<T> items = decoder.read(bytes);
+            if (items.size() != positions.length) throw new IOException("segment holds " + items.size() + " records for " + positions.length + " positions");
+            segmentPrints.put(name, crc(payload));
+            return new Segment<>(positions, items);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("error loading saved " + label + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /** 
+     * writes the list as one segment per company, each with the positions of its records in the
+     * list. a segment is only written when its bytes differ from what this loader last read or
+     * wrote for it, and it is written under its own lock, so saves that change different
+     * companies write different files and do not wait on each other. each segment is replaced
+     * atomically; a save that changes several companies is not atomic across them, just as the
+     * four lists never were across each other. segments of companies that left the list are
+     * deleted, and so is the single file once the list has been split out of it.
+     * @param kind opportunities or applications
+     * @param path the single file
+     * @param list
+     * @param companyOf
+     * @param encoder
+     * @throws IOException
+     */
+    private <T> void saveSegmented(String kind, String path, List<T> list, Function<T, String> companyOf,
+                                   Encoder<T> encoder) throws IOException {
+        ensureFolder(COMPANIES_FOLDER);
+        Map<String, List<T>> items = new TreeMap<>();
+        Map<String, List<Integer>> positions = new HashMap<>();
+        for (int i = 0; i < list.size(); i++) {
+            T item = list.get(i);
+            String name = segmentName(companyOf.apply(item), kind);
+            items.computeIfAbsent(name, k -> new ArrayList<>()).add(item);
+            positions.computeIfAbsent(name, k -> new ArrayList<>()).add(i);
+        }
+        if (items.isEmpty()) items.put(segmentName(null, kind), new ArrayList<>());
+
+        for (String stale : segmentNames(kind)) {
+            if (items.containsKey(stale)) continue;
+            deleteGenerations(file(COMPANIES_FOLDER + "/" + stale));
+            segmentPrints.remove(stale);
+        }
+
+        for (Map.Entry<String, List<T>> e : items.entrySet()) {
+            String name = e.getKey();
+            List<Integer> at = positions.getOrDefault(name, List.of());
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(at.size());
+            for (int p : at) out.writeInt(p);
+            out.flush();
+            encoder.write(bytes, e.getValue());
+            byte[] payload = bytes.toByteArray();
+
+            long print = crc(payload);
+            synchronized (segmentLocks.computeIfAbsent(name, k -> new Object())) {
+                Long saved = segmentPrints.get(name);
+                if (saved != null && saved == print) continue;
+                writeSnapshot(COMPANIES_FOLDER + "/" + name, o -> o.write(payload));
+                segmentPrints.put(name, print);
             }
-        } catch (IOException | ClassNotFoundException e) {
-            System.err.println("error loading saved applications: " + e.getMessage());
         }
-        return new ArrayList<>();
+
+        File single = file(path);
+        if (single.exists() || SnapshotFile.previous(single.toPath()).toFile().exists()) {
+            deleteGenerations(single);
+            System.out.println("split " + kind + " from " + single + " into per-company segments under " + file(COMPANIES_FOLDER));
+        }
+        fingerprints.put(new SnapshotFiles().locate(kind), segmentsStamp(items.keySet()));
     }
 
     /** 
-     * @return list&lt;withdrawalrequest&gt;
+     * the previous generation goes first, so a crash in between never leaves only an older copy.
+     * @param f
+     * @throws IOException
      */
-    @SuppressWarnings("unchecked")
-    private List<WithdrawalRequest> loadSavedWithdrawals() {
-        File f = new File(WITHDRAWALS_FILE);
-        if (!f.exists()) {
-            return new ArrayList<>();
+    private static void deleteGenerations(File f) throws IOException {
+        Files.deleteIfExists(SnapshotFile.previous(f.toPath()));
+        Files.deleteIfExists(f.toPath());
+    }
+
+    /** 
+     * @param kind
+     * @return list&lt;string&gt; names of the segment files of the list, sorted, including those
+     *         of which only the previous generation is left
+     */
+    private List<String> segmentNames(String kind) {
+        String suffix = "." + kind + ".bin";
+        String[] files = file(COMPANIES_FOLDER).list();
+        if (files == null) return new ArrayList<>();
+        TreeSet<String> names = new TreeSet<>();
+        for (String f : files) {
+            if (f.endsWith(suffix)) names.add(f);
+            else if (f.endsWith(suffix + ".prev")) names.add(f.substring(0, f.length() - ".prev".length()));
+        }
+        return new ArrayList<>(names);
+    }
+
+    /** 
+     * a readable slug of the company name with a checksum of the name behind it, so names that
+     * only differ in punctuation still get segments of their own.
+     * @param company
+     * @param kind
+     * @return String
+     */
+    private static String segmentName(String company, String kind) {
+        String key = company == null ? "" : company.trim().toLowerCase();
+        String slug = key.replaceAll("[^a-z0-9]+", "-").replaceAll("^-+|-+$", "");
+        if (slug.length() > 40) slug = slug.substring(0, 40);
+        if (slug.isEmpty()) slug = "unnamed";
+        return slug + "-" + String.format("%08x", (int) crc(key.getBytes(java.nio.charset.StandardCharsets.UTF_8))) + "." + kind + ".bin";
+    }
+
+    /** 
+     * @param names
+     * @return long changes whenever any of the segments does
+     */
+    private long segmentsStamp(Collection<String> names) {
+        long h = 0xcbf29ce484222325L;
+        for (String name : new TreeSet<>(names)) {
+            h = (h ^ name.hashCode()) * 0x100000001b3L;
+            h = (h ^ segmentPrints.getOrDefault(name, 0L)) * 0x100000001b3L;
+        }
+        return h;
+    }
+
+    private static long crc(byte[] bytes) {
+        CRC32C crc = new CRC32C();
+        crc.update(bytes);
+        return crc.getValue();
+    }
+
+    /** 
+     * @param positions of the records in the whole list when the segment was written
+     * @param items
+     */
+    private record Segment<T>(int[] positions, List<T> items) { }
+
+    private interface Encoder<T> {
+        void write(OutputStream out, List<T> list) throws IOException;
+    }
+
+    /** 
+     * verifies and decodes the current generation, falling back to the previous one, and remembers
+     * the fingerprint of the one decoded.
+     * generations that fail verification are moved aside so a later save cannot rotate them
+     * over the good copy; a read-only loader leaves them, since the files belong to another process.
+     * @param f
+     * @param label
+     * @param decoder
+     * @return T, or null when no generation is readable
+     */
+    private <T> T readVerified(File f, String label, Decoder<T> decoder) {
+        Path current = f.toPath();
+        Path[] generations = { current, SnapshotFile.previous(current) };
+
+        for (Path g : generations) {
+            if (!g.toFile().exists()) continue;
+            try {
+                SnapshotFile.Contents contents = SnapshotFile.readContents(g);
+                T value = decoder.read(new ByteArrayInputStream(contents.payload()));
+                fingerprints.put(f.getPath(), contents.fingerprint());
+                if (g != current) {
+                    System.err.println("recovered " + label + " from previous generation (" + g + ")");
+                }
+                return value;
+            } catch (IOException | RuntimeException e) {
+                System.err.println("error loading saved " + label + " from " + g + ": " + e.getMessage());
+                if (readOnly) continue;
+                try {
+                    System.err.println("moved unreadable " + label + " file to " + SnapshotFile.quarantine(g));
+                } catch (IOException moveError) {
+                    System.err.println("error moving unreadable " + label + " file: " + moveError.getMessage());
+                }
+            }
         }
+        return null;
+    }
 
-        try (ObjectInputStream in = new ObjectInputStream(new FileInputStream(f))) {
+    /** 
+     * @param path
+     * @param label
+     * @return list&lt;t&gt;
+     */
+    @SuppressWarnings("unchecked")
+    private <T> List<T> loadLegacy(String path, String label) {
+        File f = file(path);
+        if (!f.exists() || f.length() == 0) return new ArrayList<>();
+        try (ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(new FileInputStream(f)))) {
             Object obj = in.readObject();
             if (obj instanceof List<?>) {
-                return (List<WithdrawalRequest>) obj;
+                return new ArrayList<>((List<T>) obj);
             }
         } catch (IOException | ClassNotFoundException e) {
-            System.err.println("error loading withdrawals: " + e.getMessage());
+            System.err.println("error loading saved " + label + ": " + e.getMessage());
         }
-
         return new ArrayList<>();
     }
-}
\ No newline at end of file
+
+    private interface Decoder<T> {
+        T read(InputStream in) throws IOException;
+    }
+}
@@ -0,0 +1,182 @@
+package control;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import entity.InternshipOpportunity;
+import entity.Student;
+import enumerations.Major;
+
+/**
+ * student x opportunity eligibility relation, computed once per eligibility class.
+ * eligibility only depends on a student's major and year of study, so students sharing
+ * both are grouped and each (class, opportunity) cell is evaluated exactly once.
+ */
+public class EligibilityMatrix {
+    private static final int CELLS_PER_TASK = 512;
+
+    private final List<InternshipOpportunity> opportunities;
+    private final Map<InternshipOpportunity, Integer> oppIndex = new IdentityHashMap<>();
+    private final List<List<Student>> classes;
+    private final BitSet[] eligible;
+    private final int[] eligibleStudentsPerOpp;
+    private final int[] eligibleOppsPerClass;
+
+    private EligibilityMatrix(List<InternshipOpportunity> opportunities, List<List<Student>> classes) {
+        this.opportunities = opportunities;
+        this.classes = classes;
+        this.eligible = new BitSet[classes.size()];
+        this.eligibleStudentsPerOpp = new int[opportunities.size()];
+        this.eligibleOppsPerClass = new int[classes.size()];
+        for (int o = 0; o < opportunities.size(); o++) oppIndex.put(opportunities.get(o), o);
+    }
+
+    /**
+     * @param students
+     * @param opportunities
+     * @return EligibilityMatrix
+     */
+    public static EligibilityMatrix compute(List<Student> students, List<InternshipOpportunity> opportunities) {
+        Objects.requireNonNull(students, "students must not be null");
+        Objects.requireNonNull(opportunities, "opportunities must not be null");
+
+        Map<String, List<Student>> byClass = new LinkedHashMap<>();
+        for (Student s : students) {
+            byClass.computeIfAbsent(classKey(s.getMajor(), s.getYearOfStudy()), k -> new ArrayList<>()).add(s);
+        }
+
+        EligibilityMatrix m = new EligibilityMatrix(List.copyOf(opportunities), new ArrayList<>(byClass.values()));
+        for (int c = 0; c < m.eligible.length; c++) {
+            m.eligible[c] = new BitSet(m.opportunities.size());
+        }
+
+        int cells = m.classes.size() * m.opportunities.size();
+        if (cells > 0) {
+            ForkJoinPool.commonPool().invoke(m.new CellTask(0, cells));
+        }
+        m.tally();
+        return m;
+    }
+
+    /**
+     * @param major
+     * @param year
+     * @return String
+     */
+    private static String classKey(Major major, int year) {
+        return major + "/" + year;
+    }
+
+    private void tally() {
+        for (int c = 0; c < classes.size(); c++) {
+            int size = classes.get(c).size();
+            BitSet row = eligible[c];
+            eligibleOppsPerClass[c] = row.cardinality();
+            for (int o = row.nextSetBit(0); o >= 0; o = row.nextSetBit(o + 1)) {
+                eligibleStudentsPerOpp[o] += size;
+            }
+        }
+    }
+
+    private final class CellTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+
+        CellTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= CELLS_PER_TASK) {
+                int n = opportunities.size();
+                for (int cell = from; cell < to; cell++) {
+                    int c = cell / n;
+                    int o = cell % n;
+                    if (opportunities.get(o).isEligibleFor(classes.get(c).get(0))) {
+                        BitSet row = eligible[c];
+                        synchronized (row) {
+                            row.set(o);
+                        }
+                    }
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new CellTask(from, mid), new CellTask(mid, to));
+        }
+    }
+
+    /**
+     * @return list&lt;internshipopportunity&gt;
+     */
+    public List<InternshipOpportunity> getOpportunities() {
+        return opportunities;
+    }
+
+    /**
+     * @return int
+     */
+    public int getClassCount() {
+        return classes.size();
+    }
+
+    /**
+     * @param opp
+     * @return int
+     */
+    public int countEligibleStudents(InternshipOpportunity opp) {
+        Integer o = oppIndex.get(opp);
+        return o == null ? 0 : eligibleStudentsPerOpp[o];
+    }
+
+    /**
+     * @param opp
+     * @return list&lt;student&gt;
+     */
+    public List<Student> getEligibleStudents(InternshipOpportunity opp) {
+        List<Student> result = new ArrayList<>();
+        Integer o = oppIndex.get(opp);
+        if (o == null) return result;
+        for (int c = 0; c < classes.size(); c++) {
+            if (eligible[c].get(o)) result.addAll(classes.get(c));
+        }
+        return result;
+    }
+
+    /**
+     * @param s
+     * @return int
+     */
+    public int countEligibleOpportunities(Student s) {
+        for (int c = 0; c < classes.size(); c++) {
+            List<Student> members = classes.get(c);
+            if (members.get(0).getMajor() == s.getMajor()
+                    && members.get(0).getYearOfStudy() == s.getYearOfStudy()) {
+                return eligibleOppsPerClass[c];
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @return list&lt;student&gt;
+     */
+    public List<Student> getStudentsWithNoEligibleOpportunities() {
+        List<Student> result = new ArrayList<>();
+        for (int c = 0; c < classes.size(); c++) {
+            if (eligibleOppsPerClass[c] == 0) result.addAll(classes.get(c));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,256 @@
+package control;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+
+import entity.Application;
+import entity.InternshipOpportunity;
+import entity.User;
+import entity.WithdrawalRequest;
+
+/**
+ * warm standby for a primary running from another directory on the same machine.
+ * the follower tails the primary's change feed as a registered consumer, so segments it has not
+ * read are kept, and uses it to tell when its copy of the four lists is out of date. the records
+ * leave out passwords, so they are not enough to apply on their own; this is snapshot shipping
+ * with the feed as the trigger, not journal replay. the primary saves a list before publishing
+ * its changes, so whenever a batch of records arrives the follower re-reads all four of the
+ * primary's saved lists, rewires the services over them and stops the graph it replaces.
+ * the primary saves its lists one at a time, so a read is only kept when no list's stamp in
+ * storage changed while it ran, and is retried otherwise. that makes it a cut of the primary's
+ * storage at one moment; a moment that falls between the list saves of one operation can still
+ * hold some of its lists before and some after it, but the later saves publish records of their
+ * own, so the next poll reads again and settles. a list that cannot be read, or a primary that
+ * keeps saving through every attempt, leaves the follower where it was, and the same records are
+ * tried again on the next poll.
+ * until promoted the services save nowhere and the follower only serves reads.
+ * promoting catches up one last time, takes over the primary's id high-water mark and writes
+ * everything to the follower's own directory, which it then runs from as a primary.
+ */
+public class Follower {
+    private static final int BATCH = 1000;
+    private static final int CUT_ATTEMPTS = 5;
+    private static final long CUT_RETRY_MILLIS = 50;
+    private static final String[] LISTS = { "users", "opportunities", "applications", "withdrawals" };
+
+    private final DataLoader primary;
+    private final ChangeFeedReader feed;
+    private final String consumer;
+    private final DataLoader local;
+    private final SystemStats stats;
+    private final AtomicReference<ServiceGraph> graph = new AtomicReference<>();
+    private volatile boolean promoted;
+    private volatile long appliedSeq;
+    private volatile long lastCaughtUp;
+    private Thread tailer;
+
+    /**
+     * @param primaryRoot directory the primary runs from
+     * @param consumer name the follower's offset is committed under
+     * @param local loader for the follower's own directory, written to once promoted
+     * @param stats
+     */
+    public Follower(File primaryRoot, String consumer, DataLoader local, SystemStats stats) {
+        Objects.requireNonNull(primaryRoot, "primaryRoot must not be null");
+        this.consumer = Objects.requireNonNull(consumer, "consumer must not be null");
+        this.local = Objects.requireNonNull(local, "local must not be null");
+        this.stats = Objects.requireNonNull(stats, "stats must not be null");
+        this.primary = new DataLoader(stats, primaryRoot, true);
+        this.feed = new ChangeFeedReader(new File(primaryRoot, DataLoader.CHANGES_FOLDER).toPath());
+    }
+
+    /**
+     * loads the primary's lists, then tails its change feed every {@code intervalMillis} in the background.
+     * records published before the load are skipped, since the load already includes them.
+     * @param intervalMillis
+     * @throws IOException
+     */
+    public synchronized void start(long intervalMillis) throws IOException {
+        if (graph.get() != null) throw new IllegalStateException("follower already started");
+        long seq = drain();
+        graph.set(reload());
+        commit(seq);
+
+        tailer = new Thread(() -> tail(intervalMillis), "ipms-follower");
+        tailer.setDaemon(true);
+        tailer.start();
+    }
+
+    /**
+     * @param intervalMillis
+     */
+    private void tail(long intervalMillis) {
+        while (!promoted) {
+            try {
+                catchUp();
+            } catch (IOException | RuntimeException e) {
+                System.err.println("error following primary: " + e.getMessage());
+            }
+            try {
+                Thread.sleep(intervalMillis);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * applies every record published since the last call.
+     * @return int records applied
+     * @throws IOException
+     */
+    public synchronized int catchUp() throws IOException {
+        if (promoted) return 0;
+        int applied = 0;
+        long seq = appliedSeq;
+        List<String> records;
+        while (!(records = feed.read(seq, BATCH)).isEmpty()) {
+            seq = ChangeFeedReader.seqOf(records.get(records.size() - 1));
+            applied += records.size();
+        }
+        if (applied > 0) {
+            replace(reload());
+            commit(seq);
+        }
+        lastCaughtUp = System.currentTimeMillis();
+        return applied;
+    }
+
+    /**
+     * reads all four of the primary's lists, again while any of them is saved during the read.
+     * @return ServiceGraph
+     * @throws IllegalStateException when one of the lists cannot be read, or the primary saved
+     *         during every attempt
+     */
+    private ServiceGraph reload() {
+        for (int attempt = 1; attempt <= CUT_ATTEMPTS; attempt++) {
+            List<String> before = stamps();
+            List<User> users = primary.loadUsers();
+            List<InternshipOpportunity> opportunities = primary.loadOpportunities();
+            List<Application> applications = primary.loadApplications();
+            List<WithdrawalRequest> withdrawals = primary.loadWithdrawalRequests();
+            if (before.equals(stamps())) {
+                return ServiceGraph.build(primary, stats, new VersionedList<>(users), new VersionedList<>(opportunities),
+                        new VersionedList<>(applications), new VersionedList<>(withdrawals));
+            }
+            try {
+                Thread.sleep(CUT_RETRY_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        throw new IllegalStateException("the primary kept saving while its lists were read");
+    }
+
+    /**
+     * @return list&lt;string&gt; the stamp of each list in the primary's storage now
+     */
+    private List<String> stamps() {
+        List<String> stamps = new ArrayList<>(LISTS.length);
+        for (String list : LISTS) stamps.add(primary.currentStamp(list));
+        return stamps;
+    }
+
+    /**
+     * @param next
+     */
+    private void replace(ServiceGraph next) {
+        ServiceGraph old = graph.getAndSet(next);
+        if (old != null) old.release();
+    }
+
+    /**
+     * stops following, applies what the primary published last and writes everything to the local
+     * directory. the primary must have stopped first, or its later changes are lost to the follower.
+     * @return ServiceGraph the services to run from, saving to the local directory
+     * @throws IOException
+     */
+    public ServiceGraph promote() throws IOException {
+        Thread t;
+        synchronized (this) {
+            if (promoted) return graph.get();
+            catchUp();
+            promoted = true;
+            t = tailer;
+        }
+        if (t != null) {
+            t.interrupt();
+            try {
+                t.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        local.saveIdHighWaterMark(Math.max(primary.loadIdHighWaterMark(), local.loadIdHighWaterMark()));
+        ServiceGraph g = graph.get();
+        ServiceGraph promotedGraph = ServiceGraph.build(local, stats, g.users(), g.opportunities(),
+                g.applications(), g.withdrawals());
+        local.startChangeFeed(promotedGraph.users(), promotedGraph.opportunities(), promotedGraph.applications(),
+                promotedGraph.withdrawals());
+        promotedGraph.saveAll();
+        replace(promotedGraph);
+        primary.close();
+        return promotedGraph;
+    }
+
+    /**
+     * @return ServiceGraph the services over the latest state applied
+     */
+    public ServiceGraph getGraph() {
+        return graph.get();
+    }
+
+    public boolean isPromoted() { return promoted; }
+    public long getAppliedSeq() { return appliedSeq; }
+
+    /**
+     * @return long records the primary has published that are not applied yet
+     * @throws IOException
+     */
+    public long getLag() throws IOException {
+        if (promoted) return 0;
+        long behind = 0;
+        List<String> records;
+        long seq = appliedSeq;
+        while (!(records = feed.read(seq, BATCH)).isEmpty()) {
+            behind += records.size();
+            seq = ChangeFeedReader.seqOf(records.get(records.size() - 1));
+        }
+        return behind;
+    }
+
+    /**
+     * @return long milliseconds since the feed was last checked
+     */
+    public long getMillisSinceCaughtUp() {
+        return lastCaughtUp == 0 ? -1 : System.currentTimeMillis() - lastCaughtUp;
+    }
+
+    /**
+     * @return long sequence number of the newest record published so far
+     * @throws IOException
+     */
+    private long drain() throws IOException {
+        long seq = feed.getOffset(consumer);
+        List<String> records;
+        while (!(records = feed.read(seq, BATCH)).isEmpty()) {
+            seq = ChangeFeedReader.seqOf(records.get(records.size() - 1));
+        }
+        return seq;
+    }
+
+    /**
+     * @param seq
+     * @throws IOException
+     */
+    private void commit(long seq) throws IOException {
+        if (seq != appliedSeq || feed.getOffset(consumer) != seq) feed.commit(consumer, seq);
+        appliedSeq = seq;
+    }
+}
@@ -0,0 +1,150 @@
+package control;
+
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * issues short, time-ordered record ids such as {@code APP-0K3FQ7Z1C0}.
+ * the 10-character crockford base32 body packs a 50-bit value:
+ * 32 bits of seconds since 2025-01-01T00:00Z, 4 node bits and a 14-bit per-second sequence.
+ * ids sort by creation time as plain strings and {@link #toKey(String)} turns them back into
+ * a dense long for indexes. the clock is logical: it never runs backwards, and it borrows the
+ * next second when the sequence overflows. a lease on future seconds is persisted through
+ * {@link DataLoader} so ids stay unique across restarts without a write per id.
+ */
+public class IdGenerator {
+    private static final long EPOCH_SECOND = 1735689600L;
+    private static final int NODE_BITS = 4;
+    private static final int SEQ_BITS = 14;
+    private static final long MAX_SEQ = (1L << SEQ_BITS) - 1;
+    private static final long LEASE_SECONDS = 300;
+    private static final int BODY_LENGTH = 10;
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+
+    private final DataLoader loader;
+    private final long node;
+    private long lastSecond;
+    private long seq;
+    private long leaseUntil;
+
+    public IdGenerator(DataLoader loader) {
+        this(loader, Integer.getInteger("ipms.node", 0));
+    }
+
+    public IdGenerator(DataLoader loader, int node) {
+        this.loader = Objects.requireNonNull(loader, "loader must not be null");
+        if (node < 0 || node >= (1 << NODE_BITS)) {
+            throw new IllegalArgumentException("node must be between 0 and " + ((1 << NODE_BITS) - 1));
+        }
+        this.node = node;
+        this.lastSecond = Math.max(0, loader.loadIdHighWaterMark());
+        this.leaseUntil = lastSecond;
+        this.seq = -1;
+    }
+
+    /**
+     * @param prefix
+     * @return String
+     */
+    public String next(String prefix) {
+        return prefix + "-" + encode(nextValue());
+    }
+
+    /**
+     * @return long
+     */
+    public synchronized long nextValue() {
+        long now = Math.max(currentSecond(), lastSecond);
+        if (now == lastSecond) {
+            if (++seq > MAX_SEQ) {
+                now++;
+                seq = 0;
+            }
+        } else {
+            seq = 0;
+        }
+        lastSecond = now;
+
+        if (now >= leaseUntil) {
+            leaseUntil = now + LEASE_SECONDS;
+            loader.saveIdHighWaterMark(leaseUntil);
+        }
+        return (now << (NODE_BITS + SEQ_BITS)) | (node << SEQ_BITS) | seq;
+    }
+
+    /**
+     * moves the clock past an id that already exists, e.g. one loaded from disk.
+     * @param id
+     */
+    public synchronized void observe(String id) {
+        long key = toKey(id);
+        if (key < 0) return;
+        long second = key >>> (NODE_BITS + SEQ_BITS);
+        long s = key & MAX_SEQ;
+        if (second > lastSecond || (second == lastSecond && s > seq)) {
+            lastSecond = second;
+            seq = s;
+        }
+    }
+
+    /**
+     * @param id
+     * @return long the packed value, or -1 for ids not issued by this generator
+     */
+    public static long toKey(String id) {
+        if (id == null) return -1;
+        String body = id.substring(id.lastIndexOf('-') + 1);
+        if (body.length() != BODY_LENGTH) return -1;
+
+        long value = 0;
+        for (int i = 0; i < BODY_LENGTH; i++) {
+            int d = digit(body.charAt(i));
+            if (d < 0) return -1;
+            value = (value << 5) | d;
+        }
+        return value;
+    }
+
+    /**
+     * @param id
+     * @return Instant creation time, or null for ids not issued by this generator
+     */
+    public static Instant timestampOf(String id) {
+        long key = toKey(id);
+        return key < 0 ? null : Instant.ofEpochSecond(EPOCH_SECOND + (key >>> (NODE_BITS + SEQ_BITS)));
+    }
+
+    /**
+     * @param value
+     * @return String
+     */
+    private static String encode(long value) {
+        char[] out = new char[BODY_LENGTH];
+        for (int i = BODY_LENGTH - 1; i >= 0; i--) {
+            out[i] = ALPHABET[(int) (value & 31)];
+            value >>>= 5;
+        }
+        return new String(out);
+    }
+
+    /**
+     * @param c
+     * @return int
+     */
+    private static int digit(char c) {
+        c = Character.toUpperCase(c);
+        if (c == 'O') return 0;
+        if (c == 'I' || c == 'L') return 1;
+        for (int i = 0; i < ALPHABET.length; i++) {
+            if (ALPHABET[i] == c) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * @return long
+     */
+    private static long currentSecond() {
+        return System.currentTimeMillis() / 1000 - EPOCH_SECOND;
+    }
+}
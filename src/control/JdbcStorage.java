@@ -0,0 +1,312 @@
+package control;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+import entity.Application;
+import entity.EntityTables;
+import entity.InternshipOpportunity;
+import entity.User;
+import entity.WithdrawalRequest;
+
+/**
+ * keeps the entity lists as tables in an embedded, file-based sql database opened in this process,
+ * e.g. {@code jdbc:h2:./serialized/ipms} or {@code jdbc:sqlite:serialized/ipms.db}, with the
+ * engine's driver on the classpath. the tables and their indexes are laid out by {@link EntityTables}.
+ * a save compares each row with what this process last read or wrote for it and, in one
+ * transaction, runs batched prepared inserts, updates and deletes for just the rows that differ.
+ * a load reads all four tables, since each list links into the others. every save that changes a
+ * table also replaces that list's stamp in {@code ipms_stamps}, in the same transaction.
+ * all access goes through one connection, one call at a time, until {@link #close} closes it, which
+ * also shuts an embedded database down once no other connection has it open.
+ */
+public class JdbcStorage implements StorageBackend {
+    private final String url;
+    private final Connection connection;
+    private static final String STAMPS = "ipms_stamps";
+
+    private final Map<String, Map<String, List<Object>>> stored = new HashMap<>();
+    private final Map<String, String> stamps = new HashMap<>();
+
+    /**
+     * @param url
+     * @throws SQLException when the database cannot be opened or its tables created
+     */
+    public JdbcStorage(String url) throws SQLException {
+        this.url = url;
+        this.connection = DriverManager.getConnection(url);
+        connection.setAutoCommit(false);
+        try (Statement st = connection.createStatement()) {
+            for (EntityTables.Table t : EntityTables.ALL) {
+                for (String ddl : t.ddl()) st.execute(ddl);
+            }
+            st.execute("CREATE TABLE IF NOT EXISTS " + STAMPS + " (list_name VARCHAR(32) PRIMARY KEY, stamp VARCHAR(64))");
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        }
+    }
+
+    @Override
+    public List<User> loadUsers() {
+        return load("users", EntityTables.Graph::users);
+    }
+
+    @Override
+    public List<InternshipOpportunity> loadOpportunities() {
+        return load("opportunities", EntityTables.Graph::opportunities);
+    }
+
+    @Override
+    public List<Application> loadApplications() {
+        return load("applications", EntityTables.Graph::applications);
+    }
+
+    @Override
+    public List<WithdrawalRequest> loadWithdrawals() {
+        return load("withdrawal requests", EntityTables.Graph::withdrawals);
+    }
+
+    @Override
+    public void saveUsers(List<User> users) throws IOException {
+        save("users", EntityTables.USERS, EntityTables.userRows(users));
+    }
+
+    @Override
+    public void saveOpportunities(List<InternshipOpportunity> opportunities) throws IOException {
+        save("opportunities", EntityTables.OPPORTUNITIES, EntityTables.opportunityRows(opportunities));
+    }
+
+    @Override
+    public void saveApplications(List<Application> applications) throws IOException {
+        save("applications", EntityTables.APPLICATIONS, EntityTables.applicationRows(applications));
+    }
+
+    @Override
+    public void saveWithdrawals(List<WithdrawalRequest> requests) throws IOException {
+        save("withdrawals", EntityTables.WITHDRAWALS, EntityTables.withdrawalRows(requests));
+    }
+
+    @Override
+    public String locate(String list) {
+        return url + " table " + list;
+    }
+
+    @Override
+    public synchronized String stamp(String list) {
+        return stamps.get(list);
+    }
+
+    @Override
+    public synchronized String currentStamp(String list) {
+        try (PreparedStatement ps = connection.prepareStatement("SELECT stamp FROM " + STAMPS + " WHERE list_name = ?")) {
+            ps.setString(1, list);
+            try (ResultSet rs = ps.executeQuery()) {
+                String stamp = rs.next() ? rs.getString(1) : null;
+                connection.commit();
+                return stamp;
+            }
+        } catch (SQLException e) {
+            System.err.println("error reading the stamp of " + list + " from " + url + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            if (connection.isClosed()) return;
+            connection.rollback();
+            connection.close();
+        } catch (SQLException e) {
+            throw new IOException("error closing " + url + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @param label
+     * @param pick
+     * @return list&lt;t&gt;, null when the tables cannot be read
+     */
+    private synchronized <T> List<T> load(String label, Function<EntityTables.Graph, List<T>> pick) {
+        try {
+            Map<EntityTables.Table, List<Object[]>> rows = new HashMap<>();
+            for (EntityTables.Table t : EntityTables.ALL) rows.put(t, select(t));
+            readStamps();
+            connection.commit();
+            EntityTables.Graph graph = EntityTables.assemble(rows.get(EntityTables.USERS),
+                    rows.get(EntityTables.OPPORTUNITIES), rows.get(EntityTables.APPLICATIONS),
+                    rows.get(EntityTables.WITHDRAWALS));
+            return pick.apply(graph);
+        } catch (SQLException | RuntimeException e) {
+            System.err.println("error loading saved " + label + " from " + url + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * reads a whole table and remembers its rows as the stored state.
+     * @param t
+     * @return list&lt;object[]&gt;
+     * @throws SQLException
+     */
+    private List<Object[]> select(EntityTables.Table t) throws SQLException {
+        List<EntityTables.Column> cols = t.columns();
+        StringBuilder sql = new StringBuilder("SELECT ");
+        for (EntityTables.Column c : cols) sql.append(c.name()).append(", ");
+        sql.setLength(sql.length() - 2);
+        sql.append(" FROM ").append(t.name()).append(" ORDER BY ").append(cols.get(0).name());
+
+        List<Object[]> rows = new ArrayList<>();
+        Map<String, List<Object>> seen = new HashMap<>();
+        try (PreparedStatement ps = connection.prepareStatement(sql.toString()); ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                Object[] r = new Object[cols.size()];
+                for (int i = 0; i < r.length; i++) {
+                    if (cols.get(i).sqlType() == Types.INTEGER) {
+                        int v = rs.getInt(i + 1);
+                        r[i] = rs.wasNull() ? null : v;
+                    } else {
+                        r[i] = rs.getString(i + 1);
+                    }
+                }
+                rows.add(r);
+                seen.put((String) r[0], Arrays.asList(r.clone()));
+            }
+        }
+        stored.put(t.name(), seen);
+        return rows;
+    }
+
+    /**
+     * @throws SQLException
+     */
+    private void readStamps() throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement("SELECT list_name, stamp FROM " + STAMPS);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) stamps.put(rs.getString(1), rs.getString(2));
+        }
+    }
+
+    /**
+     * @param list
+     * @throws SQLException
+     */
+    private void writeStamp(String list) throws SQLException {
+        String stamp = UUID.randomUUID().toString();
+        try (PreparedStatement update = connection.prepareStatement("UPDATE " + STAMPS + " SET stamp = ? WHERE list_name = ?")) {
+            update.setString(1, stamp);
+            update.setString(2, list);
+            if (update.executeUpdate() == 0) {
+                try (PreparedStatement insert = connection.prepareStatement("INSERT INTO " + STAMPS + " (list_name, stamp) VALUES (?, ?)")) {
+                    insert.setString(1, list);
+                    insert.setString(2, stamp);
+                    insert.executeUpdate();
+                }
+            }
+        }
+        stamps.put(list, stamp);
+    }
+
+    /**
+     * @param list
+     * @param t
+     * @param rows the whole list, in column order
+     * @throws IOException
+     */
+    private synchronized void save(String list, EntityTables.Table t, List<Object[]> rows) throws IOException {
+        try {
+            Map<String, List<Object>> before = stored.get(t.name());
+            if (before == null) {
+                select(t);
+                before = stored.get(t.name());
+            }
+            Map<String, List<Object>> after = new HashMap<>(Math.max(16, rows.size() * 2));
+            List<Object[]> inserts = new ArrayList<>();
+            List<Object[]> updates = new ArrayList<>();
+            for (Object[] r : rows) {
+                List<Object> row = Arrays.asList(r);
+                if (after.putIfAbsent((String) r[0], row) != null) continue;
+                List<Object> old = before.get((String) r[0]);
+                if (old == null) inserts.add(r);
+                else if (!old.equals(row)) updates.add(r);
+            }
+            Set<String> deletes = new HashSet<>(before.keySet());
+            deletes.removeAll(after.keySet());
+            if (inserts.isEmpty() && updates.isEmpty() && deletes.isEmpty() && stamps.containsKey(list)) return;
+
+            List<EntityTables.Column> cols = t.columns();
+            String id = cols.get(0).name();
+            try (PreparedStatement insert = connection.prepareStatement(insertSql(t));
+                 PreparedStatement update = connection.prepareStatement(updateSql(t));
+                 PreparedStatement delete = connection.prepareStatement("DELETE FROM " + t.name() + " WHERE " + id + " = ?")) {
+                for (String gone : deletes) {
+                    delete.setString(1, gone);
+                    delete.addBatch();
+                }
+                for (Object[] r : inserts) {
+                    for (int i = 0; i < r.length; i++) bind(insert, i + 1, cols.get(i), r[i]);
+                    insert.addBatch();
+                }
+                for (Object[] r : updates) {
+                    for (int i = 1; i < r.length; i++) bind(update, i, cols.get(i), r[i]);
+                    update.setString(r.length, (String) r[0]);
+                    update.addBatch();
+                }
+                delete.executeBatch();
+                insert.executeBatch();
+                update.executeBatch();
+                writeStamp(list);
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                stamps.remove(list);
+                throw e;
+            }
+            stored.put(t.name(), after);
+        } catch (SQLException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    private static void bind(PreparedStatement ps, int index, EntityTables.Column col, Object value) throws SQLException {
+        if (value == null) ps.setNull(index, col.sqlType());
+        else if (col.sqlType() == Types.INTEGER) ps.setInt(index, ((Number) value).intValue());
+        else ps.setString(index, (String) value);
+    }
+
+    private static String insertSql(EntityTables.Table t) {
+        StringBuilder names = new StringBuilder();
+        StringBuilder marks = new StringBuilder();
+        for (EntityTables.Column c : t.columns()) {
+            names.append(names.length() == 0 ? "" : ", ").append(c.name());
+            marks.append(marks.length() == 0 ? "?" : ", ?");
+        }
+        return "INSERT INTO " + t.name() + " (" + names + ") VALUES (" + marks + ")";
+    }
+
+    private static String updateSql(EntityTables.Table t) {
+        List<EntityTables.Column> cols = t.columns();
+        StringBuilder sb = new StringBuilder("UPDATE ").append(t.name()).append(" SET ");
+        for (int i = 1; i < cols.size(); i++) {
+            sb.append(cols.get(i).name()).append(" = ?").append(i + 1 < cols.size() ? ", " : "");
+        }
+        return sb.append(" WHERE ").append(cols.get(0).name()).append(" = ?").toString();
+    }
+}
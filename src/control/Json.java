@@ -0,0 +1,78 @@
+package control;
+
+import java.util.Map;
+
+/**
+ * the small json writer shared by the batch results and the change feed.
+ * maps become objects, other iterables arrays, numbers and booleans are written bare and everything
+ * else as a string.
+ */
+public final class Json {
+
+    private Json() {}
+
+    /**
+     * @param value
+     * @return String
+     */
+    public static String encode(Object value) {
+        StringBuilder sb = new StringBuilder();
+        append(sb, value);
+        return sb.toString();
+    }
+
+    /**
+     * @param sb
+     * @param value
+     */
+    public static void append(StringBuilder sb, Object value) {
+        if (value == null) {
+            sb.append("null");
+            return;
+        }
+        if (value instanceof Number || value instanceof Boolean) {
+            sb.append(value);
+            return;
+        }
+        if (value instanceof Map<?, ?> map) {
+            sb.append('{');
+            boolean first = true;
+            for (Map.Entry<?, ?> e : map.entrySet()) {
+                if (!first) sb.append(',');
+                first = false;
+                append(sb, String.valueOf(e.getKey()));
+                sb.append(':');
+                append(sb, e.getValue());
+            }
+            sb.append('}');
+            return;
+        }
+        if (value instanceof Iterable<?> items) {
+            sb.append('[');
+            boolean first = true;
+            for (Object item : items) {
+                if (!first) sb.append(',');
+                first = false;
+                append(sb, item);
+            }
+            sb.append(']');
+            return;
+        }
+
+        sb.append('"');
+        for (char c : value.toString().toCharArray()) {
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+                }
+            }
+        }
+        sb.append('"');
+    }
+}
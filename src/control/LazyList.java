@@ -0,0 +1,137 @@
+package control;
+
+import java.io.ObjectStreamException;
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * list handle whose contents are still being loaded in the background.
+ * the first access blocks until the load finishes; afterwards every call goes straight to the
+ * loaded list, bulk changes included, so a copy-on-write list underneath keeps its guarantees.
+ * serializing the handle writes a plain {@link ArrayList}, so saved files keep their format.
+ */
+public class LazyList<E> extends AbstractList<E> implements RandomAccess, Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final transient Future<? extends List<E>> source;
+    private transient volatile List<E> loaded;
+
+    public LazyList(Future<? extends List<E>> source) {
+        this.source = Objects.requireNonNull(source, "source must not be null");
+    }
+
+    /**
+     * @return boolean
+     */
+    public boolean isLoaded() {
+        return loaded != null || source.isDone();
+    }
+
+    /**
+     * @return list&lt;e&gt;
+     */
+    List<E> list() {
+        List<E> l = loaded;
+        if (l != null) return l;
+        synchronized (this) {
+            if (loaded == null) {
+                try {
+                    loaded = source.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("interrupted while loading data", e);
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("data load failed: " + e.getCause(), e.getCause());
+                }
+            }
+            return loaded;
+        }
+    }
+
+    @Override
+    public E get(int index) { return list().get(index); }
+
+    @Override
+    public int size() { return list().size(); }
+
+    @Override
+    public E set(int index, E element) { return list().set(index, element); }
+
+    @Override
+    public void add(int index, E element) {
+        list().add(index, element);
+        modCount++;
+    }
+
+    @Override
+    public E remove(int index) {
+        modCount++;
+        return list().remove(index);
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends E> c) {
+        modCount++;
+        return list().addAll(c);
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super E> filter) {
+        modCount++;
+        return list().removeIf(filter);
+    }
+
+    @Override
+    public void sort(Comparator<? super E> c) {
+        modCount++;
+        list().sort(c);
+    }
+
+    @Override
+    public void clear() {
+        modCount++;
+        list().clear();
+    }
+
+    @Override
+    public Iterator<E> iterator() { return list().iterator(); }
+
+    @Override
+    public ListIterator<E> listIterator(int index) { return list().listIterator(index); }
+
+    @Override
+    public Object[] toArray() { return list().toArray(); }
+
+    @Override
+    public Spliterator<E> spliterator() { return list().spliterator(); }
+
+    @Override
+    public void forEach(Consumer<? super E> action) { list().forEach(action); }
+
+    @Override
+    public boolean contains(Object o) { return list().contains(o); }
+
+    @Override
+    public int indexOf(Object o) { return list().indexOf(o); }
+
+    /**
+     * @return Object
+     * @throws ObjectStreamException
+     */
+    private Object writeReplace() throws ObjectStreamException {
+        return new ArrayList<>(list());
+    }
+}
@@ -0,0 +1,205 @@
+package control;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import entity.FilterCriteria;
+import entity.InternshipOpportunity;
+import enumerations.InternshipLevel;
+import enumerations.Major;
+import enumerations.OpportunityStatus;
+
+/**
+ * remembers the result of recent opportunity queries, keyed on the normalized filter and sort.
+ * entries are evicted least recently used first, once there are more than {@code maxEntries}
+ * of them or they hold more than {@code maxRows} rows between them.
+ * a change to one opportunity only drops the entries it was listed in or would now be listed in;
+ * every other cached result stays valid.
+ */
+public class OpportunityQueryCache {
+
+    /** the base set of opportunities a query draws from, before its filter applies. */
+    public enum Scope {
+        /** every opportunity, as staff and reports see them. */
+        ALL,
+        /** everything but rejected opportunities; the closing date filter includes the day itself. */
+        BROWSE,
+        /** approved or filled opportunities that are visible to students. */
+        LISTED
+    }
+
+    private final int maxEntries;
+    private final int maxRows;
+    private final Map<Query, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private int rows;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+    private long generation;
+
+    public OpportunityQueryCache(int maxEntries, int maxRows) {
+        if (maxEntries <= 0 || maxRows <= 0) throw new IllegalArgumentException("cache bounds must be positive");
+        this.maxEntries = maxEntries;
+        this.maxRows = maxRows;
+    }
+
+    /**
+     * @param scope
+     * @param criteria may be null for no filter
+     * @param sortKey title, company, slots, openDate or closeDate; null keeps list order
+     * @param descending
+     * @return Query
+     */
+    public static Query key(Scope scope, FilterCriteria criteria, String sortKey, boolean descending) {
+        FilterCriteria c = criteria == null ? new FilterCriteria() : criteria;
+        String company = c.getCompany() == null || c.getCompany().isBlank() ? null : c.getCompany().trim().toLowerCase();
+        LocalDate before = c.getClosingDateBefore() == null ? null
+                : c.getClosingDateBefore().toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+        String sort = sortKey == null ? null : normalizeSort(sortKey);
+        return new Query(scope, c.getStatus(), c.getPreferredMajor(), c.getLevel(), company, before,
+                sort, sort != null && descending);
+    }
+
+    /**
+     * @param sortKey
+     * @return String
+     */
+    static String normalizeSort(String sortKey) {
+        return switch (sortKey.toLowerCase()) {
+            case "company" -> "company";
+            case "slots" -> "slots";
+            case "open", "opendate" -> "openDate";
+            case "close", "closedate" -> "closeDate";
+            default -> "title";
+        };
+    }
+
+    /**
+     * @param query
+     * @param compute runs on a miss, outside the cache lock; its result is not kept if an
+     *                opportunity changed meanwhile
+     * @return list&lt;internshipopportunity&gt; unmodifiable
+     */
+    public List<InternshipOpportunity> get(Query query, Function<Query, List<InternshipOpportunity>> compute) {
+        long seen;
+        synchronized (this) {
+            Entry e = entries.get(query);
+            if (e != null) {
+                hits++;
+                return e.result;
+            }
+            misses++;
+            seen = generation;
+        }
+
+        List<InternshipOpportunity> result = Collections.unmodifiableList(compute.apply(query));
+        synchronized (this) {
+            if (seen != generation) return result;
+            Entry old = entries.put(query, new Entry(result));
+            if (old != null) rows -= old.result.size();
+            rows += result.size();
+            evict();
+        }
+        return result;
+    }
+
+    private void evict() {
+        Iterator<Entry> it = entries.values().iterator();
+        while ((entries.size() > maxEntries || rows > maxRows) && it.hasNext()) {
+            rows -= it.next().result.size();
+            it.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * drops the results the opportunity is listed in, and those whose filter it now passes.
+     * @param opp the current state of the changed opportunity
+     */
+    public synchronized void invalidate(InternshipOpportunity opp) {
+        if (opp == null) return;
+        generation++;
+        String id = opp.getId().toLowerCase();
+        Iterator<Map.Entry<Query, Entry>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Query, Entry> e = it.next();
+            if (e.getValue().ids.contains(id) || e.getKey().matches(opp)) {
+                rows -= e.getValue().result.size();
+                it.remove();
+                invalidations++;
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        generation++;
+        invalidations += entries.size();
+        entries.clear();
+        rows = 0;
+    }
+
+    /**
+     * @return Stats
+     */
+    public synchronized Stats getStats() {
+        return new Stats(entries.size(), rows, hits, misses, evictions, invalidations);
+    }
+
+    public record Stats(int entries, int rows, long hits, long misses, long evictions, long invalidations) {
+        /**
+         * @return double between 0 and 1
+         */
+        public double hitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+    }
+
+    public record Query(Scope scope, OpportunityStatus status, Major major, InternshipLevel level,
+                        String company, LocalDate closingBefore, String sortKey, boolean descending) {
+        /**
+         * @param o
+         * @return boolean
+         */
+        public boolean matches(InternshipOpportunity o) {
+            switch (scope) {
+                case BROWSE -> {
+                    if (o.getStatus() == OpportunityStatus.REJECTED) return false;
+                }
+                case LISTED -> {
+                    if (o.getStatus() != OpportunityStatus.APPROVED && o.getStatus() != OpportunityStatus.FILLED) return false;
+                    if (!o.isVisible()) return false;
+                }
+                default -> { }
+            }
+            if (status != null && o.getStatus() != status) return false;
+            if (major != null && o.getPreferredMajor() != major) return false;
+            if (level != null && o.getLevel() != level) return false;
+            if (company != null && !o.getCompanyName().toLowerCase().contains(company)) return false;
+            if (closingBefore != null) {
+                LocalDate close = o.getCloseDate();
+                if (scope == Scope.BROWSE ? close.isAfter(closingBefore) : !close.isBefore(closingBefore)) return false;
+            }
+            return true;
+        }
+    }
+
+    private static final class Entry {
+        final List<InternshipOpportunity> result;
+        final Set<String> ids = new HashSet<>();
+
+        Entry(List<InternshipOpportunity> result) {
+            this.result = result;
+            for (InternshipOpportunity o : result) ids.add(o.getId().toLowerCase());
+        }
+    }
+}
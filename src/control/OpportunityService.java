@@ -1,9 +1,12 @@
 package control;
 
-import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
-import java.util.UUID;
+import java.util.Set;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import entity.CareerCenterStaff;
@@ -13,15 +16,100 @@ import entity.InternshipOpportunity;
 import entity.Student;
 import enumerations.Major;
 import enumerations.OpportunityStatus;
+import control.OpportunityQueryCache.Scope;
+import entity.Application;
+import event.ApplicationDecided;
+import event.ApplicationWithdrawn;
+import event.EventBus;
+import event.OfferAccepted;
+import event.OpportunityApproved;
+import event.OpportunityCreated;
+import event.OpportunityDeleted;
+import event.OpportunityRejected;
+import event.OpportunitySlotsChanged;
+import event.OpportunityUpdated;
+import event.RecordsArchived;
 
 public class OpportunityService {
 
     private final List<InternshipOpportunity> opportunities;
+    private final CompanyIndex companies;
     private final DataLoader loader; 
+    private final IdGenerator ids;
+    private final EventBus events;
+    private final SystemStats stats;
+    private final OpportunityQueryCache queries = new OpportunityQueryCache(64, 20_000);
 
-    public OpportunityService(List<InternshipOpportunity> opportunities, DataLoader loader) {
+    public OpportunityService(List<InternshipOpportunity> opportunities, CompanyIndex companies, DataLoader loader, IdGenerator ids, EventBus events, SystemStats stats) {
         this.opportunities = Objects.requireNonNull(opportunities, "Opportunities must not be null");
+        this.companies = Objects.requireNonNull(companies, "Companies must not be null");
         this.loader = Objects.requireNonNull(loader, "Loader must not be null");
+        this.ids = Objects.requireNonNull(ids, "Ids must not be null");
+        this.events = Objects.requireNonNull(events, "Events must not be null");
+        this.stats = Objects.requireNonNull(stats, "Stats must not be null");
+
+        opportunities.forEach(o -> ids.observe(o.getId()));
+
+        events.subscribeAsync(OpportunityCreated.class, e -> queries.invalidate(e.opportunity()));
+        events.subscribeAsync(OpportunityUpdated.class, e -> queries.invalidate(e.opportunity()));
+        events.subscribeAsync(OpportunityApproved.class, e -> queries.invalidate(e.opportunity()));
+        events.subscribeAsync(OpportunityRejected.class, e -> queries.invalidate(e.opportunity()));
+        events.subscribeAsync(OpportunityDeleted.class, e -> queries.invalidate(e.opportunity()));
+        events.subscribeAsync(OpportunitySlotsChanged.class, e -> queries.invalidate(e.opportunity()));
+        events.subscribeAsync(ApplicationDecided.class, e -> invalidate(e.application()));
+        events.subscribeAsync(OfferAccepted.class, e -> invalidate(e.application()));
+        events.subscribeAsync(ApplicationWithdrawn.class, e -> invalidate(e.application()));
+        events.subscribeAsync(RecordsArchived.class, e -> e.opportunities().forEach(queries::invalidate));
+    }
+
+    /** 
+     * slot counts and the filled status change through applications; the event carries the
+     * application's own copy of the opportunity, so the loaded instance is looked up.
+     * @param app
+     */
+    private void invalidate(Application app) {
+        InternshipOpportunity opp = findById(app.getOpportunity().getId());
+        queries.invalidate(opp != null ? opp : app.getOpportunity());
+    }
+
+    /** 
+     * cached, read-only result of filtering and sorting the loaded opportunities.
+     * @param scope
+     * @param criteria
+     * @param sortKey title, company, slots, openDate or closeDate; null keeps list order
+     * @param descending
+     * @return list&lt;internshipopportunity&gt;
+     */
+    public List<InternshipOpportunity> query(Scope scope, FilterCriteria criteria, String sortKey, boolean descending) {
+        events.awaitDelivered();
+        return queries.get(OpportunityQueryCache.key(scope, criteria, sortKey, descending), q -> {
+            List<InternshipOpportunity> result = opportunities.stream()
+                    .filter(q::matches)
+                    .collect(Collectors.toList());
+            if (q.sortKey() != null) sort(result, q.sortKey(), q.descending());
+            return result;
+        });
+    }
+
+    /** 
+     * @param s
+     * @param sortKey null keeps list order
+     * @param descending
+     * @return list&lt;internshipopportunity&gt; the listed opportunities the student is eligible for
+     */
+    public List<InternshipOpportunity> getListedFor(Student s, String sortKey, boolean descending) {
+        FilterCriteria byMajor = new FilterCriteria();
+        byMajor.setPreferredMajor(s.getMajor());
+        return query(Scope.LISTED, byMajor, sortKey, descending).stream()
+                .filter(o -> o.isEligibleFor(s))
+                .collect(Collectors.toList());
+    }
+
+    /** 
+     * @return OpportunityQueryCache.Stats
+     */
+    public OpportunityQueryCache.Stats getQueryCacheStats() {
+        return queries.getStats();
     }
 
     /** 
@@ -30,21 +118,11 @@ public class OpportunityService {
      *  * @return list&lt;internshipopportunity&gt;
      */
     public List<InternshipOpportunity> findBy(Student s, FilterCriteria fc) {
-        return getAllOpportunities().stream()
-                .filter(o -> o.getStatus() != OpportunityStatus.REJECTED)
-                .filter(o -> fc.getPreferredMajor() == null
-                        || o.getPreferredMajor() == fc.getPreferredMajor())
-                .filter(o -> fc.getLevel() == null || o.getLevel() == fc.getLevel())
-                .filter(o -> {
-                    if (fc.getClosingDateBefore() == null) return true;
-                    LocalDate limit = fc.getClosingDateBefore().toInstant()
-                            .atZone(java.time.ZoneId.systemDefault())
-                            .toLocalDate();
-                    return !o.getCloseDate().isAfter(limit);
-                })
-                .filter(o -> fc.getCompany() == null
-                        || o.getCompanyName().toLowerCase().contains(fc.getCompany().toLowerCase()))
-                .collect(Collectors.toList());
+        return stats.timed("Browse internships", () -> find(s, fc));
+    }
+
+    private List<InternshipOpportunity> find(Student s, FilterCriteria fc) {
+        return query(Scope.BROWSE, fc, null, false);
     }
 
     /** 
@@ -53,16 +131,16 @@ public class OpportunityService {
      * @return boolean
      */
     public boolean createOpportunity(CompanyRepresentative rep, InternshipOpportunity opp) {
+        return stats.timed("Create opportunity", () -> create(rep, opp));
+    }
+
+    private boolean create(CompanyRepresentative rep, InternshipOpportunity opp) {
         if (rep == null || opp == null) {
             System.out.println("✗ Invalid data.");
             return false;
         }
 
-        String newId;
-        do {
-            newId = "ITP-" + UUID.randomUUID().toString().substring(0, 6).toUpperCase();
-        } while (findById(newId) != null);
-
+        String newId = ids.next("ITP");
         opp.setId(newId);
 
         opp.setRepInCharge(rep);
@@ -71,6 +149,7 @@ public class OpportunityService {
 
         opportunities.add(opp);
         save();
+        events.publish(new OpportunityCreated(opp));
         System.out.println();
         System.out.println("✓ Internship opportunity created with ID: " + newId);
         System.out.println("✓ Awaiting Career Staff approval.");
@@ -82,6 +161,10 @@ public class OpportunityService {
      * @param updated
      */
     public void editOpportunity(CompanyRepresentative rep, InternshipOpportunity updated) {
+        stats.timed("Edit opportunity", () -> edit(rep, updated));
+    }
+
+    private void edit(CompanyRepresentative rep, InternshipOpportunity updated) {
         InternshipOpportunity existing = findById(updated.getId());
 
         existing.setTitle(updated.getTitle());
@@ -98,6 +181,7 @@ public class OpportunityService {
         existing.setVisibility(false);
 
         save();
+        events.publish(new OpportunityUpdated(existing));
         System.out.println("✓ Opportunity updated and sent for re-approval.");
     }
 
@@ -106,10 +190,15 @@ public class OpportunityService {
      * @param id
      */
     public void deleteOpportunity(CompanyRepresentative rep, String id) {
+        stats.timed("Delete opportunity", () -> delete(rep, id));
+    }
+
+    private void delete(CompanyRepresentative rep, String id) {
         InternshipOpportunity existing = findById(id);
 
         opportunities.remove(existing);
         save();
+        events.publish(new OpportunityDeleted(existing));
         System.out.println("✓ Opportunity deleted.");
     }
 
@@ -118,11 +207,16 @@ public class OpportunityService {
      * @param visible
      */
     public void toggleVisibility(InternshipOpportunity opp, boolean visible) {
+        stats.timed("Toggle visibility", () -> setVisibility(opp, visible));
+    }
+
+    private void setVisibility(InternshipOpportunity opp, boolean visible) {
         if (opp == null) {
             System.out.println("✗ Opportunity not found.");
             return;
         }
         opp.setVisibility(visible);
+        queries.invalidate(opp);
         save();
         System.out.println(visible ? "✓ Now visible to students." : "✓ Hidden from students.");
     }
@@ -143,8 +237,17 @@ public class OpportunityService {
      *  * @return list&lt;internshipopportunity&gt;
      */
     public List<InternshipOpportunity> getByCompany(String companyName) {
-        return opportunities.stream()
-                .filter(o -> o.getCompanyName().equalsIgnoreCase(companyName))
+        return companies.opportunities(companyName);
+    }
+
+    /** 
+     * reads only the rep's company partition.
+     * @param rep
+     * @return list&lt;internshipopportunity&gt; the opportunities the rep is in charge of
+     */
+    public List<InternshipOpportunity> getByRep(CompanyRepresentative rep) {
+        return companies.opportunities(rep.getCompanyName()).stream()
+                .filter(o -> rep.equals(o.getRepInCharge()))
                 .collect(Collectors.toList());
     }
 
@@ -160,6 +263,21 @@ public class OpportunityService {
 
     public List<InternshipOpportunity> getAllOpportunities() { return opportunities; }
 
+    /** 
+     * @return snapshot&lt;internshipopportunity&gt; the list as it is now, unchanged by later writes until closed
+     */
+    public VersionedList.Snapshot<InternshipOpportunity> snapshot() {
+        return VersionedList.pin(opportunities);
+    }
+
+    /** 
+     * @param students
+     * @return EligibilityMatrix
+     */
+    public EligibilityMatrix computeEligibilityMatrix(List<Student> students) {
+        return EligibilityMatrix.compute(students, opportunities);
+    }
+
     /** 
      *  * @return list&lt;internshipopportunity&gt;
      */
@@ -183,9 +301,14 @@ public class OpportunityService {
      * @param opp
      */
     public void approveOpportunity(CareerCenterStaff staff, InternshipOpportunity opp) {
+        stats.timed("Approve opportunity", () -> approve(staff, opp));
+    }
+
+    private void approve(CareerCenterStaff staff, InternshipOpportunity opp) {
         opp.setStatus(OpportunityStatus.APPROVED);
         opp.setVisibility(true);
         save();
+        events.publish(new OpportunityApproved(opp, staff));
         System.out.println("Opportunity ID (" + opp.getId() + ") approved by " + staff.getName() + ".");
     }
 
@@ -194,12 +317,60 @@ public class OpportunityService {
      * @param opp
      */
     public void rejectOpportunity(CareerCenterStaff staff, InternshipOpportunity opp) {
+        stats.timed("Reject opportunity", () -> reject(staff, opp));
+    }
+
+    private void reject(CareerCenterStaff staff, InternshipOpportunity opp) {
         opp.setStatus(OpportunityStatus.REJECTED);
         opp.setVisibility(false);
         save();
+        events.publish(new OpportunityRejected(opp, staff));
         System.out.println("Opportunity ID (" + opp.getId() + ") rejected by " + staff.getName() + ".");
     }
 
+    /** 
+     * reviews every pending opportunity the filter selects in one pass and saves once.
+     * @param staff
+     * @param which
+     * @param approve
+     * @return int number of opportunities reviewed
+     */
+    public int reviewOpportunities(CareerCenterStaff staff, Predicate<? super InternshipOpportunity> which, boolean approve) {
+        return stats.timed(approve ? "Bulk approve opportunities" : "Bulk reject opportunities", () -> reviewAll(staff, which, approve));
+    }
+
+    private int reviewAll(CareerCenterStaff staff, Predicate<? super InternshipOpportunity> which, boolean approve) {
+        if (staff == null || which == null) return 0;
+
+        List<InternshipOpportunity> reviewed = new ArrayList<>();
+        for (InternshipOpportunity o : opportunities) {
+            if (o.getStatus() == OpportunityStatus.PENDING && which.test(o)) {
+                o.setStatus(approve ? OpportunityStatus.APPROVED : OpportunityStatus.REJECTED);
+                o.setVisibility(approve);
+                reviewed.add(o);
+            }
+        }
+        if (reviewed.isEmpty()) return 0;
+
+        save();
+        for (InternshipOpportunity o : reviewed) {
+            events.publish(approve ? new OpportunityApproved(o, staff) : new OpportunityRejected(o, staff));
+        }
+        return reviewed.size();
+    }
+
+    /** 
+     * @param staff
+     * @param ids
+     * @param approve
+     * @return int number of opportunities reviewed
+     */
+    public int reviewOpportunities(CareerCenterStaff staff, Collection<String> ids, boolean approve) {
+        if (ids == null) return 0;
+        Set<String> keys = ids.stream().map(id -> id.trim().toLowerCase()).collect(Collectors.toSet());
+        return reviewOpportunities(staff, o -> keys.contains(o.getId().toLowerCase()), approve);
+    }
+
     /** 
      * @param opp
      */
@@ -211,6 +382,7 @@ public class OpportunityService {
             opp.setStatus(OpportunityStatus.APPROVED);
         }
         save();
+        events.publish(new OpportunitySlotsChanged(opp));
     }
 
     /** 
@@ -219,18 +391,10 @@ public class OpportunityService {
      *  * @return list&lt;internshipopportunity&gt;
      */
     public List<InternshipOpportunity> filter(List<InternshipOpportunity> all, FilterCriteria c) {
-        return all.stream()
-            .filter(o -> c.getStatus() == null || o.getStatus() == c.getStatus())
-            .filter(o -> c.getPreferredMajor() == null ||
-                        o.getPreferredMajor() == c.getPreferredMajor())
-            .filter(o -> c.getLevel() == null || o.getLevel() == c.getLevel())
-            .filter(o -> c.getCompany() == null ||
-                        o.getCompanyName().toLowerCase().contains(c.getCompany().toLowerCase()))
-            .filter(o -> c.getClosingDateBefore() == null ||
-                        o.getCloseDate().isBefore(c.getClosingDateBefore().toInstant()
-                                                                .atZone(java.time.ZoneId.systemDefault())
-                                                                .toLocalDate()))
-            .collect(java.util.stream.Collectors.toList());
+        if (all == opportunities) return new ArrayList<>(query(Scope.ALL, c, null, false));
+
+        OpportunityQueryCache.Query q = OpportunityQueryCache.key(Scope.ALL, c, null, false);
+        return all.stream().filter(q::matches).collect(Collectors.toList());
     }
 
     /** 
@@ -239,15 +403,13 @@ public class OpportunityService {
      * @param descending
      */
     public void sort(List<InternshipOpportunity> list, String key, boolean descending) {
-        java.util.Comparator<InternshipOpportunity> cmp;
-
-        switch (key) {
-            case "company" -> cmp = java.util.Comparator.comparing(InternshipOpportunity::getCompanyName);
-            case "slots"   -> cmp = java.util.Comparator.comparingInt(InternshipOpportunity::getSlots);
-            case "open"    -> cmp = java.util.Comparator.comparing(InternshipOpportunity::getOpenDate);
-            case "close"   -> cmp = java.util.Comparator.comparing(InternshipOpportunity::getCloseDate);
-            default        -> cmp = java.util.Comparator.comparing(InternshipOpportunity::getTitle);
-        }
+        Comparator<InternshipOpportunity> cmp = switch (OpportunityQueryCache.normalizeSort(key)) {
+            case "company"   -> Comparator.comparing(InternshipOpportunity::getCompanyName, String.CASE_INSENSITIVE_ORDER);
+            case "slots"     -> Comparator.comparingInt(InternshipOpportunity::getSlots);
+            case "openDate"  -> Comparator.comparing(InternshipOpportunity::getOpenDate);
+            case "closeDate" -> Comparator.comparing(InternshipOpportunity::getCloseDate);
+            default          -> Comparator.comparing(InternshipOpportunity::getTitle, String.CASE_INSENSITIVE_ORDER);
+        };
 
         if (descending) cmp = cmp.reversed();
         list.sort(cmp);
@@ -0,0 +1,361 @@
+package control;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import entity.Application;
+import entity.InternshipOpportunity;
+import enumerations.ApplicationStatus;
+import enumerations.InternshipLevel;
+import enumerations.Major;
+import enumerations.OpportunityStatus;
+import event.ApplicationDecided;
+import event.ApplicationSubmitted;
+import event.ApplicationWithdrawn;
+import event.EventBus;
+import event.OfferAccepted;
+import event.OpportunityApproved;
+import event.OpportunityCreated;
+import event.OpportunityDeleted;
+import event.OpportunityRejected;
+import event.OpportunitySlotsChanged;
+import event.OpportunityUpdated;
+import event.RecordsArchived;
+
+/**
+ * pre-aggregated placement figures over company x major x level x opportunity status.
+ * every one of the 16 roll-ups of a cell is kept as its own entry, so a transition touches a
+ * fixed number of entries and any roll-up or slice is a hash lookup per answer.
+ * the cube follows domain events on the bus's dispatcher thread. what is saved is each
+ * opportunity's application counts, counted from the same snapshot as every applications save and
+ * stamped with that snapshot's {@link StorageBackend#stamp}; they stand in for a pass over the
+ * applications only when the applications loaded carry the same stamp.
+ */
+public class PlacementCube {
+    public enum Measure { OPPORTUNITIES, SLOTS, FILLED_SLOTS, PENDING, SUCCESSFUL, UNSUCCESSFUL, WITHDRAWN, ACCEPTED }
+
+    public enum Dimension { COMPANY, MAJOR, LEVEL, STATUS }
+
+    private static final int FORMAT = 2;
+    private static final int MEASURES = Measure.values().length;
+    private static final int APPS = Measure.PENDING.ordinal();
+    private static final int ACCEPTED = Measure.ACCEPTED.ordinal();
+
+    private final Map<Cell, long[]> cells = new HashMap<>();
+    private final Map<String, Tracked> byOpportunity = new HashMap<>();
+    private final Map<String, Integer> companies = new HashMap<>();
+    private final Map<String, long[]> unfiled = new HashMap<>();
+    private volatile List<?>[] sources = new List<?>[0];
+    private volatile EventBus events;
+
+    /**
+     * adds the application counts of the loaded applications; counts for an opportunity not
+     * filed yet are held until it is.
+     * @param applicationCounts per-opportunity application counts, from {@link #count} or a saved cube
+     */
+    public synchronized void addApplications(Map<String, long[]> applicationCounts) {
+        applicationCounts.forEach((id, apps) -> {
+            if (byOpportunity.containsKey(id.toLowerCase())) {
+                addApplications(id, apps);
+            } else {
+                long[] held = unfiled.computeIfAbsent(id.toLowerCase(), k -> new long[MEASURES - APPS]);
+                for (int m = 0; m < apps.length; m++) held[m] += apps[m];
+            }
+        });
+    }
+
+    /**
+     * queries wait for these lists to finish loading, since their counts are added as they load.
+     * @param lists
+     */
+    public void waitFor(List<?>... lists) {
+        this.sources = lists.clone();
+    }
+
+    /**
+     * @param applications
+     * @return map&lt;string, long[]&gt; counts in {@link ApplicationStatus} order followed by accepted,
+     *         by lower-cased opportunity id
+     */
+    public static Map<String, long[]> count(List<Application> applications) {
+        Map<String, long[]> counts = new HashMap<>();
+        for (Application a : applications) {
+            long[] apps = counts.computeIfAbsent(a.getOpportunity().getId().toLowerCase(), k -> new long[MEASURES - APPS]);
+            apps[a.getStatus().ordinal()]++;
+            if (a.isAccepted()) apps[ACCEPTED - APPS]++;
+        }
+        return counts;
+    }
+
+    /**
+     * @param events
+     */
+    public void watch(EventBus events) {
+        this.events = events;
+        events.subscribeAsync(OpportunityCreated.class, e -> refresh(e.opportunity()));
+        events.subscribeAsync(OpportunityUpdated.class, e -> refresh(e.opportunity()));
+        events.subscribeAsync(OpportunityApproved.class, e -> refresh(e.opportunity()));
+        events.subscribeAsync(OpportunityRejected.class, e -> refresh(e.opportunity()));
+        events.subscribeAsync(OpportunitySlotsChanged.class, e -> refresh(e.opportunity()));
+        events.subscribeAsync(OpportunityDeleted.class, e -> remove(e.opportunity().getId()));
+
+        events.subscribeAsync(ApplicationSubmitted.class, e -> application(e.application().getOpportunity().getId(),
+                null, false, ApplicationStatus.PENDING, false));
+        events.subscribeAsync(ApplicationDecided.class, e -> application(e.application().getOpportunity().getId(),
+                e.previousStatus(), false, e.approved() ? ApplicationStatus.SUCCESSFUL : ApplicationStatus.UNSUCCESSFUL, false));
+        events.subscribeAsync(OfferAccepted.class, e -> application(e.application().getOpportunity().getId(),
+                ApplicationStatus.SUCCESSFUL, false, ApplicationStatus.SUCCESSFUL, true));
+        events.subscribeAsync(ApplicationWithdrawn.class, e -> application(e.application().getOpportunity().getId(),
+                e.previousStatus(), e.wasAccepted(), ApplicationStatus.WITHDRAWN, false));
+        events.subscribeAsync(RecordsArchived.class, e -> {
+            for (Application a : e.applications()) {
+                long[] delta = new long[MEASURES];
+                move(delta, a.getStatus(), a.isAccepted(), -1);
+                apply(a.getOpportunity().getId(), delta);
+            }
+            e.opportunities().forEach(o -> remove(o.getId()));
+        });
+    }
+
+    /**
+     * re-files the opportunity under its current company, major, level and status and slot counts.
+     * @param opp
+     */
+    public synchronized void refresh(InternshipOpportunity opp) {
+        String key = opp.getId().toLowerCase();
+        Tracked t = byOpportunity.get(key);
+        Cell cell = new Cell(opp.getCompanyName() == null ? "" : opp.getCompanyName(), opp.getPreferredMajor(),
+                opp.getLevel(), opp.getStatus());
+
+        if (t == null) {
+            t = new Tracked(cell);
+            long[] apps = unfiled.remove(key);
+            if (apps != null) System.arraycopy(apps, 0, t.values, APPS, apps.length);
+            byOpportunity.put(key, t);
+            companies.merge(cell.company(), 1, Integer::sum);
+        } else if (t.cell.equals(cell) && t.values[Measure.SLOTS.ordinal()] == opp.getSlots()
+                && t.values[Measure.FILLED_SLOTS.ordinal()] == opp.getConfirmedSlots()) {
+            return;
+        } else {
+            add(t.cell, t.values, -1);
+            if (!t.cell.company().equals(cell.company())) {
+                release(t.cell.company());
+                companies.merge(cell.company(), 1, Integer::sum);
+            }
+            t.cell = cell;
+        }
+
+        t.values[Measure.OPPORTUNITIES.ordinal()] = 1;
+        t.values[Measure.SLOTS.ordinal()] = opp.getSlots();
+        t.values[Measure.FILLED_SLOTS.ordinal()] = opp.getConfirmedSlots();
+        add(t.cell, t.values, 1);
+    }
+
+    /**
+     * @param opportunityId
+     */
+    public synchronized void remove(String opportunityId) {
+        Tracked t = byOpportunity.remove(opportunityId.toLowerCase());
+        if (t == null) return;
+        add(t.cell, t.values, -1);
+        release(t.cell.company());
+    }
+
+    /**
+     * @param opportunityId
+     * @param from status before the transition, null for a new application
+     * @param fromAccepted
+     * @param to
+     * @param toAccepted
+     */
+    public void application(String opportunityId, ApplicationStatus from, boolean fromAccepted,
+                            ApplicationStatus to, boolean toAccepted) {
+        long[] delta = new long[MEASURES];
+        if (from != null) move(delta, from, fromAccepted, -1);
+        move(delta, to, toAccepted, 1);
+        apply(opportunityId, delta);
+    }
+
+    /**
+     * @param opportunityId
+     * @param apps counts in {@link ApplicationStatus} order followed by accepted
+     */
+    private void addApplications(String opportunityId, long[] apps) {
+        long[] delta = new long[MEASURES];
+        System.arraycopy(apps, 0, delta, APPS, apps.length);
+        apply(opportunityId, delta);
+    }
+
+    private static void move(long[] delta, ApplicationStatus status, boolean accepted, int sign) {
+        delta[APPS + status.ordinal()] += sign;
+        if (accepted) delta[ACCEPTED] += sign;
+    }
+
+    private synchronized void apply(String opportunityId, long[] delta) {
+        Tracked t = byOpportunity.get(opportunityId.toLowerCase());
+        if (t == null) return;
+        for (int m = 0; m < MEASURES; m++) t.values[m] += delta[m];
+        add(t.cell, delta, 1);
+    }
+
+    private void add(Cell cell, long[] values, int sign) {
+        for (int mask = 0; mask < 16; mask++) {
+            long[] total = cells.computeIfAbsent(cell.rollUp(mask), k -> new long[MEASURES]);
+            for (int m = 0; m < MEASURES; m++) total[m] += sign * values[m];
+        }
+    }
+
+    private void release(String company) {
+        companies.computeIfPresent(company, (k, n) -> n == 1 ? null : n - 1);
+    }
+
+    /**
+     * roll-up over every dimension passed as null.
+     * @param company
+     * @param major
+     * @param level
+     * @param status
+     * @return Totals
+     */
+    public Totals get(String company, Major major, InternshipLevel level, OpportunityStatus status) {
+        settle();
+        synchronized (this) {
+            long[] v = cells.get(new Cell(company, major, level, status));
+            return new Totals(v == null ? new long[MEASURES] : v.clone());
+        }
+    }
+
+    /**
+     * breaks a roll-up down along one dimension; dimensions passed as null stay rolled up.
+     * @param by
+     * @param company
+     * @param major
+     * @param level
+     * @param status
+     * @return map&lt;object, totals&gt; in dimension order, empty groups left out
+     */
+    public Map<Object, Totals> slice(Dimension by, String company, Major major, InternshipLevel level,
+                                     OpportunityStatus status) {
+        settle();
+        synchronized (this) {
+            Object[] values = switch (by) {
+                case COMPANY -> new TreeSet<>(companies.keySet()).toArray();
+                case MAJOR -> Major.values();
+                case LEVEL -> InternshipLevel.values();
+                case STATUS -> OpportunityStatus.values();
+            };
+
+            Map<Object, Totals> result = new LinkedHashMap<>();
+            for (Object v : values) {
+                Cell key = new Cell(by == Dimension.COMPANY ? (String) v : company,
+                        by == Dimension.MAJOR ? (Major) v : major,
+                        by == Dimension.LEVEL ? (InternshipLevel) v : level,
+                        by == Dimension.STATUS ? (OpportunityStatus) v : status);
+                long[] t = cells.get(key);
+                if (t != null && t[Measure.OPPORTUNITIES.ordinal()] > 0) result.put(v, new Totals(t.clone()));
+            }
+            return result;
+        }
+    }
+
+    /**
+     * waits for the applications to be counted and the events already published to reach the
+     * cube, so a caller sees its own changes.
+     */
+    private void settle() {
+        for (List<?> l : sources) l.size();
+        EventBus bus = events;
+        if (bus != null) bus.awaitDelivered();
+    }
+
+    /**
+     * @param out
+     * @param stamp of the applications snapshot the counts were taken from
+     * @param counts from {@link #count}
+     * @throws IOException
+     */
+    public static void writeCounts(OutputStream out, String stamp, Map<String, long[]> counts) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(FORMAT);
+        data.writeUTF(stamp);
+        data.writeInt(counts.size());
+        for (Map.Entry<String, long[]> e : counts.entrySet()) {
+            data.writeUTF(e.getKey());
+            for (long n : e.getValue()) data.writeInt((int) n);
+        }
+        data.flush();
+    }
+
+    /**
+     * @param in
+     * @return Saved, or null for a cube written before counts were stamped
+     * @throws IOException
+     */
+    public static Saved readCounts(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        int format = data.readInt();
+        if (format == 1) return null;
+        if (format != FORMAT) throw new IOException("unsupported placement cube format " + format);
+        String stamp = data.readUTF();
+        int n = data.readInt();
+        Map<String, long[]> result = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            String id = data.readUTF();
+            long[] apps = new long[MEASURES - APPS];
+            for (int m = 0; m < apps.length; m++) apps[m] = data.readInt();
+            result.put(id, apps);
+        }
+        return new Saved(stamp, result);
+    }
+
+    /**
+     * @param stamp of the applications snapshot the counts were taken from
+     * @param counts application counts by lower-cased opportunity id
+     */
+    public record Saved(String stamp, Map<String, long[]> counts) { }
+
+    public record Cell(String company, Major major, InternshipLevel level, OpportunityStatus status) {
+        /**
+         * @param mask one bit per dimension to roll up
+         * @return Cell
+         */
+        Cell rollUp(int mask) {
+            return new Cell((mask & 1) != 0 ? null : company, (mask & 2) != 0 ? null : major,
+                    (mask & 4) != 0 ? null : level, (mask & 8) != 0 ? null : status);
+        }
+    }
+
+    public record Totals(long[] values) {
+        /**
+         * @param m
+         * @return long
+         */
+        public long get(Measure m) {
+            return values[m.ordinal()];
+        }
+
+        /**
+         * @return long every application, whatever its status
+         */
+        public long applications() {
+            return get(Measure.PENDING) + get(Measure.SUCCESSFUL) + get(Measure.UNSUCCESSFUL) + get(Measure.WITHDRAWN);
+        }
+    }
+
+    private static final class Tracked {
+        Cell cell;
+        final long[] values = new long[MEASURES];
+
+        Tracked(Cell cell) {
+            this.cell = cell;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package control;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import entity.Application;
+import entity.InternshipOpportunity;
+import entity.Student;
+import enumerations.InternshipLevel;
+import event.ApplicationSubmitted;
+import event.EventBus;
+import event.OpportunityCreated;
+import event.OpportunityDeleted;
+import event.OpportunityUpdated;
+import event.RecordsArchived;
+
+/**
+ * ranks the internship opportunities a student can see by how worthwhile it is to apply now.
+ * only the k best entries are kept in a heap bounded to k, so a page of k from n postings costs
+ * O(n log k). the text each opportunity is compared on is tokenised once and kept up to date from
+ * the opportunity events, and so is each student's history, taken from the per-student application
+ * index; vacancy, closing date and competition change with every decision and every day, so they
+ * are read fresh, from counters, when a page is asked for.
+ */
+public class RecommendationService {
+    private static final double W_VACANCY     = 0.30;
+    private static final double W_URGENCY     = 0.20;
+    private static final double W_LEVEL_FIT   = 0.20;
+    private static final double W_COMPETITION = 0.15;
+    private static final double W_SIMILARITY  = 0.15;
+
+    private final ApplicationService applicationService;
+    private final Map<String, Set<String>> opportunityTokens = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> historyTokens = new ConcurrentHashMap<>();
+
+    public RecommendationService(ApplicationService applicationService) {
+        this.applicationService = Objects.requireNonNull(applicationService, "applicationService must not be null");
+    }
+
+    /**
+     * @param events
+     */
+    public void watch(EventBus events) {
+        events.subscribe(OpportunityCreated.class, e -> retokenise(e.opportunity()));
+        events.subscribe(OpportunityUpdated.class, e -> retokenise(e.opportunity()));
+        events.subscribe(OpportunityDeleted.class, e -> opportunityTokens.remove(key(e.opportunity().getId())));
+        events.subscribe(ApplicationSubmitted.class, e -> {
+            Set<String> history = historyTokens.get(key(e.application().getStudent().getId()));
+            if (history != null) history.addAll(tokens(e.application().getOpportunity()));
+        });
+        events.subscribe(RecordsArchived.class, e -> {
+            e.opportunities().forEach(o -> opportunityTokens.remove(key(o.getId())));
+            e.applications().forEach(a -> historyTokens.remove(key(a.getStudent().getId())));
+        });
+    }
+
+    /**
+     * @param student
+     * @param candidates
+     * @param k
+     * @return list&lt;internshipopportunity&gt; the k best, best first
+     */
+    public List<InternshipOpportunity> topK(Student student, List<InternshipOpportunity> candidates, int k) {
+        if (student == null || candidates == null || k <= 0) return new ArrayList<>();
+
+        Set<String> history = history(student);
+        LocalDate today = LocalDate.now();
+
+        PriorityQueue<Scored> heap = new PriorityQueue<>(Math.max(1, Math.min(k, candidates.size())));
+        for (InternshipOpportunity o : candidates) {
+            if (!o.isEligibleFor(student)) continue;
+
+            Scored s = new Scored(o, score(student, o, history, today));
+            if (heap.size() < k) {
+                heap.add(s);
+            } else if (s.compareTo(heap.peek()) > 0) {
+                heap.poll();
+                heap.add(s);
+            }
+        }
+
+        List<Scored> best = new ArrayList<>(heap);
+        best.sort(Collections.reverseOrder());
+
+        List<InternshipOpportunity> result = new ArrayList<>(best.size());
+        for (Scored s : best) result.add(s.opp);
+        return result;
+    }
+
+    /**
+     * @param s
+     * @param o
+     * @param history
+     * @param today
+     * @return double
+     */
+    private double score(Student s, InternshipOpportunity o, Set<String> history, LocalDate today) {
+        int vacancy = Math.max(0, o.getSlots() - o.getConfirmedSlots());
+        double vacancyScore = o.getSlots() <= 0 ? 0 : (double) vacancy / o.getSlots();
+
+        long daysLeft = ChronoUnit.DAYS.between(today, o.getCloseDate());
+        double urgencyScore = daysLeft < 0 ? 0 : 1.0 / (1.0 + daysLeft / 7.0);
+
+        double levelScore = 1.0 - Math.abs(o.getLevel().ordinal() - idealLevel(s).ordinal()) / 2.0;
+
+        int competing = applicationService.getPendingCountForOpportunity(o);
+        double competitionScore = 1.0 / (1.0 + (double) competing / (vacancy + 1));
+
+        double similarityScore = jaccard(opportunityTokens.computeIfAbsent(key(o.getId()), k -> tokens(o)), history);
+
+        return W_VACANCY * vacancyScore
+                + W_URGENCY * urgencyScore
+                + W_LEVEL_FIT * levelScore
+                + W_COMPETITION * competitionScore
+                + W_SIMILARITY * similarityScore;
+    }
+
+    /**
+     * @param s
+     * @return InternshipLevel
+     */
+    private InternshipLevel idealLevel(Student s) {
+        if (s.getYearOfStudy() <= 2) return InternshipLevel.BASIC;
+        if (s.getYearOfStudy() == 3) return InternshipLevel.INTERMEDIATE;
+        return InternshipLevel.ADVANCED;
+    }
+
+    /**
+     * @param student
+     * @return set&lt;string&gt; the words of every posting the student applied to
+     */
+    private Set<String> history(Student student) {
+        return historyTokens.computeIfAbsent(key(student.getId()), k -> {
+            Set<String> tokens = ConcurrentHashMap.newKeySet();
+            for (Application a : applicationService.getApplicationsForStudent(student)) {
+                tokens.addAll(tokens(a.getOpportunity()));
+            }
+            return tokens;
+        });
+    }
+
+    /**
+     * @param o
+     */
+    private void retokenise(InternshipOpportunity o) {
+        opportunityTokens.put(key(o.getId()), tokens(o));
+    }
+
+    /**
+     * @param o
+     * @return set&lt;string&gt;
+     */
+    private static Set<String> tokens(InternshipOpportunity o) {
+        return tokens(o.getTitle() + " " + o.getDescription());
+    }
+
+    private static String key(String id) {
+        return id.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @param text
+     * @return set&lt;string&gt;
+     */
+    private static Set<String> tokens(String text) {
+        Set<String> tokens = new HashSet<>();
+        if (text == null) return tokens;
+        for (String t : text.toLowerCase(Locale.ROOT).split("[^a-z0-9]+")) {
+            if (t.length() > 2) tokens.add(t);
+        }
+        return tokens;
+    }
+
+    /**
+     * @param a
+     * @param b
+     * @return double
+     */
+    private static double jaccard(Set<String> a, Set<String> b) {
+        if (a.isEmpty() || b.isEmpty()) return 0;
+        int common = 0;
+        for (String t : a) if (b.contains(t)) common++;
+        return (double) common / (a.size() + b.size() - common);
+    }
+
+    private static final class Scored implements Comparable<Scored> {
+        private final InternshipOpportunity opp;
+        private final double score;
+
+        Scored(InternshipOpportunity opp, double score) {
+            this.opp = opp;
+            this.score = score;
+        }
+
+        @Override
+        public int compareTo(Scored other) {
+            int c = Double.compare(score, other.score);
+            return c != 0 ? c : other.opp.getId().compareToIgnoreCase(opp.getId());
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package control;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+import entity.Application;
+import entity.InternshipOpportunity;
+import entity.User;
+import entity.WithdrawalRequest;
+import event.EventBus;
+
+/**
+ * the services of one running system, wired over one set of lists and one loader.
+ * built once at startup, and again by a follower each time it picks up the primary's changes;
+ * a graph that has been replaced is {@link #close closed}.
+ */
+public record ServiceGraph(List<User> users, List<InternshipOpportunity> opportunities,
+                           List<Application> applications, List<WithdrawalRequest> withdrawals,
+                           DataLoader loader, EventBus events, AuthControl auth, AccountApprovalService approval,
+                           OpportunityService oppService, ApplicationService appService,
+                           RecommendationService recommendations, ArchiveService archive,
+                           CompanyIndex companies, PlacementCube placements, ActivitySeries activity) {
+
+    private static final int ACTIVITY_DAYS = 730;
+
+    /**
+     * loads the lists behind {@code loader}, users and opportunities in parallel and the rest on
+     * first use, wires the services over them and starts publishing the loader's change feed.
+     * the placement cube and activity series take their figures for applications and withdrawals
+     * on the loader thread as those lists finish loading, so startup does not wait for them; the
+     * activity series also counts the archived records that can still fall in its window.
+     * @param loader
+     * @param stats
+     * @return ServiceGraph
+     */
+    public static ServiceGraph open(DataLoader loader, SystemStats stats) {
+        PlacementCube placements = new PlacementCube();
+        ActivitySeries activity = new ActivitySeries(ACTIVITY_DAYS);
+        Future<List<User>> pendingUsers = loader.loadUsersAsync();
+        Future<List<InternshipOpportunity>> pendingOpportunities = loader.loadOpportunitiesAsync();
+        List<Application> applications = loader.loadApplicationsLazily(loaded -> {
+            placements.addApplications(loader.placementCounts(loaded));
+            activity.addApplications(loaded);
+            activity.addApplications(archived(loader, loaded, loader::loadArchivedApplications, Application::getId));
+        });
+        List<WithdrawalRequest> withdrawals = loader.loadWithdrawalRequestsLazily(loaded -> {
+            activity.addWithdrawals(loaded);
+            activity.addWithdrawals(archived(loader, loaded, loader::loadArchivedWithdrawalRequests, WithdrawalRequest::getId));
+        });
+
+        List<User> users = DataLoader.await(pendingUsers);
+        List<InternshipOpportunity> opportunities = DataLoader.await(pendingOpportunities);
+
+        ServiceGraph graph = wire(loader, stats, users, opportunities, applications, withdrawals, placements, activity);
+        loader.startChangeFeed(users, opportunities, applications, withdrawals);
+        return graph;
+    }
+
+    /**
+     * @param loader where the services save to
+     * @param stats
+     * @param users
+     * @param opportunities
+     * @param applications
+     * @param withdrawals
+     * @return ServiceGraph
+     */
+    public static ServiceGraph build(DataLoader loader, SystemStats stats, List<User> users,
+                                     List<InternshipOpportunity> opportunities, List<Application> applications,
+                                     List<WithdrawalRequest> withdrawals) {
+        PlacementCube placements = new PlacementCube();
+        placements.addApplications(loader.placementCounts(applications));
+        ActivitySeries activity = new ActivitySeries(ACTIVITY_DAYS);
+        activity.addApplications(applications);
+        activity.addApplications(archived(loader, applications, loader::loadArchivedApplications, Application::getId));
+        activity.addWithdrawals(withdrawals);
+        activity.addWithdrawals(archived(loader, withdrawals, loader::loadArchivedWithdrawalRequests, WithdrawalRequest::getId));
+        return wire(loader, stats, users, opportunities, applications, withdrawals, placements, activity);
+    }
+
+    /**
+     * archived records of the intakes that can still have activity in the series' window: the
+     * intakes from the year before the window starts on, and the undated one. records still in the
+     * hot list, left there by a crash after they were archived, are not counted twice.
+     * @param loader
+     * @param hot the list as loaded
+     * @param load reads one intake
+     * @param idOf
+     * @return list&lt;t&gt;
+     */
+    private static <T> List<T> archived(DataLoader loader, List<T> hot, Function<String, List<T>> load,
+                                        Function<T, String> idOf) {
+        int oldest = LocalDate.now().minusDays(ACTIVITY_DAYS).getYear() - 1;
+        Set<String> seen = new HashSet<>();
+        for (T t : hot) seen.add(idOf.apply(t).toLowerCase());
+        List<T> result = new ArrayList<>();
+        for (String intake : loader.loadArchiveIntakes()) {
+            if (intake.matches("\\d+") && Integer.parseInt(intake) < oldest) continue;
+            for (T t : load.apply(intake)) {
+                if (seen.add(idOf.apply(t).toLowerCase())) result.add(t);
+            }
+        }
+        return result;
+    }
+
+    private static ServiceGraph wire(DataLoader loader, SystemStats stats, List<User> users,
+                                     List<InternshipOpportunity> opportunities, List<Application> applications,
+                                     List<WithdrawalRequest> withdrawals, PlacementCube placements,
+                                     ActivitySeries activity) {
+        EventBus events = new EventBus();
+        IdGenerator ids = new IdGenerator(loader);
+        stats.watch(events, users, opportunities, withdrawals);
+        CompanyIndex companies = CompanyIndex.build(opportunities, () -> applications);
+        companies.watch(events);
+        OpportunityService oppService = new OpportunityService(opportunities, companies, loader, ids, events, stats);
+        ApplicationService appService = new ApplicationService(applications, opportunities, withdrawals, users, companies, loader, ids, events, stats);
+        RecommendationService recommendations = new RecommendationService(appService);
+        recommendations.watch(events);
+        ArchiveService archive = new ArchiveService(applications, opportunities, withdrawals, users, appService, loader, events);
+        opportunities.forEach(placements::refresh);
+        placements.waitFor(applications);
+        placements.watch(events);
+        activity.waitFor(applications, withdrawals);
+        activity.watch(events);
+
+        AuthControl auth = new AuthControl(users);
+        AccountApprovalService approval = new AccountApprovalService(users, loader, events, stats);
+        return new ServiceGraph(users, opportunities, applications, withdrawals, loader, events, auth, approval,
+                oppService, appService, recommendations, archive, companies, placements, activity);
+    }
+
+    /**
+     * stops the graph's event bus and lets go of its subscribers, and with them the derived
+     * structures and lists they hold, then writes the held-back saves and closes the loader's
+     * storage. the services still answer reads from memory but no longer follow changes or save.
+     */
+    public void close() {
+        release();
+        loader.close();
+    }
+
+    /**
+     * stops the graph's event bus only, for a graph replaced by another over the same loader.
+     */
+    void release() {
+        events.close();
+    }
+
+    /**
+     * writes all four lists through the graph's loader.
+     */
+    public void saveAll() {
+        loader.saveUsers(users);
+        loader.saveOpportunities(opportunities);
+        loader.saveApplications(applications);
+        loader.saveWithdrawalRequests(withdrawals);
+    }
+}
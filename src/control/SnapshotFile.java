@@ -0,0 +1,270 @@
+package control;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * crash-safe container for the saved data files.
+ * the payload is cut into segments of at most 64 KiB, each stored as
+ * {@code [length][crc32c][bytes]}, and closed by a trailer carrying the segment count and payload
+ * length, so truncation and bit rot are both caught before anything is decoded.
+ * files are written to a temp file, forced to disk and renamed into place in one atomic step, then
+ * the directory is forced; the file they replace is kept as the previous generation ({@code .prev})
+ * to fall back on, linked there before the rename so a reader never finds the current file missing.
+ * the segment checksums folded together give a fingerprint of the contents, returned by both
+ * {@link #write} and {@link #readContents}, so a file can be matched against what was written.
+ */
+public final class SnapshotFile {
+    private static final int MAGIC = 0x49505347;
+    private static final int VERSION = 1;
+    private static final int SEGMENT_SIZE = 64 * 1024;
+    private static final int TRAILER = -1;
+
+    private SnapshotFile() {}
+
+    /**
+     * @param path
+     * @param payload
+     * @return long fingerprint of the contents written
+     * @throws IOException
+     */
+    public static long write(Path path, Payload payload) throws IOException {
+        Path tmp = sibling(path, ".tmp");
+        long fingerprint;
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            OutputStream raw = new BufferedOutputStream(Channels.newOutputStream(ch), SEGMENT_SIZE + 8);
+            SegmentOutputStream out = new SegmentOutputStream(raw);
+            payload.writeTo(out);
+            fingerprint = out.finish();
+            raw.flush();
+            ch.force(true);
+        }
+
+        if (Files.exists(path)) keepPrevious(path);
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        forceDirectory(path.toAbsolutePath().getParent());
+        return fingerprint;
+    }
+
+    /**
+     * makes the current file the previous generation as well, without ever taking it away: it is
+     * hard-linked (or copied, where links are not supported) to a temp name that is renamed over
+     * {@code .prev}, so the current file stays in place until the new one is renamed over it.
+     * @param path
+     * @throws IOException
+     */
+    private static void keepPrevious(Path path) throws IOException {
+        Path staged = sibling(path, ".prev.tmp");
+        Files.deleteIfExists(staged);
+        try {
+            Files.createLink(staged, path);
+        } catch (UnsupportedOperationException | IOException e) {
+            Files.copy(path, staged, StandardCopyOption.REPLACE_EXISTING);
+        }
+        Files.move(staged, previous(path), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * forces the directory entry of a rename to disk. platforms that cannot open a directory
+     * (windows) are skipped.
+     * @param dir
+     */
+    static void forceDirectory(Path dir) {
+        if (dir == null) return;
+        try (FileChannel ch = FileChannel.open(dir, StandardOpenOption.READ)) {
+            ch.force(true);
+        } catch (IOException ignored) {
+        }
+    }
+
+    /**
+     * reads and verifies a file. files without the container header, written before checksums
+     * were introduced, are returned as they are.
+     * @param path
+     * @return byte[] the payload
+     * @throws IOException when the file is truncated or a checksum does not match
+     */
+    public static byte[] read(Path path) throws IOException {
+        return readContents(path).payload();
+    }
+
+    /**
+     * @param path
+     * @return Contents the verified payload and its fingerprint
+     * @throws IOException when the file is truncated or a checksum does not match
+     */
+    public static Contents readContents(Path path) throws IOException {
+        byte[] file = Files.readAllBytes(path);
+        ByteBuffer buf = ByteBuffer.wrap(file);
+        CRC32C fold = new CRC32C();
+        if (file.length < 8 || buf.getInt(0) != MAGIC) {
+            fold.update(file, 0, file.length);
+            return new Contents(file, fold.getValue());
+        }
+
+        buf.position(4);
+        int version = buf.getInt();
+        if (version != VERSION) throw new IOException("unsupported snapshot version " + version);
+
+        ByteArrayOutputStream payload = new ByteArrayOutputStream(file.length);
+        CRC32C crc = new CRC32C();
+        int segments = 0;
+        while (true) {
+            if (buf.remaining() < 4) throw new IOException("snapshot is truncated after segment " + segments);
+            int len = buf.getInt();
+            if (len == TRAILER) break;
+            if (len < 0 || len > SEGMENT_SIZE || buf.remaining() < 4 + len) {
+                throw new IOException("snapshot is truncated in segment " + segments);
+            }
+            int expected = buf.getInt();
+            crc.reset();
+            crc.update(file, buf.position(), len);
+            if ((int) crc.getValue() != expected) throw new IOException("checksum mismatch in segment " + segments);
+            fold.update(file, buf.position() - 8, 8);
+            payload.write(file, buf.position(), len);
+            buf.position(buf.position() + len);
+            segments++;
+        }
+
+        if (buf.remaining() < 16) throw new IOException("snapshot trailer is truncated");
+        int trailerStart = buf.position();
+        int count = buf.getInt();
+        long length = buf.getLong();
+        int expected = buf.getInt();
+        crc.reset();
+        crc.update(file, trailerStart, 12);
+        if ((int) crc.getValue() != expected || count != segments || length != payload.size()) {
+            throw new IOException("snapshot trailer does not match its contents");
+        }
+        return new Contents(payload.toByteArray(), fingerprint(fold, segments));
+    }
+
+    private static long fingerprint(CRC32C fold, int segments) {
+        return ((long) segments << 32) | fold.getValue();
+    }
+
+    /**
+     * @param path
+     * @return Path
+     */
+    public static Path previous(Path path) {
+        return sibling(path, ".prev");
+    }
+
+    /**
+     * moves an unreadable file out of the way so it is neither loaded again nor rotated over
+     * the good previous generation.
+     * @param path
+     * @return Path where the file now lives
+     * @throws IOException
+     */
+    public static Path quarantine(Path path) throws IOException {
+        Path target = sibling(path, ".corrupt-" + System.currentTimeMillis());
+        Files.move(path, target, StandardCopyOption.REPLACE_EXISTING);
+        return target;
+    }
+
+    /**
+     * @param path
+     * @param suffix
+     * @return Path
+     */
+    private static Path sibling(Path path, String suffix) {
+        return path.resolveSibling(path.getFileName() + suffix);
+    }
+
+    public interface Payload {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    /**
+     * @param payload
+     * @param fingerprint equal for equal contents, whichever generation they were read from
+     */
+    public record Contents(byte[] payload, long fingerprint) { }
+
+    private static final class SegmentOutputStream extends OutputStream {
+        private final OutputStream out;
+        private final byte[] segment = new byte[SEGMENT_SIZE];
+        private final CRC32C crc = new CRC32C();
+        private final CRC32C fold = new CRC32C();
+        private final ByteBuffer word = ByteBuffer.allocate(16);
+        private int used;
+        private int segments;
+        private long length;
+
+        SegmentOutputStream(OutputStream out) throws IOException {
+            this.out = out;
+            word.clear();
+            word.putInt(MAGIC).putInt(VERSION);
+            out.write(word.array(), 0, 8);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (used == SEGMENT_SIZE) flushSegment();
+            segment[used++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            while (len > 0) {
+                if (used == SEGMENT_SIZE) flushSegment();
+                int n = Math.min(len, SEGMENT_SIZE - used);
+                System.arraycopy(b, off, segment, used, n);
+                used += n;
+                off += n;
+                len -= n;
+            }
+        }
+
+        /**
+         * the codecs flush their own buffers; segments are only cut when full or at the end.
+         */
+        @Override
+        public void flush() {
+        }
+
+        /**
+         * @return long fingerprint of the segments written
+         * @throws IOException
+         */
+        long finish() throws IOException {
+            if (used > 0) flushSegment();
+
+            word.clear();
+            word.putInt(TRAILER).putInt(segments).putLong(length);
+            crc.reset();
+            crc.update(word.array(), 4, 12);
+            out.write(word.array(), 0, 16);
+            word.clear();
+            word.putInt((int) crc.getValue());
+            out.write(word.array(), 0, 4);
+            return fingerprint(fold, segments);
+        }
+
+        private void flushSegment() throws IOException {
+            crc.reset();
+            crc.update(segment, 0, used);
+            word.clear();
+            word.putInt(used).putInt((int) crc.getValue());
+            out.write(word.array(), 0, 8);
+            fold.update(word.array(), 0, 8);
+            out.write(segment, 0, used);
+            length += used;
+            segments++;
+            used = 0;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package control;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import entity.Application;
+import entity.User;
+
+/**
+ * student-proposing deferred acceptance (gale-shapley with capacities).
+ * every posting keeps its tentatively held applicants in a heap with the least preferred
+ * applicant on top, so each proposal costs O(log capacity) and a round costs O(E log C).
+ * the result is stable: no student and posting both prefer each other over what they got.
+ */
+public final class StableMatcher {
+
+    private StableMatcher() {}
+
+    /**
+     * @param candidates pending applications taking part in the round
+     * @param capacity remaining slots keyed by lower-case opportunity id
+     * @return list&lt;application&gt; the application held for each matched student
+     */
+    public static List<Application> match(List<Application> candidates, Map<String, Integer> capacity) {
+        final int n = candidates.size();
+        final Application[] apps = candidates.toArray(new Application[0]);
+
+        final long[] studentKey = new long[n];
+        final long[] postingKey = new long[n];
+        final int[] studentOf = new int[n];
+        final int[] postingOf = new int[n];
+
+        Map<String, Integer> studentIndex = new HashMap<>();
+        Map<String, Integer> postingIndex = new HashMap<>();
+        List<Integer> caps = new ArrayList<>();
+
+        for (int i = 0; i < n; i++) {
+            Application a = apps[i];
+            long applied = a.getAppliedAt().toEpochDay();
+            studentKey[i] = (rankOrLast(a.getStudentRank()) << 32) | (applied & 0xffffffffL);
+            postingKey[i] = (rankOrLast(a.getRepRank()) << 32) | (applied & 0xffffffffL);
+
+            studentOf[i] = studentIndex.computeIfAbsent(User.canonical(a.getStudent().getId()), k -> studentIndex.size());
+
+            String oppKey = a.getOpportunity().getId().toLowerCase();
+            Integer p = postingIndex.get(oppKey);
+            if (p == null) {
+                p = postingIndex.size();
+                postingIndex.put(oppKey, p);
+                caps.add(Math.max(0, capacity.getOrDefault(oppKey, 0)));
+            }
+            postingOf[i] = p;
+        }
+
+        Comparator<Integer> studentPrefers = (x, y) -> {
+            int c = Long.compare(studentKey[x], studentKey[y]);
+            return c != 0 ? c : apps[x].getId().compareTo(apps[y].getId());
+        };
+        Comparator<Integer> postingPrefers = (x, y) -> {
+            int c = Long.compare(postingKey[x], postingKey[y]);
+            return c != 0 ? c : apps[x].getId().compareTo(apps[y].getId());
+        };
+
+        int students = studentIndex.size();
+        int[][] prefs = new int[students][];
+        int[] prefCount = new int[students];
+        for (int i = 0; i < n; i++) prefCount[studentOf[i]]++;
+        for (int s = 0; s < students; s++) prefs[s] = new int[prefCount[s]];
+        Arrays.fill(prefCount, 0);
+        for (int i = 0; i < n; i++) prefs[studentOf[i]][prefCount[studentOf[i]]++] = i;
+        for (int s = 0; s < students; s++) {
+            prefs[s] = Arrays.stream(prefs[s]).boxed().sorted(studentPrefers).mapToInt(Integer::intValue).toArray();
+        }
+
+        List<PriorityQueue<Integer>> held = new ArrayList<>(caps.size());
+        for (int p = 0; p < caps.size(); p++) {
+            held.add(new PriorityQueue<>(Math.max(1, caps.get(p)), postingPrefers.reversed()));
+        }
+
+        int[] next = new int[students];
+        ArrayDeque<Integer> free = new ArrayDeque<>(students);
+        for (int s = 0; s < students; s++) free.add(s);
+
+        while (!free.isEmpty()) {
+            int s = free.poll();
+            if (next[s] >= prefs[s].length) continue;
+
+            int app = prefs[s][next[s]++];
+            int p = postingOf[app];
+            PriorityQueue<Integer> heap = held.get(p);
+            int cap = caps.get(p);
+
+            if (heap.size() < cap) {
+                heap.add(app);
+            } else if (cap > 0 && postingPrefers.compare(app, heap.peek()) < 0) {
+                int bumped = heap.poll();
+                heap.add(app);
+                free.add(studentOf[bumped]);
+            } else {
+                free.add(s);
+            }
+        }
+
+        List<Application> matched = new ArrayList<>();
+        for (PriorityQueue<Integer> heap : held) {
+            for (int app : heap) matched.add(apps[app]);
+        }
+        return matched;
+    }
+
+    /**
+     * @param rank
+     * @return long
+     */
+    private static long rankOrLast(int rank) {
+        return rank > 0 ? rank : Integer.MAX_VALUE;
+    }
+}
@@ -0,0 +1,62 @@
+package control;
+
+import java.io.IOException;
+import java.util.List;
+
+import entity.Application;
+import entity.InternshipOpportunity;
+import entity.User;
+import entity.WithdrawalRequest;
+
+/**
+ * where {@link DataLoader} keeps the four entity lists. the default keeps each list in its own
+ * snapshot file under {@code serialized/}; {@link JdbcStorage} keeps them as tables in an
+ * embedded sql database. chosen at startup with {@code -Dipms.storage=files|<jdbc url>}.
+ * loads return an empty list when nothing was saved yet and null when saved data exists but
+ * cannot be read.
+ */
+public interface StorageBackend {
+
+    List<User> loadUsers();
+
+    List<InternshipOpportunity> loadOpportunities();
+
+    List<Application> loadApplications();
+
+    List<WithdrawalRequest> loadWithdrawals();
+
+    void saveUsers(List<User> users) throws IOException;
+
+    void saveOpportunities(List<InternshipOpportunity> opportunities) throws IOException;
+
+    void saveApplications(List<Application> applications) throws IOException;
+
+    void saveWithdrawals(List<WithdrawalRequest> requests) throws IOException;
+
+    /**
+     * @param list users, opportunities, applications or withdrawals
+     * @return String where that list is kept, for messages
+     */
+    String locate(String list);
+
+    /**
+     * @param list users, opportunities, applications or withdrawals
+     * @return String identifies the saved contents of the list as this process last loaded or saved
+     *         them, and changes with every save that alters them; null when not known
+     */
+    String stamp(String list);
+
+    /**
+     * looks at the storage itself rather than at what this process last loaded, so a save by
+     * another process shows up.
+     * @param list users, opportunities, applications or withdrawals
+     * @return String identifies the saved contents of the list as they are now; null when nothing is saved
+     */
+    String currentStamp(String list);
+
+    /**
+     * lets go of whatever the backend holds open. nothing can be loaded or saved through it afterwards.
+     * @throws IOException
+     */
+    void close() throws IOException;
+}
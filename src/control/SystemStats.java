@@ -0,0 +1,339 @@
+package control;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import entity.CompanyRepresentative;
+import entity.InternshipOpportunity;
+import entity.User;
+import entity.WithdrawalRequest;
+import enumerations.AccountStatus;
+import enumerations.OpportunityStatus;
+import enumerations.WithdrawalStatus;
+import event.EventBus;
+import event.OpportunityApproved;
+import event.OpportunityCreated;
+import event.OpportunityDeleted;
+import event.OpportunityRejected;
+import event.OpportunityUpdated;
+import event.RepApproved;
+import event.RepRegistered;
+import event.RepRejected;
+import event.WithdrawalRequested;
+import event.WithdrawalReviewed;
+
+/**
+ * live counters behind the staff operations dashboard.
+ * everything is recorded where it happens (service operations, saves, sessions, domain events),
+ * so reading the dashboard only copies counters and never rescans the data.
+ * latencies go into log-linear histograms with four buckets per power of two, which keeps
+ * p50/p99 within 25% of the true value at a fixed cost per operation.
+ */
+public class SystemStats {
+    private static final int SUB_BUCKETS = 4;
+    private static final int BUCKETS = 40 * SUB_BUCKETS;
+    private static final int WINDOW_SECONDS = 60;
+
+    private final long startedAt = System.nanoTime();
+    private final Map<String, Operation> operations = new ConcurrentSkipListMap<>();
+    private final Map<String, Save> saves = new ConcurrentSkipListMap<>();
+    private final AtomicInteger activeSessions = new AtomicInteger();
+    private final LongAdder sessions = new LongAdder();
+    private final Map<String, PendingQueue> queues = new LinkedHashMap<>();
+    private volatile EventBus events;
+
+    /**
+     * @return long start timestamp to pass to {@link #record}
+     */
+    public long start() {
+        return System.nanoTime();
+    }
+
+    /**
+     * @param operation
+     * @param startNanos
+     */
+    public void record(String operation, long startNanos) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+        operations.computeIfAbsent(operation, k -> new Operation()).add(micros);
+    }
+
+    /**
+     * runs the work and records how long it took under {@code operation}.
+     * @param operation
+     * @param work
+     * @return T what the work returned
+     */
+    public <T> T timed(String operation, Supplier<T> work) {
+        long start = start();
+        try {
+            return work.get();
+        } finally {
+            record(operation, start);
+        }
+    }
+
+    /**
+     * @param operation
+     * @param work
+     */
+    public void timed(String operation, Runnable work) {
+        timed(operation, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * @param file
+     * @param bytes
+     * @param startNanos
+     */
+    public void recordSave(String file, long bytes, long startNanos) {
+        Save s = saves.computeIfAbsent(file, k -> new Save());
+        s.bytes = bytes;
+        s.lastMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+        s.count.increment();
+    }
+
+    public void sessionStarted() {
+        activeSessions.incrementAndGet();
+        sessions.increment();
+    }
+
+    public void sessionEnded() {
+        activeSessions.decrementAndGet();
+    }
+
+    /**
+     * keeps the review queues current from domain events. each queue is counted once, the
+     * first time the dashboard asks for it, so a lazily loaded list is not forced at startup.
+     * @param events
+     * @param users
+     * @param opportunities
+     * @param withdrawals
+     */
+    public void watch(EventBus events, List<User> users, List<InternshipOpportunity> opportunities,
+                      List<WithdrawalRequest> withdrawals) {
+        this.events = events;
+
+        PendingQueue reps = queue("Pending company representatives", () -> users.stream()
+                .filter(u -> u instanceof CompanyRepresentative cr && cr.getStatus() == AccountStatus.PENDING)
+                .map(User::getId)
+                .collect(Collectors.toList()));
+        events.subscribeAsync(RepRegistered.class, e -> reps.add(e.rep().getId()));
+        events.subscribeAsync(RepApproved.class, e -> reps.remove(e.rep().getId()));
+        events.subscribeAsync(RepRejected.class, e -> reps.remove(e.rep().getId()));
+
+        PendingQueue opps = queue("Pending internship opportunities", () -> opportunities.stream()
+                .filter(o -> o.getStatus() == OpportunityStatus.PENDING)
+                .map(InternshipOpportunity::getId)
+                .collect(Collectors.toList()));
+        events.subscribeAsync(OpportunityCreated.class, e -> opps.track(e.opportunity().getId(), e.opportunity().getStatus() == OpportunityStatus.PENDING));
+        events.subscribeAsync(OpportunityUpdated.class, e -> opps.track(e.opportunity().getId(), e.opportunity().getStatus() == OpportunityStatus.PENDING));
+        events.subscribeAsync(OpportunityApproved.class, e -> opps.remove(e.opportunity().getId()));
+        events.subscribeAsync(OpportunityRejected.class, e -> opps.remove(e.opportunity().getId()));
+        events.subscribeAsync(OpportunityDeleted.class, e -> opps.remove(e.opportunity().getId()));
+
+        PendingQueue requests = queue("Pending withdrawal requests", () -> withdrawals.stream()
+                .filter(r -> r.getStatus() == WithdrawalStatus.PENDING)
+                .map(WithdrawalRequest::getId)
+                .collect(Collectors.toList()));
+        events.subscribeAsync(WithdrawalRequested.class, e -> requests.add(e.request().getId()));
+        events.subscribeAsync(WithdrawalReviewed.class, e -> requests.remove(e.request().getId()));
+    }
+
+    /**
+     * @param name
+     * @param seed
+     * @return PendingQueue
+     */
+    private PendingQueue queue(String name, Supplier<Collection<String>> seed) {
+        PendingQueue q = new PendingQueue(seed);
+        queues.put(name, q);
+        return q;
+    }
+
+    /**
+     * @return double
+     */
+    public double getUptimeMinutes() {
+        return (System.nanoTime() - startedAt) / 60e9;
+    }
+
+    public int getActiveSessions() { return activeSessions.get(); }
+    public long getTotalSessions()  { return sessions.sum(); }
+
+    /**
+     * @return int events waiting for asynchronous subscribers
+     */
+    public int getQueuedEvents() {
+        return events == null ? 0 : events.getQueuedCount();
+    }
+
+    /**
+     * @return map&lt;string, integer&gt;
+     */
+    public Map<String, Integer> getQueueDepths() {
+        if (events != null) events.awaitDelivered();
+        Map<String, Integer> result = new LinkedHashMap<>();
+        queues.forEach((name, q) -> result.put(name, q.size()));
+        return result;
+    }
+
+    /**
+     * @return list&lt;operationsummary&gt;
+     */
+    public List<OperationSummary> getOperations() {
+        double minutes = Math.max(getUptimeMinutes(), 1.0 / 60);
+        long nowSecond = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime());
+        List<OperationSummary> result = new ArrayList<>();
+        operations.forEach((name, op) -> {
+            long count = op.count.sum();
+            result.add(new OperationSummary(name, count, count / minutes, op.lastMinute(nowSecond),
+                    op.percentile(0.50), op.percentile(0.99), op.max.get()));
+        });
+        return result;
+    }
+
+    /**
+     * @return list&lt;savesummary&gt;
+     */
+    public List<SaveSummary> getSaves() {
+        List<SaveSummary> result = new ArrayList<>();
+        saves.forEach((file, s) -> result.add(new SaveSummary(file, s.bytes, s.lastMicros, s.count.sum())));
+        return result;
+    }
+
+    /**
+     * @return long[] used and max heap bytes
+     */
+    public long[] getHeap() {
+        Runtime rt = Runtime.getRuntime();
+        return new long[] { rt.totalMemory() - rt.freeMemory(), rt.maxMemory() };
+    }
+
+    /**
+     * @param micros
+     * @return int
+     */
+    static int bucket(long micros) {
+        if (micros < SUB_BUCKETS) return (int) Math.max(micros, 0);
+        int log = 63 - Long.numberOfLeadingZeros(micros);
+        int sub = (int) ((micros >>> (log - 2)) & (SUB_BUCKETS - 1));
+        return Math.min(BUCKETS - 1, (log - 1) * SUB_BUCKETS + sub);
+    }
+
+    /**
+     * @param bucket
+     * @return long largest value that falls into the bucket
+     */
+    static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) return bucket;
+        int log = bucket / SUB_BUCKETS + 1;
+        int sub = bucket % SUB_BUCKETS;
+        return ((long) (SUB_BUCKETS + sub + 1) << (log - 2)) - 1;
+    }
+
+    public record OperationSummary(String name, long count, double perMinute, long lastMinute,
+                                   long p50Micros, long p99Micros, long maxMicros) {}
+
+    public record SaveSummary(String file, long bytes, long lastMicros, long count) {}
+
+    private static final class Operation {
+        final LongAdder count = new LongAdder();
+        final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        final AtomicLong max = new AtomicLong();
+        final AtomicLongArray perSecond = new AtomicLongArray(WINDOW_SECONDS);
+        final AtomicLongArray stamps = new AtomicLongArray(WINDOW_SECONDS);
+
+        void add(long micros) {
+            count.increment();
+            buckets.incrementAndGet(bucket(micros));
+            max.accumulateAndGet(micros, Math::max);
+
+            long second = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime());
+            int slot = (int) (second % WINDOW_SECONDS);
+            long stamp = stamps.get(slot);
+            if (stamp != second && stamps.compareAndSet(slot, stamp, second)) perSecond.set(slot, 0);
+            perSecond.incrementAndGet(slot);
+        }
+
+        long lastMinute(long nowSecond) {
+            long n = 0;
+            for (int i = 0; i < WINDOW_SECONDS; i++) {
+                if (nowSecond - stamps.get(i) < WINDOW_SECONDS) n += perSecond.get(i);
+            }
+            return n;
+        }
+
+        long percentile(double p) {
+            long total = 0;
+            long[] snapshot = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) total += snapshot[i] = buckets.get(i);
+            if (total == 0) return 0;
+
+            long rank = (long) Math.ceil(p * total);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += snapshot[i];
+                if (seen >= rank) return Math.min(upperBound(i), max.get());
+            }
+            return max.get();
+        }
+    }
+
+    private static final class Save {
+        final LongAdder count = new LongAdder();
+        volatile long bytes;
+        volatile long lastMicros;
+    }
+
+    /**
+     * ids waiting for review. events that arrive before the first count are already part of
+     * the list it is seeded from, so they are ignored until then.
+     */
+    private static final class PendingQueue {
+        private final Supplier<Collection<String>> seed;
+        private final Set<String> ids = ConcurrentHashMap.newKeySet();
+        private volatile boolean seeded;
+
+        PendingQueue(Supplier<Collection<String>> seed) {
+            this.seed = seed;
+        }
+
+        synchronized void add(String id) {
+            if (seeded) ids.add(id.toLowerCase());
+        }
+
+        synchronized void remove(String id) {
+            if (seeded) ids.remove(id.toLowerCase());
+        }
+
+        void track(String id, boolean pending) {
+            if (pending) add(id);
+            else remove(id);
+        }
+
+        synchronized int size() {
+            if (!seeded) {
+                seed.get().forEach(id -> ids.add(id.toLowerCase()));
+                seeded = true;
+            }
+            return ids.size();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package control;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * several independent systems, e.g. one per intake or campus, served from one process.
+ * each tenant is a directory under {@code home} with its own {@code data/}, {@code serialized/},
+ * {@code archive/} and {@code changes/}, and gets its own loader, lists, event bus, stats and
+ * services, so nothing one tenant does is visible to another. a tenant is loaded the first time
+ * it is opened and stays loaded until it is closed; the loader thread pool, the event dispatcher
+ * threads and the fork/join pool behind parallel queries are shared by all of them.
+ */
+public class Tenants {
+    private static final Pattern NAME = Pattern.compile("[A-Za-z0-9][A-Za-z0-9._-]*");
+
+    private final File home;
+    private final Map<String, Tenant> open = new ConcurrentHashMap<>();
+
+    /**
+     * @param home directory holding one subdirectory per tenant
+     * @throws IllegalArgumentException when home is not a directory
+     */
+    public Tenants(File home) {
+        this.home = Objects.requireNonNull(home, "home must not be null");
+        if (!home.isDirectory()) throw new IllegalArgumentException("not a directory: " + home);
+    }
+
+    /**
+     * @return list&lt;string&gt; names of the tenant directories, sorted
+     */
+    public List<String> names() {
+        File[] dirs = home.listFiles(f -> f.isDirectory() && NAME.matcher(f.getName()).matches());
+        List<String> names = new ArrayList<>();
+        if (dirs != null) Arrays.stream(dirs).map(File::getName).sorted().forEach(names::add);
+        return names;
+    }
+
+    /**
+     * @param name
+     * @return Tenant, loading it on first use
+     * @throws IllegalArgumentException when there is no such tenant directory
+     * @throws IllegalStateException when its storage cannot be opened
+     */
+    public Tenant open(String name) {
+        String key = name == null ? "" : name.trim();
+        if (!NAME.matcher(key).matches() || !new File(home, key).isDirectory()) {
+            throw new IllegalArgumentException("no such tenant: " + key);
+        }
+        return open.computeIfAbsent(key, k -> {
+            SystemStats stats = new SystemStats();
+            DataLoader loader = new DataLoader(stats, new File(home, k), false);
+            return new Tenant(k, stats, ServiceGraph.open(loader, stats));
+        });
+    }
+
+    /**
+     * @return list&lt;tenant&gt; the tenants opened so far
+     */
+    public List<Tenant> getOpen() {
+        return new ArrayList<>(open.values());
+    }
+
+    /**
+     * writes the tenant's held-back saves, closes its event bus and its storage, so its lists,
+     * derived structures and any database connection are let go. the next {@link #open} loads it again.
+     * @param name
+     */
+    public void close(String name) {
+        Tenant t = open.remove(name == null ? "" : name.trim());
+        if (t != null) t.graph().close();
+    }
+
+    /**
+     * closes every open tenant.
+     */
+    public void closeAll() {
+        for (String name : new ArrayList<>(open.keySet())) close(name);
+    }
+
+    /**
+     * writes every open tenant's lists.
+     */
+    public void saveAll() {
+        open.values().forEach(t -> t.graph().saveAll());
+    }
+
+    /**
+     * @param name directory name under home
+     * @param stats
+     * @param graph
+     */
+    public record Tenant(String name, SystemStats stats, ServiceGraph graph) { }
+}
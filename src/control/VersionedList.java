@@ -0,0 +1,318 @@
+package control;
+
+import java.io.ObjectStreamException;
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * list that readers never see change underneath them.
+ * every write copies the current array, applies the change and publishes the copy as the next
+ * numbered version; the array of a published version is never written again. iterating, streaming
+ * or pinning with {@link #snapshot()} reads one version throughout, so reports and saves get a
+ * consistent view without taking a lock and writers are never held up by them.
+ * a version no longer current is dropped as soon as the last snapshot pinning it is closed.
+ * only membership is versioned; the entities in the list are still updated in place.
+ * serializing the list writes a plain {@link ArrayList} of the current version, so saved files keep their format.
+ */
+public class VersionedList<E> extends AbstractList<E> implements RandomAccess, Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final Object[] EMPTY = {};
+
+    private transient volatile Version current;
+    private final transient Map<Long, Integer> readers = new HashMap<>();
+
+    public VersionedList() {
+        this.current = new Version(0, EMPTY);
+    }
+
+    /**
+     * @param initial copied into the first version
+     */
+    public VersionedList(Collection<? extends E> initial) {
+        this.current = new Version(0, initial.toArray());
+    }
+
+    /**
+     * pins the list's current version until the snapshot is closed.
+     * lists that are not versioned, or still loading behind a {@link LazyList}, are pinned by copying them.
+     * @param list
+     * @return Snapshot&lt;e&gt;
+     */
+    public static <E> Snapshot<E> pin(List<E> list) {
+        if (list instanceof LazyList<E> lazy) list = lazy.list();
+        if (list instanceof VersionedList<E> versioned) return versioned.snapshot();
+        return new Snapshot<>(null, -1, list.toArray());
+    }
+
+    /**
+     * @return Snapshot&lt;e&gt; the current version, held until closed
+     */
+    public Snapshot<E> snapshot() {
+        synchronized (readers) {
+            Version v = current;
+            readers.merge(v.number, 1, Integer::sum);
+            return new Snapshot<>(this, v.number, v.elements);
+        }
+    }
+
+    /**
+     * @param version
+     */
+    private void release(long version) {
+        synchronized (readers) {
+            readers.computeIfPresent(version, (k, n) -> n == 1 ? null : n - 1);
+        }
+    }
+
+    /**
+     * @return long number of the current version
+     */
+    public long getVersion() {
+        return current.number;
+    }
+
+    /**
+     * @return int versions older than the current one still held by an open snapshot
+     */
+    public int getPinnedVersions() {
+        long now = current.number;
+        synchronized (readers) {
+            return (int) readers.keySet().stream().filter(v -> v != now).count();
+        }
+    }
+
+    /**
+     * @return int snapshots not yet closed
+     */
+    public int getOpenSnapshots() {
+        synchronized (readers) {
+            return readers.values().stream().mapToInt(Integer::intValue).sum();
+        }
+    }
+
+    /**
+     * @param elements the new contents; must not be written after this call
+     */
+    private void publish(Object[] elements) {
+        current = new Version(current.number + 1, elements);
+        modCount++;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        Object[] a = current.elements;
+        if (index < 0 || index >= a.length) throw new IndexOutOfBoundsException("index " + index + ", size " + a.length);
+        return (E) a[index];
+    }
+
+    @Override
+    public int size() {
+        return current.elements.length;
+    }
+
+    @Override
+    public synchronized E set(int index, E element) {
+        E old = get(index);
+        Object[] copy = current.elements.clone();
+        copy[index] = element;
+        publish(copy);
+        return old;
+    }
+
+    @Override
+    public synchronized void add(int index, E element) {
+        Object[] a = current.elements;
+        if (index < 0 || index > a.length) throw new IndexOutOfBoundsException("index " + index + ", size " + a.length);
+        Object[] copy = new Object[a.length + 1];
+        System.arraycopy(a, 0, copy, 0, index);
+        copy[index] = element;
+        System.arraycopy(a, index, copy, index + 1, a.length - index);
+        publish(copy);
+    }
+
+    @Override
+    public synchronized E remove(int index) {
+        E old = get(index);
+        Object[] a = current.elements;
+        Object[] copy = new Object[a.length - 1];
+        System.arraycopy(a, 0, copy, 0, index);
+        System.arraycopy(a, index + 1, copy, index, a.length - index - 1);
+        publish(copy);
+        return old;
+    }
+
+    @Override
+    public synchronized boolean remove(Object o) {
+        int i = indexOf(o);
+        if (i < 0) return false;
+        remove(i);
+        return true;
+    }
+
+    @Override
+    public synchronized boolean addAll(Collection<? extends E> c) {
+        Object[] added = c.toArray();
+        if (added.length == 0) return false;
+        Object[] a = current.elements;
+        Object[] copy = Arrays.copyOf(a, a.length + added.length);
+        System.arraycopy(added, 0, copy, a.length, added.length);
+        publish(copy);
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public synchronized boolean removeIf(Predicate<? super E> filter) {
+        Object[] a = current.elements;
+        Object[] kept = new Object[a.length];
+        int n = 0;
+        for (Object o : a) if (!filter.test((E) o)) kept[n++] = o;
+        if (n == a.length) return false;
+        publish(Arrays.copyOf(kept, n));
+        return true;
+    }
+
+    @Override
+    public synchronized void clear() {
+        if (current.elements.length > 0) publish(EMPTY);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public synchronized void sort(Comparator<? super E> c) {
+        Object[] copy = current.elements.clone();
+        Arrays.sort(copy, (Comparator<Object>) c);
+        publish(copy);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public synchronized void replaceAll(UnaryOperator<E> operator) {
+        Object[] copy = current.elements.clone();
+        for (int i = 0; i < copy.length; i++) copy[i] = operator.apply((E) copy[i]);
+        publish(copy);
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return VersionedList.<E>view(current.elements).iterator();
+    }
+
+    @Override
+    public ListIterator<E> listIterator(int index) {
+        return VersionedList.<E>view(current.elements).listIterator(index);
+    }
+
+    @Override
+    public Spliterator<E> spliterator() {
+        return Spliterators.spliterator(current.elements, Spliterator.ORDERED | Spliterator.IMMUTABLE);
+    }
+
+    @Override
+    public void forEach(Consumer<? super E> action) {
+        VersionedList.<E>view(current.elements).forEach(action);
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        return VersionedList.<E>view(current.elements).indexOf(o);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    @Override
+    public Object[] toArray() {
+        return current.elements.clone();
+    }
+
+    /**
+     * @param elements
+     * @return list&lt;e&gt; read-only view of a published array
+     */
+    @SuppressWarnings("unchecked")
+    private static <E> List<E> view(Object[] elements) {
+        return Collections.unmodifiableList((List<E>) Arrays.asList(elements));
+    }
+
+    /**
+     * @return Object
+     * @throws ObjectStreamException
+     */
+    private Object writeReplace() throws ObjectStreamException {
+        return new ArrayList<>(Arrays.asList(current.elements));
+    }
+
+    private record Version(long number, Object[] elements) { }
+
+    /**
+     * one pinned version, read-only. closing it lets the version go once nothing else holds it;
+     * reading a closed snapshot throws {@link IllegalStateException}.
+     */
+    public static final class Snapshot<E> extends AbstractList<E> implements RandomAccess, AutoCloseable {
+        private final VersionedList<E> owner;
+        private final long version;
+        private Object[] elements;
+
+        private Snapshot(VersionedList<E> owner, long version, Object[] elements) {
+            this.owner = owner;
+            this.version = version;
+            this.elements = elements;
+        }
+
+        /**
+         * @return long the pinned version, -1 for a copy of a list that is not versioned
+         */
+        public long version() {
+            return version;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E get(int index) {
+            return (E) elements()[index];
+        }
+
+        @Override
+        public int size() {
+            return elements().length;
+        }
+
+        @Override
+        public Spliterator<E> spliterator() {
+            return Spliterators.spliterator(elements(), Spliterator.ORDERED | Spliterator.IMMUTABLE);
+        }
+
+        private Object[] elements() {
+            Object[] a = elements;
+            if (a == null) throw new IllegalStateException("snapshot is closed");
+            return a;
+        }
+
+        @Override
+        public void close() {
+            if (elements == null) return;
+            elements = null;
+            if (owner != null) owner.release(version);
+        }
+    }
+}
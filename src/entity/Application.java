@@ -16,6 +16,8 @@ public class Application implements Serializable {
     private final LocalDate appliedAt;
     private LocalDate decisionAt;
     private boolean accepted;
+    private int studentRank;
+    private int repRank;
 
     public Application(String id, Student student, InternshipOpportunity opportunity) {
         this.id = Objects.requireNonNull(id, "id must not be null");
@@ -26,6 +28,17 @@ public class Application implements Serializable {
         this.accepted = false;
     }
 
+    Application(String id, Student student, InternshipOpportunity opportunity, ApplicationStatus status,
+                LocalDate appliedAt, LocalDate decisionAt, boolean accepted) {
+        this.id = Objects.requireNonNull(id, "id must not be null");
+        this.student = Objects.requireNonNull(student, "student must not be null");
+        this.opportunity = Objects.requireNonNull(opportunity, "opportunity must not be null");
+        this.status = Objects.requireNonNull(status, "status must not be null");
+        this.appliedAt = Objects.requireNonNull(appliedAt, "appliedAt must not be null");
+        this.decisionAt = decisionAt;
+        this.accepted = accepted;
+    }
+
     /** 
      * @param approve
      */
@@ -98,6 +111,31 @@ public class Application implements Serializable {
         return accepted; 
     }
 
+    /** 
+     * @return int
+     */
+    public int getStudentRank() { 
+        return studentRank; 
+    }
+    /** 
+     * @param studentRank
+     */
+    public void setStudentRank(int studentRank) { 
+        this.studentRank = Math.max(0, studentRank); 
+    }
+    /** 
+     * @return int
+     */
+    public int getRepRank() { 
+        return repRank; 
+    }
+    /** 
+     * @param repRank
+     */
+    public void setRepRank(int repRank) { 
+        this.repRank = Math.max(0, repRank); 
+    }
+
     /** 
      * @return String
      */
@@ -0,0 +1,93 @@
+package entity;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+import enumerations.ApplicationStatus;
+
+/**
+ * running application counters kept on a student or an opportunity and saved with it, so the
+ * application cap and the staff listings never have to scan the application list.
+ * the pending applications are the active ones, as in {@link Application#isActive()}, and are
+ * what the application cap counts; accepted counts the successful offers that were taken up.
+ */
+public class ApplicationCounts implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private int pending;
+    private int successful;
+    private int accepted;
+    private int withdrawn;
+
+    public ApplicationCounts() {}
+
+    ApplicationCounts(int pending, int successful, int accepted, int withdrawn) {
+        this.pending = pending;
+        this.successful = successful;
+        this.accepted = accepted;
+        this.withdrawn = withdrawn;
+    }
+
+    public int getPending()    { return pending; }
+    public int getSuccessful() { return successful; }
+    public int getAccepted()   { return accepted; }
+    public int getWithdrawn()  { return withdrawn; }
+
+    /**
+     * @return int pending applications, the ones {@link Application#isActive()} holds for
+     */
+    public int getActive() {
+        return pending;
+    }
+
+    /**
+     * @param from status before the transition, null for a new application
+     * @param fromAccepted
+     * @param to
+     * @param toAccepted
+     */
+    public void move(ApplicationStatus from, boolean fromAccepted, ApplicationStatus to, boolean toAccepted) {
+        if (from != null) adjust(from, fromAccepted, -1);
+        adjust(to, toAccepted, 1);
+    }
+
+    /**
+     * takes an application off the counters, e.g. when it leaves the list for the archive.
+     * @param status
+     * @param isAccepted
+     */
+    public void remove(ApplicationStatus status, boolean isAccepted) {
+        adjust(status, isAccepted, -1);
+    }
+
+    /**
+     * @param status
+     * @param isAccepted
+     * @param delta
+     */
+    private void adjust(ApplicationStatus status, boolean isAccepted, int delta) {
+        switch (status) {
+            case PENDING -> pending += delta;
+            case SUCCESSFUL -> successful += delta;
+            case WITHDRAWN -> withdrawn += delta;
+            default -> { }
+        }
+        if (isAccepted) accepted += delta;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof ApplicationCounts c && pending == c.pending && successful == c.successful
+                && accepted == c.accepted && withdrawn == c.withdrawn;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(pending, successful, accepted, withdrawn);
+    }
+
+    @Override
+    public String toString() {
+        return pending + "/" + successful + "/" + accepted + "/" + withdrawn;
+    }
+}
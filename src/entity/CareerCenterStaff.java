@@ -1,6 +1,8 @@
 package entity;
 
 public class CareerCenterStaff extends User {
+    private static final long serialVersionUID = -863137069806647041L;
+
     private final String staffDepartment;
 
     public CareerCenterStaff(String id, String name, String staffDepartment) {
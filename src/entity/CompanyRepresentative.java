@@ -5,6 +5,8 @@ import enumerations.AccountStatus;
 import java.util.Objects;
 
 public class CompanyRepresentative extends User {
+    private static final long serialVersionUID = -4526935235564801192L;
+
     private final String companyName;
     private final String department;
     private final String position;
@@ -61,4 +63,12 @@ public class CompanyRepresentative extends User {
     public void decrementListings() { 
         if (activeListingsCount > 0) activeListingsCount--; 
     }
+
+    int activeListings() {
+        return activeListingsCount;
+    }
+
+    void restoreActiveListings(int count) {
+        this.activeListingsCount = Math.max(0, count);
+    }
 }
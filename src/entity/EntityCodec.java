@@ -0,0 +1,618 @@
+package entity;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import enumerations.AccountStatus;
+import enumerations.ApplicationStatus;
+import enumerations.InternshipLevel;
+import enumerations.Major;
+import enumerations.OpportunityStatus;
+import enumerations.WithdrawalStatus;
+
+/**
+ * compact binary format for the saved entity lists.
+ * a file starts with the magic bytes {@code IPMS}, a format version and the kind of list it holds.
+ * integers are varints, enums are ordinals, dates are epoch days, and an entity that was already
+ * written earlier in the same file is stored as a back-reference to its handle instead of again,
+ * so shared instances come back shared just like with default serialization.
+ * version 2 added the application counters of students and opportunities; files of version 1
+ * load with the counters unknown (null) and the application service rebuilds them.
+ */
+public final class EntityCodec {
+    public static final int VERSION = 2;
+
+    public static final byte USERS         = 1;
+    public static final byte OPPORTUNITIES = 2;
+    public static final byte APPLICATIONS  = 3;
+    public static final byte WITHDRAWALS   = 4;
+
+    private static final byte[] MAGIC = { 'I', 'P', 'M', 'S' };
+
+    private static final int TYPE_STUDENT = 1;
+    private static final int TYPE_REP     = 2;
+    private static final int TYPE_STAFF   = 3;
+
+    private static final int REF_NULL   = 0;
+    private static final int REF_INLINE = 1;
+
+    private static final Major[] MAJORS                  = Major.values();
+    private static final InternshipLevel[] LEVELS        = InternshipLevel.values();
+    private static final OpportunityStatus[] OPP_STATUS  = OpportunityStatus.values();
+    private static final ApplicationStatus[] APP_STATUS  = ApplicationStatus.values();
+    private static final WithdrawalStatus[] WR_STATUS    = WithdrawalStatus.values();
+    private static final AccountStatus[] ACCOUNT_STATUS  = AccountStatus.values();
+
+    private EntityCodec() {}
+
+    /**
+     * @param in stream positioned at the start of a file, must support mark/reset
+     * @return boolean
+     * @throws IOException
+     */
+    public static boolean hasHeader(InputStream in) throws IOException {
+        in.mark(MAGIC.length);
+        byte[] head = in.readNBytes(MAGIC.length);
+        in.reset();
+        return Arrays.equals(head, MAGIC);
+    }
+
+    /**
+     * @param out
+     * @param users
+     * @throws IOException
+     */
+    public static void writeUsers(OutputStream out, List<? extends User> users) throws IOException {
+        Writer w = new Writer(out, USERS, users.size());
+        for (User u : users) w.user(u);
+        w.flush();
+    }
+
+    /**
+     * @param out
+     * @param opportunities
+     * @throws IOException
+     */
+    public static void writeOpportunities(OutputStream out, List<InternshipOpportunity> opportunities) throws IOException {
+        Writer w = new Writer(out, OPPORTUNITIES, opportunities.size());
+        for (InternshipOpportunity o : opportunities) w.opportunity(o);
+        w.flush();
+    }
+
+    /**
+     * @param out
+     * @param applications
+     * @throws IOException
+     */
+    public static void writeApplications(OutputStream out, List<Application> applications) throws IOException {
+        Writer w = new Writer(out, APPLICATIONS, applications.size());
+        for (Application a : applications) w.application(a);
+        w.flush();
+    }
+
+    /**
+     * @param out
+     * @param requests
+     * @throws IOException
+     */
+    public static void writeWithdrawals(OutputStream out, List<WithdrawalRequest> requests) throws IOException {
+        Writer w = new Writer(out, WITHDRAWALS, requests.size());
+        for (WithdrawalRequest r : requests) w.withdrawal(r);
+        w.flush();
+    }
+
+    /**
+     * @param in
+     * @return list&lt;user&gt;
+     * @throws IOException
+     */
+    public static List<User> readUsers(InputStream in) throws IOException {
+        Reader r = new Reader(in, USERS);
+        List<User> list = new ArrayList<>(r.count);
+        for (int i = 0; i < r.count; i++) list.add(r.user());
+        r.finish();
+        return list;
+    }
+
+    /**
+     * @param in
+     * @return list&lt;internshipopportunity&gt;
+     * @throws IOException
+     */
+    public static List<InternshipOpportunity> readOpportunities(InputStream in) throws IOException {
+        Reader r = new Reader(in, OPPORTUNITIES);
+        List<InternshipOpportunity> list = new ArrayList<>(r.count);
+        for (int i = 0; i < r.count; i++) list.add(r.opportunity());
+        r.finish();
+        return list;
+    }
+
+    /**
+     * @param in
+     * @return list&lt;application&gt;
+     * @throws IOException
+     */
+    public static List<Application> readApplications(InputStream in) throws IOException {
+        Reader r = new Reader(in, APPLICATIONS);
+        List<Application> list = new ArrayList<>(r.count);
+        for (int i = 0; i < r.count; i++) list.add(r.application());
+        r.finish();
+        return list;
+    }
+
+    /**
+     * @param in
+     * @return list&lt;withdrawalrequest&gt;
+     * @throws IOException
+     */
+    public static List<WithdrawalRequest> readWithdrawals(InputStream in) throws IOException {
+        Reader r = new Reader(in, WITHDRAWALS);
+        List<WithdrawalRequest> list = new ArrayList<>(r.count);
+        for (int i = 0; i < r.count; i++) list.add(r.withdrawal());
+        r.finish();
+        return list;
+    }
+
+    /**
+     * encodes straight into its own buffer, handed to the target whenever it fills, rather than
+     * byte by byte through stream layers; a file is one long run of small varints and strings.
+     */
+    private static final class Writer {
+        private final OutputStream target;
+        private final byte[] buf = new byte[1 << 16];
+        private int pos;
+        private final Map<Object, Integer> handles;
+
+        Writer(OutputStream target, byte kind, int count) throws IOException {
+            this.target = target;
+            this.handles = new IdentityHashMap<>(Math.max(32, count * 2));
+            bytes(MAGIC);
+            varint(VERSION);
+            byteValue(kind);
+            varint(count);
+        }
+
+        void flush() throws IOException {
+            target.write(buf, 0, pos);
+            pos = 0;
+            target.flush();
+        }
+
+        /**
+         * @param n bytes about to be written, at most the buffer size
+         * @throws IOException
+         */
+        void room(int n) throws IOException {
+            if (pos + n > buf.length) {
+                target.write(buf, 0, pos);
+                pos = 0;
+            }
+        }
+
+        void byteValue(int b) throws IOException {
+            room(1);
+            buf[pos++] = (byte) b;
+        }
+
+        void bool(boolean b) throws IOException {
+            byteValue(b ? 1 : 0);
+        }
+
+        void bytes(byte[] b) throws IOException {
+            if (b.length > buf.length) {
+                room(buf.length);
+                target.write(b);
+                return;
+            }
+            room(b.length);
+            System.arraycopy(b, 0, buf, pos, b.length);
+            pos += b.length;
+        }
+
+        /**
+         * writes the reference tag and reports whether the body still has to follow.
+         * @param o
+         * @return boolean
+         */
+        boolean inline(Object o) throws IOException {
+            if (o == null) {
+                varint(REF_NULL);
+                return false;
+            }
+            Integer h = handles.get(o);
+            if (h != null) {
+                varint(h + 2);
+                return false;
+            }
+            handles.put(o, handles.size());
+            varint(REF_INLINE);
+            return true;
+        }
+
+        void user(User u) throws IOException {
+            if (!inline(u)) return;
+
+            if (u instanceof Student s) {
+                varint(TYPE_STUDENT);
+                userFields(u);
+                enumValue(s.getMajor());
+                varint(s.getYearOfStudy());
+                varint(s.getApplications().size());
+                for (Application a : s.getApplications()) application(a);
+                application(s.getAcceptedApplication());
+                counts(s.getCounts());
+            } else if (u instanceof CompanyRepresentative cr) {
+                varint(TYPE_REP);
+                userFields(u);
+                string(cr.getCompanyName());
+                string(cr.getDepartment());
+                string(cr.getPosition());
+                enumValue(cr.getStatus());
+                varint(cr.activeListings());
+            } else if (u instanceof CareerCenterStaff cs) {
+                varint(TYPE_STAFF);
+                userFields(u);
+                string(cs.getStaffDepartment());
+            } else {
+                throw new IOException("unsupported user type: " + u.getClass().getName());
+            }
+        }
+
+        void userFields(User u) throws IOException {
+            string(u.getId());
+            string(u.getName());
+            string(u.password());
+            bool(u.isFirstLogin());
+        }
+
+        void opportunity(InternshipOpportunity o) throws IOException {
+            if (!inline(o)) return;
+
+            string(o.getId());
+            string(o.getTitle());
+            string(o.getDescription());
+            enumValue(o.getLevel());
+            enumValue(o.getPreferredMajor());
+            date(o.getOpenDate());
+            date(o.getCloseDate());
+            string(o.getCompanyName());
+            varint(o.getSlots());
+            varint(o.getConfirmedSlots());
+            enumValue(o.getStatus());
+            bool(o.isVisible());
+            counts(o.getCounts());
+            user(o.getRepInCharge());
+        }
+
+        void counts(ApplicationCounts c) throws IOException {
+            bool(c != null);
+            if (c == null) return;
+            varint(c.getPending());
+            varint(c.getSuccessful());
+            varint(c.getAccepted());
+            varint(c.getWithdrawn());
+        }
+
+        void application(Application a) throws IOException {
+            if (!inline(a)) return;
+
+            string(a.getId());
+            user(a.getStudent());
+            opportunity(a.getOpportunity());
+            enumValue(a.getStatus());
+            date(a.getAppliedAt());
+            date(a.getDecisionAt());
+            bool(a.isAccepted());
+            varint(a.getStudentRank());
+            varint(a.getRepRank());
+        }
+
+        void withdrawal(WithdrawalRequest r) throws IOException {
+            if (!inline(r)) return;
+
+            string(r.getId());
+            application(r.getApplication());
+            user(r.getRequestedBy());
+            date(r.getRequestedAt());
+            enumValue(r.getStatus());
+            user(r.getReviewedBy());
+            date(r.getReviewedAt());
+        }
+
+        /**
+         * ascii strings, nearly all of them, are copied char by char without an intermediate array.
+         * @param s
+         * @throws IOException
+         */
+        void string(String s) throws IOException {
+            if (s == null) {
+                varint(0);
+                return;
+            }
+            int n = s.length();
+            if (n + 5 <= buf.length && isAscii(s, n)) {
+                room(n + 5);
+                varint(n + 1);
+                for (int i = 0; i < n; i++) buf[pos++] = (byte) s.charAt(i);
+                return;
+            }
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            varint(bytes.length + 1);
+            bytes(bytes);
+        }
+
+        static boolean isAscii(String s, int n) {
+            for (int i = 0; i < n; i++) if (s.charAt(i) >= 0x80) return false;
+            return true;
+        }
+
+        void enumValue(Enum<?> e) throws IOException {
+            varint(e == null ? 0 : e.ordinal() + 1);
+        }
+
+        void date(LocalDate d) throws IOException {
+            if (d == null) {
+                varint(0);
+                return;
+            }
+            long day = d.toEpochDay();
+            varlong(((day << 1) ^ (day >> 63)) + 1);
+        }
+
+        void varint(int v) throws IOException {
+            varlong(v & 0xffffffffL);
+        }
+
+        void varlong(long v) throws IOException {
+            room(10);
+            while ((v & ~0x7fL) != 0) {
+                buf[pos++] = (byte) ((v & 0x7f) | 0x80);
+                v >>>= 7;
+            }
+            buf[pos++] = (byte) v;
+        }
+    }
+
+    private static final class Reader {
+        private final DataInputStream in;
+        private final List<Object> handles = new ArrayList<>();
+        private final Map<Integer, List<Consumer<Object>>> deferred = new HashMap<>();
+        private final int version;
+        private final int count;
+
+        Reader(InputStream source, byte kind) throws IOException {
+            this.in = new DataInputStream(source instanceof BufferedInputStream ? source : new BufferedInputStream(source, 1 << 16));
+            byte[] magic = new byte[MAGIC.length];
+            in.readFully(magic);
+            if (!Arrays.equals(magic, MAGIC)) throw new IOException("not an ipms data file");
+
+            this.version = varint();
+            if (version < 1 || version > VERSION) throw new IOException("unsupported format version " + version);
+
+            byte actual = in.readByte();
+            if (actual != kind) throw new IOException("expected list kind " + kind + " but found " + actual);
+            this.count = varint();
+        }
+
+        void finish() throws IOException {
+            if (!deferred.isEmpty()) throw new IOException("dangling back-reference in data file");
+        }
+
+        /**
+         * @return int handle slot for the inline record about to be read
+         */
+        int reserve() {
+            handles.add(null);
+            return handles.size() - 1;
+        }
+
+        void bind(int slot, Object o) {
+            handles.set(slot, o);
+            List<Consumer<Object>> waiting = deferred.remove(slot);
+            if (waiting != null) waiting.forEach(c -> c.accept(o));
+        }
+
+        Object backRef(int tag) throws IOException {
+            int slot = tag - 2;
+            if (slot < 0 || slot >= handles.size()) throw new IOException("bad back-reference " + slot);
+            Object o = handles.get(slot);
+            if (o == null) throw new IOException("back-reference to an unfinished record " + slot);
+            return o;
+        }
+
+        User user() throws IOException {
+            int tag = varint();
+            if (tag == REF_NULL) return null;
+            if (tag != REF_INLINE) return (User) backRef(tag);
+
+            int slot = reserve();
+            int type = varint();
+            String id = string();
+            String name = string();
+            String password = string();
+            boolean firstLogin = in.readBoolean();
+
+            User u;
+            switch (type) {
+                case TYPE_STUDENT -> {
+                    Major major = enumValue(MAJORS);
+                    int year = varint();
+                    Student s = new Student(id, name, year, major);
+                    bind(slot, s);
+                    int apps = varint();
+                    for (int i = 0; i < apps; i++) deferredApplication(s::_addApplication);
+                    deferredApplication(s::_setAcceptedApplication);
+                    s.setCounts(counts());
+                    u = s;
+                }
+                case TYPE_REP -> {
+                    String company = string();
+                    String department = string();
+                    String position = string();
+                    AccountStatus status = enumValue(ACCOUNT_STATUS);
+                    CompanyRepresentative cr = new CompanyRepresentative(id, name, company, department, position, status);
+                    cr.restoreActiveListings(varint());
+                    u = cr;
+                }
+                case TYPE_STAFF -> u = new CareerCenterStaff(id, name, string());
+                default -> throw new IOException("unknown user type " + type);
+            }
+            u.restoreCredentials(password, firstLogin);
+            bind(slot, u);
+            return u;
+        }
+
+        /**
+         * a student's applications point back at the student, so a student decoded from inside
+         * one of its own applications sees that application before it exists; such links are
+         * filled in once the application has been bound.
+         */
+        void deferredApplication(Consumer<Application> sink) throws IOException {
+            int tag = varint();
+            if (tag == REF_NULL) return;
+            if (tag == REF_INLINE) {
+                sink.accept(applicationBody());
+                return;
+            }
+            int slot = tag - 2;
+            if (slot < 0 || slot >= handles.size()) throw new IOException("bad back-reference " + slot);
+            Object o = handles.get(slot);
+            if (o != null) {
+                sink.accept((Application) o);
+            } else {
+                deferred.computeIfAbsent(slot, k -> new ArrayList<>()).add(x -> sink.accept((Application) x));
+            }
+        }
+
+        InternshipOpportunity opportunity() throws IOException {
+            int tag = varint();
+            if (tag == REF_NULL) return null;
+            if (tag != REF_INLINE) return (InternshipOpportunity) backRef(tag);
+
+            int slot = reserve();
+            String id = string();
+            String title = string();
+            String description = string();
+            InternshipLevel level = enumValue(LEVELS);
+            Major major = enumValue(MAJORS);
+            LocalDate open = date();
+            LocalDate close = date();
+            String company = string();
+            int slots = varint();
+            int confirmed = varint();
+            OpportunityStatus status = enumValue(OPP_STATUS);
+            boolean visible = in.readBoolean();
+            ApplicationCounts counts = counts();
+
+            InternshipOpportunity o = new InternshipOpportunity(id, title, description, level, major, open, close, company, slots, null);
+            o.setConfirmedSlots(confirmed);
+            o.setStatus(status);
+            o.setVisibility(visible);
+            o.setCounts(counts);
+            bind(slot, o);
+            o.setRepInCharge((CompanyRepresentative) user());
+            return o;
+        }
+
+        Application application() throws IOException {
+            int tag = varint();
+            if (tag == REF_NULL) return null;
+            if (tag != REF_INLINE) return (Application) backRef(tag);
+            return applicationBody();
+        }
+
+        Application applicationBody() throws IOException {
+            int slot = reserve();
+            String id = string();
+            Student student = (Student) user();
+            InternshipOpportunity opp = opportunity();
+            ApplicationStatus status = enumValue(APP_STATUS);
+            LocalDate appliedAt = date();
+            LocalDate decisionAt = date();
+            boolean accepted = in.readBoolean();
+
+            Application a = new Application(id, student, opp, status, appliedAt, decisionAt, accepted);
+            a.setStudentRank(varint());
+            a.setRepRank(varint());
+            bind(slot, a);
+            return a;
+        }
+
+        WithdrawalRequest withdrawal() throws IOException {
+            int tag = varint();
+            if (tag == REF_NULL) return null;
+            if (tag != REF_INLINE) return (WithdrawalRequest) backRef(tag);
+
+            int slot = reserve();
+            String id = string();
+            Application app = application();
+            Student requestedBy = (Student) user();
+            LocalDate requestedAt = date();
+            WithdrawalStatus status = enumValue(WR_STATUS);
+            CareerCenterStaff reviewedBy = (CareerCenterStaff) user();
+            LocalDate reviewedAt = date();
+
+            WithdrawalRequest r = new WithdrawalRequest(id, app, requestedBy, requestedAt, status, reviewedBy, reviewedAt);
+            bind(slot, r);
+            return r;
+        }
+
+        /**
+         * @return ApplicationCounts null when the file predates the counters or they were unknown
+         */
+        ApplicationCounts counts() throws IOException {
+            if (version < 2 || !in.readBoolean()) return null;
+            return new ApplicationCounts(varint(), varint(), varint(), varint());
+        }
+
+        String string() throws IOException {
+            int len = varint();
+            if (len == 0) return null;
+            byte[] bytes = new byte[len - 1];
+            in.readFully(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        <E extends Enum<E>> E enumValue(E[] values) throws IOException {
+            int v = varint();
+            if (v == 0) return null;
+            if (v > values.length) throw new IOException("unknown " + values[0].getDeclaringClass().getSimpleName() + " ordinal " + (v - 1));
+            return values[v - 1];
+        }
+
+        LocalDate date() throws IOException {
+            long v = varlong();
+            if (v == 0) return null;
+            long zz = v - 1;
+            return LocalDate.ofEpochDay((zz >>> 1) ^ -(zz & 1));
+        }
+
+        int varint() throws IOException {
+            return (int) varlong();
+        }
+
+        long varlong() throws IOException {
+            long v = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = in.read();
+                if (b < 0) throw new EOFException("truncated data file");
+                v |= (long) (b & 0x7f) << shift;
+                if ((b & 0x80) == 0) return v;
+            }
+            throw new IOException("malformed varint");
+        }
+    }
+}
@@ -0,0 +1,314 @@
+package entity;
+
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import enumerations.AccountStatus;
+import enumerations.ApplicationStatus;
+import enumerations.InternshipLevel;
+import enumerations.Major;
+import enumerations.OpportunityStatus;
+import enumerations.WithdrawalStatus;
+
+/**
+ * relational layout of the saved entity lists, one table per list with a column per field.
+ * references between entities are stored as ids, enums by name, dates as iso strings and flags
+ * as 0/1, so the tables read the same on any embedded sql engine. the first column of every
+ * table is its id. a student's applications are the application rows that name the student,
+ * so applications removed from the list (archived) no longer show up on the student.
+ */
+public final class EntityTables {
+    public static final Table USERS = new Table("users", List.of(
+            col("id", Types.VARCHAR), col("type", Types.VARCHAR), col("name", Types.VARCHAR),
+            col("password", Types.VARCHAR), col("first_login", Types.INTEGER),
+            col("major", Types.VARCHAR), col("year_of_study", Types.INTEGER),
+            col("accepted_application_id", Types.VARCHAR),
+            col("company_name", Types.VARCHAR), col("department", Types.VARCHAR), col("position", Types.VARCHAR),
+            col("status", Types.VARCHAR), col("active_listings", Types.INTEGER),
+            col("pending", Types.INTEGER), col("successful", Types.INTEGER),
+            col("accepted", Types.INTEGER), col("withdrawn", Types.INTEGER)),
+            List.of("type", "company_name"));
+
+    public static final Table OPPORTUNITIES = new Table("opportunities", List.of(
+            col("id", Types.VARCHAR), col("title", Types.VARCHAR), col("description", Types.VARCHAR),
+            col("level", Types.VARCHAR), col("preferred_major", Types.VARCHAR),
+            col("open_date", Types.VARCHAR), col("close_date", Types.VARCHAR),
+            col("company_name", Types.VARCHAR), col("slots", Types.INTEGER), col("confirmed_slots", Types.INTEGER),
+            col("status", Types.VARCHAR), col("visible", Types.INTEGER), col("rep_id", Types.VARCHAR),
+            col("pending", Types.INTEGER), col("successful", Types.INTEGER),
+            col("accepted", Types.INTEGER), col("withdrawn", Types.INTEGER)),
+            List.of("company_name", "status", "rep_id"));
+
+    public static final Table APPLICATIONS = new Table("applications", List.of(
+            col("id", Types.VARCHAR), col("student_id", Types.VARCHAR), col("opportunity_id", Types.VARCHAR),
+            col("status", Types.VARCHAR), col("applied_at", Types.VARCHAR), col("decision_at", Types.VARCHAR),
+            col("accepted", Types.INTEGER), col("student_rank", Types.INTEGER), col("rep_rank", Types.INTEGER)),
+            List.of("student_id", "opportunity_id", "status"));
+
+    public static final Table WITHDRAWALS = new Table("withdrawals", List.of(
+            col("id", Types.VARCHAR), col("application_id", Types.VARCHAR), col("student_id", Types.VARCHAR),
+            col("requested_at", Types.VARCHAR), col("status", Types.VARCHAR),
+            col("reviewed_by", Types.VARCHAR), col("reviewed_at", Types.VARCHAR)),
+            List.of("application_id", "status"));
+
+    public static final List<Table> ALL = List.of(USERS, OPPORTUNITIES, APPLICATIONS, WITHDRAWALS);
+
+    private EntityTables() {}
+
+    /**
+     * @param name
+     * @param sqlType from {@link Types}
+     */
+    public record Column(String name, int sqlType) { }
+
+    /**
+     * @param name
+     * @param columns id first
+     * @param indexed columns given their own index
+     */
+    public record Table(String name, List<Column> columns, List<String> indexed) {
+
+        /**
+         * @return list&lt;string&gt; create statements for the table and its indexes
+         */
+        public List<String> ddl() {
+            List<String> statements = new ArrayList<>();
+            StringBuilder sb = new StringBuilder("CREATE TABLE IF NOT EXISTS ").append(name).append(" (");
+            for (Column c : columns) {
+                sb.append(c.name()).append(c.sqlType() == Types.INTEGER ? " INTEGER" : " VARCHAR(4000)");
+                sb.append(c == columns.get(0) ? " PRIMARY KEY, " : ", ");
+            }
+            statements.add(sb.substring(0, sb.length() - 2) + ")");
+            for (String col : indexed) {
+                statements.add("CREATE INDEX IF NOT EXISTS " + name + "_" + col + " ON " + name + " (" + col + ")");
+            }
+            return statements;
+        }
+    }
+
+    private static Column col(String name, int sqlType) {
+        return new Column(name, sqlType);
+    }
+
+    /**
+     * @param users
+     * @return list&lt;object[]&gt; one row per user, in {@link #USERS} column order
+     */
+    public static List<Object[]> userRows(List<? extends User> users) {
+        List<Object[]> rows = new ArrayList<>(users.size());
+        for (User u : users) {
+            Object[] r = new Object[USERS.columns().size()];
+            r[0] = u.getId();
+            r[2] = u.getName();
+            r[3] = u.password();
+            r[4] = flag(u.isFirstLogin());
+            if (u instanceof Student s) {
+                r[1] = "student";
+                r[5] = name(s.getMajor());
+                r[6] = s.getYearOfStudy();
+                r[7] = s.getAcceptedApplication() == null ? null : s.getAcceptedApplication().getId();
+                counts(r, 13, s.getCounts());
+            } else if (u instanceof CompanyRepresentative cr) {
+                r[1] = "rep";
+                r[8] = cr.getCompanyName();
+                r[9] = cr.getDepartment();
+                r[10] = cr.getPosition();
+                r[11] = name(cr.getStatus());
+                r[12] = cr.activeListings();
+            } else if (u instanceof CareerCenterStaff cs) {
+                r[1] = "staff";
+                r[9] = cs.getStaffDepartment();
+            } else {
+                throw new IllegalArgumentException("unsupported user type: " + u.getClass().getName());
+            }
+            rows.add(r);
+        }
+        return rows;
+    }
+
+    /**
+     * @param opportunities
+     * @return list&lt;object[]&gt; in {@link #OPPORTUNITIES} column order
+     */
+    public static List<Object[]> opportunityRows(List<InternshipOpportunity> opportunities) {
+        List<Object[]> rows = new ArrayList<>(opportunities.size());
+        for (InternshipOpportunity o : opportunities) {
+            Object[] r = new Object[OPPORTUNITIES.columns().size()];
+            r[0] = o.getId();
+            r[1] = o.getTitle();
+            r[2] = o.getDescription();
+            r[3] = name(o.getLevel());
+            r[4] = name(o.getPreferredMajor());
+            r[5] = date(o.getOpenDate());
+            r[6] = date(o.getCloseDate());
+            r[7] = o.getCompanyName();
+            r[8] = o.getSlots();
+            r[9] = o.getConfirmedSlots();
+            r[10] = name(o.getStatus());
+            r[11] = flag(o.isVisible());
+            r[12] = o.getRepInCharge() == null ? null : o.getRepInCharge().getId();
+            counts(r, 13, o.getCounts());
+            rows.add(r);
+        }
+        return rows;
+    }
+
+    /**
+     * @param applications
+     * @return list&lt;object[]&gt; in {@link #APPLICATIONS} column order
+     */
+    public static List<Object[]> applicationRows(List<Application> applications) {
+        List<Object[]> rows = new ArrayList<>(applications.size());
+        for (Application a : applications) {
+            rows.add(new Object[] {
+                    a.getId(),
+                    a.getStudent() == null ? null : a.getStudent().getId(),
+                    a.getOpportunity() == null ? null : a.getOpportunity().getId(),
+                    name(a.getStatus()), date(a.getAppliedAt()), date(a.getDecisionAt()),
+                    flag(a.isAccepted()), a.getStudentRank(), a.getRepRank() });
+        }
+        return rows;
+    }
+
+    /**
+     * @param requests
+     * @return list&lt;object[]&gt; in {@link #WITHDRAWALS} column order
+     */
+    public static List<Object[]> withdrawalRows(List<WithdrawalRequest> requests) {
+        List<Object[]> rows = new ArrayList<>(requests.size());
+        for (WithdrawalRequest w : requests) {
+            rows.add(new Object[] {
+                    w.getId(),
+                    w.getApplication() == null ? null : w.getApplication().getId(),
+                    w.getRequestedBy() == null ? null : w.getRequestedBy().getId(),
+                    date(w.getRequestedAt()), name(w.getStatus()),
+                    w.getReviewedBy() == null ? null : w.getReviewedBy().getId(),
+                    date(w.getReviewedAt()) });
+        }
+        return rows;
+    }
+
+    /**
+     * the four lists rebuilt from their rows, sharing one instance per id across lists.
+     */
+    public record Graph(List<User> users, List<InternshipOpportunity> opportunities,
+                        List<Application> applications, List<WithdrawalRequest> withdrawals) { }
+
+    /**
+     * @param users rows in {@link #USERS} column order
+     * @param opportunities
+     * @param applications
+     * @param withdrawals
+     * @return Graph
+     */
+    public static Graph assemble(List<Object[]> users, List<Object[]> opportunities,
+                                 List<Object[]> applications, List<Object[]> withdrawals) {
+        Map<String, User> usersById = new HashMap<>();
+        Map<String, String> acceptedIds = new HashMap<>();
+        List<User> userList = new ArrayList<>(users.size());
+        for (Object[] r : users) {
+            String id = (String) r[0];
+            User u = switch ((String) r[1]) {
+                case "student" -> {
+                    Student s = new Student(id, (String) r[2], integer(r[6]), value(Major.class, r[5]));
+                    s.setCounts(counts(r, 13));
+                    if (r[7] != null) acceptedIds.put(id, (String) r[7]);
+                    yield s;
+                }
+                case "rep" -> {
+                    CompanyRepresentative cr = new CompanyRepresentative(id, (String) r[2], (String) r[8],
+                            (String) r[9], (String) r[10], value(AccountStatus.class, r[11]));
+                    cr.restoreActiveListings(integer(r[12]));
+                    yield cr;
+                }
+                case "staff" -> new CareerCenterStaff(id, (String) r[2], (String) r[9]);
+                default -> throw new IllegalArgumentException("unknown user type " + r[1]);
+            };
+            u.restoreCredentials((String) r[3], integer(r[4]) != 0);
+            usersById.put(id, u);
+            userList.add(u);
+        }
+
+        Map<String, InternshipOpportunity> oppsById = new HashMap<>();
+        List<InternshipOpportunity> oppList = new ArrayList<>(opportunities.size());
+        for (Object[] r : opportunities) {
+            InternshipOpportunity o = new InternshipOpportunity((String) r[0], (String) r[1], (String) r[2],
+                    value(InternshipLevel.class, r[3]), value(Major.class, r[4]), date(r[5]), date(r[6]),
+                    (String) r[7], integer(r[8]), null);
+            o.setConfirmedSlots(integer(r[9]));
+            o.setStatus(value(OpportunityStatus.class, r[10]));
+            o.setVisibility(integer(r[11]) != 0);
+            o.setCounts(counts(r, 13));
+            o.setRepInCharge(usersById.get((String) r[12]) instanceof CompanyRepresentative cr ? cr : null);
+            oppsById.put(o.getId(), o);
+            oppList.add(o);
+        }
+
+        Map<String, Application> appsById = new HashMap<>();
+        List<Application> appList = new ArrayList<>(applications.size());
+        for (Object[] r : applications) {
+            Student s = usersById.get((String) r[1]) instanceof Student st ? st : null;
+            Application a = new Application((String) r[0], s, oppsById.get((String) r[2]),
+                    value(ApplicationStatus.class, r[3]), date(r[4]), date(r[5]), integer(r[6]) != 0);
+            a.setStudentRank(integer(r[7]));
+            a.setRepRank(integer(r[8]));
+            if (s != null) s._addApplication(a);
+            appsById.put(a.getId(), a);
+            appList.add(a);
+        }
+        acceptedIds.forEach((studentId, appId) -> ((Student) usersById.get(studentId))._setAcceptedApplication(appsById.get(appId)));
+
+        List<WithdrawalRequest> wrList = new ArrayList<>(withdrawals.size());
+        for (Object[] r : withdrawals) {
+            wrList.add(new WithdrawalRequest((String) r[0], appsById.get((String) r[1]),
+                    usersById.get((String) r[2]) instanceof Student s ? s : null, date(r[3]),
+                    value(WithdrawalStatus.class, r[4]),
+                    usersById.get((String) r[5]) instanceof CareerCenterStaff cs ? cs : null, date(r[6])));
+        }
+        return new Graph(userList, oppList, appList, wrList);
+    }
+
+    private static void counts(Object[] r, int at, ApplicationCounts c) {
+        if (c == null) return;
+        r[at] = c.getPending();
+        r[at + 1] = c.getSuccessful();
+        r[at + 2] = c.getAccepted();
+        r[at + 3] = c.getWithdrawn();
+    }
+
+    /**
+     * @return ApplicationCounts null when the row has none, as for a list saved before counters were kept
+     */
+    private static ApplicationCounts counts(Object[] r, int at) {
+        if (r[at] == null) return null;
+        return new ApplicationCounts(integer(r[at]), integer(r[at + 1]), integer(r[at + 2]), integer(r[at + 3]));
+    }
+
+    private static Integer flag(boolean b) {
+        return b ? 1 : 0;
+    }
+
+    private static int integer(Object o) {
+        return o == null ? 0 : ((Number) o).intValue();
+    }
+
+    private static String name(Enum<?> e) {
+        return e == null ? null : e.name();
+    }
+
+    private static <E extends Enum<E>> E value(Class<E> type, Object name) {
+        return name == null ? null : Enum.valueOf(type, (String) name);
+    }
+
+    private static String date(LocalDate d) {
+        return d == null ? null : d.toString();
+    }
+
+    private static LocalDate date(Object s) {
+        return s == null ? null : LocalDate.parse((String) s);
+    }
+}
@@ -21,6 +21,7 @@ public class InternshipOpportunity implements Serializable {
     private int slots;                         
     private int confirmedSlots;               
     private CompanyRepresentative repInCharge; 
+    private ApplicationCounts counts = new ApplicationCounts();
 
     public InternshipOpportunity(String id, String title, String description, InternshipLevel level, Major preferredMajor, LocalDate openDate, LocalDate closeDate, String companyName, int slots, CompanyRepresentative repInCharge) {
         this.id = id;
@@ -263,6 +264,20 @@ public class InternshipOpportunity implements Serializable {
         this.confirmedSlots = confirmedSlots;
     }
 
+    /**
+     * @return ApplicationCounts null when loaded from a file saved before counters were kept
+     */
+    public ApplicationCounts getCounts() {
+        return counts;
+    }
+
+    /**
+     * @param counts
+     */
+    public void setCounts(ApplicationCounts counts) {
+        this.counts = counts;
+    }
+
     @Override
     public String toString() {
         return String.format("[%s] %s (%s) - %s | Slots: %d/%d | Status: %s",
@@ -1,16 +1,19 @@
 package entity;
 
-import enumerations.ApplicationStatus;
 import enumerations.Major;
 
 import java.util.ArrayList;
 import java.util.List;
 
 public class Student extends User {
+    private static final long serialVersionUID = -6510136436627626425L;
+    public static final int MAX_ACTIVE_APPLICATIONS = 3;
+
     private final int yearOfStudy;              
     private Major major;                  
     private final List<Application> applications = new ArrayList<>();
     private Application acceptedApplication;   
+    private ApplicationCounts counts = new ApplicationCounts();
 
     public Student(String id, String name, int yearOfStudy, Major major) {
         super(id, name);
@@ -38,11 +41,25 @@ public class Student extends User {
         this.acceptedApplication = app; 
     }
 
+    /** 
+     * @return ApplicationCounts null when loaded from a file saved before counters were kept
+     */
+    public ApplicationCounts getCounts() {
+        return counts;
+    }
+
+    /** 
+     * @param counts
+     */
+    public void setCounts(ApplicationCounts counts) {
+        this.counts = counts;
+    }
+
     /** 
      * @return boolean
      */
     public boolean hasCapacityForNewApplication() {
-        return activeApplicationsCount() < 3;
+        return activeApplicationsCount() < MAX_ACTIVE_APPLICATIONS;
     }
 
     /** 
@@ -69,9 +86,7 @@ public class Student extends User {
      * @return int
      */
     private int activeApplicationsCount() {
-        int c = 0;
-        for (Application a : applications) if (a.getStatus() == ApplicationStatus.PENDING) c++;
-        return c;
+        return counts == null ? 0 : counts.getActive();
     }
 
     /** 
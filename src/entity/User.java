@@ -84,6 +84,22 @@ public abstract class User implements Serializable {
         return true;
     }
 
+    /** 
+     * @return String
+     */
+    String password() {
+        return password;
+    }
+
+    /** 
+     * @param password
+     * @param firstLogin
+     */
+    void restoreCredentials(String password, boolean firstLogin) {
+        this.password = Objects.requireNonNull(password);
+        this.firstLogin = firstLogin;
+    }
+
     /** 
      * @return boolean
      */
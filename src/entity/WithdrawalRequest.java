@@ -23,6 +23,17 @@ public class WithdrawalRequest implements Serializable {
         this.status = WithdrawalStatus.PENDING;   
     }
 
+    WithdrawalRequest(String id, Application application, Student requestedBy, LocalDate requestedAt,
+                      WithdrawalStatus status, CareerCenterStaff reviewedBy, LocalDate reviewedAt) {
+        this.id = id;
+        this.application = application;
+        this.requestedBy = requestedBy;
+        this.requestedAt = requestedAt;
+        this.status = status;
+        this.reviewedBy = reviewedBy;
+        this.reviewedAt = reviewedAt;
+    }
+
     /** 
      * @param staff
      * @param approve
@@ -0,0 +1,7 @@
+package event;
+
+import entity.Application;
+import enumerations.ApplicationStatus;
+
+public record ApplicationDecided(Application application, ApplicationStatus previousStatus, boolean approved) implements DomainEvent {
+}
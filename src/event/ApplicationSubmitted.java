@@ -0,0 +1,6 @@
+package event;
+
+import entity.Application;
+
+public record ApplicationSubmitted(Application application) implements DomainEvent {
+}
@@ -0,0 +1,7 @@
+package event;
+
+import entity.Application;
+import enumerations.ApplicationStatus;
+
+public record ApplicationWithdrawn(Application application, ApplicationStatus previousStatus, boolean wasAccepted) implements DomainEvent {
+}
@@ -0,0 +1,7 @@
+package event;
+
+/**
+ * marker for state changes published by the control services onto the {@link EventBus}.
+ */
+public interface DomainEvent {
+}
@@ -0,0 +1,290 @@
+package event;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * in-process publisher for {@link DomainEvent}s.
+ * synchronous subscribers run on the publishing thread before {@link #publish} returns.
+ * asynchronous subscribers are fed from a bounded lock-free ring buffer, one event at a time in
+ * publish order. the ring is drained by a task on a small pool of daemon dispatcher threads shared
+ * by every bus in the process, scheduled while events are waiting, so a bus holds no thread of its own.
+ * when the ring is full the publisher waits for room rather than dropping the event or overtaking
+ * the ones queued before it; only a subscriber publishing from the dispatcher itself, which would
+ * wait forever, is delivered inline. readers of state kept by async subscribers call
+ * {@link #awaitDelivered} first to see their own writes.
+ * both waits give up after {@link #STALL_MILLIS} and report it, and give up at once while no event
+ * has been delivered since, so a stuck subscriber cannot hang every caller. {@link #close} drops the subscribers and whatever is still queued.
+ */
+public class EventBus {
+    public static final long STALL_MILLIS = 10_000;
+
+    private static final int DEFAULT_CAPACITY = 1024;
+    private static final long WAIT_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final int DISPATCHER_THREADS = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+    private static ExecutorService dispatchers;
+
+    private final List<Subscription<?>> syncSubscribers = new CopyOnWriteArrayList<>();
+    private final List<Subscription<?>> asyncSubscribers = new CopyOnWriteArrayList<>();
+
+    private final AtomicReferenceArray<DomainEvent> ring;
+    private final AtomicLongArray sequence;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private volatile long completed;
+    private volatile long stalledAt = -1;
+
+    private volatile Thread dispatcher;
+    private volatile boolean closed;
+
+    public EventBus() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public EventBus(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be positive");
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        if (size <= 0) size = 1;
+        this.ring = new AtomicReferenceArray<>(size);
+        this.sequence = new AtomicLongArray(size);
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) sequence.set(i, i);
+    }
+
+    /**
+     * @param type
+     * @param listener
+     */
+    public <E extends DomainEvent> void subscribe(Class<E> type, Consumer<? super E> listener) {
+        if (closed) throw new IllegalStateException("event bus is closed");
+        syncSubscribers.add(new Subscription<>(type, listener));
+    }
+
+    /**
+     * @param type
+     * @param listener
+     */
+    public <E extends DomainEvent> void subscribeAsync(Class<E> type, Consumer<? super E> listener) {
+        if (closed) throw new IllegalStateException("event bus is closed");
+        asyncSubscribers.add(new Subscription<>(type, listener));
+    }
+
+    /**
+     * @param event
+     */
+    public void publish(DomainEvent event) {
+        Objects.requireNonNull(event, "event must not be null");
+        deliver(syncSubscribers, event);
+
+        if (asyncSubscribers.isEmpty() || closed) return;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(STALL_MILLIS);
+        while (!offer(event)) {
+            if (Thread.currentThread() == dispatcher) {
+                deliver(asyncSubscribers, event);
+                return;
+            }
+            if (closed) return;
+            if (stalled() || System.nanoTime() >= deadline) {
+                stalledAt = completed;
+                System.err.println("event bus stalled: " + event.getClass().getSimpleName()
+                        + " was not delivered to asynchronous subscribers");
+                return;
+            }
+            schedule();
+            LockSupport.parkNanos(WAIT_NANOS);
+        }
+        schedule();
+    }
+
+    /**
+     * blocks until every event published so far has been handed to the async subscribers, for at
+     * most {@link #STALL_MILLIS}. returns at once on the dispatcher thread, which is the one
+     * delivering them, and on a closed bus.
+     * @return boolean false when it gave up waiting
+     */
+    public boolean awaitDelivered() {
+        if (asyncSubscribers.isEmpty() || Thread.currentThread() == dispatcher) return true;
+        if (!stalled() && awaitIdle(STALL_MILLIS)) return true;
+        stalledAt = completed;
+        System.err.println("event bus stalled: gave up waiting for " + getQueuedCount() + " queued events");
+        return false;
+    }
+
+    /**
+     * blocks until every event queued so far has been handed to the async subscribers.
+     * @param timeoutMillis
+     * @return boolean
+     */
+    public boolean awaitIdle(long timeoutMillis) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        long target = tail.get();
+        while (completed < target && !closed) {
+            if (System.nanoTime() >= deadline) return false;
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+        }
+        return true;
+    }
+
+    /**
+     * @return boolean true while nothing has been delivered since a wait last gave up, so the
+     *         next wait gives up at once instead of stalling its caller again
+     */
+    private boolean stalled() {
+        return stalledAt == completed && getQueuedCount() > 0;
+    }
+
+    /**
+     * @return int
+     */
+    public int getQueuedCount() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+
+    /**
+     * stops delivering to async subscribers and lets go of every subscriber, so whatever they hold
+     * can be collected. events still queued are dropped; later publishes reach no one.
+     */
+    public void close() {
+        closed = true;
+        syncSubscribers.clear();
+        asyncSubscribers.clear();
+    }
+
+    /**
+     * @return boolean
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * @param event
+     * @return boolean
+     */
+    private boolean offer(DomainEvent event) {
+        long pos = tail.get();
+        while (true) {
+            int idx = (int) (pos & mask);
+            long diff = sequence.get(idx) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    ring.set(idx, event);
+                    sequence.set(idx, pos + 1);
+                    return true;
+                }
+                pos = tail.get();
+            } else if (diff < 0) {
+                return false;
+            } else {
+                pos = tail.get();
+            }
+        }
+    }
+
+    /**
+     * @return DomainEvent
+     */
+    private DomainEvent poll() {
+        long pos = head.get();
+        int idx = (int) (pos & mask);
+        if (sequence.get(idx) != pos + 1) return null;
+
+        DomainEvent event = ring.get(idx);
+        ring.set(idx, null);
+        sequence.set(idx, pos + mask + 1);
+        head.set(pos + 1);
+        return event;
+    }
+
+    /**
+     * @return boolean true when the event at the head has been fully written
+     */
+    private boolean ready() {
+        long pos = head.get();
+        return sequence.get((int) (pos & mask)) == pos + 1;
+    }
+
+    /**
+     * hands the bus to a dispatcher thread unless one already has it.
+     */
+    private void schedule() {
+        if (closed || !ready() || !scheduled.compareAndSet(false, true)) return;
+        dispatchers().execute(this::drain);
+    }
+
+    /**
+     * every bus in the process shares one small pool of dispatcher threads.
+     * @return ExecutorService
+     */
+    private static synchronized ExecutorService dispatchers() {
+        if (dispatchers == null) {
+            dispatchers = Executors.newFixedThreadPool(DISPATCHER_THREADS, r -> {
+                Thread t = new Thread(r, "ipms-event-dispatcher");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        return dispatchers;
+    }
+
+    /**
+     * delivers until the ring is empty, then gives the bus back. an event that lands after the
+     * last poll but before the bus is given back is picked up by rescheduling, since its
+     * publisher may already have found the bus taken.
+     */
+    private void drain() {
+        dispatcher = Thread.currentThread();
+        try {
+            DomainEvent event;
+            while (!closed && (event = poll()) != null) {
+                deliver(asyncSubscribers, event);
+                completed = head.get();
+            }
+        } finally {
+            completed = head.get();
+            dispatcher = null;
+            scheduled.set(false);
+        }
+        schedule();
+    }
+
+    /**
+     * @param subscribers
+     * @param event
+     */
+    private static void deliver(List<Subscription<?>> subscribers, DomainEvent event) {
+        for (Subscription<?> s : subscribers) {
+            try {
+                s.accept(event);
+            } catch (RuntimeException e) {
+                System.err.println("Event listener failed on " + event.getClass().getSimpleName() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private static final class Subscription<E extends DomainEvent> {
+        private final Class<E> type;
+        private final Consumer<? super E> listener;
+
+        Subscription(Class<E> type, Consumer<? super E> listener) {
+            this.type = Objects.requireNonNull(type, "type must not be null");
+            this.listener = Objects.requireNonNull(listener, "listener must not be null");
+        }
+
+        void accept(DomainEvent event) {
+            if (type.isInstance(event)) listener.accept(type.cast(event));
+        }
+    }
+}
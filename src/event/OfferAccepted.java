@@ -0,0 +1,6 @@
+package event;
+
+import entity.Application;
+
+public record OfferAccepted(Application application) implements DomainEvent {
+}
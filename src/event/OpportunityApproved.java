@@ -0,0 +1,7 @@
+package event;
+
+import entity.CareerCenterStaff;
+import entity.InternshipOpportunity;
+
+public record OpportunityApproved(InternshipOpportunity opportunity, CareerCenterStaff approvedBy) implements DomainEvent {
+}
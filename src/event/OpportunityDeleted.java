@@ -0,0 +1,6 @@
+package event;
+
+import entity.InternshipOpportunity;
+
+public record OpportunityDeleted(InternshipOpportunity opportunity) implements DomainEvent {
+}
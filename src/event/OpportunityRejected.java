@@ -0,0 +1,7 @@
+package event;
+
+import entity.CareerCenterStaff;
+import entity.InternshipOpportunity;
+
+public record OpportunityRejected(InternshipOpportunity opportunity, CareerCenterStaff rejectedBy) implements DomainEvent {
+}
@@ -0,0 +1,6 @@
+package event;
+
+import entity.InternshipOpportunity;
+
+public record OpportunityUpdated(InternshipOpportunity opportunity) implements DomainEvent {
+}
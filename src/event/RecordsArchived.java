@@ -0,0 +1,11 @@
+package event;
+
+import java.util.List;
+
+import entity.Application;
+import entity.InternshipOpportunity;
+import entity.WithdrawalRequest;
+
+public record RecordsArchived(List<Application> applications, List<WithdrawalRequest> withdrawalRequests,
+                              List<InternshipOpportunity> opportunities) implements DomainEvent {
+}
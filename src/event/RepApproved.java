@@ -0,0 +1,7 @@
+package event;
+
+import entity.CareerCenterStaff;
+import entity.CompanyRepresentative;
+
+public record RepApproved(CompanyRepresentative rep, CareerCenterStaff approvedBy) implements DomainEvent {
+}
@@ -0,0 +1,6 @@
+package event;
+
+import entity.CompanyRepresentative;
+
+public record RepRegistered(CompanyRepresentative rep) implements DomainEvent {
+}
@@ -0,0 +1,7 @@
+package event;
+
+import entity.CareerCenterStaff;
+import entity.CompanyRepresentative;
+
+public record RepRejected(CompanyRepresentative rep, CareerCenterStaff rejectedBy) implements DomainEvent {
+}
@@ -0,0 +1,6 @@
+package event;
+
+import entity.WithdrawalRequest;
+
+public record WithdrawalRequested(WithdrawalRequest request) implements DomainEvent {
+}
@@ -0,0 +1,6 @@
+package event;
+
+import entity.WithdrawalRequest;
+
+public record WithdrawalReviewed(WithdrawalRequest request, boolean approved) implements DomainEvent {
+}
@@ -1,5 +1,13 @@
 package ui;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
 public final class ConsoleUI {
     public static final int WIDTH = 50;
 
@@ -64,4 +72,95 @@ public final class ConsoleUI {
     public static void repeat(char ch, int n) {
         for (int i = 0; i < n; i++) System.out.print(ch);
     }
-}
\ No newline at end of file
+
+    /** 
+     * @param input comma-separated ids, or "all"
+     * @param items
+     * @param idOf
+     * @return list&lt;t&gt; the selected items in input order, or null when an id is not listed
+     */
+    public static <T> List<T> selectByIds(String input, List<T> items, Function<T, String> idOf) {
+        if (input.trim().equalsIgnoreCase("all")) return new ArrayList<>(items);
+
+        Map<String, T> byId = new HashMap<>();
+        for (T item : items) byId.put(idOf.apply(item).toLowerCase(), item);
+
+        Set<T> selected = new LinkedHashSet<>();
+        for (String raw : input.split(",")) {
+            String id = raw.trim();
+            if (id.isEmpty()) continue;
+            T item = byId.get(id.toLowerCase());
+            if (item == null) {
+                System.out.println("✗ Invalid ID: " + id + ". Please try again.\n");
+                return null;
+            }
+            selected.add(item);
+        }
+        return new ArrayList<>(selected);
+    }
+
+    /**
+     * fixed-width text table that renders into one reusable buffer and reaches the console in a
+     * single write per page, instead of a formatted print (and, on an autoflushing console, a
+     * flush) per row. every cell is padded like {@code %-Ns} and separated by one space, so a
+     * row reads exactly as the equivalent {@code printf} line did.
+     */
+    public static final class Table {
+        private static final String NEWLINE = System.lineSeparator();
+        private static final char[] SPACES = " ".repeat(64).toCharArray();
+
+        private final int[] widths;
+        private final StringBuilder buf = new StringBuilder(4096);
+
+        /**
+         * @param widths minimum width of each column
+         */
+        public Table(int... widths) {
+            this.widths = widths.clone();
+        }
+
+        /**
+         * @param cells
+         * @return Table
+         */
+        public Table row(Object... cells) {
+            for (int c = 0; c < cells.length; c++) {
+                if (c > 0) buf.append(' ');
+                String s = String.valueOf(cells[c]);
+                buf.append(s);
+                if (c < widths.length) pad(widths[c] - s.length());
+            }
+            buf.append(NEWLINE);
+            return this;
+        }
+
+        /**
+         * @param text printed as is, followed by a line break
+         * @return Table
+         */
+        public Table line(String text) {
+            buf.append(text).append(NEWLINE);
+            return this;
+        }
+
+        /**
+         * writes everything rendered so far and empties the buffer for the next page.
+         */
+        public void print() {
+            System.out.print(buf);
+            System.out.flush();
+            buf.setLength(0);
+        }
+
+        /**
+         * @param n
+         */
+        private void pad(int n) {
+            while (n > 0) {
+                int k = Math.min(n, SPACES.length);
+                buf.append(SPACES, 0, k);
+                n -= k;
+            }
+        }
+    }
+}